@@ -34,12 +34,13 @@ class MusicService {
 
   /// CRITICAL FIX: Increment play count for a song
   /// This tracks when users play a song and updates artist metrics
-  Future<ApiResponse<Song>> incrementPlays(int id) async {
+  /// The backend accepts the play (202) and persists it asynchronously, so no song is returned
+  Future<ApiResponse<void>> incrementPlays(int id) async {
     try {
       final response = await _apiClient
           .post('${AppConstants.songsUrl}/$id/play', requiresAuth: false);
-      if (response.success && response.data != null) {
-        return ApiResponse(success: true, data: Song.fromJson(response.data));
+      if (response.success) {
+        return ApiResponse(success: true);
       }
       return ApiResponse(success: false, error: response.error);
     } catch (e) {
@@ -149,6 +149,31 @@ class PaymentService {
     return ApiResponse(success: false, error: response.error);
   }
 
+  /// Wait (long-poll) until the payment leaves PROCESSING.
+  /// Returns the payment as soon as it is resolved, or its current state when the server-side wait expires.
+  Future<ApiResponse<Payment>> awaitPaymentResolution(
+      String transactionId) async {
+    final response = await _apiClient.get(
+      '${AppConstants.paymentsUrl}/transaction/$transactionId/await',
+      requiresAuth: false,
+    );
+
+    if (response.success && response.data != null) {
+      try {
+        return ApiResponse(
+          success: true,
+          data: Payment.fromJson(response.data as Map<String, dynamic>),
+        );
+      } catch (e) {
+        return ApiResponse(
+          success: false,
+          error: 'Error al parsear pago: $e',
+        );
+      }
+    }
+    return ApiResponse(success: false, error: response.error);
+  }
+
   /// Get payment by ID
   Future<ApiResponse<Payment>> getPaymentById(int paymentId) async {
     final response = await _apiClient.get(
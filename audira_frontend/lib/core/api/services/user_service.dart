@@ -163,6 +163,26 @@ class UserService {
     return ApiResponse(success: false, error: response.error);
   }
 
+  /// Check whether a user follows another one
+  Future<ApiResponse<bool>> isFollowing(int userId, int targetUserId) async {
+    final response = await _apiClient.get(
+      '${AppConstants.userByIdUrl}/$userId/follow/$targetUserId',
+      requiresAuth: false,
+    );
+
+    if (response.success && response.data != null) {
+      try {
+        final data = response.data as Map<String, dynamic>;
+        return ApiResponse(
+            success: true, data: data['following'] as bool? ?? false);
+      } catch (e) {
+        return ApiResponse(
+            success: false, error: 'Error al comprobar seguimiento: $e');
+      }
+    }
+    return ApiResponse(success: false, error: response.error);
+  }
+
   /// Follow a user
   Future<ApiResponse<User>> followUser(int userId, int targetUserId) async {
     final response = await _apiClient.post(
@@ -16,8 +16,8 @@ class Artist extends User {
     required super.role,
     super.isActive,
     super.isVerified,
-    super.followerIds,
-    super.followingIds,
+    super.followerCount,
+    super.followingCount,
     super.createdAt,
     super.updatedAt,
     super.artistName,
@@ -54,14 +54,8 @@ class Artist extends User {
       role: json['role'] as String,
       isActive: json['isActive'] as bool? ?? true,
       isVerified: json['isVerified'] as bool? ?? false,
-      followerIds: (json['followerIds'] as List<dynamic>?)
-              ?.map((e) => e as int)
-              .toList() ??
-          [],
-      followingIds: (json['followingIds'] as List<dynamic>?)
-              ?.map((e) => e as int)
-              .toList() ??
-          [],
+      followerCount: (json['followerCount'] as num?)?.toInt() ?? 0,
+      followingCount: (json['followingCount'] as num?)?.toInt() ?? 0,
       createdAt: json['createdAt'] != null
           ? DateTime.parse(json['createdAt'] as String)
           : null,
@@ -107,8 +101,8 @@ class Artist extends User {
     String? role,
     bool? isActive,
     bool? isVerified,
-    List<int>? followerIds,
-    List<int>? followingIds,
+    int? followerCount,
+    int? followingCount,
     DateTime? createdAt,
     DateTime? updatedAt,
     String? artistName,
@@ -137,8 +131,8 @@ class Artist extends User {
       role: role ?? this.role,
       isActive: isActive ?? this.isActive,
       isVerified: isVerified ?? this.isVerified,
-      followerIds: followerIds ?? this.followerIds,
-      followingIds: followingIds ?? this.followingIds,
+      followerCount: followerCount ?? this.followerCount,
+      followingCount: followingCount ?? this.followingCount,
       createdAt: createdAt ?? this.createdAt,
       updatedAt: updatedAt ?? this.updatedAt,
       artistName: artistName ?? this.artistName,
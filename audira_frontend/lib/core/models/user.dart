@@ -15,8 +15,8 @@ class User extends Equatable {
   final String role;
   final bool isActive;
   final bool isVerified;
-  final List<int> followerIds;
-  final List<int> followingIds;
+  final int followerCount;
+  final int followingCount;
   final DateTime? createdAt;
   final DateTime? updatedAt;
 
@@ -49,8 +49,8 @@ class User extends Equatable {
     required this.role,
     this.isActive = true,
     this.isVerified = false,
-    this.followerIds = const [],
-    this.followingIds = const [],
+    this.followerCount = 0,
+    this.followingCount = 0,
     this.createdAt,
     this.updatedAt,
     this.artistName,
@@ -88,14 +88,8 @@ class User extends Equatable {
       role: json['role'] as String,
       isActive: json['isActive'] as bool? ?? true,
       isVerified: json['isVerified'] as bool? ?? false,
-      followerIds: (json['followerIds'] as List<dynamic>?)
-              ?.map((e) => e as int)
-              .toList() ??
-          [],
-      followingIds: (json['followingIds'] as List<dynamic>?)
-              ?.map((e) => e as int)
-              .toList() ??
-          [],
+      followerCount: (json['followerCount'] as num?)?.toInt() ?? 0,
+      followingCount: (json['followingCount'] as num?)?.toInt() ?? 0,
       createdAt: json['createdAt'] != null
           ? DateTime.parse(json['createdAt'] as String)
           : null,
@@ -131,8 +125,8 @@ class User extends Equatable {
       'role': role,
       'isActive': isActive,
       'isVerified': isVerified,
-      'followerIds': followerIds,
-      'followingIds': followingIds,
+      'followerCount': followerCount,
+      'followingCount': followingCount,
       'createdAt': createdAt?.toIso8601String(),
       'updatedAt': updatedAt?.toIso8601String(),
       'artistName': artistName,
@@ -163,8 +157,8 @@ class User extends Equatable {
     String? role,
     bool? isActive,
     bool? isVerified,
-    List<int>? followerIds,
-    List<int>? followingIds,
+    int? followerCount,
+    int? followingCount,
     DateTime? createdAt,
     DateTime? updatedAt,
     String? artistName,
@@ -193,8 +187,8 @@ class User extends Equatable {
       role: role ?? this.role,
       isActive: isActive ?? this.isActive,
       isVerified: isVerified ?? this.isVerified,
-      followerIds: followerIds ?? this.followerIds,
-      followingIds: followingIds ?? this.followingIds,
+      followerCount: followerCount ?? this.followerCount,
+      followingCount: followingCount ?? this.followingCount,
       createdAt: createdAt ?? this.createdAt,
       updatedAt: updatedAt ?? this.updatedAt,
       artistName: artistName ?? this.artistName,
@@ -226,8 +220,8 @@ class User extends Equatable {
         role,
         isActive,
         isVerified,
-        followerIds,
-        followingIds,
+        followerCount,
+        followingCount,
         createdAt,
         updatedAt,
         artistName,
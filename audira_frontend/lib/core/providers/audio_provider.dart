@@ -267,10 +267,9 @@ class AudioProvider with ChangeNotifier {
           debugPrint(
               '   📊 Attempting to increment play count for song ID: ${song.id}');
           _musicService.incrementPlays(song.id).then((response) {
-            if (response.success && response.data != null) {
+            if (response.success) {
               debugPrint('   ✅ Play count incremented successfully!');
               debugPrint('      Song: ${song.name}');
-              debugPrint('      New play count: ${response.data!.plays}');
             } else {
               debugPrint(
                   '   ❌ Failed to increment play count: ${response.error}');
@@ -651,8 +651,8 @@ class _CheckoutScreenState extends State<CheckoutScreen> {
   Future<void> _waitForPaymentCompletion(Payment initialPayment) async {
     Payment currentPayment = initialPayment;
     int attempts = 0;
-    const maxAttempts = 10;
-    const pollInterval = Duration(seconds: 1);
+    // Each request is held by the server until the payment resolves (long-poll)
+    const maxAttempts = 3;
 
     if (currentPayment.status == PaymentStatus.completed) {
       setState(() => _isProcessing = false);
@@ -661,10 +661,10 @@ class _CheckoutScreenState extends State<CheckoutScreen> {
     }
 
     while (attempts < maxAttempts) {
-      await Future.delayed(pollInterval);
       attempts++;
 
-      final response = await _paymentService.getPaymentById(currentPayment.id);
+      final response = await _paymentService
+          .awaitPaymentResolution(currentPayment.transactionId);
       if (response.success && response.data != null) {
         currentPayment = response.data!;
         if (currentPayment.status == PaymentStatus.completed) {
@@ -681,6 +681,8 @@ class _CheckoutScreenState extends State<CheckoutScreen> {
           );
           return;
         }
+      } else {
+        await Future.delayed(const Duration(seconds: 1));
       }
     }
 
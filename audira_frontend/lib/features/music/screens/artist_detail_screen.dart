@@ -32,6 +32,7 @@ class _ArtistDetailScreenState extends State<ArtistDetailScreen>
   List<Album> _albums = [];
 
   bool _isLoading = true;
+  bool _isFollowing = false;
   String? _error;
 
   late TabController _tabController;
@@ -73,6 +74,14 @@ class _ArtistDetailScreenState extends State<ArtistDetailScreen>
         if (albumsResponse.success && albumsResponse.data != null) {
           _albums = albumsResponse.data!;
         }
+
+        if (!mounted) return;
+        final currentUser = context.read<AuthProvider>().currentUser;
+        if (currentUser != null) {
+          final followingResponse =
+              await _userService.isFollowing(currentUser.id, widget.artistId);
+          _isFollowing = followingResponse.data ?? false;
+        }
       } else {
         _error = artistResponse.error ?? 'Failed to load artist';
       }
@@ -96,8 +105,7 @@ class _ArtistDetailScreenState extends State<ArtistDetailScreen>
 
     final userId = authProvider.currentUser!.id;
     final targetId = widget.artistId;
-    final isCurrentlyFollowing =
-        authProvider.currentUser!.followingIds.contains(targetId);
+    final isCurrentlyFollowing = _isFollowing;
 
     try {
       final response = isCurrentlyFollowing
@@ -107,6 +115,13 @@ class _ArtistDetailScreenState extends State<ArtistDetailScreen>
       if (response.success && response.data != null) {
         authProvider.updateUser(response.data!);
         if (!currentContext.mounted) return;
+        setState(() {
+          _isFollowing = !isCurrentlyFollowing;
+          _artist = _artist?.copyWith(
+            followerCount:
+                _artist!.followerCount + (isCurrentlyFollowing ? -1 : 1),
+          );
+        });
 
         // Feedback visual sutil
         ScaffoldMessenger.of(currentContext).showSnackBar(
@@ -134,9 +149,7 @@ class _ArtistDetailScreenState extends State<ArtistDetailScreen>
   @override
   Widget build(BuildContext context) {
     final authProvider = context.watch<AuthProvider>();
-    final isFollowing =
-        authProvider.currentUser?.followingIds.contains(widget.artistId) ??
-            false;
+    final isFollowing = authProvider.isAuthenticated && _isFollowing;
 
     if (_isLoading) {
       return const Scaffold(
@@ -338,7 +351,7 @@ class _ArtistDetailScreenState extends State<ArtistDetailScreen>
           Row(
             mainAxisAlignment: MainAxisAlignment.center,
             children: [
-              _buildStatItem('${_artist!.followerIds.length}', 'Seguidores'),
+              _buildStatItem('${_artist!.followerCount}', 'Seguidores'),
               Container(
                   height: 30,
                   width: 1,
@@ -294,7 +294,7 @@ class _FollowedArtistsScreenState extends State<FollowedArtistsScreen> {
                           Icon(Icons.people, size: 12, color: subText),
                           const SizedBox(width: 4),
                           Text(
-                            '${artist.followerIds.length} followers',
+                            '${artist.followerCount} followers',
                             style: TextStyle(color: subText, fontSize: 11),
                           ),
                         ],
@@ -256,9 +256,9 @@ class ProfileScreen extends StatelessWidget {
             children: [
               _buildStatItem(user.role.toUpperCase(), 'ROL'),
               Container(width: 1, height: 24, color: Colors.white24),
-              _buildStatItem('${user.followerIds.length}', 'SEGUIDORES'),
+              _buildStatItem('${user.followerCount}', 'SEGUIDORES'),
               Container(width: 1, height: 24, color: Colors.white24),
-              _buildStatItem('${user.followingIds.length}', 'SIGUIENDO')
+              _buildStatItem('${user.followingCount}', 'SIGUIENDO')
             ],
           ),
         ),
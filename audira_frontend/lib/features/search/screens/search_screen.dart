@@ -837,7 +837,7 @@ class _SearchScreenState extends State<SearchScreen>
           title: Text(artist.artistName ?? artist.username,
               style: const TextStyle(
                   color: Colors.white, fontWeight: FontWeight.bold)),
-          subtitle: Text("${artist.followerIds.length} seguidores",
+          subtitle: Text("${artist.followerCount} seguidores",
               style: const TextStyle(color: Colors.grey)),
           trailing: const Icon(Icons.arrow_forward_ios_rounded,
               color: Colors.grey, size: 16),
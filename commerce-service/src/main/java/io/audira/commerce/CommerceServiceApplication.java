@@ -3,6 +3,7 @@ package io.audira.commerce;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Clase principal de la aplicación que arranca el microservicio de Comercio (Commerce Service).
@@ -12,6 +13,7 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
  * <li>{@link SpringBootApplication}: Habilita la autoconfiguración de Spring Boot y el escaneo de componentes.</li>
  * <li>{@link EnableDiscoveryClient}: Permite que este servicio se registre y sea descubierto por otros microservicios
  * a través de un servidor de descubrimiento (ej. Eureka, Consul).</li>
+ * <li>{@link EnableScheduling}: Habilita las tareas periódicas (ej. el envío de las notificaciones pendientes).</li>
  * </ul>
  * </p>
  *
@@ -20,6 +22,7 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
  */
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class CommerceServiceApplication {
 
     /**
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
@@ -12,8 +13,11 @@ import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Cliente REST para comunicarse con el servicio de catálogo de música (Music Catalog Service).
@@ -32,6 +36,11 @@ import java.util.Map;
 @Slf4j
 public class MusicCatalogClient {
 
+    /**
+     * Número máximo de productos por llamada a {@code POST /products/batch} (límite del servicio de catálogo).
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
     /**
      * Cliente de Spring utilizado para realizar las llamadas HTTP síncronas.
      * Se inyecta automáticamente gracias a la anotación {@link RequiredArgsConstructor} de Lombok.
@@ -104,6 +113,42 @@ public class MusicCatalogClient {
         }
     }
 
+    /**
+     * Obtiene los IDs de las canciones de varios álbumes en una sola llamada.
+     * <p>
+     * Llama al endpoint {@code POST /songs/album/batch} del servicio de catálogo, en bloques de {@link #MAX_BATCH_SIZE}
+     * álbumes.
+     * </p>
+     *
+     * @param albumIds IDs de los álbumes.
+     * @return Mapa {@code albumId -> IDs de sus canciones}. Los álbumes de un bloque que falla no aparecen en el mapa.
+     */
+    public Map<Long, List<Long>> getSongIdsByAlbums(Collection<Long> albumIds) {
+        String url = catalogServiceUrl + "/songs/album/batch";
+        List<Long> ids = new ArrayList<>(albumIds);
+        Map<Long, List<Long>> songIds = new HashMap<>();
+
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+            try {
+                log.debug("Fetching songs for {} albums from URL: {}", chunk.size(), url);
+                ResponseEntity<Map<String, List<Number>>> response = restTemplate.exchange(
+                        url,
+                        HttpMethod.POST,
+                        new HttpEntity<>(chunk),
+                        new ParameterizedTypeReference<Map<String, List<Number>>>() {}
+                );
+                if (response.getBody() != null) {
+                    response.getBody().forEach((albumId, songs) -> songIds.put(Long.valueOf(albumId),
+                            songs.stream().map(Number::longValue).collect(Collectors.toList())));
+                }
+            } catch (Exception e) {
+                log.error("Error fetching songs for {} albums from catalog service: {}", chunk.size(), e.getMessage());
+            }
+        }
+        return songIds;
+    }
+
     /**
      * Obtiene la información detallada de una canción por su identificador.
      * <p>
@@ -190,4 +235,50 @@ public class MusicCatalogClient {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Obtiene la información transaccional de varias canciones y álbumes en una sola llamada.
+     * <p>
+     * Llama al endpoint de uso interno del catálogo {@code POST /products/batch}, en bloques de
+     * {@link #MAX_BATCH_SIZE} productos. Cada elemento contiene "id", "productType" ("SONG"/"ALBUM"), "artistId",
+     * "price", "published" y "title"; los productos que no existen no aparecen.
+     * </p>
+     *
+     * @param songIds IDs de las canciones.
+     * @param albumIds IDs de los álbumes.
+     * @return Una {@link List} con los productos encontrados. Si un bloque falla, sus productos se omiten.
+     */
+    public List<Map<String, Object>> getProductSummaries(Collection<Long> songIds, Collection<Long> albumIds) {
+        String url = catalogServiceUrl + "/products/batch";
+        List<Long> songs = new ArrayList<>(songIds);
+        List<Long> albums = new ArrayList<>(albumIds);
+        List<Map<String, Object>> products = new ArrayList<>();
+
+        int songFrom = 0;
+        int albumFrom = 0;
+        while (songFrom < songs.size() || albumFrom < albums.size()) {
+            int songTo = Math.min(songs.size(), songFrom + MAX_BATCH_SIZE);
+            int albumTo = Math.min(albums.size(), albumFrom + MAX_BATCH_SIZE - (songTo - songFrom));
+            Map<String, Object> body = Map.of(
+                    "songIds", songs.subList(songFrom, songTo),
+                    "albumIds", albums.subList(albumFrom, albumTo));
+            try {
+                log.debug("Fetching {} products from URL: {}", (songTo - songFrom) + (albumTo - albumFrom), url);
+                ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
+                        url,
+                        HttpMethod.POST,
+                        new HttpEntity<>(body),
+                        new ParameterizedTypeReference<List<Map<String, Object>>>() {}
+                );
+                if (response.getBody() != null) {
+                    products.addAll(response.getBody());
+                }
+            } catch (Exception e) {
+                log.error("Error fetching product batch from catalog service: {}", e.getMessage());
+            }
+            songFrom = songTo;
+            albumFrom = albumTo;
+        }
+        return products;
+    }
+}
@@ -0,0 +1,98 @@
+package io.audira.commerce.client;
+
+import io.audira.commerce.model.PaymentMethod;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Adaptador de la pasarela de pago externa.
+ * <p>
+ * El cobro es asíncrono: {@link #charge} devuelve de inmediato un {@link CompletableFuture} que se completa cuando la
+ * pasarela responde, sin bloquear el hilo que lo invoca. Cada pasarela real se implementa como un bean propio; la
+ * seleccionada se elige con la propiedad {@code audira.payments.gateway} ({@link StubPaymentGatewayClient} por defecto).
+ * </p>
+ * <p>
+ * Cada cobro lleva una clave de idempotencia: la pasarela no cobra dos veces la misma clave y permite consultar después
+ * su resultado ({@link #status}), con el que se concilian los cobros cuya respuesta no llegó a tiempo.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see io.audira.commerce.service.PaymentStateMachine
+ *
+ */
+public interface PaymentGatewayClient {
+
+    /**
+     * Solicita el cobro de un pago.
+     *
+     * @param request Datos del cobro.
+     * @return Futuro con el resultado de la pasarela; se completa excepcionalmente si no se pudo contactar con ella.
+     */
+    CompletableFuture<ChargeResult> charge(ChargeRequest request);
+
+    /**
+     * Consulta el estado de un cobro ya solicitado.
+     *
+     * @param idempotencyKey Clave de idempotencia con la que se solicitó el cobro.
+     * @return Futuro con el estado del cobro en la pasarela; se completa excepcionalmente si no se pudo consultar.
+     */
+    CompletableFuture<ChargeStatus> status(String idempotencyKey);
+
+    /**
+     * Datos enviados a la pasarela para un cobro.
+     *
+     * @param idempotencyKey Clave de idempotencia del intento de cobro: repetir la solicitud con la misma clave no vuelve
+     *                       a cobrar.
+     * @param transactionId ID de transacción del pago.
+     * @param orderId ID de la orden pagada.
+     * @param userId ID del usuario que paga.
+     * @param paymentMethod Método de pago.
+     * @param amount Importe a cobrar.
+     * @param paymentDetails Datos del medio de pago (ej. tarjeta); puede ser {@code null}.
+     */
+    record ChargeRequest(String idempotencyKey, String transactionId, Long orderId, Long userId, PaymentMethod paymentMethod,
+                         BigDecimal amount, Map<String, String> paymentDetails) {
+    }
+
+    /**
+     * Respuesta de la pasarela a un cobro.
+     *
+     * @param approved {@code true} si el cobro fue aceptado.
+     * @param errorMessage Motivo del rechazo (nulo si fue aceptado).
+     */
+    record ChargeResult(boolean approved, String errorMessage) {
+
+        public static ChargeResult success() {
+            return new ChargeResult(true, null);
+        }
+
+        public static ChargeResult decline(String errorMessage) {
+            return new ChargeResult(false, errorMessage);
+        }
+    }
+
+    /**
+     * Estado de un cobro en la pasarela.
+     *
+     * @param state Estado del cobro.
+     * @param errorMessage Motivo del rechazo (solo en {@link ChargeState#DECLINED}).
+     */
+    record ChargeStatus(ChargeState state, String errorMessage) {
+    }
+
+    /**
+     * Estados de un cobro consultado por su clave de idempotencia.
+     */
+    enum ChargeState {
+        /** Cobrado. */
+        APPROVED,
+        /** Rechazado: no se cobró. */
+        DECLINED,
+        /** La pasarela lo está procesando todavía. */
+        PENDING,
+        /** La pasarela no tiene ningún cobro con esa clave: no lo recibió o ya no lo conserva. */
+        NOT_FOUND
+    }
+}
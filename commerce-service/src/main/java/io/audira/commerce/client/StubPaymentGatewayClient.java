@@ -0,0 +1,94 @@
+package io.audira.commerce.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pasarela de pago simulada para desarrollo y pruebas (activa si {@code audira.payments.gateway} es {@code stub} o no
+ * está definida).
+ * <p>
+ * Responde tras un retraso aleatorio entre {@code audira.payments.stub.min-delay-ms} y
+ * {@code audira.payments.stub.max-delay-ms} sin ocupar ningún hilo durante la espera. Rechaza siempre la tarjeta de
+ * prueba que empieza por "4000" y, del resto, un {@code audira.payments.stub.failure-rate} por ciento al azar.
+ * </p>
+ * <p>
+ * Recuerda los cobros por clave de idempotencia, solo en memoria: una solicitud repetida devuelve el mismo resultado y
+ * {@link #status} lo consulta. Cada cobro resuelto se olvida pasados {@code audira.payments.stub.retention-ms}, que
+ * debe cubrir la ventana de conciliación de los pagos; tras olvidarlo, o tras un reinicio, {@link #status} responde
+ * {@code NOT_FOUND} y el pago se vuelve a enviar.
+ * </p>
+ *
+ * @author Grupo GA01
+ *
+ */
+@Component
+@ConditionalOnProperty(name = "audira.payments.gateway", havingValue = "stub", matchIfMissing = true)
+@Slf4j
+public class StubPaymentGatewayClient implements PaymentGatewayClient {
+
+    private final long minDelayMs;
+    private final long maxDelayMs;
+    private final int failureRate;
+    private final Executor evictionExecutor;
+
+    private final Map<String, CompletableFuture<ChargeResult>> charges = new ConcurrentHashMap<>();
+
+    public StubPaymentGatewayClient(@Value("${audira.payments.stub.min-delay-ms:1000}") long minDelayMs,
+                                    @Value("${audira.payments.stub.max-delay-ms:3000}") long maxDelayMs,
+                                    @Value("${audira.payments.stub.failure-rate:10}") int failureRate,
+                                    @Value("${audira.payments.stub.retention-ms:1800000}") long retentionMs) {
+        this.minDelayMs = minDelayMs;
+        this.maxDelayMs = Math.max(minDelayMs, maxDelayMs);
+        this.failureRate = failureRate;
+        this.evictionExecutor = CompletableFuture.delayedExecutor(retentionMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public CompletableFuture<ChargeResult> charge(ChargeRequest request) {
+        return charges.computeIfAbsent(request.idempotencyKey(), key -> {
+            long delay = ThreadLocalRandom.current().nextLong(minDelayMs, maxDelayMs + 1);
+            log.debug("Stub gateway charging {} for order {} in {} ms", request.amount(), request.orderId(), delay);
+            CompletableFuture<ChargeResult> charge = CompletableFuture.supplyAsync(() -> decide(request),
+                    CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS));
+            charge.whenComplete((result, error) -> evictionExecutor.execute(() -> charges.remove(key, charge)));
+            return charge;
+        });
+    }
+
+    @Override
+    public CompletableFuture<ChargeStatus> status(String idempotencyKey) {
+        CompletableFuture<ChargeResult> charge = charges.get(idempotencyKey);
+        if (charge == null) {
+            return CompletableFuture.completedFuture(new ChargeStatus(ChargeState.NOT_FOUND, null));
+        }
+        if (!charge.isDone()) {
+            return CompletableFuture.completedFuture(new ChargeStatus(ChargeState.PENDING, null));
+        }
+        ChargeResult result = charge.join();
+        return CompletableFuture.completedFuture(result.approved()
+                ? new ChargeStatus(ChargeState.APPROVED, null)
+                : new ChargeStatus(ChargeState.DECLINED, result.errorMessage()));
+    }
+
+    private ChargeResult decide(ChargeRequest request) {
+        if (request.paymentDetails() != null) {
+            String cardNumber = request.paymentDetails().get("cardNumber");
+            if (cardNumber != null && cardNumber.startsWith("4000")) {
+                // Test card that always fails
+                return ChargeResult.decline("Payment declined by gateway");
+            }
+        }
+        return ThreadLocalRandom.current().nextInt(100) < failureRate
+                ? ChargeResult.decline("Payment declined by gateway")
+                : ChargeResult.success();
+    }
+}
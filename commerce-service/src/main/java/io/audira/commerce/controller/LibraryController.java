@@ -1,15 +1,22 @@
 package io.audira.commerce.controller;
 
+import io.audira.commerce.dto.PurchaseFeedPageDTO;
 import io.audira.commerce.dto.PurchasedItemDTO;
 import io.audira.commerce.dto.UserLibraryDTO;
 import io.audira.commerce.model.ItemType;
+import io.audira.commerce.service.EntitlementService;
 import io.audira.commerce.service.LibraryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Controlador REST para manejar todas las operaciones relacionadas con la Biblioteca de Compras del Usuario.
@@ -35,6 +42,11 @@ public class LibraryController {
      */
     private final LibraryService libraryService;
 
+    /**
+     * Caché de artículos en propiedad para las consultas en lote.
+     */
+    private final EntitlementService entitlementService;
+
     /**
      * Obtiene la biblioteca completa de un usuario, organizada por tipo de artículo.
      * <p>
@@ -111,6 +123,60 @@ public class LibraryController {
         return ResponseEntity.ok(purchased);
     }
 
+    /**
+     * Indica cuáles de los artículos indicados posee un usuario (consulta en lote).
+     * <p>
+     * Mapeo: {@code GET /api/library/user/{userId}/owned/{itemType}?ids=1,2,3}
+     * Se responde desde la caché de artículos en propiedad ({@link EntitlementService}), sin consultar la base de datos
+     * en el caso habitual. La respuesta lleva {@code Cache-Control: private, max-age} para que el cliente la reutilice
+     * durante unos segundos.
+     * </p>
+     *
+     * @param userId El ID del usuario (tipo {@link Long}).
+     * @param itemType El tipo de artículo ({@link ItemType}).
+     * @param ids IDs de los artículos a comprobar (como máximo {@link EntitlementService#MAX_BATCH_SIZE}).
+     * @return {@link ResponseEntity} con la {@link List} de IDs que posee el usuario (200 OK) o un mapa de error (400) si
+     * el lote es demasiado grande.
+     */
+    @GetMapping("/user/{userId}/owned/{itemType}")
+    public ResponseEntity<?> getOwnedItems(
+            @PathVariable Long userId,
+            @PathVariable ItemType itemType,
+            @RequestParam List<Long> ids) {
+        try {
+            List<Long> owned = entitlementService.findOwned(userId, itemType, ids);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(entitlementService.getClientMaxAgeSeconds(), TimeUnit.SECONDS)
+                            .cachePrivate())
+                    .body(owned);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Obtiene una página del feed global de compras (todos los usuarios), ordenada por fecha de compra e ID.
+     * <p>
+     * Mapeo: {@code GET /api/library/purchases/feed?since={fecha}&afterId={id}&limit={n}}
+     * Destinado a uso interno por otros microservicios (ej. {@code music-catalog-service}). El cliente debe repetir
+     * la consulta con el cursor devuelto mientras {@code hasMore} sea cierto.
+     * </p>
+     *
+     * @param since Instante del cursor (ISO-8601, opcional).
+     * @param afterId ID del último registro ya consumido con ese instante (por defecto 0).
+     * @param limit Tamaño máximo del lote.
+     * @return {@link ResponseEntity} con el {@link PurchaseFeedPageDTO} y estado HTTP 200 (OK).
+     */
+    @GetMapping("/purchases/feed")
+    public ResponseEntity<PurchaseFeedPageDTO> getPurchaseFeed(
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(value = "afterId", defaultValue = "0") Long afterId,
+            @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        log.debug("Request to get purchase feed after ({}, {})", since, afterId);
+
+        return ResponseEntity.ok(libraryService.getPurchaseFeed(since, afterId, limit));
+    }
+
     /**
      * Elimina todos los artículos de la biblioteca de un usuario. Usado típicamente para pruebas o administración.
      * <p>
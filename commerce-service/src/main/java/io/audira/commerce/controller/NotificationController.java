@@ -0,0 +1,82 @@
+package io.audira.commerce.controller;
+
+import io.audira.commerce.dto.BatchNotificationRequest;
+import io.audira.commerce.service.FirebaseMessagingService;
+import io.audira.commerce.service.NotificationBatchService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Controlador REST para el envío de notificaciones push solicitado por otros microservicios.
+ * <p>
+ * Los endpoints base se mapean a {@code /api/notifications}. La gestión de los tokens de dispositivo
+ * está en {@link FcmTokenController}.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see FirebaseMessagingService
+ *
+ */
+@RestController
+@RequestMapping("/api/notifications")
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationController {
+
+    /**
+     * Máximo de usuarios admitidos en una misma solicitud de envío masivo.
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * Servicio de envío de notificaciones push (Firebase Cloud Messaging).
+     */
+    private final FirebaseMessagingService firebaseMessagingService;
+
+    /**
+     * Servicio de envío masivo con deduplicación por clave de lote.
+     */
+    private final NotificationBatchService notificationBatchService;
+
+    /**
+     * Envía la misma notificación a un lote de usuarios.
+     * <p>
+     * Mapeo: {@code POST /api/notifications/batch}
+     * Los tokens de todos los usuarios se cargan con una sola consulta y se envían por multicast.
+     * Si Firebase no está inicializado se responde 503 (sin enviar nada) para que el llamante pueda reintentar más tarde.
+     * Si la solicitud trae {@code batchKey} y ese lote ya se aceptó, no se vuelve a enviar y la respuesta lleva
+     * {@code duplicate = true}.
+     * </p>
+     *
+     * @param request La solicitud {@link BatchNotificationRequest} con los destinatarios y el contenido.
+     * @return {@link ResponseEntity} con el número de usuarios ({@code recipients}), de mensajes entregados
+     * ({@code delivered}) y si el lote era un duplicado ({@code duplicate}), o un mapa de error (400 si el lote supera {@link #MAX_BATCH_SIZE}, 503 si Firebase no está disponible).
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> sendBatch(@Valid @RequestBody BatchNotificationRequest request) {
+        if (request.getUserIds().size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Batch size exceeds maximum of " + MAX_BATCH_SIZE
+            ));
+        }
+        if (!firebaseMessagingService.isInitialized()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                "error", "Push notifications are not available"
+            ));
+        }
+
+        NotificationBatchService.BatchResult result = notificationBatchService.send(request);
+
+        return ResponseEntity.ok(Map.of(
+            "recipients", result.recipients(),
+            "delivered", result.delivered(),
+            "duplicate", result.duplicate()
+        ));
+    }
+}
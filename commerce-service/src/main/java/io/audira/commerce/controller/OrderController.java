@@ -2,14 +2,25 @@ package io.audira.commerce.controller;
 
 import io.audira.commerce.dto.CreateOrderRequest;
 import io.audira.commerce.dto.OrderDTO;
+import io.audira.commerce.dto.SalesEventsPageDTO;
+import io.audira.commerce.model.ItemType;
+import io.audira.commerce.model.OrderStatus;
+import io.audira.commerce.service.OrderExportService;
 import io.audira.commerce.service.OrderService;
+import io.audira.commerce.service.SalesReportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador REST para manejar todas las operaciones relacionadas con la creación y consulta de Órdenes de Compra (Orders).
@@ -34,6 +45,12 @@ public class OrderController {
      */
     private final OrderService orderService;
 
+    /** Servicio de exportación en streaming de órdenes. */
+    private final OrderExportService orderExportService;
+
+    /** Servicio de agregación de ventas por artista. */
+    private final SalesReportService salesReportService;
+
     /**
      * Crea una nueva orden de compra a partir de una solicitud.
      * <p>
@@ -65,6 +82,105 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders());
     }
 
+    /**
+     * Exporta en streaming las órdenes que cumplen los filtros, en formato NDJSON (una orden JSON por línea).
+     * <p>
+     * Mapeo: {@code GET /api/orders/export}
+     * Alternativa a {@code GET /api/orders} para la comunicación entre servicios: los filtros se aplican en la
+     * base de datos y la respuesta se escribe a medida que se lee, sin construir la lista completa en memoria.
+     * Con {@code artistId} o {@code itemType} cada orden incluye solo las líneas que cumplen el filtro.
+     * </p>
+     *
+     * @param status Estados a incluir (opcional, repetible).
+     * @param from Fecha de creación mínima, incluida (ISO-8601, opcional).
+     * @param to Fecha de creación máxima, excluida (ISO-8601, opcional).
+     * @param artistId Artista de las líneas a incluir (opcional).
+     * @param itemType Tipo de producto de las líneas a incluir (opcional).
+     * @return {@link ResponseEntity} con el cuerpo NDJSON ({@code application/x-ndjson}) y estado HTTP 200 (OK).
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) List<OrderStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long artistId,
+            @RequestParam(required = false) ItemType itemType) {
+        StreamingResponseBody body = out -> orderExportService.exportOrders(status, from, to, artistId, itemType, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * Obtiene una página del feed de eventos de ventas (entregas y reembolsos de órdenes entregadas).
+     * <p>
+     * Mapeo: {@code GET /api/orders/sales/events}
+     * Endpoint interno consumido por Music Catalog Service para mantener sus agregados de ventas de forma
+     * incremental. El cliente debe repetir la consulta con el cursor devuelto mientras {@code hasMore} sea cierto.
+     * </p>
+     *
+     * @param since Instante del cursor (ISO-8601, opcional).
+     * @param afterId ID del último evento procesado con ese instante (por defecto 0).
+     * @param limit Tamaño de página (por defecto 1000, máximo {@link io.audira.commerce.service.OrderService#MAX_SALES_EVENTS_PAGE_SIZE}).
+     * @return {@link ResponseEntity} con el {@link SalesEventsPageDTO} y estado HTTP 200 (OK).
+     */
+    @GetMapping("/sales/events")
+    public ResponseEntity<SalesEventsPageDTO> getSalesEvents(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(orderService.getSalesEvents(since, afterId, limit));
+    }
+
+    /**
+     * Obtiene el informe de ventas de un artista: totales, ventas por producto y ventas por día.
+     * <p>
+     * Mapeo: {@code GET /api/orders/sales/artists/{artistId}}
+     * Solo cuenta órdenes entregadas ({@code DELIVERED}). Las sumas se calculan en la base de datos, de modo que
+     * el panel del artista se resuelve con una única petición pequeña.
+     * </p>
+     *
+     * @param artistId ID del artista.
+     * @param from Primer día del rango, incluido (ISO-8601, opcional; por defecto desde el principio).
+     * @param to Último día del rango, incluido (ISO-8601, opcional; por defecto hoy).
+     * @return {@link ResponseEntity} con el informe, o 400 BAD REQUEST si el rango no es válido.
+     */
+    @GetMapping("/sales/artists/{artistId}")
+    public ResponseEntity<?> getArtistSalesReport(
+            @PathVariable Long artistId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(salesReportService.getArtistSalesReport(artistId, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Obtiene las ventas totales (unidades e ingresos) de varios artistas.
+     * <p>
+     * Mapeo: {@code GET /api/orders/sales/artists?artistIds=1,2,3}
+     * Solo cuenta órdenes entregadas ({@code DELIVERED}).
+     * </p>
+     *
+     * @param artistIds IDs de los artistas (como máximo {@link SalesReportService#MAX_ARTIST_BATCH_SIZE}).
+     * @param from Primer día del rango, incluido (ISO-8601, opcional).
+     * @param to Último día del rango, incluido (ISO-8601, opcional).
+     * @return {@link ResponseEntity} con una entrada por artista, o 400 BAD REQUEST si se exceden los límites.
+     */
+    @GetMapping("/sales/artists")
+    public ResponseEntity<?> getArtistSalesTotals(
+            @RequestParam List<Long> artistIds,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            return ResponseEntity.ok(salesReportService.getArtistSalesTotals(artistIds, from, to));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Obtiene una lista de todas las órdenes realizadas por un usuario específico.
      * <p>
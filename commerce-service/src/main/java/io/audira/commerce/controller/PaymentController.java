@@ -4,11 +4,15 @@ import io.audira.commerce.dto.PaymentDTO;
 import io.audira.commerce.dto.PaymentResponse;
 import io.audira.commerce.dto.ProcessPaymentRequest;
 import io.audira.commerce.service.PaymentService;
+import io.audira.commerce.service.PaymentStatusNotifier;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -35,21 +39,28 @@ public class PaymentController {
      */
     private final PaymentService paymentService;
 
+    /**
+     * Registro de suscripciones al resultado de los pagos (SSE y long-poll).
+     */
+    private final PaymentStatusNotifier paymentStatusNotifier;
+
     /**
      * Inicia el proceso de pago para una orden de compra.
      * <p>
      * Mapeo: {@code POST /api/payments/process}
-     * El estado de la respuesta HTTP depende del resultado de la transacción (200 OK si es exitoso, 400 BAD REQUEST si falla).
+     * Responde sin esperar a la pasarela: 202 ACCEPTED con el pago en estado {@code PROCESSING}, o 400 BAD REQUEST si
+     * no se pudo iniciar. El resultado final se recibe con {@code GET /api/payments/transaction/{transactionId}/events} (SSE) o
+     * {@code GET /api/payments/transaction/{transactionId}/await} (long-poll).
      * </p>
      *
      * @param request La solicitud {@link ProcessPaymentRequest} validada con los detalles de la transacción.
-     * @return {@link ResponseEntity} que contiene el objeto {@link PaymentResponse} con el resultado del intento de pago.
+     * @return {@link ResponseEntity} que contiene el objeto {@link PaymentResponse} con el pago en curso.
      */
     @PostMapping("/process")
     public ResponseEntity<PaymentResponse> processPayment(
             @Valid @RequestBody ProcessPaymentRequest request) {
         PaymentResponse response = paymentService.processPayment(request);
-        return ResponseEntity.status(response.isSuccess() ? HttpStatus.OK : HttpStatus.BAD_REQUEST)
+        return ResponseEntity.status(response.isSuccess() ? HttpStatus.ACCEPTED : HttpStatus.BAD_REQUEST)
                 .body(response);
     }
 
@@ -60,13 +71,13 @@ public class PaymentController {
      * </p>
      *
      * @param paymentId El ID (tipo {@link Long}) del registro de pago fallido a reintentar.
-     * @return {@link ResponseEntity} que contiene el nuevo {@link PaymentResponse} con el resultado del reintento (200 OK) o un 400 BAD REQUEST si la operación no es posible.
+     * @return {@link ResponseEntity} que contiene el {@link PaymentResponse} con el pago de nuevo en curso (202 ACCEPTED) o un 400 BAD REQUEST si la operación no es posible.
      */
     @PostMapping("/{paymentId}/retry")
     public ResponseEntity<PaymentResponse> retryPayment(@PathVariable Long paymentId) {
         try {
             PaymentResponse response = paymentService.retryPayment(paymentId);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(PaymentResponse.builder()
@@ -122,6 +133,51 @@ public class PaymentController {
         }
     }
 
+    /**
+     * Abre un flujo Server-Sent Events que emite el pago en cuanto se resuelve.
+     * <p>
+     * Mapeo: {@code GET /api/payments/transaction/{transactionId}/events}
+     * Emite un único evento {@code status} con el {@link PaymentDTO} resuelto ({@code COMPLETED}, {@code FAILED}, ...)
+     * y cierra el flujo; si el pago ya está resuelto, lo emite de inmediato.
+     * </p>
+     *
+     * @param transactionId El ID de la transacción (tipo {@link String}) del pago.
+     * @return {@link ResponseEntity} con el flujo {@link SseEmitter} o 404 (NOT FOUND) si el pago no existe.
+     */
+    @GetMapping(value = "/transaction/{transactionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPaymentStatus(@PathVariable String transactionId) {
+        try {
+            return ResponseEntity.ok(paymentStatusNotifier.subscribe(transactionId));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Espera (long-poll) a que el pago se resuelva.
+     * <p>
+     * Mapeo: {@code GET /api/payments/transaction/{transactionId}/await}
+     * Responde en cuanto el pago se resuelve o, agotada la espera, con su estado actual (aún {@code PROCESSING}), en
+     * cuyo caso el cliente vuelve a llamar.
+     * </p>
+     *
+     * @param transactionId El ID de la transacción (tipo {@link String}) del pago.
+     * @param timeoutMs Tiempo máximo de espera en milisegundos (opcional).
+     * @return {@link DeferredResult} con el {@link PaymentDTO} (200 OK) o 404 (NOT FOUND) si el pago no existe.
+     */
+    @GetMapping("/transaction/{transactionId}/await")
+    public DeferredResult<PaymentDTO> awaitPaymentStatus(
+            @PathVariable String transactionId,
+            @RequestParam(required = false) Long timeoutMs) {
+        try {
+            return paymentStatusNotifier.awaitResolution(transactionId, timeoutMs);
+        } catch (Exception e) {
+            DeferredResult<PaymentDTO> notFound = new DeferredResult<>();
+            notFound.setErrorResult(ResponseEntity.notFound().build());
+            return notFound;
+        }
+    }
+
     /**
      * Obtiene un registro de pago específico utilizando su ID primario.
      * <p>
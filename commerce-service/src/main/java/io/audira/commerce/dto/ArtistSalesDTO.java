@@ -0,0 +1,36 @@
+package io.audira.commerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object (DTO) con las ventas totales de un artista en un periodo.
+ *
+ * @author Grupo GA01
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtistSalesDTO {
+
+    /**
+     * ID del artista.
+     */
+    private Long artistId;
+
+    /**
+     * Unidades vendidas (canciones y álbumes).
+     */
+    private long units;
+
+    /**
+     * Ingresos totales.
+     */
+    private BigDecimal revenue;
+}
@@ -0,0 +1,64 @@
+package io.audira.commerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) con el informe de ventas de un artista en un rango de fechas.
+ * <p>
+ * Reúne en una sola respuesta lo que necesita el panel del artista: totales, desglose por producto y serie diaria.
+ * Solo cuenta órdenes {@code DELIVERED}.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see ItemSalesDTO
+ * @see DailySalesDTO
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtistSalesReportDTO {
+
+    /**
+     * ID del artista.
+     */
+    private Long artistId;
+
+    /**
+     * Primer día del rango (incluido).
+     */
+    private LocalDate from;
+
+    /**
+     * Último día del rango (incluido).
+     */
+    private LocalDate to;
+
+    /**
+     * Unidades vendidas en el rango.
+     */
+    private long totalUnits;
+
+    /**
+     * Ingresos en el rango.
+     */
+    private BigDecimal totalRevenue;
+
+    /**
+     * Ventas por producto, de más a menos unidades.
+     */
+    private List<ItemSalesDTO> items;
+
+    /**
+     * Ventas por día, en orden cronológico (solo días con ventas).
+     */
+    private List<DailySalesDTO> daily;
+}
@@ -0,0 +1,75 @@
+package io.audira.commerce.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) para enviar la misma notificación push a un lote de usuarios.
+ * <p>
+ * Lo utilizan otros microservicios para las notificaciones masivas, como el aviso de un nuevo
+ * lanzamiento a los seguidores de un artista que envía el servicio de catálogo.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see io.audira.commerce.controller.NotificationController
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchNotificationRequest {
+
+    /**
+     * IDs de los usuarios destinatarios.
+     * <p>
+     * Restricción: No puede estar vacía ({@code @NotEmpty}).
+     * </p>
+     */
+    @NotEmpty(message = "User IDs are required")
+    private List<Long> userIds;
+
+    /**
+     * Título de la notificación.
+     */
+    @NotBlank(message = "Title is required")
+    private String title;
+
+    /**
+     * Cuerpo del mensaje.
+     */
+    @NotBlank(message = "Message is required")
+    private String message;
+
+    /**
+     * Tipo de notificación (ej. NEW_PRODUCT).
+     */
+    @NotBlank(message = "Type is required")
+    private String type;
+
+    /**
+     * ID de referencia opcional (ej. ID del producto publicado).
+     */
+    private Long referenceId;
+
+    /**
+     * Tipo de referencia opcional (ej. SONG, ALBUM).
+     */
+    private String referenceType;
+
+    /**
+     * Clave opcional que identifica el lote en el llamante (ej. {@code <jobId>:<índice de lote>}).
+     * <p>
+     * Un reintento con la misma clave no vuelve a enviar el lote. Restricción: como mucho 100 caracteres.
+     * </p>
+     */
+    @Size(max = 100, message = "Batch key must be at most 100 characters")
+    private String batchKey;
+}
@@ -0,0 +1,39 @@
+package io.audira.commerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) con las ventas de un día (fecha de creación de la orden).
+ * Solo se incluyen los días con ventas.
+ *
+ * @author Grupo GA01
+ * @see ArtistSalesReportDTO
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailySalesDTO {
+
+    /**
+     * Día de las ventas.
+     */
+    private LocalDate date;
+
+    /**
+     * Unidades vendidas ese día.
+     */
+    private long units;
+
+    /**
+     * Ingresos de ese día.
+     */
+    private BigDecimal revenue;
+}
@@ -0,0 +1,43 @@
+package io.audira.commerce.dto;
+
+import io.audira.commerce.model.ItemType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Data Transfer Object (DTO) con las ventas acumuladas de un producto (canción o álbum) en un periodo.
+ *
+ * @author Grupo GA01
+ * @see ArtistSalesReportDTO
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemSalesDTO {
+
+    /**
+     * Tipo del producto vendido.
+     */
+    private ItemType itemType;
+
+    /**
+     * ID del producto en el catálogo.
+     */
+    private Long itemId;
+
+    /**
+     * Unidades vendidas.
+     */
+    private long units;
+
+    /**
+     * Ingresos (precio por cantidad de cada línea).
+     */
+    private BigDecimal revenue;
+}
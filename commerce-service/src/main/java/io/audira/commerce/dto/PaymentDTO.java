@@ -1,5 +1,6 @@
 package io.audira.commerce.dto;
 
+import io.audira.commerce.model.Payment;
 import io.audira.commerce.model.PaymentMethod;
 import io.audira.commerce.model.PaymentStatus;
 import lombok.AllArgsConstructor;
@@ -92,4 +93,28 @@ public class PaymentDTO {
      * Marca de tiempo en la que el pago pasó al estado de {@code SUCCESS} o {@code FAILED} definitivo.
      */
     private LocalDateTime completedAt;
-}
\ No newline at end of file
+
+    /**
+     * Convierte una entidad {@link Payment} de base de datos a un objeto {@link PaymentDTO}.
+     *
+     * @param payment La entidad {@link Payment} de origen.
+     * @return Una nueva instancia de {@link PaymentDTO}.
+     */
+    public static PaymentDTO fromEntity(Payment payment) {
+        return PaymentDTO.builder()
+                .id(payment.getId())
+                .transactionId(payment.getTransactionId())
+                .orderId(payment.getOrderId())
+                .userId(payment.getUserId())
+                .paymentMethod(payment.getPaymentMethod())
+                .status(payment.getStatus())
+                .amount(payment.getAmount())
+                .errorMessage(payment.getErrorMessage())
+                .retryCount(payment.getRetryCount())
+                .metadata(payment.getMetadata())
+                .createdAt(payment.getCreatedAt())
+                .updatedAt(payment.getUpdatedAt())
+                .completedAt(payment.getCompletedAt())
+                .build();
+    }
+}
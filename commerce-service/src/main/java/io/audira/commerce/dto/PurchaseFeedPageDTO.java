@@ -0,0 +1,47 @@
+package io.audira.commerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) que representa una página del feed global de compras.
+ * <p>
+ * Contiene los artículos comprados posteriores a un cursor {@code (cursorTime, cursorId)}, ordenados por fecha de
+ * compra e ID. El consumidor debe enviar el cursor devuelto en la siguiente consulta.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see PurchasedItemDTO
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseFeedPageDTO {
+
+    /**
+     * Artículos comprados de la página.
+     */
+    private List<PurchasedItemDTO> items;
+
+    /**
+     * Componente temporal del cursor: fecha de compra del último artículo devuelto.
+     */
+    private LocalDateTime cursorTime;
+
+    /**
+     * Componente de desempate del cursor: ID del último artículo devuelto.
+     */
+    private Long cursorId;
+
+    /**
+     * Indica si puede haber más artículos después del cursor.
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,42 @@
+package io.audira.commerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) que representa una transición de venta de una orden en el feed de ventas.
+ *
+ * @author Grupo GA01
+ * @see SalesEventsPageDTO
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesEventDTO {
+
+    /**
+     * ID del evento (el consumidor lo usa para no aplicar dos veces los eventos que relee).
+     */
+    private Long id;
+
+    /**
+     * Tipo de transición: {@code DELIVERED} (suma la venta) o {@code CANCELLED} (la resta).
+     */
+    private String type;
+
+    /**
+     * Instante de la transición.
+     */
+    private LocalDateTime occurredAt;
+
+    /**
+     * Orden afectada, con sus artículos.
+     */
+    private OrderDTO order;
+}
@@ -0,0 +1,47 @@
+package io.audira.commerce.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) que representa una página del feed de eventos de ventas.
+ * <p>
+ * Contiene las transiciones de venta posteriores a un cursor {@code (cursorTime, cursorId)}, ordenadas por instante e
+ * ID. El consumidor debe enviar el cursor devuelto en la siguiente consulta.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see SalesEventDTO
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesEventsPageDTO {
+
+    /**
+     * Eventos de la página.
+     */
+    private List<SalesEventDTO> events;
+
+    /**
+     * Componente temporal del cursor: instante del último evento devuelto.
+     */
+    private LocalDateTime cursorTime;
+
+    /**
+     * Componente de desempate del cursor: ID del último evento devuelto.
+     */
+    private Long cursorId;
+
+    /**
+     * Indica si puede haber más eventos después del cursor.
+     */
+    private boolean hasMore;
+}
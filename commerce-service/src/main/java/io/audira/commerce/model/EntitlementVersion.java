@@ -0,0 +1,40 @@
+package io.audira.commerce.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad de base de datos con la versión de los artículos en propiedad de un usuario.
+ * <p>
+ * Mapeada a la tabla {@code entitlement_versions}. Se incrementa en la misma transacción que concede o revoca artículos
+ * del usuario, de modo que cualquier instancia detecta que su copia en caché está desactualizada comparando versiones,
+ * sin volver a leer los artículos.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see io.audira.commerce.service.EntitlementService
+ *
+ */
+@Entity
+@Table(name = "entitlement_versions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntitlementVersion {
+
+    /**
+     * ID del usuario.
+     */
+    @Id
+    private Long userId;
+
+    /**
+     * Versión actual; crece con cada concesión o revocación.
+     */
+    @Column(nullable = false)
+    private Long version;
+}
@@ -0,0 +1,57 @@
+package io.audira.commerce.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad de base de datos que registra un envío masivo ya aceptado, identificado por la clave de lote que manda el
+ * llamante.
+ * <p>
+ * Mapeada a la tabla {@code notification_batch_receipts}. La fila se inserta <b>antes</b> de enviar el lote, de modo
+ * que un reintento con la misma clave (por ejemplo, tras un tiempo de espera agotado en el llamante mientras el envío
+ * seguía en curso) no vuelve a enviarlo. El índice sobre {@code createdAt} sirve la purga de recibos antiguos.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see io.audira.commerce.service.NotificationBatchService
+ *
+ */
+@Entity
+@Table(name = "notification_batch_receipts", indexes = {
+        @Index(name = "idx_notification_batch_receipts_created_at", columnList = "createdAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationBatchReceipt {
+
+    /**
+     * Clave del lote enviada por el llamante (ej. {@code <jobId>:<índice de lote>}).
+     */
+    @Id
+    @Column(length = 100)
+    private String batchKey;
+
+    /**
+     * Número de usuarios destinatarios del lote.
+     */
+    @Column(nullable = false)
+    private Integer recipients;
+
+    /**
+     * Número de dispositivos alcanzados, o {@code null} mientras el envío sigue en curso.
+     */
+    private Integer delivered;
+
+    /**
+     * Instante en que se aceptó el lote.
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,122 @@
+package io.audira.commerce.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad de base de datos que representa una notificación pendiente de envío (bandeja de salida o <i>outbox</i>).
+ * <p>
+ * Mapeada a la tabla {@code notification_outbox}. Las entradas se escriben en la misma transacción que el pago o el
+ * cambio de orden que las origina, de modo que solo existen si ese cambio se confirma, y las envía en segundo plano
+ * {@link io.audira.commerce.service.NotificationOutboxDispatcher}. El índice {@code (status, nextAttemptAt)} sirve la
+ * consulta de entradas vencidas.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see NotificationOutboxKind
+ * @see NotificationOutboxStatus
+ *
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = {
+        @Index(name = "idx_notification_outbox_status_next_attempt", columnList = "status, nextAttemptAt")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutboxEntry {
+
+    /**
+     * ID primario de la entrada. Generado automáticamente; también fija el orden de envío.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Tipo de entrada ({@link NotificationOutboxKind}).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationOutboxKind kind;
+
+    /**
+     * ID del usuario destinatario (el comprador en las entradas {@code PURCHASE_COMPLETED}).
+     */
+    @Column(nullable = false)
+    private Long userId;
+
+    /**
+     * ID de la orden de referencia (obligatorio en las entradas {@code PURCHASE_COMPLETED}).
+     */
+    private Long orderId;
+
+    /**
+     * Título de la notificación (solo entradas {@code PUSH}).
+     */
+    private String title;
+
+    /**
+     * Cuerpo de la notificación (solo entradas {@code PUSH}).
+     */
+    @Column(length = 1000)
+    private String message;
+
+    /**
+     * Tipo de notificación para el cliente (ej. "SUCCESS", "INFO", "ERROR"; solo entradas {@code PUSH}).
+     */
+    private String type;
+
+    /**
+     * Estado de la entrada ({@link NotificationOutboxStatus}).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private NotificationOutboxStatus status = NotificationOutboxStatus.PENDING;
+
+    /**
+     * Número de intentos de envío fallidos.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    /**
+     * Instante a partir del cual la entrada puede (re)enviarse. Al reclamarla, el dispatcher lo adelanta como reserva
+     * temporal para que otras instancias no la envíen a la vez.
+     */
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * Instante en que se originó la notificación (base de las métricas de retraso).
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Último error de envío, para diagnóstico.
+     */
+    @Column(length = 500)
+    private String lastError;
+
+    /**
+     * Método de callback de JPA que inicializa las marcas de tiempo si no se han indicado.
+     */
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
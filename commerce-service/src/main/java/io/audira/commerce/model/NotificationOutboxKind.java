@@ -0,0 +1,19 @@
+package io.audira.commerce.model;
+
+/**
+ * Enumerador que define el tipo de una entrada de la bandeja de salida de notificaciones ({@link NotificationOutboxEntry}).
+ *
+ * @author Grupo GA01
+ * 
+ */
+public enum NotificationOutboxKind {
+    /**
+     * Notificación push ya redactada para un único usuario.
+     */
+    PUSH,
+    /**
+     * Compra completada: al enviarse se transforma en las notificaciones {@link #PUSH} del comprador y de cada artista.
+     * Se redacta fuera del pago porque necesita consultar los títulos de los productos al catálogo.
+     */
+    PURCHASE_COMPLETED
+}
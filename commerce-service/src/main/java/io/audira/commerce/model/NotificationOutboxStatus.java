@@ -0,0 +1,21 @@
+package io.audira.commerce.model;
+
+/**
+ * Enumerador que define los estados de una entrada de la bandeja de salida de notificaciones ({@link NotificationOutboxEntry}).
+ * <p>
+ * Las entradas enviadas con éxito se eliminan, por lo que no tienen estado propio.
+ * </p>
+ *
+ * @author Grupo GA01
+ * 
+ */
+public enum NotificationOutboxStatus {
+    /**
+     * Pendiente de envío (o de reintento a partir de {@code nextAttemptAt}).
+     */
+    PENDING,
+    /**
+     * Descartada tras agotar los reintentos. Se conserva un tiempo para su diagnóstico.
+     */
+    FAILED
+}
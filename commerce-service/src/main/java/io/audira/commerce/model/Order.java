@@ -27,7 +27,9 @@ import java.util.List;
  * 
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_status_created_at", columnList = "status, createdAt")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -22,7 +22,7 @@ import java.math.BigDecimal;
  * 
  */
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = @Index(name = "idx_order_items_artist_order", columnList = "artist_id, orderId"))
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,63 @@
+package io.audira.commerce.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad de base de datos que registra una transición de una orden que afecta a las ventas.
+ * <p>
+ * Mapeada a la tabla {@code order_sales_events}, de solo inserción. Se escribe en la misma transacción que el cambio de
+ * estado: {@code DELIVERED} cuando la orden se paga y {@code CANCELLED} cuando una orden entregada se reembolsa. Los
+ * consumidores del feed de ventas aplican cada evento una vez (suma o resta), sin recordar qué órdenes ya contaron.
+ * El índice {@code (occurredAt, id)} sirve la paginación del feed. La restricción única {@code (order_id, type)}
+ * garantiza un solo evento de cada tipo por orden aunque varias instancias lo registren a la vez; también sirve la
+ * carga de eventos anteriores a la tabla.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see io.audira.commerce.service.OrderService#getSalesEvents
+ *
+ */
+@Entity
+@Table(name = "order_sales_events", indexes = {
+        @Index(name = "idx_order_sales_events_occurred_at_id", columnList = "occurredAt, id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_order_sales_events_order_type", columnNames = {"order_id", "type"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSalesEvent {
+
+    /**
+     * ID primario del evento. Generado automáticamente; desempata los eventos del mismo instante.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * ID de la orden que cambió de estado.
+     */
+    @Column(nullable = false)
+    private Long orderId;
+
+    /**
+     * Nuevo estado de la orden: {@code DELIVERED} (venta) o {@code CANCELLED} (reembolso de una venta).
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus type;
+
+    /**
+     * Instante de la transición (zona horaria "Europe/Madrid", como las fechas de la orden).
+     */
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
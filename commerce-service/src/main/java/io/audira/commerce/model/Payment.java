@@ -127,6 +127,25 @@ public class Payment {
      */
     private LocalDateTime completedAt;
 
+    /**
+     * Marca de tiempo en la que la pasarela aprobó el cobro.
+     * <p>
+     * Se guarda antes de completar el pago: un pago {@code PROCESSING} con este campo informado ya está cobrado, así que
+     * nunca se marca como fallido y su completado se reintenta hasta que se aplica.
+     * </p>
+     */
+    private LocalDateTime approvedAt;
+
+    /**
+     * Marca de tiempo en la que el resultado del cobro pasó a ser desconocido (la pasarela no respondió a tiempo o la
+     * llamada falló).
+     * <p>
+     * El pago sigue en {@code PROCESSING}: la pasarela pudo cobrarlo, así que no se marca como fallido hasta conciliarlo
+     * con ella por su clave de idempotencia.
+     * </p>
+     */
+    private LocalDateTime outcomeUnknownAt;
+
     /**
      * Método de callback de JPA que se ejecuta antes de la persistencia (guardar por primera vez).
      * <p>
@@ -153,11 +172,11 @@ public class Payment {
     /**
      * Método de callback de JPA que se ejecuta antes de cualquier actualización.
      * <p>
-     * Actualiza {@code updatedAt}.
+     * Actualiza {@code updatedAt}, en la misma zona horaria que {@link #onCreate()}.
      * </p>
      */
     @PreUpdate
     protected void onUpdate() {
-        this.updatedAt = LocalDateTime.now();
+        this.updatedAt = ZonedDateTime.now(ZoneId.of("Europe/Madrid")).toLocalDateTime();
     }
 }
\ No newline at end of file
@@ -38,5 +38,35 @@ public enum PaymentStatus {
     /**
      * El intento de pago ha sido anulado antes de ser enviado a la pasarela, típicamente por una acción del usuario o del sistema.
      */
-    CANCELLED
-}
\ No newline at end of file
+    CANCELLED;
+
+    /**
+     * Indica si un pago puede pasar de este estado a {@code target}.
+     * <p>
+     * Transiciones válidas: {@code PENDING → PROCESSING | CANCELLED}, {@code PROCESSING → COMPLETED | FAILED},
+     * {@code FAILED → PROCESSING} (reintento) y {@code COMPLETED → REFUNDED}.
+     * </p>
+     *
+     * @param target Estado de destino.
+     * @return {@code true} si la transición está permitida.
+     */
+    public boolean canTransitionTo(PaymentStatus target) {
+        return switch (this) {
+            case PENDING -> target == PROCESSING || target == CANCELLED;
+            case PROCESSING -> target == COMPLETED || target == FAILED;
+            case FAILED -> target == PROCESSING;
+            case COMPLETED -> target == REFUNDED;
+            case REFUNDED, CANCELLED -> false;
+        };
+    }
+
+    /**
+     * Indica si el pago ya tiene un resultado y no espera respuesta de la pasarela
+     * (todo estado salvo {@code PENDING} y {@code PROCESSING}).
+     *
+     * @return {@code true} si el estado es un resultado.
+     */
+    public boolean isResolved() {
+        return this != PENDING && this != PROCESSING;
+    }
+}
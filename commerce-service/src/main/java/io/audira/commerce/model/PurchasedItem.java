@@ -25,6 +25,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "purchased_items", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "item_type", "item_id"})
+}, indexes = {
+    @Index(name = "idx_purchased_items_purchased_at_id", columnList = "purchased_at, id")
 })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,47 @@
+package io.audira.commerce.repository;
+
+import io.audira.commerce.model.EntitlementVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Repositorio de Spring Data JPA para la entidad {@link EntitlementVersion} (versión de los artículos de un usuario).
+ *
+ * @author Grupo GA01
+ * @see EntitlementVersion
+ * @see io.audira.commerce.service.EntitlementService
+ *
+ */
+@Repository
+public interface EntitlementVersionRepository extends JpaRepository<EntitlementVersion, Long> {
+
+    /**
+     * Obtiene la versión actual de los artículos de un usuario.
+     *
+     * @param userId El ID del usuario.
+     * @return Un {@link Optional} con la versión, vacío si el usuario nunca ha cambiado de artículos.
+     */
+    @Query("SELECT v.version FROM EntitlementVersion v WHERE v.userId = :userId")
+    Optional<Long> findVersionByUserId(@Param("userId") Long userId);
+
+    /**
+     * Incrementa la versión de los artículos de un usuario (la crea si no existe).
+     * <p>
+     * Se une a la transacción en curso, para que la nueva versión sea visible justo cuando lo sean los artículos.
+     * </p>
+     *
+     * @param userId El ID del usuario.
+     * @return Número de filas insertadas o actualizadas.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO entitlement_versions (user_id, version) VALUES (:userId, 1) " +
+            "ON CONFLICT (user_id) DO UPDATE SET version = entitlement_versions.version + 1", nativeQuery = true)
+    int bump(@Param("userId") Long userId);
+}
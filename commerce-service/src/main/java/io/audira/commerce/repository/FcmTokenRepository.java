@@ -3,7 +3,9 @@ package io.audira.commerce.repository;
 import io.audira.commerce.model.FcmToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +36,14 @@ public interface FcmTokenRepository extends JpaRepository<FcmToken, Long> {
      */
     List<FcmToken> findByUserId(Long userId);
 
+    /**
+     * Busca todos los tokens FCM de un conjunto de usuarios en una sola consulta (envíos masivos).
+     *
+     * @param userIds IDs de los usuarios.
+     * @return Una {@link List} con los {@link FcmToken} de todos esos usuarios.
+     */
+    List<FcmToken> findByUserIdIn(Collection<Long> userIds);
+
     /**
      * Busca un token FCM específico utilizando el valor del token (String).
      * <p>
@@ -74,5 +84,6 @@ public interface FcmTokenRepository extends JpaRepository<FcmToken, Long> {
      *
      * @param token El valor del token (String) a eliminar.
      */
+    @Transactional
     void deleteByToken(String token);
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package io.audira.commerce.repository;
+
+import io.audira.commerce.model.NotificationBatchReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio de Spring Data JPA para la entidad {@link NotificationBatchReceipt} (recibos de envíos masivos).
+ *
+ * @author Grupo GA01
+ * @see NotificationBatchReceipt
+ * @see io.audira.commerce.service.NotificationBatchService
+ *
+ */
+@Repository
+public interface NotificationBatchReceiptRepository extends JpaRepository<NotificationBatchReceipt, String> {
+
+    /**
+     * Registra un lote si su clave no existe todavía.
+     * <p>
+     * Usa {@code ON CONFLICT DO NOTHING}: si dos peticiones con la misma clave llegan a la vez, solo una inserta la
+     * fila. Se confirma en su propia transacción, antes del envío, para que los reintentos la vean.
+     * </p>
+     *
+     * @param batchKey Clave del lote.
+     * @param recipients Número de destinatarios.
+     * @param createdAt Instante de aceptación.
+     * @return 1 si el lote se ha registrado ahora, 0 si la clave ya existía.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO notification_batch_receipts (batch_key, recipients, created_at) " +
+            "VALUES (:batchKey, :recipients, :createdAt) ON CONFLICT (batch_key) DO NOTHING", nativeQuery = true)
+    int claim(@Param("batchKey") String batchKey, @Param("recipients") int recipients,
+              @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Anota el número de dispositivos alcanzados por un lote ya enviado.
+     *
+     * @param batchKey Clave del lote.
+     * @param delivered Dispositivos alcanzados.
+     * @return Número de filas actualizadas.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificationBatchReceipt r SET r.delivered = :delivered WHERE r.batchKey = :batchKey")
+    int markDelivered(@Param("batchKey") String batchKey, @Param("delivered") int delivered);
+
+    /**
+     * Elimina los recibos aceptados antes de un instante.
+     *
+     * @param before Límite de aceptación (exclusivo).
+     * @return Número de recibos eliminados.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NotificationBatchReceipt r WHERE r.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
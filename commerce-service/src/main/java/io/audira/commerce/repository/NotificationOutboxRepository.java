@@ -0,0 +1,68 @@
+package io.audira.commerce.repository;
+
+import io.audira.commerce.model.NotificationOutboxEntry;
+import io.audira.commerce.model.NotificationOutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio de Spring Data JPA para la entidad {@link NotificationOutboxEntry} (bandeja de salida de notificaciones).
+ *
+ * @author Grupo GA01
+ * @see NotificationOutboxEntry
+ * @see io.audira.commerce.service.NotificationOutboxDispatcher
+ *
+ */
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutboxEntry, Long> {
+
+    /**
+     * Bloquea y devuelve las entradas pendientes cuyo envío ya ha vencido, en orden de creación.
+     * <p>
+     * Usa {@code FOR UPDATE SKIP LOCKED}: las entradas que otra instancia está reclamando se saltan en lugar de
+     * esperar. Debe ejecutarse dentro de una transacción, que es la que mantiene el bloqueo.
+     * </p>
+     *
+     * @param now Instante actual.
+     * @param limit Número máximo de entradas.
+     * @return Las entradas reclamadas.
+     */
+    @Query(value = "SELECT * FROM notification_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<NotificationOutboxEntry> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Cuenta las entradas en un estado.
+     *
+     * @param status Estado de las entradas.
+     * @return Número de entradas.
+     */
+    long countByStatus(NotificationOutboxStatus status);
+
+    /**
+     * Obtiene el instante de creación de la entrada más antigua en un estado (retraso de la bandeja de salida).
+     *
+     * @param status Estado de las entradas.
+     * @return El instante más antiguo, o {@code null} si no hay entradas.
+     */
+    @Query("SELECT MIN(e.createdAt) FROM NotificationOutboxEntry e WHERE e.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") NotificationOutboxStatus status);
+
+    /**
+     * Elimina las entradas en un estado creadas antes de un instante (limpieza de entradas descartadas).
+     *
+     * @param status Estado de las entradas.
+     * @param before Límite de creación (exclusivo).
+     * @return Número de entradas eliminadas.
+     */
+    @Modifying
+    @Query("DELETE FROM NotificationOutboxEntry e WHERE e.status = :status AND e.createdAt < :before")
+    int deleteByStatusCreatedBefore(@Param("status") NotificationOutboxStatus status,
+                                    @Param("before") LocalDateTime before);
+}
@@ -1,9 +1,14 @@
 package io.audira.commerce.repository;
 
 import io.audira.commerce.model.OrderItem;
+import io.audira.commerce.model.OrderStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -42,4 +47,85 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      * @param orderId El ID de la orden cuyos artículos serán eliminados.
      */
     void deleteByOrderId(Long orderId);
-}
\ No newline at end of file
+
+    /**
+     * Agrega las ventas de varios artistas en un rango de fechas.
+     * <p>
+     * Cada fila contiene:
+     * <ul>
+     * <li>[0] artistId ({@link Long})</li>
+     * <li>[1] unidades vendidas ({@link Long})</li>
+     * <li>[2] ingresos ({@link java.math.BigDecimal})</li>
+     * </ul>
+     * </p>
+     *
+     * @param artistIds IDs de los artistas.
+     * @param status Estado de las órdenes a contar.
+     * @param from Fecha de creación mínima (incluida).
+     * @param to Fecha de creación máxima (excluida).
+     * @return Una fila por artista con ventas.
+     */
+    @Query("SELECT i.artistId, SUM(i.quantity), SUM(i.price * i.quantity) " +
+           "FROM OrderItem i JOIN Order o ON o.id = i.orderId " +
+           "WHERE i.artistId IN :artistIds AND o.status = :status AND o.createdAt >= :from AND o.createdAt < :to " +
+           "GROUP BY i.artistId")
+    List<Object[]> sumSalesByArtist(@Param("artistIds") Collection<Long> artistIds,
+                                    @Param("status") OrderStatus status,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
+
+    /**
+     * Agrega las ventas de un artista por producto en un rango de fechas, de más a menos unidades.
+     * <p>
+     * Cada fila contiene:
+     * <ul>
+     * <li>[0] tipo de producto ({@link io.audira.commerce.model.ItemType})</li>
+     * <li>[1] itemId ({@link Long})</li>
+     * <li>[2] unidades vendidas ({@link Long})</li>
+     * <li>[3] ingresos ({@link java.math.BigDecimal})</li>
+     * </ul>
+     * </p>
+     *
+     * @param artistId ID del artista.
+     * @param status Estado de las órdenes a contar.
+     * @param from Fecha de creación mínima (incluida).
+     * @param to Fecha de creación máxima (excluida).
+     * @return Una fila por producto con ventas.
+     */
+    @Query("SELECT i.itemType, i.itemId, SUM(i.quantity), SUM(i.price * i.quantity) " +
+           "FROM OrderItem i JOIN Order o ON o.id = i.orderId " +
+           "WHERE i.artistId = :artistId AND o.status = :status AND o.createdAt >= :from AND o.createdAt < :to " +
+           "GROUP BY i.itemType, i.itemId " +
+           "ORDER BY SUM(i.quantity) DESC, i.itemId ASC")
+    List<Object[]> sumSalesByItemForArtist(@Param("artistId") Long artistId,
+                                           @Param("status") OrderStatus status,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
+    /**
+     * Agrega las ventas de un artista por día de creación de la orden en un rango de fechas.
+     * <p>
+     * Consulta nativa (agrupación por {@code CAST(... AS date)}). Cada fila contiene:
+     * <ul>
+     * <li>[0] día ({@link java.sql.Date} o {@link java.time.LocalDate}, según el driver)</li>
+     * <li>[1] unidades vendidas ({@link Number})</li>
+     * <li>[2] ingresos ({@link java.math.BigDecimal})</li>
+     * </ul>
+     * </p>
+     *
+     * @param artistId ID del artista.
+     * @param status Nombre del estado de las órdenes a contar.
+     * @param from Fecha de creación mínima (incluida).
+     * @param to Fecha de creación máxima (excluida).
+     * @return Una fila por día con ventas, en orden cronológico.
+     */
+    @Query(value = "SELECT CAST(o.created_at AS date) AS day, SUM(i.quantity), SUM(i.price * i.quantity) " +
+                   "FROM order_items i JOIN orders o ON o.id = i.order_id " +
+                   "WHERE i.artist_id = :artistId AND o.status = :status AND o.created_at >= :from AND o.created_at < :to " +
+                   "GROUP BY CAST(o.created_at AS date) ORDER BY day",
+           nativeQuery = true)
+    List<Object[]> sumDailySalesForArtist(@Param("artistId") Long artistId,
+                                          @Param("status") String status,
+                                          @Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to);
+}
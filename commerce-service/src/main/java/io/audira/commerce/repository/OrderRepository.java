@@ -2,9 +2,11 @@ package io.audira.commerce.repository;
 
 import io.audira.commerce.model.Order;
 import io.audira.commerce.model.OrderStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -33,6 +35,16 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     Optional<Order> findByOrderNumber(String orderNumber);
 
+    /**
+     * Busca una orden por su ID cargando sus ítems en la misma consulta, para poder recorrerlos fuera de una
+     * transacción.
+     *
+     * @param id El ID de la orden.
+     * @return Un {@link Optional} que contiene la {@link Order} con sus ítems si se encuentra.
+     */
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+
     /**
      * Busca y retorna todas las órdenes realizadas por un usuario específico.
      *
@@ -68,4 +80,13 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @return {@code true} si la orden con ese número existe, {@code false} en caso contrario.
      */
     boolean existsByOrderNumber(String orderNumber);
-}
\ No newline at end of file
+
+    /**
+     * Busca las órdenes con los IDs indicados, cargando sus artículos en la misma consulta.
+     *
+     * @param ids IDs de las órdenes.
+     * @return Una {@link List} de {@link Order} con sus artículos inicializados.
+     */
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,75 @@
+package io.audira.commerce.repository;
+
+import io.audira.commerce.model.OrderSalesEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio de Spring Data JPA para la entidad {@link OrderSalesEvent} (transiciones de venta de las órdenes).
+ *
+ * @author Grupo GA01
+ * @see OrderSalesEvent
+ *
+ */
+@Repository
+public interface OrderSalesEventRepository extends JpaRepository<OrderSalesEvent, Long> {
+
+    /**
+     * Busca los eventos posteriores al cursor {@code (since, afterId)}.
+     * <p>
+     * Paginación por conjunto de claves sobre {@code (occurredAt, id)}, apoyada en el índice
+     * {@code idx_order_sales_events_occurred_at_id}.
+     * </p>
+     *
+     * @param since Componente temporal del cursor.
+     * @param afterId Componente de desempate del cursor.
+     * @param pageable Tamaño de la página.
+     * @return Una {@link List} de eventos ordenada por instante e ID.
+     */
+    @Query("SELECT e FROM OrderSalesEvent e " +
+           "WHERE e.occurredAt > :since OR (e.occurredAt = :since AND e.id > :afterId) " +
+           "ORDER BY e.occurredAt ASC, e.id ASC")
+    List<OrderSalesEvent> findAfter(@Param("since") LocalDateTime since,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
+
+    /**
+     * Registra una transición de venta de una orden, salvo que ya exista un evento del mismo tipo para ella
+     * ({@code ON CONFLICT DO NOTHING} sobre {@code (order_id, type)}). Se une a la transacción en curso.
+     *
+     * @param orderId ID de la orden.
+     * @param type Tipo de evento ({@code DELIVERED} o {@code CANCELLED}).
+     * @param occurredAt Instante de la transición.
+     * @return 1 si se ha registrado, 0 si ya existía.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO order_sales_events (order_id, type, occurred_at) " +
+            "VALUES (:orderId, :type, :occurredAt) ON CONFLICT (order_id, type) DO NOTHING", nativeQuery = true)
+    int record(@Param("orderId") Long orderId, @Param("type") String type,
+               @Param("occurredAt") LocalDateTime occurredAt);
+
+    /**
+     * Registra un evento {@code DELIVERED} por cada orden entregada que aún no tiene eventos (órdenes anteriores a la
+     * tabla). Es idempotente, también si varias instancias lo ejecutan a la vez o una entrega se confirma durante la
+     * carga: la restricción única descarta los duplicados.
+     *
+     * @param now Instante con el que se fechan los eventos.
+     * @return Número de eventos insertados.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO order_sales_events (order_id, type, occurred_at) " +
+            "SELECT o.id, 'DELIVERED', :now FROM orders o WHERE o.status = 'DELIVERED' " +
+            "AND NOT EXISTS (SELECT 1 FROM order_sales_events e WHERE e.order_id = o.id) " +
+            "ON CONFLICT (order_id, type) DO NOTHING", nativeQuery = true)
+    int backfillDelivered(@Param("now") LocalDateTime now);
+}
@@ -2,9 +2,15 @@ package io.audira.commerce.repository;
 
 import io.audira.commerce.model.Payment;
 import io.audira.commerce.model.PaymentStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -74,4 +80,56 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
      * @return Una {@link List} de objetos {@link Payment} que coinciden con el estado.
      */
     List<Payment> findByStatus(PaymentStatus status);
-}
\ No newline at end of file
+
+    /**
+     * Busca un pago bloqueando su fila ({@code SELECT ... FOR UPDATE}) hasta el final de la transacción.
+     * <p>
+     * Lo usa la máquina de estados de pagos para que dos transiciones concurrentes (ej. la respuesta de la pasarela y
+     * un reembolso) no se pisen.
+     * </p>
+     *
+     * @param id El ID del pago.
+     * @return Un {@link Optional} con el pago bloqueado.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.id = :id")
+    Optional<Payment> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Busca los pagos en un estado, aún sin aprobación de la pasarela, cuya última actualización es anterior a un
+     * instante (ej. pagos {@code PROCESSING} que la pasarela nunca llegó a resolver).
+     *
+     * @param status El estado de los pagos.
+     * @param before Límite de la última actualización (exclusivo).
+     * @return Una {@link List} de pagos.
+     */
+    List<Payment> findByStatusAndApprovedAtIsNullAndUpdatedAtBefore(PaymentStatus status, LocalDateTime before);
+
+    /**
+     * Busca los pagos en un estado que la pasarela ya aprobó antes de un instante
+     * (ej. pagos {@code PROCESSING} cobrados cuyo completado falló y hay que reintentar).
+     *
+     * @param status El estado de los pagos.
+     * @param before Límite de la aprobación (exclusivo).
+     * @return Una {@link List} de pagos.
+     */
+    List<Payment> findByStatusAndApprovedAtBefore(PaymentStatus status, LocalDateTime before);
+
+    /**
+     * Busca los pagos en un estado, aún sin aprobación de la pasarela, cuyo resultado se desconoce desde antes de un
+     * instante (ej. pagos {@code PROCESSING} cuya respuesta de la pasarela no llegó a tiempo y hay que conciliar).
+     *
+     * @param status El estado de los pagos.
+     * @param before Límite de la marca de resultado desconocido (exclusivo).
+     * @return Una {@link List} de pagos.
+     */
+    List<Payment> findByStatusAndApprovedAtIsNullAndOutcomeUnknownAtBefore(PaymentStatus status, LocalDateTime before);
+
+    /**
+     * Busca los pagos con cualquiera de los IDs de transacción indicados.
+     *
+     * @param transactionIds Los IDs de transacción.
+     * @return Una {@link List} con los pagos encontrados.
+     */
+    List<Payment> findByTransactionIdIn(Collection<String> transactionIds);
+}
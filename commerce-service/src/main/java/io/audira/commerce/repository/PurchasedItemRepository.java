@@ -2,9 +2,14 @@ package io.audira.commerce.repository;
 
 import io.audira.commerce.model.ItemType;
 import io.audira.commerce.model.PurchasedItem;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -96,4 +101,43 @@ public interface PurchasedItemRepository extends JpaRepository<PurchasedItem, Lo
      * @param userId El ID del usuario cuyos artículos serán eliminados.
      */
     void deleteByUserId(Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Recupera en lotes los artículos comprados posteriores al cursor {@code (since, afterId)}.
+     * <p>
+     * Paginación por conjunto de claves sobre {@code (purchasedAt, id)}, apoyada en el índice
+     * {@code idx_purchased_items_purchased_at_id}. Es el feed de compras para otros microservicios
+     * (ej. el motor de recomendaciones del catálogo).
+     * </p>
+     *
+     * @param since Componente temporal del cursor.
+     * @param afterId Componente de desempate del cursor.
+     * @param pageable Tamaño del lote.
+     * @return Una {@link List} de {@link PurchasedItem} ordenada por fecha de compra e ID.
+     */
+    @Query("SELECT p FROM PurchasedItem p WHERE (p.purchasedAt, p.id) > (:since, :afterId) " +
+           "ORDER BY p.purchasedAt ASC, p.id ASC")
+    List<PurchasedItem> findFeedAfter(@Param("since") LocalDateTime since,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    /**
+     * Obtiene el tipo y el ID de todos los artículos de un usuario, sin cargar las entidades.
+     * Usado para construir el conjunto de artículos en propiedad de {@link io.audira.commerce.service.EntitlementService}.
+     *
+     * @param userId El ID del usuario.
+     * @return Una {@link List} de arrays donde [0]={@link ItemType}, [1]=ID del artículo.
+     */
+    @Query("SELECT p.itemType, p.itemId FROM PurchasedItem p WHERE p.userId = :userId")
+    List<Object[]> findItemKeysByUserId(@Param("userId") Long userId);
+
+    /**
+     * Elimina los artículos concedidos por un pago (revocación tras un reembolso).
+     *
+     * @param paymentId El ID del registro de pago.
+     * @return Número de artículos eliminados.
+     */
+    @Modifying
+    @Query("DELETE FROM PurchasedItem p WHERE p.paymentId = :paymentId")
+    int deleteByPaymentId(@Param("paymentId") Long paymentId);
+}
@@ -0,0 +1,288 @@
+package io.audira.commerce.service;
+
+import io.audira.commerce.model.ItemType;
+import io.audira.commerce.repository.EntitlementVersionRepository;
+import io.audira.commerce.repository.PurchasedItemRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché en memoria de los artículos que posee cada usuario (<i>entitlements</i>), para las comprobaciones de compra
+ * de valoraciones, reproducción y descargas.
+ * <p>
+ * Por cada usuario activo guarda los IDs de sus canciones, álbumes y mercancía como arrays ordenados de {@code long}
+ * (8 bytes por artículo, búsqueda binaria), cargados con una sola consulta sobre {@code purchased_items}.
+ * </p>
+ * <ul>
+ * <li><b>Caducidad:</b> una entrada vale {@code audira.entitlements.ttl-ms}; como mucho hay
+ * {@code audira.entitlements.max-users} usuarios cacheados (al llenarse se eliminan las caducadas y, si no basta,
+ * se vacía).</li>
+ * <li><b>Invalidación local:</b> {@link LibraryService} descarta la entrada del usuario al confirmarse cada concesión o
+ * revocación (reembolso) de artículos. Cada invalidación guarda una versión para ese usuario; una carga solo se
+ * publica (con {@code compute}, de forma atómica respecto a la invalidación) si el usuario no se ha invalidado desde
+ * que empezó, así que nunca se guarda una entrada anterior a una invalidación y las invalidaciones de un usuario no
+ * impiden cachear a los demás.</li>
+ * <li><b>Entre instancias:</b> la misma transacción que cambia los artículos incrementa la versión del usuario en
+ * {@code entitlement_versions} ({@link io.audira.commerce.model.EntitlementVersion}). Cada entrada recuerda la
+ * versión con la que se cargó y, como mucho cada {@code audira.entitlements.version-check-ms}, la compara con la de la
+ * base de datos (una lectura por clave primaria); si ha cambiado, se recarga. Un cambio hecho en otra instancia se ve como mucho tras ese intervalo,
+ * y los artículos que no están en la caché se responden como no poseídos sin consultar la base de datos.</li>
+ * </ul>
+ * <p>
+ * Métricas: {@code audira.entitlements.requests} (etiqueta {@code result}: {@code hit} o {@code miss}) y
+ * {@code audira.entitlements.size} (usuarios cacheados).
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see LibraryService
+ *
+ */
+@Service
+@Slf4j
+public class EntitlementService {
+
+    /** Número máximo de IDs por consulta en lote ({@link #findOwned}). */
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private final PurchasedItemRepository purchasedItemRepository;
+    private final EntitlementVersionRepository entitlementVersionRepository;
+    private final long ttlMs;
+    private final long versionCheckMs;
+    private final int maxUsers;
+    private final long clientMaxAgeSeconds;
+
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+
+    /** Secuencia global de versiones; cada invalidación toma la siguiente. */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /** Versión de la última invalidación de cada usuario (se escribe dentro de {@code cache.compute}). */
+    private final Map<Long, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Versiones hasta la que se han podado {@link #versions} al superar {@code max-users} usuarios; las cargas
+     * empezadas antes no se publican.
+     */
+    private final AtomicLong prunedUpTo = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public EntitlementService(PurchasedItemRepository purchasedItemRepository,
+                              EntitlementVersionRepository entitlementVersionRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${audira.entitlements.ttl-ms:300000}") long ttlMs,
+                              @Value("${audira.entitlements.version-check-ms:1000}") long versionCheckMs,
+                              @Value("${audira.entitlements.max-users:10000}") int maxUsers,
+                              @Value("${audira.entitlements.client-max-age-seconds:30}") long clientMaxAgeSeconds) {
+        this.purchasedItemRepository = purchasedItemRepository;
+        this.entitlementVersionRepository = entitlementVersionRepository;
+        this.ttlMs = ttlMs;
+        this.versionCheckMs = versionCheckMs;
+        this.maxUsers = maxUsers;
+        this.clientMaxAgeSeconds = clientMaxAgeSeconds;
+
+        registerCounter(meterRegistry, hits, "hit");
+        registerCounter(meterRegistry, misses, "miss");
+        Gauge.builder("audira.entitlements.size", cache, Map::size)
+                .description("Users with a cached entitlement set")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indica si un usuario posee un artículo.
+     * <p>
+     * Se responde desde la caché, tanto si el artículo está como si no.
+     * </p>
+     *
+     * @param userId El ID del usuario.
+     * @param itemType El tipo de artículo.
+     * @param itemId El ID del artículo.
+     * @return {@code true} si el usuario posee el artículo.
+     */
+    public boolean owns(Long userId, ItemType itemType, Long itemId) {
+        return Arrays.binarySearch(get(userId).ids(itemType), itemId) >= 0;
+    }
+
+    /**
+     * Indica cuáles de los artículos indicados posee un usuario.
+     *
+     * @param userId El ID del usuario.
+     * @param itemType El tipo de artículo.
+     * @param itemIds IDs de los artículos (como máximo {@link #MAX_BATCH_SIZE}).
+     * @return Los IDs que posee, sin duplicados y en el orden en que se pidieron.
+     * @throws IllegalArgumentException si se piden más de {@link #MAX_BATCH_SIZE} IDs.
+     */
+    public List<Long> findOwned(Long userId, ItemType itemType, Collection<Long> itemIds) {
+        if (itemIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size exceeds maximum of " + MAX_BATCH_SIZE);
+        }
+        long[] cached = get(userId).ids(itemType);
+        Set<Long> result = new LinkedHashSet<>();
+        for (Long itemId : itemIds) {
+            if (itemId != null && Arrays.binarySearch(cached, itemId) >= 0) {
+                result.add(itemId);
+            }
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * Tiempo (en segundos) que los clientes pueden cachear las respuestas de {@link #findOwned}.
+     *
+     * @return La antigüedad máxima para la cabecera {@code Cache-Control}.
+     */
+    public long getClientMaxAgeSeconds() {
+        return clientMaxAgeSeconds;
+    }
+
+    /**
+     * Descarta la entrada de un usuario.
+     *
+     * @param userId El ID del usuario.
+     */
+    public void invalidate(Long userId) {
+        cache.compute(userId, (key, entry) -> {
+            versions.put(userId, sequence.incrementAndGet());
+            return null;
+        });
+        if (versions.size() > maxUsers) {
+            long upTo = prunedUpTo.accumulateAndGet(sequence.get(), Math::max);
+            versions.values().removeIf(version -> version <= upTo);
+        }
+    }
+
+    /**
+     * Incrementa la versión de los artículos de un usuario dentro de la transacción en curso, para que las demás
+     * instancias descarten su copia, y descarta la entrada local cuando se confirme (o de inmediato si no hay
+     * transacción). Debe llamarse dentro de la transacción que modifica sus artículos.
+     *
+     * @param userId El ID del usuario.
+     */
+    public void invalidateAfterCommit(Long userId) {
+        entitlementVersionRepository.bump(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(userId);
+            }
+        });
+    }
+
+    private Entry get(Long userId) {
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(userId);
+        if (entry != null && now - entry.loadedAt() < ttlMs) {
+            if (now - entry.checkedAt() < versionCheckMs) {
+                hits.increment();
+                return entry;
+            }
+            long version = currentVersion(userId);
+            if (version == entry.version()) {
+                cache.replace(userId, entry, entry.checkedAt(now));
+                hits.increment();
+                return entry;
+            }
+            // Artículos cambiados en otra instancia
+            invalidate(userId);
+            misses.increment();
+            return load(userId, version, now);
+        }
+        misses.increment();
+        return load(userId, currentVersion(userId), now);
+    }
+
+    private long currentVersion(Long userId) {
+        return entitlementVersionRepository.findVersionByUserId(userId).orElse(0L);
+    }
+
+    /**
+     * Carga los artículos de un usuario. La versión se lee antes que los artículos: si cambian entre ambas lecturas,
+     * la entrada queda con una versión antigua y se recarga en la siguiente comprobación.
+     */
+    private Entry load(Long userId, long version, long now) {
+        long startedAt = sequence.get();
+        Map<ItemType, List<Long>> byType = new EnumMap<>(ItemType.class);
+        for (Object[] row : purchasedItemRepository.findItemKeysByUserId(userId)) {
+            byType.computeIfAbsent((ItemType) row[0], type -> new ArrayList<>()).add((Long) row[1]);
+        }
+        Entry entry = new Entry(
+                toSortedArray(byType.get(ItemType.SONG)),
+                toSortedArray(byType.get(ItemType.ALBUM)),
+                toSortedArray(byType.get(ItemType.MERCHANDISE)),
+                version,
+                now,
+                now);
+
+        makeRoom(now);
+        // Se publica solo si el usuario no se ha invalidado durante la carga; la comprobación y la escritura son
+        // atómicas respecto a invalidate(), que guarda la versión dentro del mismo compute
+        cache.compute(userId, (key, current) ->
+                startedAt >= prunedUpTo.get() && versions.getOrDefault(userId, 0L) <= startedAt ? entry : current);
+        return entry;
+    }
+
+    /**
+     * Libera espacio antes de insertar una entrada: elimina las caducadas y, si la caché sigue llena, la vacía.
+     */
+    private void makeRoom(long now) {
+        if (cache.size() < maxUsers) {
+            return;
+        }
+        cache.values().removeIf(entry -> now - entry.loadedAt() >= ttlMs);
+        if (cache.size() >= maxUsers) {
+            log.debug("Entitlement cache full ({} users), clearing", cache.size());
+            cache.clear();
+        }
+    }
+
+    private static long[] toSortedArray(List<Long> ids) {
+        if (ids == null) {
+            return new long[0];
+        }
+        long[] array = ids.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(array);
+        return array;
+    }
+
+    private static void registerCounter(MeterRegistry meterRegistry, LongAdder counter, String result) {
+        FunctionCounter.builder("audira.entitlements.requests", counter, LongAdder::doubleValue)
+                .description("Entitlement lookups served by the commerce entitlement cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * IDs ordenados de los artículos de un usuario, por tipo, con la versión con la que se cargaron, el instante de
+     * carga y el de la última comprobación de versión.
+     */
+    private record Entry(long[] songs, long[] albums, long[] merchandise, long version, long loadedAt, long checkedAt) {
+
+        Entry checkedAt(long now) {
+            return new Entry(songs, albums, merchandise, version, loadedAt, now);
+        }
+
+        long[] ids(ItemType itemType) {
+            return switch (itemType) {
+                case SONG -> songs;
+                case ALBUM -> albums;
+                case MERCHANDISE -> merchandise;
+            };
+        }
+    }
+}
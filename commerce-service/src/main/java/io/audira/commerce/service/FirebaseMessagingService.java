@@ -15,6 +15,7 @@ import org.springframework.stereotype.Service;
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +37,9 @@ import java.util.Map;
 @Slf4j
 public class FirebaseMessagingService {
 
+    /** Máximo de tokens admitido por Firebase en un mismo mensaje multicast. */
+    public static final int MULTICAST_LIMIT = 500;
+
     private final FcmTokenRepository fcmTokenRepository;
 
     /**
@@ -113,30 +117,18 @@ public class FirebaseMessagingService {
         }
 
         try {
-            List<FcmToken> tokens = fcmTokenRepository.findByUserId(userId);
+            List<String> tokens = fcmTokenRepository.findByUserId(userId).stream()
+                    .map(FcmToken::getToken)
+                    .toList();
 
             if (tokens.isEmpty()) {
                 log.warn("⚠️  No FCM tokens found for user {}", userId);
                 return false;
             }
 
-            int successCount = 0;
-            int failureCount = 0;
-
-            for (FcmToken fcmToken : tokens) {
-                
-                boolean sent = sendToToken(fcmToken.getToken(), title, message, type, referenceId, referenceType);
-                if (sent) {
-                    successCount++;
-                } else {
-                    failureCount++;
-                }
-            }
-
-            log.info("Sent notifications to user {}: {} success, {} failures",
-                userId, successCount, failureCount);
-
-            return successCount > 0;
+            boolean sent = sendToTokens(tokens, title, message, type, referenceId, referenceType);
+            log.info("Sent notifications to user {}: {}", userId, sent ? "success" : "all failed");
+            return sent;
 
         } catch (Exception e) {
             log.error("Error sending FCM notification to user {}: {}", userId, e.getMessage());
@@ -144,6 +136,29 @@ public class FirebaseMessagingService {
         }
     }
 
+    /**
+     * Envía una notificación a los dispositivos (tokens) ya conocidos de un usuario, uno a uno.
+     * <p>
+     * Variante de {@link #sendNotification} para quien ya ha cargado los tokens (p. ej. en bloque para varios usuarios).
+     * </p>
+     *
+     * @param tokens Tokens FCM de los dispositivos del usuario.
+     * @param title El título de la notificación.
+     * @param message El cuerpo del mensaje.
+     * @param type El tipo de notificación.
+     * @param referenceId ID de referencia (opcional).
+     * @param referenceType Tipo de referencia (opcional).
+     * @return {@code true} si al menos un mensaje fue enviado con éxito.
+     */
+    public boolean sendToTokens(List<String> tokens, String title, String message,
+                                String type, Long referenceId, String referenceType) {
+        boolean sent = false;
+        for (String token : tokens) {
+            sent |= sendToToken(token, title, message, type, referenceId, referenceType);
+        }
+        return sent;
+    }
+
     /**
      * Envía una notificación a un token de dispositivo específico.
      * <p>
@@ -238,17 +253,18 @@ public class FirebaseMessagingService {
      * @param type El tipo de notificación.
      * @param referenceId ID de referencia (opcional).
      * @param referenceType Tipo de referencia (opcional).
+     * @return Número de mensajes entregados con éxito (0 si Firebase no está listo o el envío falla).
      */
-    public void sendMulticast(List<String> tokens, String title, String message,
+    public int sendMulticast(List<String> tokens, String title, String message,
                               String type, Long referenceId, String referenceType) {
         if (!isFirebaseInitialized) {
             log.error("❌ Cannot send multicast notification: Firebase not initialized");
-            return;
+            return 0;
         }
 
         if (tokens.isEmpty()) {
             log.warn("⚠️  No tokens provided for multicast message");
-            return;
+            return 0;
         }
 
         try {
@@ -301,10 +317,48 @@ public class FirebaseMessagingService {
                     }
                 }
             }
+            return response.getSuccessCount();
 
         } catch (Exception e) {
             log.error("Error sending multicast message: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Envía la misma notificación a todos los dispositivos de un conjunto de usuarios.
+     * <p>
+     * Carga los tokens de todos los usuarios con una sola consulta y los envía en bloques de
+     * {@link #MULTICAST_LIMIT} mediante {@link #sendMulticast}, en lugar de un envío por usuario y token.
+     * Se utiliza para las notificaciones masivas (p. ej. un nuevo lanzamiento a los seguidores de un artista).
+     * </p>
+     *
+     * @param userIds IDs de los usuarios destinatarios.
+     * @param title El título de la notificación.
+     * @param message El cuerpo del mensaje.
+     * @param type El tipo de notificación.
+     * @param referenceId ID de referencia (opcional).
+     * @param referenceType Tipo de referencia (opcional).
+     * @return Número de mensajes entregados con éxito.
+     */
+    public int sendNotificationToUsers(Collection<Long> userIds, String title, String message,
+                                       String type, Long referenceId, String referenceType) {
+        List<String> tokens = fcmTokenRepository.findByUserIdIn(userIds).stream()
+                .map(FcmToken::getToken)
+                .distinct()
+                .toList();
+        if (tokens.isEmpty()) {
+            log.debug("No FCM tokens found for {} users", userIds.size());
+            return 0;
+        }
+
+        int delivered = 0;
+        for (int from = 0; from < tokens.size(); from += MULTICAST_LIMIT) {
+            List<String> chunk = tokens.subList(from, Math.min(from + MULTICAST_LIMIT, tokens.size()));
+            delivered += sendMulticast(chunk, title, message, type, referenceId, referenceType);
         }
+        log.info("Sent notification to {} users: {} of {} devices reached", userIds.size(), delivered, tokens.size());
+        return delivered;
     }
 
     /**
@@ -1,6 +1,7 @@
 package io.audira.commerce.service;
 
 import io.audira.commerce.client.MusicCatalogClient;
+import io.audira.commerce.dto.PurchaseFeedPageDTO;
 import io.audira.commerce.dto.PurchasedItemDTO;
 import io.audira.commerce.dto.UserLibraryDTO;
 import io.audira.commerce.model.ItemType;
@@ -10,11 +11,21 @@ import io.audira.commerce.model.PurchasedItem;
 import io.audira.commerce.repository.PurchasedItemRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -36,6 +47,17 @@ public class LibraryService {
 
     private final PurchasedItemRepository purchasedItemRepository;
     private final MusicCatalogClient musicCatalogClient;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntitlementService entitlementService;
+
+    private static final int MAX_FEED_PAGE_SIZE = 5000;
+
+    /** Filas por lote JDBC al añadir una orden a la biblioteca. */
+    private static final int GRANT_BATCH_SIZE = 500;
+
+    private static final String GRANT_SQL = "INSERT INTO purchased_items " +
+        "(user_id, item_type, item_id, order_id, payment_id, price, quantity, purchased_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (user_id, item_type, item_id) DO NOTHING";
 
     /**
      * Obtiene la biblioteca completa de un usuario, organizada por tipo de artículo.
@@ -89,6 +111,42 @@ public class LibraryService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Obtiene una página del feed global de compras posterior al cursor {@code (since, afterId)}.
+     * <p>
+     * Usado por otros microservicios para consumir las compras entregadas de forma incremental. Los registros se
+     * ordenan por fecha de compra, que se asigna al insertar y no al confirmar: el consumidor debe releer una ventana
+     * de solapamiento para no perder los que confirman fuera de orden, y descartar por ID los que ya aplicó.
+     * </p>
+     *
+     * @param since Instante del cursor, o {@code null} para empezar desde el principio.
+     * @param afterId ID del último registro ya consumido con ese instante.
+     * @param limit Tamaño máximo del lote (se acota a {@value #MAX_FEED_PAGE_SIZE}).
+     * @return Página de {@link PurchasedItemDTO} con el cursor para la siguiente consulta.
+     */
+    @Transactional(readOnly = true)
+    public PurchaseFeedPageDTO getPurchaseFeed(LocalDateTime since, Long afterId, int limit) {
+        int size = limit <= 0 ? MAX_FEED_PAGE_SIZE : Math.min(limit, MAX_FEED_PAGE_SIZE);
+        LocalDateTime from = since != null ? since : LocalDateTime.of(1970, 1, 1, 0, 0);
+        long fromId = afterId != null ? afterId : 0L;
+
+        List<PurchasedItem> purchased = purchasedItemRepository.findFeedAfter(from, fromId, PageRequest.of(0, size));
+
+        LocalDateTime cursorTime = from;
+        long cursorId = fromId;
+        if (!purchased.isEmpty()) {
+            PurchasedItem last = purchased.get(purchased.size() - 1);
+            cursorTime = last.getPurchasedAt();
+            cursorId = last.getId();
+        }
+        return PurchaseFeedPageDTO.builder()
+                .items(purchased.stream().map(PurchasedItemDTO::fromEntity).collect(Collectors.toList()))
+                .cursorTime(cursorTime)
+                .cursorId(cursorId)
+                .hasMore(purchased.size() == size)
+                .build();
+    }
+
     /**
      * Obtiene los artículos comprados de un usuario, filtrados por un tipo de artículo específico.
      *
@@ -108,142 +166,146 @@ public class LibraryService {
 
     /**
      * Verifica si un usuario ya ha adquirido un artículo específico.
+     * <p>
+     * Se resuelve con {@link EntitlementService}, normalmente sin consultar la base de datos.
+     * </p>
      *
      * @param userId El ID del usuario.
      * @param itemType El tipo de artículo.
      * @param itemId El ID del artículo.
      * @return {@code true} si el artículo ha sido comprado, {@code false} en caso contrario.
      */
-    @Transactional(readOnly = true)
     public boolean hasUserPurchasedItem(Long userId, ItemType itemType, Long itemId) {
-        boolean purchased = purchasedItemRepository.existsByUserIdAndItemTypeAndItemId(userId, itemType, itemId);
+        boolean purchased = entitlementService.owns(userId, itemType, itemId);
         log.debug("User {} {} purchased {}/{}", userId, purchased ? "has" : "has not", itemType, itemId);
         return purchased;
     }
 
+    /**
+     * Obtiene del catálogo las canciones de los álbumes de una orden, con una sola llamada.
+     * <p>
+     * Se llama antes de {@link #addOrderToLibrary} y fuera de cualquier transacción, para que la transacción que
+     * registra la compra no espere a las llamadas remotas. Si el catálogo falla, el álbum queda con una lista vacía.
+     * </p>
+     *
+     * @param items Los artículos de la orden.
+     * @return Mapa {@code albumId -> IDs de sus canciones} con cada álbum de la orden.
+     */
+    public Map<Long, List<Long>> resolveAlbumSongs(List<OrderItem> items) {
+        Set<Long> albumIds = items.stream()
+            .filter(item -> item.getItemType() == ItemType.ALBUM)
+            .map(OrderItem::getItemId)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (albumIds.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        log.info("Fetching songs for {} albums", albumIds.size());
+        // Comunicación con el microservicio de Catálogo
+        Map<Long, List<Long>> albumSongs = musicCatalogClient.getSongIdsByAlbums(albumIds);
+        for (Long albumId : albumIds) {
+            if (albumSongs.putIfAbsent(albumId, List.of()) == null) {
+                log.warn("No songs found for album {}. The album might be empty.", albumId);
+            }
+        }
+        return albumSongs;
+    }
+
     /**
      * Procesa una orden completada y añade todos los artículos de dicha orden a la biblioteca del usuario.
      * <p>
      * Este método debe ser llamado solo después de que el pago asociado ha sido confirmado como exitoso.
-     * Lógica clave: Si se compra un {@code ItemType.ALBUM}, también se añaden todas las canciones individuales del álbum a la biblioteca.
+     * Lógica clave: Si se compra un {@code ItemType.ALBUM}, también se añaden todas las canciones individuales del álbum
+     * a la biblioteca, con precio {@code BigDecimal.ZERO} porque su costo ya lo cubre el álbum.
+     * </p>
+     * <p>
+     * Todas las filas se insertan en lotes JDBC de {@value #GRANT_BATCH_SIZE} con
+     * {@code ON CONFLICT (user_id, item_type, item_id) DO NOTHING}: los artículos que el usuario ya tenía se ignoran
+     * sin consultas previas, y repetir la operación para la misma orden no tiene efecto.
      * </p>
      *
      * @param order La entidad {@link Order} completada.
      * @param paymentId El ID del registro de pago asociado a la transacción.
+     * @param albumSongs Canciones de cada álbum de la orden, obtenidas con {@link #resolveAlbumSongs}.
+     * @return Número de artículos añadidos (los que el usuario ya tenía no cuentan).
      */
     @Transactional
-    public void addOrderToLibrary(Order order, Long paymentId) {
+    public int addOrderToLibrary(Order order, Long paymentId, Map<Long, List<Long>> albumSongs) {
         log.info("Adding order {} items to library for user {}", order.getId(), order.getUserId());
 
+        // Los artículos comprados van primero: si una canción se compra suelta y dentro de un álbum en la misma
+        // orden, se registra con su precio
+        Map<String, PurchasedItem> grants = new LinkedHashMap<>();
         for (OrderItem orderItem : order.getItems()) {
-            // Add the purchased item itself (album, song, or merchandise)
-            addItemToLibrary(order.getUserId(), orderItem, order.getId(), paymentId);
-
-            // If it's an album, also add all its songs to the library
-            if (orderItem.getItemType() == ItemType.ALBUM) {
-                addAlbumSongsToLibrary(order.getUserId(), orderItem.getItemId(), order.getId(), paymentId);
+            grants.putIfAbsent(orderItem.getItemType() + ":" + orderItem.getItemId(), new PurchasedItem(
+                order.getUserId(), orderItem.getItemType(), orderItem.getItemId(),
+                order.getId(), paymentId, orderItem.getPrice(), orderItem.getQuantity()));
+        }
+        for (OrderItem orderItem : order.getItems()) {
+            if (orderItem.getItemType() != ItemType.ALBUM) {
+                continue;
+            }
+            for (Long songId : albumSongs.getOrDefault(orderItem.getItemId(), List.of())) {
+                grants.putIfAbsent(ItemType.SONG + ":" + songId, new PurchasedItem(
+                    order.getUserId(), ItemType.SONG, songId,
+                    order.getId(), paymentId, BigDecimal.ZERO, 1));  // Individual songs from album purchase have no separate price
             }
         }
 
-        log.info("Finished adding order {} to library", order.getId());
+        int added = insertIgnoringExisting(new ArrayList<>(grants.values()));
+        entitlementService.invalidateAfterCommit(order.getUserId());
+        log.info("Finished adding order {} to library: {} of {} items added", order.getId(), added, grants.size());
+        return added;
     }
 
     /**
-     * Añade un único artículo de orden a la biblioteca, siempre y cuando no exista ya.
+     * Retira de la biblioteca los artículos concedidos por un pago reembolsado.
+     * <p>
+     * Solo se eliminan las filas registradas con ese pago: los artículos que el usuario ya poseía antes de la compra
+     * conservan su registro original (la concesión los había ignorado).
+     * </p>
      *
      * @param userId El ID del usuario.
-     * @param orderItem El artículo de orden ({@link OrderItem}) a registrar.
-     * @param orderId ID de la orden.
-     * @param paymentId ID del pago.
+     * @param paymentId El ID del pago reembolsado.
+     * @return Número de artículos retirados.
      */
-    private void addItemToLibrary(Long userId, OrderItem orderItem, Long orderId, Long paymentId) {
-        // Check if already exists (avoid duplicates)
-        boolean exists = purchasedItemRepository.existsByUserIdAndItemTypeAndItemId(
-            userId,
-            orderItem.getItemType(),
-            orderItem.getItemId()
-        );
-
-        if (!exists) {
-            PurchasedItem purchasedItem = new PurchasedItem(
-                userId,
-                orderItem.getItemType(),
-                orderItem.getItemId(),
-                orderId,
-                paymentId,
-                orderItem.getPrice(),
-                orderItem.getQuantity()
-            );
-
-            purchasedItemRepository.save(purchasedItem);
-            log.info("Added {} {} to library for user {}",
-                orderItem.getItemType(), orderItem.getItemId(), userId);
-        } else {
-            log.debug("Item {}/{} already in library for user {}",
-                orderItem.getItemType(), orderItem.getItemId(), userId);
-        }
+    @Transactional
+    public int revokePayment(Long userId, Long paymentId) {
+        int removed = purchasedItemRepository.deleteByPaymentId(paymentId);
+        entitlementService.invalidateAfterCommit(userId);
+        log.info("Removed {} items of refunded payment {} from library of user {}", removed, paymentId, userId);
+        return removed;
     }
 
     /**
-     * Obtiene la lista de canciones de un álbum (a través del {@link MusicCatalogClient}) y las añade individualmente a la biblioteca del usuario.
-     * <p>
-     * Las canciones individuales añadidas de un álbum tienen un precio de {@code BigDecimal.ZERO} para reflejar que el costo ya fue cubierto por el álbum.
-     * </p>
+     * Inserta los artículos en lotes JDBC, ignorando los que ya existen por la clave única
+     * {@code (user_id, item_type, item_id)}.
      *
-     * @param userId El ID del usuario.
-     * @param albumId El ID del álbum en el catálogo.
-     * @param orderId ID de la orden.
-     * @param paymentId ID del pago.
+     * @return Número de filas insertadas.
      */
-    private void addAlbumSongsToLibrary(Long userId, Long albumId, Long orderId, Long paymentId) {
-        try {
-            log.info("Fetching songs for album {} to add to user {} library", albumId, userId);
-
-            // Comunicación con el microservicio de Catálogo
-            List<Long> songIds = musicCatalogClient.getSongIdsByAlbum(albumId);
-
-            if (songIds.isEmpty()) {
-                log.warn("No songs found for album {}. The album might be empty.", albumId);
-                return;
-            }
-
-            log.info("Found {} songs in album {}. Adding them to user {} library",
-                songIds.size(), albumId, userId);
-
-            for (Long songId : songIds) {
-                // Check if song is already in library (ej. si fue comprada individualmente antes)
-                boolean exists = purchasedItemRepository.existsByUserIdAndItemTypeAndItemId(
-                    userId,
-                    ItemType.SONG,
-                    songId
-                );
-
-                if (!exists) {
-                    PurchasedItem purchasedItem = new PurchasedItem(
-                        userId,
-                        ItemType.SONG,
-                        songId,
-                        orderId,
-                        paymentId,
-                        BigDecimal.ZERO,  // Individual songs from album purchase have no separate price
-                        1
-                    );
-
-                    purchasedItemRepository.save(purchasedItem);
-                    log.debug("Added song {} from album {} to library for user {}", songId, albumId, userId);
-                } else {
-                    log.debug("Song {} from album {} already in library for user {}", songId, albumId, userId);
-                }
+    private int insertIgnoringExisting(List<PurchasedItem> items) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime purchasedAt = LocalDateTime.now();
+        int[][] counts = jdbcTemplate.batchUpdate(GRANT_SQL, items, GRANT_BATCH_SIZE, (ps, item) -> {
+            ps.setLong(1, item.getUserId());
+            ps.setString(2, item.getItemType().name());
+            ps.setLong(3, item.getItemId());
+            ps.setLong(4, item.getOrderId());
+            ps.setLong(5, item.getPaymentId());
+            ps.setBigDecimal(6, item.getPrice());
+            ps.setInt(7, item.getQuantity());
+            ps.setObject(8, purchasedAt);
+        });
+        int inserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // El driver puede devolver SUCCESS_NO_INFO (-2) si reescribe el lote
+                inserted += count == Statement.SUCCESS_NO_INFO ? 1 : count;
             }
-
-            log.info("Successfully added {} songs from album {} to user {} library",
-                songIds.size(), albumId, userId);
-
-        } catch (Exception e) {
-            log.error("Error adding songs from album {} to user {} library: {}",
-                albumId, userId, e.getMessage(), e);
-            // El fallo de un proceso auxiliar (como esta desagregación) no debe revertir la transacción principal de la compra.
         }
+        return inserted;
     }
 
     /**
@@ -258,5 +320,6 @@ public class LibraryService {
     public void clearUserLibrary(Long userId) {
         log.warn("Clearing all library items for user: {}", userId);
         purchasedItemRepository.deleteByUserId(userId);
+        entitlementService.invalidateAfterCommit(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,108 @@
+package io.audira.commerce.service;
+
+import io.audira.commerce.dto.BatchNotificationRequest;
+import io.audira.commerce.model.NotificationBatchReceipt;
+import io.audira.commerce.repository.NotificationBatchReceiptRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Envío de notificaciones masivas con deduplicación por clave de lote.
+ * <p>
+ * Los envíos de {@code POST /api/notifications/batch} no son idempotentes y pueden seguir en curso después de que el
+ * llamante deje de esperar. Si la petición trae {@code batchKey}, la clave se registra
+ * ({@link NotificationBatchReceiptRepository#claim}) <b>antes</b> de enviar: un reintento con la misma clave no vuelve a
+ * enviar el lote y recibe el resultado registrado. Si el envío falla con una excepción, la clave se libera para que
+ * el reintento pueda enviarlo. Sin clave, el lote se envía siempre.
+ * </p>
+ * <p>
+ * Los recibos se eliminan pasados {@code audira.notification-batch.receipt-retention-hours} horas, margen muy superior al
+ * de los reintentos del llamante.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see io.audira.commerce.controller.NotificationController
+ *
+ */
+@Service
+@Slf4j
+public class NotificationBatchService {
+
+    private final FirebaseMessagingService firebaseMessagingService;
+    private final NotificationBatchReceiptRepository receiptRepository;
+    private final int receiptRetentionHours;
+
+    public NotificationBatchService(FirebaseMessagingService firebaseMessagingService,
+                                    NotificationBatchReceiptRepository receiptRepository,
+                                    @Value("${audira.notification-batch.receipt-retention-hours:48}") int receiptRetentionHours) {
+        this.firebaseMessagingService = firebaseMessagingService;
+        this.receiptRepository = receiptRepository;
+        this.receiptRetentionHours = receiptRetentionHours;
+    }
+
+    /**
+     * Envía un lote, salvo que su clave ya se haya aceptado antes.
+     *
+     * @param request Destinatarios, contenido y clave opcional del lote.
+     * @return Resultado del envío, o el del envío original si el lote es un duplicado.
+     */
+    public BatchResult send(BatchNotificationRequest request) {
+        String batchKey = request.getBatchKey();
+        int recipients = request.getUserIds().size();
+        if (batchKey != null && !batchKey.isBlank()
+                && receiptRepository.claim(batchKey, recipients, LocalDateTime.now()) == 0) {
+            Integer delivered = receiptRepository.findById(batchKey)
+                    .map(NotificationBatchReceipt::getDelivered)
+                    .orElse(null);
+            log.info("Notification batch {} already accepted, not sending it again", batchKey);
+            return new BatchResult(recipients, delivered != null ? delivered : 0, true);
+        }
+
+        int delivered;
+        try {
+            delivered = firebaseMessagingService.sendNotificationToUsers(
+                    request.getUserIds(),
+                    request.getTitle(),
+                    request.getMessage(),
+                    request.getType(),
+                    request.getReferenceId(),
+                    request.getReferenceType());
+        } catch (RuntimeException e) {
+            if (batchKey != null && !batchKey.isBlank()) {
+                receiptRepository.deleteById(batchKey);
+            }
+            throw e;
+        }
+
+        if (batchKey != null && !batchKey.isBlank()) {
+            receiptRepository.markDelivered(batchKey, delivered);
+        }
+        return new BatchResult(recipients, delivered, false);
+    }
+
+    /**
+     * Elimina los recibos de lote más antiguos que el periodo de retención.
+     */
+    @Scheduled(fixedDelayString = "${audira.notification-batch.purge-interval-ms:3600000}",
+            initialDelayString = "${audira.notification-batch.purge-interval-ms:3600000}")
+    public void purgeReceipts() {
+        int purged = receiptRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(receiptRetentionHours));
+        if (purged > 0) {
+            log.info("Purged {} notification batch receipts", purged);
+        }
+    }
+
+    /**
+     * Resultado de un envío masivo.
+     *
+     * @param recipients Usuarios destinatarios.
+     * @param delivered Dispositivos alcanzados (en un duplicado, los del envío original; 0 si aún está en curso).
+     * @param duplicate Si el lote ya se había aceptado y no se ha vuelto a enviar.
+     */
+    public record BatchResult(int recipients, int delivered, boolean duplicate) {
+    }
+}
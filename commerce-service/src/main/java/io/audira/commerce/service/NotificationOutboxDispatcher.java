@@ -0,0 +1,296 @@
+package io.audira.commerce.service;
+
+import io.audira.commerce.model.FcmToken;
+import io.audira.commerce.model.NotificationOutboxEntry;
+import io.audira.commerce.model.NotificationOutboxKind;
+import io.audira.commerce.model.NotificationOutboxStatus;
+import io.audira.commerce.repository.FcmTokenRepository;
+import io.audira.commerce.repository.NotificationOutboxRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Envío en segundo plano de la bandeja de salida de notificaciones ({@link NotificationOutboxEntry}).
+ * <p>
+ * Cada {@code audira.notification-outbox.poll-interval-ms} reclama lotes de {@code audira.notification-outbox.batch-size}
+ * entradas vencidas y los envía hasta vaciar la bandeja:
+ * </p>
+ * <ol>
+ * <li><b>Reclamo:</b> en una transacción corta bloquea las entradas con {@code FOR UPDATE SKIP LOCKED} y adelanta su
+ * {@code nextAttemptAt} {@code audira.notification-outbox.lease-ms}, de modo que otra instancia no las envíe mientras
+ * tanto y, si esta cae a mitad del lote, se reintenten al vencer la reserva.</li>
+ * <li><b>Envío</b> (sin transacción): las entradas {@code PURCHASE_COMPLETED} se redactan
+ * ({@link NotificationService#renderPurchaseNotifications}) y se sustituyen por sus entradas {@code PUSH}; los tokens
+ * de los destinatarios {@code PUSH} del lote se cargan con una sola consulta. Un destinatario sin dispositivos se da
+ * por servido.</li>
+ * <li><b>Resultado:</b> las entradas enviadas se eliminan; las fallidas se reprograman con espera exponencial desde
+ * {@code audira.notification-outbox.backoff-ms} y, tras {@code audira.notification-outbox.max-attempts} intentos,
+ * pasan a {@code FAILED} y se eliminan pasados {@code audira.notification-outbox.failed-retention-days} días.</li>
+ * </ol>
+ * <p>
+ * Métricas: {@code audira.notification-outbox.entries} (etiqueta {@code result}: {@code delivered}, {@code no_device},
+ * {@code retried} o {@code failed}), {@code audira.notification-outbox.delivery.lag} (tiempo desde el evento hasta el
+ * envío) y los indicadores {@code audira.notification-outbox.pending} y {@code audira.notification-outbox.lag}
+ * (antigüedad en segundos de la entrada pendiente más antigua), actualizados en cada ejecución.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see NotificationService
+ *
+ */
+@Service
+@Slf4j
+public class NotificationOutboxDispatcher {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final FcmTokenRepository fcmTokenRepository;
+    private final FirebaseMessagingService firebaseMessagingService;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long leaseMs;
+    private final long backoffMs;
+    private final long maxBackoffMs;
+    private final int maxAttempts;
+    private final int failedRetentionDays;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder noDevice = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final Timer deliveryLag;
+
+    public NotificationOutboxDispatcher(NotificationOutboxRepository outboxRepository,
+                                        FcmTokenRepository fcmTokenRepository,
+                                        FirebaseMessagingService firebaseMessagingService,
+                                        NotificationService notificationService,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${audira.notification-outbox.batch-size:100}") int batchSize,
+                                        @Value("${audira.notification-outbox.lease-ms:60000}") long leaseMs,
+                                        @Value("${audira.notification-outbox.backoff-ms:5000}") long backoffMs,
+                                        @Value("${audira.notification-outbox.max-backoff-ms:600000}") long maxBackoffMs,
+                                        @Value("${audira.notification-outbox.max-attempts:8}") int maxAttempts,
+                                        @Value("${audira.notification-outbox.failed-retention-days:7}") int failedRetentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.fcmTokenRepository = fcmTokenRepository;
+        this.firebaseMessagingService = firebaseMessagingService;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.leaseMs = leaseMs;
+        this.backoffMs = backoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.maxAttempts = maxAttempts;
+        this.failedRetentionDays = failedRetentionDays;
+
+        registerCounter(meterRegistry, delivered, "delivered");
+        registerCounter(meterRegistry, noDevice, "no_device");
+        registerCounter(meterRegistry, retried, "retried");
+        registerCounter(meterRegistry, failed, "failed");
+        Gauge.builder("audira.notification-outbox.pending", pending, AtomicLong::get)
+                .description("Notifications waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("audira.notification-outbox.lag", lagSeconds, AtomicLong::get)
+                .description("Age in seconds of the oldest pending notification")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("audira.notification-outbox.delivery.lag")
+                .description("Time from the originating event to the notification being sent")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Envía las entradas vencidas, lote a lote, hasta que no quede ninguna.
+     */
+    @Scheduled(fixedDelayString = "${audira.notification-outbox.poll-interval-ms:1000}",
+            initialDelayString = "${audira.notification-outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        try {
+            List<NotificationOutboxEntry> batch;
+            do {
+                batch = claim();
+                if (!batch.isEmpty()) {
+                    process(batch);
+                }
+            } while (batch.size() == batchSize);
+        } catch (Exception e) {
+            log.error("Notification outbox dispatch failed: {}", e.getMessage(), e);
+        } finally {
+            refreshGauges();
+        }
+    }
+
+    /**
+     * Elimina las entradas descartadas ({@code FAILED}) más antiguas que el periodo de retención.
+     */
+    @Scheduled(fixedDelayString = "${audira.notification-outbox.purge-interval-ms:3600000}",
+            initialDelayString = "${audira.notification-outbox.purge-interval-ms:3600000}")
+    public void purgeFailed() {
+        LocalDateTime before = LocalDateTime.now().minusDays(failedRetentionDays);
+        Integer purged = transactionTemplate.execute(status ->
+                outboxRepository.deleteByStatusCreatedBefore(NotificationOutboxStatus.FAILED, before));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} failed notifications from the outbox", purged);
+        }
+    }
+
+    /**
+     * Reclama un lote de entradas vencidas reservándolas durante {@code leaseMs}.
+     */
+    private List<NotificationOutboxEntry> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plus(Duration.ofMillis(leaseMs));
+        List<NotificationOutboxEntry> batch = transactionTemplate.execute(status -> {
+            List<NotificationOutboxEntry> due = outboxRepository.lockDue(now, batchSize);
+            due.forEach(entry -> entry.setNextAttemptAt(leaseUntil));
+            return due;
+        });
+        return batch != null ? batch : List.of();
+    }
+
+    private void process(List<NotificationOutboxEntry> batch) {
+        List<NotificationOutboxEntry> pushes = new ArrayList<>();
+        for (NotificationOutboxEntry entry : batch) {
+            if (entry.getKind() == NotificationOutboxKind.PURCHASE_COMPLETED) {
+                expandPurchase(entry);
+            } else {
+                pushes.add(entry);
+            }
+        }
+        if (pushes.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<String>> tokensByUser = fcmTokenRepository
+                .findByUserIdIn(pushes.stream().map(NotificationOutboxEntry::getUserId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.groupingBy(FcmToken::getUserId,
+                        Collectors.mapping(FcmToken::getToken, Collectors.toList())));
+
+        List<Long> sentIds = new ArrayList<>();
+        List<NotificationOutboxEntry> failedEntries = new ArrayList<>();
+        for (NotificationOutboxEntry entry : pushes) {
+            List<String> tokens = tokensByUser.getOrDefault(entry.getUserId(), List.of());
+            if (tokens.isEmpty()) {
+                noDevice.increment();
+                sentIds.add(entry.getId());
+                continue;
+            }
+            String error = send(entry, tokens);
+            if (error == null) {
+                delivered.increment();
+                deliveryLag.record(Duration.between(entry.getCreatedAt(), LocalDateTime.now()));
+                sentIds.add(entry.getId());
+            } else {
+                entry.setLastError(error);
+                failedEntries.add(entry);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sentIds.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(sentIds);
+            }
+            if (!failedEntries.isEmpty()) {
+                LocalDateTime now = LocalDateTime.now();
+                failedEntries.forEach(entry -> reschedule(entry, now));
+                outboxRepository.saveAll(failedEntries);
+            }
+        });
+    }
+
+    /**
+     * Sustituye una entrada {@code PURCHASE_COMPLETED} por las notificaciones ya redactadas de la compra.
+     * Si la redacción falla, la entrada se reprograma como cualquier otro envío fallido.
+     */
+    private void expandPurchase(NotificationOutboxEntry purchase) {
+        try {
+            List<NotificationOutboxEntry> notifications = notificationService.renderPurchaseNotifications(purchase);
+            transactionTemplate.executeWithoutResult(status -> {
+                outboxRepository.saveAll(notifications);
+                outboxRepository.deleteById(purchase.getId());
+            });
+        } catch (Exception e) {
+            log.warn("Failed to render purchase notifications for order {}: {}", purchase.getOrderId(), e.getMessage());
+            purchase.setLastError(truncate(e.getMessage()));
+            transactionTemplate.executeWithoutResult(status -> {
+                reschedule(purchase, LocalDateTime.now());
+                outboxRepository.save(purchase);
+            });
+        }
+    }
+
+    /**
+     * Envía una entrada a los dispositivos de su destinatario.
+     *
+     * @return {@code null} si se envió, o la descripción del error.
+     */
+    private String send(NotificationOutboxEntry entry, List<String> tokens) {
+        try {
+            if (firebaseMessagingService.sendToTokens(tokens, entry.getTitle(), entry.getMessage(),
+                    entry.getType(), null, null)) {
+                return null;
+            }
+            return "No device accepted the notification";
+        } catch (Exception e) {
+            return truncate(e.getMessage());
+        }
+    }
+
+    private void reschedule(NotificationOutboxEntry entry, LocalDateTime now) {
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            entry.setStatus(NotificationOutboxStatus.FAILED);
+            failed.increment();
+            log.warn("Giving up on notification {} for user {} after {} attempts: {}",
+                    entry.getId(), entry.getUserId(), attempts, entry.getLastError());
+        } else {
+            long delay = Math.min(maxBackoffMs, backoffMs << Math.min(attempts - 1, 20));
+            entry.setNextAttemptAt(now.plus(Duration.ofMillis(delay)));
+            retried.increment();
+        }
+    }
+
+    private void refreshGauges() {
+        try {
+            pending.set(outboxRepository.countByStatus(NotificationOutboxStatus.PENDING));
+            LocalDateTime oldest = outboxRepository.findOldestCreatedAt(NotificationOutboxStatus.PENDING);
+            lagSeconds.set(oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()) : 0);
+        } catch (Exception e) {
+            log.debug("Could not refresh notification outbox gauges: {}", e.getMessage());
+        }
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return "Unknown error";
+        }
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+
+    private static void registerCounter(MeterRegistry meterRegistry, LongAdder counter, String result) {
+        FunctionCounter.builder("audira.notification-outbox.entries", counter, LongAdder::doubleValue)
+                .description("Outbox notifications processed by the dispatcher")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -1,8 +1,8 @@
 package io.audira.commerce.service;
 
-import io.audira.commerce.client.NotificationClient;
 import io.audira.commerce.dto.PurchaseNotificationRequest;
 import io.audira.commerce.model.*;
+import io.audira.commerce.repository.NotificationOutboxRepository;
 import io.audira.commerce.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,11 +13,16 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 /**
- * Servicio de lógica de negocio responsable del envío de notificaciones push
+ * Servicio de lógica de negocio responsable de las notificaciones push
  * para eventos clave (compras, errores de pago, cambios de estado).
+ * <p>
+ * Las notificaciones no se envían aquí: se escriben en la bandeja de salida ({@link NotificationOutboxEntry}) dentro de
+ * la transacción del llamante y las envía en segundo plano {@link NotificationOutboxDispatcher}. Así el pago no espera
+ * al proveedor de notificaciones ni a las consultas al catálogo.
+ * </p>
  *
  * @author Grupo GA01
- * @see NotificationClient
+ * @see NotificationOutboxDispatcher
  *
  */
 @Service
@@ -25,7 +30,7 @@ import java.util.stream.Collectors;
 @Slf4j
 public class NotificationService {
 
-    private final NotificationClient notificationClient;
+    private final NotificationOutboxRepository notificationOutboxRepository;
     private final OrderRepository orderRepository;
     private final io.audira.commerce.client.MusicCatalogClient musicCatalogClient;
 
@@ -43,213 +48,241 @@ public class NotificationService {
         Order order = orderRepository.findById(request.getOrderId())
                 .orElseThrow(() -> new RuntimeException("Order not found: " + request.getOrderId()));
 
-        // Creamos un objeto Payment temporal para pasar los datos
-        Payment payment = new Payment();
-        payment.setAmount(request.getTotalAmount());
-
-        notifySuccessfulPurchase(order, payment);
+        notifySuccessfulPurchase(order);
     }
 
     // --- Métodos de Lógica de Notificación ---
 
     /**
-     * Orquesta el envío de notificaciones push tras un pago exitoso.
+     * Registra las notificaciones de un pago exitoso (al comprador y a los artistas) en la bandeja de salida.
      * <p>
-     * Llama por separado a {@link #notifyBuyer(Order, Payment)} y {@link #notifyArtists(Order)}
-     * para asegurar que el fallo de una no detenga a las demás.
+     * Se guarda una sola entrada {@link NotificationOutboxKind#PURCHASE_COMPLETED}; los mensajes se redactan al
+     * enviarla ({@link #renderPurchaseNotifications}), ya que necesitan los títulos de los productos.
      * </p>
      *
      * @param order La orden completada.
-     * @param payment El pago asociado.
      */
-    public void notifySuccessfulPurchase(Order order, Payment payment) {
-        log.info("=== Sending purchase notifications for order: {} ===", order.getOrderNumber());
-        notifyBuyer(order, payment);
-        notifyArtists(order);
+    public void notifySuccessfulPurchase(Order order) {
+        notificationOutboxRepository.save(NotificationOutboxEntry.builder()
+                .kind(NotificationOutboxKind.PURCHASE_COMPLETED)
+                .userId(order.getUserId())
+                .orderId(order.getId())
+                .build());
     }
 
     /**
-     * Notifica al comprador sobre el éxito de su compra.
+     * Redacta las notificaciones de una compra completada: una para el comprador y una por cada artista/vendedor.
+     * <p>
+     * Las entradas resultantes conservan el instante de creación de la compra, para que las métricas de retraso
+     * midan desde el pago.
+     * </p>
+     * <p>
+     * No abre una transacción: la orden se lee con sus ítems en una sola consulta y los títulos se resuelven después,
+     * con una sola llamada al catálogo, sin mantener una conexión a la base de datos durante la llamada remota.
+     * </p>
+     *
+     * @param purchase La entrada {@link NotificationOutboxKind#PURCHASE_COMPLETED}.
+     * @return Las entradas {@link NotificationOutboxKind#PUSH} (sin guardar), o una lista vacía si la orden ya no existe.
+     */
+    public List<NotificationOutboxEntry> renderPurchaseNotifications(NotificationOutboxEntry purchase) {
+        Optional<Order> orderOpt = orderRepository.findWithItemsById(purchase.getOrderId());
+        if (orderOpt.isEmpty()) {
+            log.warn("Order {} not found, skipping purchase notifications", purchase.getOrderId());
+            return List.of();
+        }
+        Order order = orderOpt.get();
+        log.info("=== Rendering purchase notifications for order: {} ===", order.getOrderNumber());
+
+        Map<ItemType, Map<Long, String>> titles = getProductTitles(order.getItems());
+        List<NotificationOutboxEntry> notifications = new ArrayList<>();
+        notifications.add(renderBuyerNotification(order, titles));
+        notifications.addAll(renderArtistNotifications(order, titles));
+        notifications.forEach(notification -> notification.setCreatedAt(purchase.getCreatedAt()));
+        return notifications;
+    }
+
+    /**
+     * Redacta la notificación al comprador sobre el éxito de su compra.
      *
      * @param order La orden completada.
-     * @param payment El pago asociado.
+     * @param titles Títulos de los productos por tipo e ID.
      */
-    private void notifyBuyer(Order order, Payment payment) {
-        try {
-            // Obtener nombres de productos comprados
-            List<String> productNames = new ArrayList<>();
-            for (OrderItem item : order.getItems()) {
-                String productName = getProductName(item);
-                if (productName != null) {
-                    productNames.add(productName);
-                }
+    private NotificationOutboxEntry renderBuyerNotification(Order order, Map<ItemType, Map<Long, String>> titles) {
+        // Obtener nombres de productos comprados
+        List<String> productNames = new ArrayList<>();
+        for (OrderItem item : order.getItems()) {
+            String productName = getProductName(item, titles);
+            if (productName != null) {
+                productNames.add(productName);
             }
+        }
 
-            String productsText = productNames.isEmpty()
-                ? "tus productos"
-                : String.join(", ", productNames);
-
-            String title = "Compra exitosa";
-            String message = String.format("Compra de %s exitosa", productsText);
+        String productsText = productNames.isEmpty()
+            ? "tus productos"
+            : String.join(", ", productNames);
 
-            // Enviar notificación push (Firebase)
-            notificationClient.sendNotification(order.getUserId(), title, message, "SUCCESS");
-        } catch (Exception e) {
-            log.error("Error notifying buyer: {}", e.getMessage());
-        }
+        String title = "Compra exitosa";
+        String message = String.format("Compra de %s exitosa", productsText);
+        return pushEntry(order.getUserId(), title, message, "SUCCESS");
     }
 
     /**
-     * Notifica a cada artista/vendedor involucrado en la orden sobre la venta de sus productos.
+     * Redacta una notificación para cada artista/vendedor involucrado en la orden sobre la venta de sus productos.
      * <p>
      * Los ítems de la orden se agrupan por {@code artistId} para enviar una sola notificación por artista.
      * Los ítems sin {@code artistId} (nulo) se filtran automáticamente para evitar excepciones.
      * </p>
      *
      * @param order La orden completada.
+     * @param titles Títulos de los productos por tipo e ID.
      */
-    private void notifyArtists(Order order) {
-        try {
-            // Filtrar items sin artistId antes de agrupar para evitar NullPointerException
-            Map<Long, List<OrderItem>> itemsByArtist = order.getItems().stream()
-                    .filter(item -> item.getArtistId() != null)
-                    .collect(Collectors.groupingBy(OrderItem::getArtistId));
-
-            if (itemsByArtist.isEmpty()) {
-                log.warn("No items with valid artistId found in order {}", order.getOrderNumber());
-                return;
-            }
+    private List<NotificationOutboxEntry> renderArtistNotifications(Order order, Map<ItemType, Map<Long, String>> titles) {
+        // Filtrar items sin artistId antes de agrupar para evitar NullPointerException
+        Map<Long, List<OrderItem>> itemsByArtist = order.getItems().stream()
+                .filter(item -> item.getArtistId() != null)
+                .collect(Collectors.groupingBy(OrderItem::getArtistId));
 
+        if (itemsByArtist.isEmpty()) {
+            log.warn("No items with valid artistId found in order {}", order.getOrderNumber());
+            return List.of();
+        }
+
+        List<NotificationOutboxEntry> notifications = new ArrayList<>();
         itemsByArtist.forEach((artistId, items) -> {
-            try {
-                // Obtener nombres de productos vendidos
-                List<String> productNames = new ArrayList<>();
-                for (OrderItem item : items) {
-                    String productName = getProductName(item);
-                    if (productName != null) {
-                        productNames.add(productName);
-                    }
+            // Obtener nombres de productos vendidos
+            List<String> productNames = new ArrayList<>();
+            for (OrderItem item : items) {
+                String productName = getProductName(item, titles);
+                if (productName != null) {
+                    productNames.add(productName);
                 }
+            }
 
-                String productsText = productNames.isEmpty()
-                    ? "productos"
-                    : String.join(", ", productNames);
-
-                String title = "Nueva venta";
-                String message = String.format("Se ha comprado una copia digital de %s", productsText);
+            String productsText = productNames.isEmpty()
+                ? "productos"
+                : String.join(", ", productNames);
 
-                // Enviar notificación push (Firebase)
-                notificationClient.sendNotification(artistId, title, message, "INFO");
-            } catch (Exception e) {
-                log.error("Error notifying artist {}: {}", artistId, e.getMessage());
-            }
+            String title = "Nueva venta";
+            String message = String.format("Se ha comprado una copia digital de %s", productsText);
+            notifications.add(pushEntry(artistId, title, message, "INFO"));
         });
-        } catch (Exception e) {
-            log.error("Failed to send purchase notifications for order: {}", order.getOrderNumber(), e);
-        }
+        return notifications;
     }
 
     /**
-     * Envía una notificación al usuario sobre un fallo de pago.
+     * Registra en la bandeja de salida una notificación al usuario sobre un fallo de pago.
      *
      * @param order La orden asociada.
      * @param reason El motivo del fallo (ej. "Tarjeta rechazada").
      */
     public void notifyFailedPayment(Order order, String reason) {
-        try {
-            String title = "❌ Error en el pago";
-            String message = String.format("El pago para el pedido %s ha fallado. Motivo: %s",
-                order.getOrderNumber(), reason);
-
-            // Enviar notificación push (Firebase)
-            notificationClient.sendNotification(order.getUserId(), title, message, "ERROR");
-        } catch (Exception e) {
-            log.error("Error sending failed payment notification", e);
-        }
+        String title = "❌ Error en el pago";
+        String message = String.format("El pago para el pedido %s ha fallado. Motivo: %s",
+            order.getOrderNumber(), reason);
+
+        enqueue(order.getUserId(), title, message, "ERROR");
     }
 
     /**
-     * Envía una notificación al usuario sobre un reembolso procesado, utilizando los datos del pago.
+     * Registra en la bandeja de salida una notificación al usuario sobre un reembolso procesado, utilizando los datos del pago.
      *
      * @param payment El registro de pago asociado al reembolso.
      */
     public void notifyRefund(Payment payment) {
-        try {
-            String title = "Reembolso procesado 💸";
-            String message = String.format("Se ha procesado un reembolso de $%s", payment.getAmount());
-
-            // Enviar notificación push (Firebase)
-            notificationClient.sendNotification(payment.getUserId(), title, message, "INFO");
-        } catch (Exception e) {
-            log.error("Error sending refund notification for payment", e);
-        }
+        String title = "Reembolso procesado 💸";
+        String message = String.format("Se ha procesado un reembolso de $%s", payment.getAmount());
+
+        enqueue(payment.getUserId(), title, message, "INFO");
     }
 
     /**
-     * Envía una notificación al usuario sobre un reembolso procesado, utilizando los datos de la orden.
+     * Registra en la bandeja de salida una notificación al usuario sobre un reembolso procesado, utilizando los datos de la orden.
      *
      * @param order La orden asociada al reembolso.
      */
     public void notifyRefund(Order order) {
-        try {
-            String title = "Reembolso procesado 💸";
-            String message = String.format("Se ha procesado el reembolso para el pedido %s",
-                order.getOrderNumber());
-
-            // Enviar notificación push (Firebase)
-            notificationClient.sendNotification(order.getUserId(), title, message, "INFO");
-        } catch (Exception e) {
-            log.error("Error sending refund notification for order", e);
-        }
+        String title = "Reembolso procesado 💸";
+        String message = String.format("Se ha procesado el reembolso para el pedido %s",
+            order.getOrderNumber());
+
+        enqueue(order.getUserId(), title, message, "INFO");
     }
 
     /**
-     * Envía una notificación al usuario informando de un cambio en el estado de su orden.
+     * Registra en la bandeja de salida una notificación al usuario informando de un cambio en el estado de su orden.
      *
      * @param order La orden cuyo estado ha cambiado.
      * @param oldStatus El estado anterior.
      * @param newStatus El nuevo estado.
      */
     public void notifyOrderStatusChange(Order order, OrderStatus oldStatus, OrderStatus newStatus) {
-        try {
-            String title = "📦 Estado de pedido actualizado";
-            String message = String.format(
-                "Tu pedido %s ha cambiado de estado: %s → %s",
-                order.getOrderNumber(), translateStatus(oldStatus), translateStatus(newStatus)
-            );
-
-            // Enviar notificación push (Firebase)
-            notificationClient.sendNotification(order.getUserId(), title, message, "INFO");
-        } catch (Exception e) {
-            log.error("Error sending order status notification", e);
-        }
+        String title = "📦 Estado de pedido actualizado";
+        String message = String.format(
+            "Tu pedido %s ha cambiado de estado: %s → %s",
+            order.getOrderNumber(), translateStatus(oldStatus), translateStatus(newStatus)
+        );
+
+        enqueue(order.getUserId(), title, message, "INFO");
     }
 
     // --- Métodos Auxiliares ---
 
     /**
-     * Obtiene el nombre de un producto (canción o álbum) a partir de un {@link OrderItem} comunicándose con el microservicio de Catálogo.
+     * Guarda una notificación push en la bandeja de salida, dentro de la transacción actual.
+     */
+    private void enqueue(Long userId, String title, String message, String type) {
+        notificationOutboxRepository.save(pushEntry(userId, title, message, type));
+    }
+
+    private static NotificationOutboxEntry pushEntry(Long userId, String title, String message, String type) {
+        return NotificationOutboxEntry.builder()
+                .kind(NotificationOutboxKind.PUSH)
+                .userId(userId)
+                .title(title)
+                .message(message)
+                .type(type)
+                .build();
+    }
+
+    /**
+     * Obtiene los títulos de las canciones y álbumes de una orden con una sola llamada al microservicio de Catálogo.
      *
-     * @param item El artículo de la orden.
-     * @return El título del producto, o {@code null} si falla la consulta.
+     * @param items Los artículos de la orden.
+     * @return Mapa {@code tipo -> (ID -> título)}; los productos que no se pudieron resolver no aparecen.
      */
-    private String getProductName(OrderItem item) {
-        try {
+    private Map<ItemType, Map<Long, String>> getProductTitles(List<OrderItem> items) {
+        Set<Long> songIds = new HashSet<>();
+        Set<Long> albumIds = new HashSet<>();
+        for (OrderItem item : items) {
             if (item.getItemType() == ItemType.SONG) {
-                Map<String, Object> song = musicCatalogClient.getSongById(item.getItemId());
-                if (song != null && song.get("title") != null) {
-                    return (String) song.get("title");
-                }
+                songIds.add(item.getItemId());
             } else if (item.getItemType() == ItemType.ALBUM) {
-                Map<String, Object> album = musicCatalogClient.getAlbumById(item.getItemId());
-                if (album != null && album.get("title") != null) {
-                    return (String) album.get("title");
-                }
+                albumIds.add(item.getItemId());
             }
-        } catch (Exception e) {
-            log.warn("Could not fetch product name for item {} (type: {})", item.getItemId(), item.getItemType());
         }
-        return null;
+
+        Map<ItemType, Map<Long, String>> titles = new EnumMap<>(ItemType.class);
+        if (songIds.isEmpty() && albumIds.isEmpty()) {
+            return titles;
+        }
+        for (Map<String, Object> product : musicCatalogClient.getProductSummaries(songIds, albumIds)) {
+            if (product.get("id") instanceof Number id && product.get("title") instanceof String title) {
+                ItemType type = "ALBUM".equals(product.get("productType")) ? ItemType.ALBUM : ItemType.SONG;
+                titles.computeIfAbsent(type, key -> new HashMap<>()).put(id.longValue(), title);
+            }
+        }
+        return titles;
+    }
+
+    /**
+     * Obtiene el nombre de un producto (canción o álbum) a partir de un {@link OrderItem}.
+     *
+     * @param item El artículo de la orden.
+     * @param titles Títulos resueltos con {@link #getProductTitles}.
+     * @return El título del producto, o {@code null} si no se pudo resolver.
+     */
+    private static String getProductName(OrderItem item, Map<ItemType, Map<Long, String>> titles) {
+        return titles.getOrDefault(item.getItemType(), Map.of()).get(item.getItemId());
     }
 
     /**
@@ -0,0 +1,181 @@
+package io.audira.commerce.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.audira.commerce.dto.OrderDTO;
+import io.audira.commerce.dto.OrderItemDTO;
+import io.audira.commerce.model.ItemType;
+import io.audira.commerce.model.OrderStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Servicio de exportación de órdenes en streaming, como alternativa a {@link OrderService#getAllOrders()}.
+ * <p>
+ * Las órdenes se leen con un cursor JDBC ({@code fetchSize} filas por viaje, dentro de una transacción de solo
+ * lectura, que es lo que requiere PostgreSQL para no cargar el resultado completo) y se escriben en formato
+ * NDJSON, una orden por línea, a medida que se completan. La memoria usada no depende del número de órdenes.
+ * </p>
+ * <p>
+ * Los filtros se aplican en la base de datos. Los de línea ({@code artistId}, {@code itemType}) devuelven solo
+ * las órdenes con alguna línea que cumpla el filtro y, de cada una, solo esas líneas; {@code totalAmount}
+ * conserva el total de la orden completa.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see io.audira.commerce.controller.OrderController
+ *
+ */
+@Service
+@Slf4j
+public class OrderExportService {
+
+    private static final String BASE_QUERY =
+            "SELECT o.id, o.user_id, o.order_number, o.total_amount, o.status, o.shipping_address, " +
+            "o.created_at, o.updated_at, i.id AS line_id, i.item_type, i.item_id, i.artist_id, i.quantity, i.price " +
+            "FROM orders o LEFT JOIN order_items i ON i.order_id = o.id WHERE 1 = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public OrderExportService(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${audira.orders.export-fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Escribe en {@code out} las órdenes que cumplen los filtros, en formato NDJSON y ordenadas por ID.
+     * Todos los filtros son opcionales ({@code null} o vacío = sin filtro).
+     *
+     * @param statuses Estados de orden a incluir.
+     * @param from Fecha de creación mínima (incluida).
+     * @param to Fecha de creación máxima (excluida).
+     * @param artistId Artista de las líneas a incluir.
+     * @param itemType Tipo de producto de las líneas a incluir.
+     * @param out Flujo de salida de la respuesta.
+     * @return Número de órdenes escritas.
+     */
+    public long exportOrders(Collection<OrderStatus> statuses, LocalDateTime from, LocalDateTime to,
+                             Long artistId, ItemType itemType, OutputStream out) {
+        StringBuilder sql = new StringBuilder(BASE_QUERY);
+        List<Object> params = new ArrayList<>();
+        if (statuses != null && !statuses.isEmpty()) {
+            sql.append(" AND o.status IN (").append(String.join(", ", Collections.nCopies(statuses.size(), "?"))).append(")");
+            statuses.forEach(status -> params.add(status.name()));
+        }
+        if (from != null) {
+            sql.append(" AND o.created_at >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND o.created_at < ?");
+            params.add(to);
+        }
+        if (artistId != null) {
+            sql.append(" AND i.artist_id = ?");
+            params.add(artistId);
+        }
+        if (itemType != null) {
+            sql.append(" AND i.item_type = ?");
+            params.add(itemType.name());
+        }
+        sql.append(" ORDER BY o.id, i.id");
+
+        long start = System.currentTimeMillis();
+        NdjsonOrderWriter writer = new NdjsonOrderWriter(out);
+        readOnlyTransaction.executeWithoutResult(status ->
+                jdbcTemplate.query(sql.toString(), writer::accept, params.toArray()));
+        writer.finish();
+        log.info("Exported {} orders in {} ms", writer.written, System.currentTimeMillis() - start);
+        return writer.written;
+    }
+
+    /**
+     * Agrupa las filas consecutivas de una misma orden y escribe cada orden completa como una línea JSON.
+     */
+    private final class NdjsonOrderWriter {
+        private final OutputStream out;
+        private OrderDTO current;
+        private long written;
+
+        private NdjsonOrderWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        private void accept(ResultSet rs) throws SQLException {
+            long orderId = rs.getLong("id");
+            if (current == null || current.getId() != orderId) {
+                flushCurrent();
+                current = OrderDTO.builder()
+                        .id(orderId)
+                        .userId(rs.getLong("user_id"))
+                        .orderNumber(rs.getString("order_number"))
+                        .items(new ArrayList<>())
+                        .totalAmount(rs.getBigDecimal("total_amount"))
+                        .status(rs.getString("status"))
+                        .shippingAddress(rs.getString("shipping_address"))
+                        .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                        .updatedAt(rs.getObject("updated_at", LocalDateTime.class))
+                        .build();
+            }
+            long lineId = rs.getLong("line_id");
+            if (!rs.wasNull()) {
+                current.getItems().add(OrderItemDTO.builder()
+                        .id(lineId)
+                        .orderId(orderId)
+                        .itemType(ItemType.valueOf(rs.getString("item_type")))
+                        .itemId(rs.getLong("item_id"))
+                        .artistId(rs.getObject("artist_id", Long.class))
+                        .quantity(rs.getInt("quantity"))
+                        .price(rs.getBigDecimal("price"))
+                        .build());
+            }
+        }
+
+        private void finish() {
+            flushCurrent();
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flushCurrent() {
+            if (current == null) {
+                return;
+            }
+            try {
+                out.write(objectMapper.writeValueAsBytes(current));
+                out.write('\n');
+            } catch (IOException e) {
+                // Cliente desconectado: se aborta la consulta en lugar de seguir leyendo
+                throw new UncheckedIOException(e);
+            }
+            written++;
+            current = null;
+        }
+    }
+}
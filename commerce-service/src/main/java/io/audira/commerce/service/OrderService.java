@@ -4,20 +4,35 @@ import io.audira.commerce.client.MusicCatalogClient;
 import io.audira.commerce.dto.CreateOrderRequest;
 import io.audira.commerce.dto.OrderDTO;
 import io.audira.commerce.dto.OrderItemDTO;
+import io.audira.commerce.dto.SalesEventDTO;
+import io.audira.commerce.dto.SalesEventsPageDTO;
 import io.audira.commerce.model.Order;
 import io.audira.commerce.model.OrderItem;
+import io.audira.commerce.model.OrderSalesEvent;
 import io.audira.commerce.model.OrderStatus;
 import io.audira.commerce.model.ItemType;
 import io.audira.commerce.repository.OrderRepository;
-import lombok.RequiredArgsConstructor;
+import io.audira.commerce.repository.OrderSalesEventRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -32,25 +47,55 @@ import java.util.stream.Collectors;
  * @see OrderRepository
  * */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class OrderService {
 
+    /** Tamaño máximo de página del feed de eventos de ventas. */
+    public static final int MAX_SALES_EVENTS_PAGE_SIZE = 5000;
+
+    private static final ZoneId MADRID = ZoneId.of("Europe/Madrid");
+
     private final OrderRepository orderRepository;
+    private final OrderSalesEventRepository orderSalesEventRepository;
     // Cliente inyectado para la comunicación con el microservicio de Catálogo
     private final MusicCatalogClient musicCatalogClient; 
+    private final TransactionTemplate transactionTemplate;
+
+    public OrderService(OrderRepository orderRepository,
+                        OrderSalesEventRepository orderSalesEventRepository,
+                        MusicCatalogClient musicCatalogClient,
+                        PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.orderSalesEventRepository = orderSalesEventRepository;
+        this.musicCatalogClient = musicCatalogClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     /**
      * Crea una nueva orden de compra a partir de una solicitud {@link CreateOrderRequest}.
      * <p>
      * PASO CLAVE: Consulta el catálogo para obtener el artistId de cada item y lo persiste en OrderItem.
+     * Todos los artículos se resuelven con una sola llamada en lote al catálogo, de modo que la latencia no crece con
+     * el número de artículos. La llamada se hace antes de abrir la transacción, para no retener una conexión de la
+     * base de datos mientras se espera al catálogo.
      * </p>
      *
      * @param request La solicitud {@link CreateOrderRequest} validada.
      * @return El objeto {@link OrderDTO} de la orden recién creada.
      */
-    @Transactional
     public OrderDTO createOrder(CreateOrderRequest request) {
+        // OBTENER LOS IDS DE LOS ARTISTAS DEL CATÁLOGO (una sola llamada para toda la orden, sin transacción abierta)
+        Map<ItemType, Map<Long, Long>> artistIds = getArtistIdsFromCatalog(request.getItems());
+
+        return transactionTemplate.execute(status -> saveOrder(request, artistIds));
+    }
+
+    /**
+     * Persiste la orden y sus artículos con los artistas ya resueltos. Se ejecuta dentro de la transacción de
+     * {@link #createOrder}.
+     */
+    private OrderDTO saveOrder(CreateOrderRequest request, Map<ItemType, Map<Long, Long>> artistIds) {
+
         // Generate unique order number
         String orderNumber = generateOrderNumber();
 
@@ -72,24 +117,18 @@ public class OrderService {
         // Save to get the order ID
         order = orderRepository.save(order);
 
-        // Ahora creamos los order items con el order ID y obtenemos el artistId del catálogo
+        // Ahora creamos los order items con el order ID y el artistId ya resuelto
         final Long orderId = order.getId();
-        
+
         List<OrderItem> orderItems = request.getItems().stream()
-                .map(itemDTO -> {
-                    // OBTENER EL ID DEL ARTISTA DEL CATÁLOGO (CORRECCIÓN)
-                    Long artistId = getArtistIdFromCatalog(itemDTO); 
-                    
-                    // CONSTRUIR EL ORDERITEM con el artistId
-                    return OrderItem.builder()
-                            .orderId(orderId)
-                            .itemType(itemDTO.getItemType())
-                            .itemId(itemDTO.getItemId())
-                            .quantity(itemDTO.getQuantity())
-                            .price(itemDTO.getPrice())
-                            .artistId(artistId) // <--- ASIGNACIÓN CRÍTICA
-                            .build();
-                })
+                .map(itemDTO -> OrderItem.builder()
+                        .orderId(orderId)
+                        .itemType(itemDTO.getItemType())
+                        .itemId(itemDTO.getItemId())
+                        .quantity(itemDTO.getQuantity())
+                        .price(itemDTO.getPrice())
+                        .artistId(artistIds.getOrDefault(itemDTO.getItemType(), Map.of()).get(itemDTO.getItemId()))
+                        .build())
                 .collect(Collectors.toList());
 
         // Add items to order and save again
@@ -98,43 +137,47 @@ public class OrderService {
 
         return mapToDTO(savedOrder);
     }
-    
+
     // -----------------------------------------------------
-    // MÉTODO AUXILIAR PARA OBTENER EL ID DEL ARTISTA
+    // MÉTODO AUXILIAR PARA OBTENER LOS IDS DE LOS ARTISTAS
     // -----------------------------------------------------
-    
+
     /**
-     * Consulta el MusicCatalogClient (microservicio) para obtener el ID del artista asociado al ítem.
-     * Utiliza la nueva ruta transaccional en el servicio de Catálogo.
+     * Consulta el MusicCatalogClient (microservicio) para obtener el ID del artista de todos los ítems de la orden
+     * con una sola llamada en lote ({@code POST /api/products/batch}).
+     * Los ítems que el catálogo no resuelve quedan sin artistId, igual que antes con las consultas individuales.
+     *
+     * @return Los IDs de los artistas por tipo de ítem y ID de ítem.
      */
-    private Long getArtistIdFromCatalog(OrderItemDTO itemDTO) {
-        try {
-            ItemType type = itemDTO.getItemType();
-            Long itemId = itemDTO.getItemId();
-            
-            Map<String, Object> productDetails;
-            
-            if (type == ItemType.SONG) {
-                // Llama al método del cliente HTTP que apunta a /api/songs/{id}/details/commerce
-                productDetails = musicCatalogClient.getSongDetailsForCommerce(itemId);
-            } else if (type == ItemType.ALBUM) {
-                // Lógica de álbum pendiente: si existe un endpoint para álbumes, se usaría aquí.
-                // Por ahora, usamos getAlbumById como fallback, si sabemos que devuelve artistId.
-                productDetails = musicCatalogClient.getAlbumById(itemId); 
+    private Map<ItemType, Map<Long, Long>> getArtistIdsFromCatalog(List<OrderItemDTO> items) {
+        Set<Long> songIds = new HashSet<>();
+        Set<Long> albumIds = new HashSet<>();
+        for (OrderItemDTO item : items) {
+            if (item.getItemType() == ItemType.SONG) {
+                songIds.add(item.getItemId());
+            } else if (item.getItemType() == ItemType.ALBUM) {
+                albumIds.add(item.getItemId());
             } else {
-                log.warn("ItemType {} no soportado para búsqueda de artista.", type);
-                return null;
+                log.warn("ItemType {} no soportado para búsqueda de artista.", item.getItemType());
             }
+        }
 
-            if (productDetails != null && productDetails.get("artistId") instanceof Number) {
-                // Retorna el ID del artista
-                return ((Number) productDetails.get("artistId")).longValue(); 
+        Map<ItemType, Map<Long, Long>> artistIds = new EnumMap<>(ItemType.class);
+        if (songIds.isEmpty() && albumIds.isEmpty()) {
+            return artistIds;
+        }
+        for (Map<String, Object> product : musicCatalogClient.getProductSummaries(songIds, albumIds)) {
+            if (product.get("id") instanceof Number id && product.get("artistId") instanceof Number artistId) {
+                ItemType type = "ALBUM".equals(product.get("productType")) ? ItemType.ALBUM : ItemType.SONG;
+                artistIds.computeIfAbsent(type, key -> new HashMap<>()).put(id.longValue(), artistId.longValue());
             }
-            
-        } catch (Exception e) {
-            log.error("Failed to fetch artistId for item {} (Type: {}). Error: {}", itemDTO.getItemId(), itemDTO.getItemType(), e.getMessage());
         }
-        return null;
+        int requested = songIds.size() + albumIds.size();
+        int resolved = artistIds.values().stream().mapToInt(Map::size).sum();
+        if (resolved < requested) {
+            log.error("Failed to fetch artistId for {} of {} order items", requested - resolved, requested);
+        }
+        return artistIds;
     }
 
     // -----------------------------------------------------
@@ -234,6 +277,78 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Registra un evento {@code DELIVERED} para las órdenes entregadas antes de que existiera el feed de ventas.
+     * <p>
+     * Se ejecuta al arrancar y es idempotente. Los eventos se fechan ahora, no con la fecha de la orden, para que los
+     * consumidores que ya siguen el feed los reciban por delante de su cursor.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSalesEvents() {
+        int inserted = orderSalesEventRepository.backfillDelivered(ZonedDateTime.now(MADRID).toLocalDateTime());
+        if (inserted > 0) {
+            log.info("Backfilled {} sales events for delivered orders", inserted);
+        }
+    }
+
+    /**
+     * Obtiene los eventos de ventas posteriores al cursor {@code (since, afterId)}.
+     * <p>
+     * Feed incremental para los agregados de ventas de otros servicios. Cada evento es una transición que el
+     * consumidor aplica una sola vez: {@code DELIVERED} suma la orden y {@code CANCELLED} (reembolso de una orden
+     * entregada) la resta. Así el consumidor no necesita recordar qué órdenes ha contado; solo descarta por ID los
+     * eventos que vuelve a leer.
+     * </p>
+     *
+     * @param since Instante del cursor, o {@code null} para empezar desde el principio.
+     * @param afterId ID del último evento ya procesado con ese instante.
+     * @param limit Tamaño de página solicitado (se limita a {@link #MAX_SALES_EVENTS_PAGE_SIZE}).
+     * @return Página de eventos con el cursor para la siguiente consulta.
+     */
+    @Transactional(readOnly = true)
+    public SalesEventsPageDTO getSalesEvents(LocalDateTime since, Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_SALES_EVENTS_PAGE_SIZE));
+        LocalDateTime from = since != null ? since : LocalDateTime.of(1970, 1, 1, 0, 0);
+        long fromId = afterId != null ? afterId : 0L;
+
+        List<OrderSalesEvent> events = orderSalesEventRepository.findAfter(from, fromId, PageRequest.of(0, pageSize));
+
+        Set<Long> orderIds = events.stream().map(OrderSalesEvent::getOrderId).collect(Collectors.toSet());
+        Map<Long, OrderDTO> orders = new HashMap<>();
+        for (Order order : orderRepository.findWithItemsByIdIn(orderIds)) {
+            orders.put(order.getId(), mapToDTO(order));
+        }
+
+        List<SalesEventDTO> dtos = new ArrayList<>(events.size());
+        for (OrderSalesEvent event : events) {
+            OrderDTO order = orders.get(event.getOrderId());
+            if (order == null) {
+                continue;
+            }
+            dtos.add(SalesEventDTO.builder()
+                    .id(event.getId())
+                    .type(event.getType().name())
+                    .occurredAt(event.getOccurredAt())
+                    .order(order)
+                    .build());
+        }
+
+        LocalDateTime cursorTime = from;
+        long cursorId = fromId;
+        if (!events.isEmpty()) {
+            OrderSalesEvent last = events.get(events.size() - 1);
+            cursorTime = last.getOccurredAt();
+            cursorId = last.getId();
+        }
+        return SalesEventsPageDTO.builder()
+                .events(dtos)
+                .cursorTime(cursorTime)
+                .cursorId(cursorId)
+                .hasMore(events.size() == pageSize)
+                .build();
+    }
+
     /**
      * Mapea una entidad {@link Order} a su respectivo Data Transfer Object (DTO) {@link OrderDTO}.
      * <p>
@@ -0,0 +1,483 @@
+package io.audira.commerce.service;
+
+import io.audira.commerce.client.PaymentGatewayClient;
+import io.audira.commerce.client.PaymentGatewayClient.ChargeRequest;
+import io.audira.commerce.client.PaymentGatewayClient.ChargeResult;
+import io.audira.commerce.client.PaymentGatewayClient.ChargeStatus;
+import io.audira.commerce.dto.ProcessPaymentRequest;
+import io.audira.commerce.model.*;
+import io.audira.commerce.repository.OrderItemRepository;
+import io.audira.commerce.repository.OrderRepository;
+import io.audira.commerce.repository.OrderSalesEventRepository;
+import io.audira.commerce.repository.PaymentRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Máquina de estados de los pagos: aplica las transiciones de {@link PaymentStatus} y sus efectos, cada una en una
+ * transacción corta.
+ * <p>
+ * Flujo de un pago:
+ * </p>
+ * <ol>
+ * <li>{@link #start}: registra el pago en {@code PROCESSING} y confirma de inmediato.</li>
+ * <li>{@link #submit}: lo envía a la pasarela ({@link PaymentGatewayClient}) sin esperar la respuesta, con una clave de
+ * idempotencia derivada del {@code transactionId} y del número de intento; la respuesta se procesa en el ejecutor
+ * {@code payment-}.</li>
+ * <li>Si la pasarela acepta: se guarda la aprobación ({@code approvedAt}) y después {@code PROCESSING → COMPLETED}, la orden pasa a {@code DELIVERED}, los artículos se añaden a
+ * la biblioteca y se encolan las notificaciones, todo en la misma transacción; las canciones de los álbumes se piden al
+ * catálogo antes de abrirla. Después, en otra transacción, se vacía el carrito.</li>
+ * <li>Si rechaza: {@code PROCESSING → FAILED} y se notifica al usuario.</li>
+ * <li>Si no responde en {@code audira.payments.gateway-timeout-ms} o la llamada falla, el resultado es desconocido (la
+ * pasarela pudo cobrar): el pago sigue en {@code PROCESSING} con {@code outcomeUnknownAt}. Una respuesta tardía se sigue
+ * aplicando, y si no llega, {@link #resolveStalePayments} lo concilia con la pasarela.</li>
+ * <li>Al confirmarse cualquiera de los dos resultados, {@link PaymentStatusNotifier} lo entrega a los clientes
+ * suscritos al pago.</li>
+ * </ol>
+ * <p>
+ * Cada transición bloquea la fila del pago y comprueba {@link PaymentStatus#canTransitionTo}, de modo que una respuesta
+ * tardía o duplicada no altera un pago ya resuelto. {@link #resolveStalePayments} revisa periódicamente los pagos que
+ * siguen en {@code PROCESSING}: los ya aprobados (cobrados) cuyo completado falló se vuelven a completar, nunca se
+ * marcan como fallidos; los de resultado desconocido, y los que llevan {@code audira.payments.stale-after-ms} sin
+ * respuesta (p. ej. por un reinicio a mitad del cobro), se concilian consultando el cobro en la pasarela por su clave.
+ * Solo pasan a {@code FAILED} si la pasarela lo rechazó o no lo recibió, así que un reintento ({@link #restart}) nunca
+ * cobra un pago que pudo haberse cobrado.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see PaymentService
+ *
+ */
+@Service
+@Slf4j
+public class PaymentStateMachine {
+
+    private static final ZoneId MADRID = ZoneId.of("Europe/Madrid");
+
+    private final PaymentRepository paymentRepository;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderSalesEventRepository orderSalesEventRepository;
+    private final LibraryService libraryService;
+    private final CartService cartService;
+    private final NotificationService notificationService;
+    private final PaymentStatusNotifier paymentStatusNotifier;
+    private final PaymentGatewayClient paymentGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final long gatewayTimeoutMs;
+    private final long staleAfterMs;
+    private final long staleCheckIntervalMs;
+
+    /** Ejecutor de las respuestas de la pasarela (nunca el hilo de la petición HTTP). */
+    private final ThreadPoolTaskExecutor completionExecutor;
+
+    public PaymentStateMachine(PaymentRepository paymentRepository,
+                               OrderRepository orderRepository,
+                               OrderItemRepository orderItemRepository,
+                               OrderSalesEventRepository orderSalesEventRepository,
+                               LibraryService libraryService,
+                               CartService cartService,
+                               NotificationService notificationService,
+                               PaymentStatusNotifier paymentStatusNotifier,
+                               PaymentGatewayClient paymentGateway,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${audira.payments.gateway-timeout-ms:30000}") long gatewayTimeoutMs,
+                               @Value("${audira.payments.stale-after-ms:600000}") long staleAfterMs,
+                               @Value("${audira.payments.stale-check-interval-ms:60000}") long staleCheckIntervalMs,
+                               @Value("${audira.payments.executor.pool-size:8}") int poolSize,
+                               @Value("${audira.payments.executor.queue-capacity:1000}") int queueCapacity) {
+        this.paymentRepository = paymentRepository;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderSalesEventRepository = orderSalesEventRepository;
+        this.libraryService = libraryService;
+        this.cartService = cartService;
+        this.notificationService = notificationService;
+        this.paymentStatusNotifier = paymentStatusNotifier;
+        this.paymentGateway = paymentGateway;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gatewayTimeoutMs = gatewayTimeoutMs;
+        this.staleAfterMs = staleAfterMs;
+        this.staleCheckIntervalMs = staleCheckIntervalMs;
+
+        this.completionExecutor = new ThreadPoolTaskExecutor();
+        this.completionExecutor.setCorePoolSize(poolSize);
+        this.completionExecutor.setMaxPoolSize(poolSize);
+        this.completionExecutor.setQueueCapacity(queueCapacity);
+        this.completionExecutor.setThreadNamePrefix("payment-");
+        // Con la cola llena la respuesta se procesa en el hilo que la recibe, en lugar de perderse
+        this.completionExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        this.completionExecutor.initialize();
+    }
+
+    /**
+     * Registra un nuevo pago en estado {@code PROCESSING}.
+     *
+     * @param request La solicitud de pago.
+     * @return El pago guardado (ya confirmado).
+     * @throws IllegalArgumentException si la orden no existe.
+     */
+    public Payment start(ProcessPaymentRequest request) {
+        return transactionTemplate.execute(status -> {
+            if (!orderRepository.existsById(request.getOrderId())) {
+                throw new IllegalArgumentException("Order not found: " + request.getOrderId());
+            }
+            return paymentRepository.save(Payment.builder()
+                    .transactionId("TXN-" + UUID.randomUUID())
+                    .orderId(request.getOrderId())
+                    .userId(request.getUserId())
+                    .paymentMethod(request.getPaymentMethod())
+                    .amount(request.getAmount())
+                    .status(PaymentStatus.PROCESSING)
+                    .retryCount(0)
+                    .build());
+        });
+    }
+
+    /**
+     * Vuelve a poner en {@code PROCESSING} un pago fallido para reintentarlo.
+     *
+     * @param paymentId El ID del pago.
+     * @return El pago actualizado (ya confirmado).
+     * @throws RuntimeException si el pago no existe o no está en estado {@code FAILED}.
+     */
+    public Payment restart(Long paymentId) {
+        return transactionTemplate.execute(status -> {
+            Payment payment = lock(paymentId);
+            if (!payment.getStatus().canTransitionTo(PaymentStatus.PROCESSING)) {
+                throw new RuntimeException("Only failed payments can be retried");
+            }
+            payment.setStatus(PaymentStatus.PROCESSING);
+            payment.setRetryCount(payment.getRetryCount() + 1);
+            payment.setErrorMessage(null);
+            payment.setApprovedAt(null);
+            payment.setOutcomeUnknownAt(null);
+            return payment;
+        });
+    }
+
+    /**
+     * Envía un pago en {@code PROCESSING} a la pasarela y vuelve sin esperar la respuesta.
+     * Debe llamarse cuando el pago ya está confirmado en la base de datos.
+     * <p>
+     * Si la pasarela no responde en {@code audira.payments.gateway-timeout-ms}, el pago se marca como de resultado
+     * desconocido, pero la respuesta se sigue esperando: una aprobación tardía completa el pago.
+     * </p>
+     *
+     * @param payment El pago.
+     * @param paymentDetails Datos del medio de pago (no se guardan); puede ser {@code null}.
+     */
+    public void submit(Payment payment, Map<String, String> paymentDetails) {
+        Long paymentId = payment.getId();
+        ChargeRequest request = new ChargeRequest(idempotencyKey(payment), payment.getTransactionId(), payment.getOrderId(),
+                payment.getUserId(), payment.getPaymentMethod(), payment.getAmount(), paymentDetails);
+
+        CompletableFuture<ChargeResult> charge;
+        try {
+            charge = paymentGateway.charge(request);
+        } catch (RuntimeException e) {
+            charge = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<ChargeResult> response = charge;
+        response.whenCompleteAsync((result, error) -> onGatewayResponse(paymentId, result, error), completionExecutor);
+        CompletableFuture.delayedExecutor(gatewayTimeoutMs, TimeUnit.MILLISECONDS, completionExecutor).execute(() -> {
+            if (!response.isDone()) {
+                markOutcomeUnknown(paymentId, "Payment gateway timed out");
+            }
+        });
+    }
+
+    /**
+     * Reembolsa un pago completado: {@code COMPLETED → REFUNDED}, la orden pasa a {@code CANCELLED} y los artículos
+     * concedidos por el pago se retiran de la biblioteca.
+     *
+     * @param paymentId El ID del pago.
+     * @return El pago reembolsado.
+     * @throws RuntimeException si el pago no existe o no está en estado {@code COMPLETED}.
+     */
+    public Payment refund(Long paymentId) {
+        return transactionTemplate.execute(status -> {
+            Payment payment = lock(paymentId);
+            if (!payment.getStatus().canTransitionTo(PaymentStatus.REFUNDED)) {
+                throw new RuntimeException("Only completed payments can be refunded");
+            }
+            payment.setStatus(PaymentStatus.REFUNDED);
+            orderRepository.findById(payment.getOrderId())
+                    .ifPresent(order -> updateOrderStatus(order, OrderStatus.CANCELLED));
+            libraryService.revokePayment(payment.getUserId(), payment.getId());
+            notificationService.notifyRefund(payment);
+            return payment;
+        });
+    }
+
+    /**
+     * Resuelve los pagos atascados en {@code PROCESSING}.
+     * <p>
+     * Los aprobados por la pasarela hace más de {@code audira.payments.stale-check-interval-ms} ya están cobrados:
+     * se reintenta su completado. Los de resultado desconocido desde hace más de ese intervalo, y los que llevan
+     * {@code audira.payments.stale-after-ms} sin respuesta, se concilian con la pasarela ({@link #reconcile}).
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${audira.payments.stale-check-interval-ms:60000}",
+            initialDelayString = "${audira.payments.stale-check-interval-ms:60000}")
+    public void resolveStalePayments() {
+        LocalDateTime now = ZonedDateTime.now(MADRID).toLocalDateTime();
+
+        List<Payment> approved = paymentRepository.findByStatusAndApprovedAtBefore(PaymentStatus.PROCESSING,
+                now.minus(Duration.ofMillis(staleCheckIntervalMs)));
+        for (Payment payment : approved) {
+            log.warn("Payment {} was approved at {} but not completed, retrying completion",
+                    payment.getTransactionId(), payment.getApprovedAt());
+            try {
+                complete(payment.getId());
+            } catch (Exception e) {
+                log.error("Failed to complete approved payment {}, will retry", payment.getTransactionId(), e);
+            }
+        }
+
+        Map<Long, Payment> unresolved = new LinkedHashMap<>();
+        paymentRepository.findByStatusAndApprovedAtIsNullAndOutcomeUnknownAtBefore(PaymentStatus.PROCESSING,
+                        now.minus(Duration.ofMillis(staleCheckIntervalMs)))
+                .forEach(payment -> unresolved.put(payment.getId(), payment));
+        paymentRepository.findByStatusAndApprovedAtIsNullAndUpdatedAtBefore(PaymentStatus.PROCESSING,
+                        now.minus(Duration.ofMillis(staleAfterMs)))
+                .forEach(payment -> unresolved.putIfAbsent(payment.getId(), payment));
+        for (Payment payment : unresolved.values()) {
+            log.warn("Payment {} has no gateway result since {}, reconciling it with the gateway",
+                    payment.getTransactionId(),
+                    payment.getOutcomeUnknownAt() != null ? payment.getOutcomeUnknownAt() : payment.getUpdatedAt());
+            try {
+                reconcile(payment);
+            } catch (Exception e) {
+                log.error("Failed to reconcile payment {}, will retry", payment.getTransactionId(), e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        completionExecutor.shutdown();
+    }
+
+    private void onGatewayResponse(Long paymentId, ChargeResult result, Throwable error) {
+        try {
+            if (error != null) {
+                // La pasarela pudo recibir el cobro: se concilia en lugar de marcarlo como fallido
+                log.error("Payment gateway error for payment {}: {}", paymentId, error.getMessage());
+                markOutcomeUnknown(paymentId, "Payment gateway unavailable");
+            } else if (result.approved()) {
+                if (markApproved(paymentId)) {
+                    complete(paymentId);
+                }
+            } else {
+                fail(paymentId, result.errorMessage() != null ? result.errorMessage() : "Payment declined by gateway");
+            }
+        } catch (Exception e) {
+            // El pago queda en PROCESSING y lo resolverá resolveStalePayments (si ya estaba aprobado, completándolo)
+            log.error("Failed to apply gateway response to payment {}", paymentId, e);
+        }
+    }
+
+    /**
+     * Consulta a la pasarela el resultado de un pago en {@code PROCESSING} por su clave de idempotencia y lo aplica:
+     * cobrado se completa; rechazado se marca como fallido; en curso se deja para la siguiente revisión.
+     * <p>
+     * Que la pasarela no conozca la clave no prueba que no se cobrara (p. ej. la pasarela la olvidó), así que el cobro
+     * se vuelve a enviar con la misma clave: si ya se había cobrado, la pasarela devuelve ese resultado en lugar de
+     * cobrar otra vez. Los datos del medio de pago no se guardan, por lo que el reenvío va sin ellos. Si la consulta
+     * falla, el pago no cambia.
+     * </p>
+     */
+    private void reconcile(Payment payment) {
+        ChargeStatus status;
+        try {
+            status = paymentGateway.status(idempotencyKey(payment)).get(gatewayTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            log.warn("Could not query the gateway for payment {}, will retry: {}",
+                    payment.getTransactionId(), e.getMessage());
+            return;
+        }
+
+        switch (status.state()) {
+            case APPROVED -> {
+                if (markApproved(payment.getId())) {
+                    complete(payment.getId());
+                }
+            }
+            case DECLINED -> fail(payment.getId(),
+                    status.errorMessage() != null ? status.errorMessage() : "Payment declined by gateway");
+            case NOT_FOUND -> {
+                log.warn("Gateway has no charge for payment {}, resubmitting it with the same idempotency key",
+                        payment.getTransactionId());
+                submit(payment, null);
+            }
+            case PENDING -> log.info("Payment {} is still being processed by the gateway", payment.getTransactionId());
+        }
+    }
+
+    /**
+     * Marca un pago en {@code PROCESSING}, aún sin aprobar, como de resultado desconocido. No cambia su estado.
+     */
+    private void markOutcomeUnknown(Long paymentId, String reason) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Payment payment = lock(paymentId);
+                if (payment.getStatus() != PaymentStatus.PROCESSING || payment.getApprovedAt() != null
+                        || payment.getOutcomeUnknownAt() != null) {
+                    return;
+                }
+                payment.setOutcomeUnknownAt(ZonedDateTime.now(MADRID).toLocalDateTime());
+                payment.setErrorMessage(reason);
+                log.warn("Outcome of payment {} is unknown ({}), it will be reconciled with the gateway",
+                        payment.getTransactionId(), reason);
+            });
+        } catch (Exception e) {
+            // Sin la marca, resolveStalePayments lo conciliará pasado stale-after-ms
+            log.error("Failed to mark payment {} as outcome unknown", paymentId, e);
+        }
+    }
+
+    /**
+     * Clave de idempotencia del intento actual: el {@code transactionId}, con el número de reintento a partir del
+     * primero. Un reintento solo es posible tras un resultado confirmado sin cobro, así que una clave nueva no puede
+     * cobrar dos veces.
+     */
+    private static String idempotencyKey(Payment payment) {
+        int retryCount = payment.getRetryCount() != null ? payment.getRetryCount() : 0;
+        return retryCount == 0 ? payment.getTransactionId() : payment.getTransactionId() + "-" + retryCount;
+    }
+
+    /**
+     * Guarda la aprobación de la pasarela antes de completar el pago, para que un fallo posterior no lo deje cobrado
+     * y marcado como fallido.
+     *
+     * @return {@code true} si el pago sigue en {@code PROCESSING} y puede completarse.
+     */
+    private boolean markApproved(Long paymentId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            Payment payment = lock(paymentId);
+            if (payment.getStatus() != PaymentStatus.PROCESSING) {
+                if (payment.getStatus() == PaymentStatus.FAILED) {
+                    log.error("Gateway approved payment {} after it was marked as failed, it needs a manual refund",
+                            payment.getTransactionId());
+                } else {
+                    log.warn("Ignoring gateway approval for payment {} in status {}", paymentId, payment.getStatus());
+                }
+                return false;
+            }
+            if (payment.getApprovedAt() == null) {
+                payment.setApprovedAt(ZonedDateTime.now(MADRID).toLocalDateTime());
+            }
+            return true;
+        }));
+    }
+
+    /**
+     * {@code PROCESSING → COMPLETED}: entrega la orden, la añade a la biblioteca y encola las notificaciones; después
+     * vacía el carrito.
+     */
+    private void complete(Long paymentId) {
+        Payment current = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new RuntimeException("Payment not found: " + paymentId));
+        // Llamadas al catálogo antes de abrir la transacción
+        Map<Long, List<Long>> albumSongs =
+                libraryService.resolveAlbumSongs(orderItemRepository.findByOrderId(current.getOrderId()));
+
+        Payment completed = transactionTemplate.execute(status -> {
+            Payment payment = lock(paymentId);
+            if (!payment.getStatus().canTransitionTo(PaymentStatus.COMPLETED)) {
+                log.warn("Ignoring gateway approval for payment {} in status {}", paymentId, payment.getStatus());
+                return null;
+            }
+            payment.setStatus(PaymentStatus.COMPLETED);
+            payment.setCompletedAt(LocalDateTime.now());
+            payment.setErrorMessage(null);
+
+            Order order = orderRepository.findById(payment.getOrderId())
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+            // Digital products are immediately available
+            updateOrderStatus(order, OrderStatus.DELIVERED);
+            libraryService.addOrderToLibrary(order, payment.getId(), albumSongs);
+            notificationService.notifySuccessfulPurchase(order);
+            paymentStatusNotifier.publishAfterCommit(payment);
+            return payment;
+        });
+        if (completed == null) {
+            return;
+        }
+        log.info("Payment completed successfully: {}", completed.getTransactionId());
+
+        try {
+            cartService.clearCart(completed.getUserId());
+            log.info("Cart cleared for user: {}", completed.getUserId());
+        } catch (Exception e) {
+            // Don't fail the payment if cart clearing fails
+            log.error("Failed to clear cart for user: {}", completed.getUserId(), e);
+        }
+    }
+
+    /**
+     * {@code PROCESSING → FAILED}: guarda el motivo y notifica al usuario.
+     */
+    private void fail(Long paymentId, String reason) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Payment payment = lock(paymentId);
+            if (!payment.getStatus().canTransitionTo(PaymentStatus.FAILED)) {
+                log.warn("Ignoring gateway failure for payment {} in status {}", paymentId, payment.getStatus());
+                return;
+            }
+            if (payment.getApprovedAt() != null) {
+                // Ya cobrado: se completará, nunca se marca como fallido
+                log.warn("Ignoring failure for payment {} already approved by the gateway", paymentId);
+                return;
+            }
+            payment.setStatus(PaymentStatus.FAILED);
+            payment.setErrorMessage(reason);
+            orderRepository.findById(payment.getOrderId())
+                    .ifPresent(order -> notificationService.notifyFailedPayment(order, reason));
+            paymentStatusNotifier.publishAfterCommit(payment);
+            log.warn("Payment failed for order: {} ({})", payment.getOrderId(), reason);
+        });
+    }
+
+    private Payment lock(Long paymentId) {
+        return paymentRepository.findByIdForUpdate(paymentId)
+                .orElseThrow(() -> new RuntimeException("Payment not found"));
+    }
+
+    private void updateOrderStatus(Order order, OrderStatus status) {
+        OrderStatus oldStatus = order.getStatus();
+        order.setStatus(status);
+        // Feed de ventas: una venta al entregarse y su reverso solo si la orden llegó a contar como venta
+        boolean sale = status == OrderStatus.DELIVERED && oldStatus != OrderStatus.DELIVERED;
+        boolean refund = status == OrderStatus.CANCELLED && oldStatus == OrderStatus.DELIVERED;
+        if (sale || refund) {
+            orderSalesEventRepository.record(order.getId(), status.name(), ZonedDateTime.now(MADRID).toLocalDateTime());
+        }
+        // Notificar el cambio de estado
+        notificationService.notifyOrderStatusChange(order, oldStatus, status);
+    }
+}
@@ -0,0 +1,222 @@
+package io.audira.commerce.service;
+
+import io.audira.commerce.dto.PaymentDTO;
+import io.audira.commerce.model.Payment;
+import io.audira.commerce.repository.PaymentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Entrega por <i>push</i> del resultado de los pagos, para que los clientes no tengan que consultar su estado en bucle.
+ * <p>
+ * Mantiene en memoria, por ID de transacción, dos registros de suscriptores: flujos SSE ({@link SseEmitter}) y
+ * peticiones de <i>long-poll</i> ({@link DeferredResult}). Cuando {@link PaymentStateMachine} confirma la transacción
+ * que resuelve un pago, {@link #publishAfterCommit} envía el pago a todos sus suscriptores y los libera; mientras
+ * tanto no se consulta la base de datos.
+ * </p>
+ * <p>
+ * Un suscriptor se registra <b>antes</b> de leer el estado actual del pago, de modo que un resultado confirmado entre
+ * ambos pasos no se pierde: o lo ve la lectura, o lo recibe por el registro. Como los registros son locales a cada
+ * instancia, {@link #reconcile} comprueba cada {@code audira.payments.status.reconcile-interval-ms}, con una sola
+ * consulta, los pagos con suscriptores, y entrega los que se hayan resuelto en otra instancia.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see PaymentStateMachine
+ *
+ */
+@Service
+@Slf4j
+public class PaymentStatusNotifier {
+
+    /** Nombre del evento SSE que transporta el pago resuelto. */
+    public static final String STATUS_EVENT = "status";
+
+    private static final int RECONCILE_CHUNK_SIZE = 1000;
+
+    private final PaymentRepository paymentRepository;
+    private final long sseTimeoutMs;
+    private final long longPollTimeoutMs;
+    private final long maxLongPollTimeoutMs;
+
+    private final ConcurrentMap<String, Set<SseEmitter>> streams = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<DeferredResult<PaymentDTO>>> waiters = new ConcurrentHashMap<>();
+
+    public PaymentStatusNotifier(PaymentRepository paymentRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${audira.payments.status.sse-timeout-ms:60000}") long sseTimeoutMs,
+                                 @Value("${audira.payments.status.long-poll-timeout-ms:25000}") long longPollTimeoutMs,
+                                 @Value("${audira.payments.status.max-long-poll-timeout-ms:60000}") long maxLongPollTimeoutMs) {
+        this.paymentRepository = paymentRepository;
+        this.sseTimeoutMs = sseTimeoutMs;
+        this.longPollTimeoutMs = longPollTimeoutMs;
+        this.maxLongPollTimeoutMs = maxLongPollTimeoutMs;
+
+        Gauge.builder("audira.payments.status.subscribers", streams, PaymentStatusNotifier::size)
+                .description("Open payment status streams (SSE)")
+                .tag("channel", "sse")
+                .register(meterRegistry);
+        Gauge.builder("audira.payments.status.subscribers", waiters, PaymentStatusNotifier::size)
+                .description("Pending payment status long-poll requests")
+                .tag("channel", "long_poll")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre un flujo SSE que emite un único evento {@value #STATUS_EVENT} con el pago en cuanto se resuelve, y se cierra.
+     * Si el pago ya está resuelto, el evento se emite de inmediato.
+     *
+     * @param transactionId ID de transacción del pago.
+     * @return El {@link SseEmitter} suscrito.
+     * @throws RuntimeException si el pago no existe.
+     */
+    public SseEmitter subscribe(String transactionId) {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        add(streams, transactionId, emitter);
+        Runnable unsubscribe = () -> remove(streams, transactionId, emitter);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(error -> unsubscribe.run());
+
+        publishIfResolved(transactionId, () -> remove(streams, transactionId, emitter));
+        return emitter;
+    }
+
+    /**
+     * Espera (<i>long-poll</i>) a que el pago se resuelva.
+     * <p>
+     * La petición se completa con el pago en cuanto se resuelve o, si se agota la espera, con el último estado leído
+     * (el cliente vuelve a llamar). Si el pago ya está resuelto se completa de inmediato.
+     * </p>
+     *
+     * @param transactionId ID de transacción del pago.
+     * @param timeoutMs Tiempo máximo de espera; {@code null} para el valor por defecto. Se limita a
+     *                  {@code audira.payments.status.max-long-poll-timeout-ms}.
+     * @return El {@link DeferredResult} con el pago.
+     * @throws RuntimeException si el pago no existe.
+     */
+    public DeferredResult<PaymentDTO> awaitResolution(String transactionId, Long timeoutMs) {
+        long timeout = timeoutMs != null ? Math.max(1, Math.min(timeoutMs, maxLongPollTimeoutMs)) : longPollTimeoutMs;
+        DeferredResult<PaymentDTO> result = new DeferredResult<>(timeout);
+        add(waiters, transactionId, result);
+        result.onCompletion(() -> remove(waiters, transactionId, result));
+
+        PaymentDTO current = publishIfResolved(transactionId, () -> remove(waiters, transactionId, result));
+        result.onTimeout(() -> result.setResult(current));
+        return result;
+    }
+
+    /**
+     * Entrega el pago a sus suscriptores cuando se confirme la transacción en curso (o de inmediato si no hay ninguna).
+     * Debe llamarse dentro de la transacción que lo resuelve.
+     *
+     * @param payment El pago resuelto.
+     */
+    public void publishAfterCommit(Payment payment) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(PaymentDTO.fromEntity(payment));
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(PaymentDTO.fromEntity(payment));
+            }
+        });
+    }
+
+    /**
+     * Entrega los pagos con suscriptores que se hayan resuelto sin pasar por esta instancia.
+     */
+    @Scheduled(fixedDelayString = "${audira.payments.status.reconcile-interval-ms:5000}",
+            initialDelayString = "${audira.payments.status.reconcile-interval-ms:5000}")
+    public void reconcile() {
+        Set<String> subscribed = new HashSet<>(streams.keySet());
+        subscribed.addAll(waiters.keySet());
+        if (subscribed.isEmpty()) {
+            return;
+        }
+        List<String> transactionIds = new ArrayList<>(subscribed);
+        try {
+            for (int from = 0; from < transactionIds.size(); from += RECONCILE_CHUNK_SIZE) {
+                List<String> chunk = transactionIds.subList(from,
+                        Math.min(from + RECONCILE_CHUNK_SIZE, transactionIds.size()));
+                paymentRepository.findByTransactionIdIn(chunk).stream()
+                        .filter(payment -> payment.getStatus().isResolved())
+                        .map(PaymentDTO::fromEntity)
+                        .forEach(this::publish);
+            }
+        } catch (Exception e) {
+            log.warn("Could not reconcile payment status subscriptions: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Lee el estado actual de un pago recién suscrito y, si ya está resuelto, lo entrega.
+     *
+     * @param onNotFound Anula la suscripción si el pago no existe.
+     * @return El estado leído.
+     */
+    private PaymentDTO publishIfResolved(String transactionId, Runnable onNotFound) {
+        Optional<Payment> payment = paymentRepository.findByTransactionId(transactionId);
+        if (payment.isEmpty()) {
+            onNotFound.run();
+            throw new RuntimeException("Payment not found");
+        }
+        PaymentDTO current = PaymentDTO.fromEntity(payment.get());
+        if (current.getStatus().isResolved()) {
+            publish(current);
+        }
+        return current;
+    }
+
+    private void publish(PaymentDTO payment) {
+        Set<SseEmitter> emitters = streams.remove(payment.getTransactionId());
+        if (emitters != null) {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().name(STATUS_EVENT).data(payment));
+                    emitter.complete();
+                } catch (Exception e) {
+                    // El cliente ya se ha desconectado
+                    emitter.completeWithError(e);
+                }
+            }
+        }
+        Set<DeferredResult<PaymentDTO>> pending = waiters.remove(payment.getTransactionId());
+        if (pending != null) {
+            pending.forEach(result -> result.setResult(payment));
+        }
+    }
+
+    private static <T> void add(ConcurrentMap<String, Set<T>> registry, String transactionId, T subscriber) {
+        registry.compute(transactionId, (key, subscribers) -> {
+            Set<T> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+    }
+
+    private static <T> void remove(ConcurrentMap<String, Set<T>> registry, String transactionId, T subscriber) {
+        registry.computeIfPresent(transactionId, (key, subscribers) -> {
+            subscribers.remove(subscriber);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    private static double size(ConcurrentMap<String, ? extends Set<?>> registry) {
+        return registry.values().stream().mapToInt(Set::size).sum();
+    }
+}
@@ -0,0 +1,159 @@
+package io.audira.commerce.service;
+
+import io.audira.commerce.dto.ArtistSalesDTO;
+import io.audira.commerce.dto.ArtistSalesReportDTO;
+import io.audira.commerce.dto.DailySalesDTO;
+import io.audira.commerce.dto.ItemSalesDTO;
+import io.audira.commerce.model.ItemType;
+import io.audira.commerce.model.OrderStatus;
+import io.audira.commerce.repository.OrderItemRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Servicio de agregación de ventas por artista, producto y día.
+ * <p>
+ * Las ventas se suman en la base de datos con consultas agrupadas sobre {@code order_items.artist_id}
+ * (índice {@code idx_order_items_artist_order}), en lugar de descargar todas las órdenes y sumarlas en el
+ * servicio que las consulta. Solo cuentan las órdenes {@code DELIVERED}; las fechas se refieren a la
+ * creación de la orden.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see OrderItemRepository
+ *
+ */
+@Service
+@RequiredArgsConstructor
+public class SalesReportService {
+
+    /** Número máximo de artistas por consulta de totales en lote. */
+    public static final int MAX_ARTIST_BATCH_SIZE = 1000;
+
+    /** Inicio del rango cuando no se indica fecha inicial. */
+    private static final LocalDate EARLIEST = LocalDate.of(1970, 1, 1);
+
+    private final OrderItemRepository orderItemRepository;
+
+    /**
+     * Obtiene el informe de ventas de un artista: totales, desglose por producto y serie diaria.
+     *
+     * @param artistId ID del artista.
+     * @param from Primer día del rango (incluido), o {@code null} para desde el principio.
+     * @param to Último día del rango (incluido), o {@code null} para hasta hoy.
+     * @return El {@link ArtistSalesReportDTO} del periodo.
+     * @throws IllegalArgumentException Si el rango es inválido.
+     */
+    @Transactional(readOnly = true)
+    public ArtistSalesReportDTO getArtistSalesReport(Long artistId, LocalDate from, LocalDate to) {
+        LocalDate start = from != null ? from : EARLIEST;
+        LocalDate end = to != null ? to : LocalDate.now();
+        validateRange(start, end);
+        LocalDateTime fromTime = start.atStartOfDay();
+        LocalDateTime toTime = end.plusDays(1).atStartOfDay();
+
+        List<ItemSalesDTO> items = new ArrayList<>();
+        long totalUnits = 0L;
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        for (Object[] row : orderItemRepository.sumSalesByItemForArtist(artistId, OrderStatus.DELIVERED, fromTime, toTime)) {
+            ItemSalesDTO item = ItemSalesDTO.builder()
+                    .itemType((ItemType) row[0])
+                    .itemId((Long) row[1])
+                    .units(((Number) row[2]).longValue())
+                    .revenue(toBigDecimal(row[3]))
+                    .build();
+            items.add(item);
+            totalUnits += item.getUnits();
+            totalRevenue = totalRevenue.add(item.getRevenue());
+        }
+
+        List<DailySalesDTO> daily = new ArrayList<>();
+        for (Object[] row : orderItemRepository.sumDailySalesForArtist(
+                artistId, OrderStatus.DELIVERED.name(), fromTime, toTime)) {
+            daily.add(DailySalesDTO.builder()
+                    .date(toLocalDate(row[0]))
+                    .units(((Number) row[1]).longValue())
+                    .revenue(toBigDecimal(row[2]))
+                    .build());
+        }
+
+        return ArtistSalesReportDTO.builder()
+                .artistId(artistId)
+                .from(start)
+                .to(end)
+                .totalUnits(totalUnits)
+                .totalRevenue(totalRevenue)
+                .items(items)
+                .daily(daily)
+                .build();
+    }
+
+    /**
+     * Obtiene las ventas totales de varios artistas en un rango de fechas con una sola consulta.
+     *
+     * @param artistIds IDs de los artistas (como máximo {@link #MAX_ARTIST_BATCH_SIZE} distintos).
+     * @param from Primer día del rango (incluido), o {@code null} para desde el principio.
+     * @param to Último día del rango (incluido), o {@code null} para hasta hoy.
+     * @return Una entrada por ID distinto, en el orden recibido (con ceros si el artista no tiene ventas).
+     * @throws IllegalArgumentException Si el rango es inválido o se supera el tamaño de lote.
+     */
+    @Transactional(readOnly = true)
+    public List<ArtistSalesDTO> getArtistSalesTotals(Collection<Long> artistIds, LocalDate from, LocalDate to) {
+        Set<Long> ids = new LinkedHashSet<>(artistIds);
+        if (ids.size() > MAX_ARTIST_BATCH_SIZE) {
+            throw new IllegalArgumentException("Too many artists in one request (max " + MAX_ARTIST_BATCH_SIZE + ")");
+        }
+        LocalDate start = from != null ? from : EARLIEST;
+        LocalDate end = to != null ? to : LocalDate.now();
+        validateRange(start, end);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Object[]> rows = new HashMap<>();
+        for (Object[] row : orderItemRepository.sumSalesByArtist(
+                ids, OrderStatus.DELIVERED, start.atStartOfDay(), end.plusDays(1).atStartOfDay())) {
+            rows.put((Long) row[0], row);
+        }
+
+        List<ArtistSalesDTO> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Object[] row = rows.get(id);
+            result.add(ArtistSalesDTO.builder()
+                    .artistId(id)
+                    .units(row != null ? ((Number) row[1]).longValue() : 0L)
+                    .revenue(row != null ? toBigDecimal(row[2]) : BigDecimal.ZERO)
+                    .build());
+        }
+        return result;
+    }
+
+    private static void validateRange(LocalDate start, LocalDate end) {
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start date must be before end date");
+        }
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+}
@@ -75,18 +75,30 @@ public class SecurityConfig {
                                 // Rutas de datos públicos de usuario (consulta)
                                 "/api/users",
                                 "/api/users/{id}",
+                                "/api/users/batch",
                                 "/api/users/{userId}/followers",
                                 "/api/users/{userId}/following",
                                 "/api/users/{userId}/following/artists",
+                                "/api/users/{userId}/followers/page",
+                                "/api/users/{userId}/following/page",
+                                "/api/users/{userId}/followers/ids",
                                 "/api/users/{userId}/follow/{targetUserId}", // Permitir el follow/unfollow sin autenticación (si la lógica del servicio lo permite)
+                                // Directorio de artistas (replicación inter-servicio, sin contexto de usuario)
+                                "/api/users/search/artist-ids",
+                                "/api/users/artists/directory",
+                                "/api/users/artists/directory/changes",
                                 // Rutas de archivos (subida y acceso)
                                 "/api/files/**", 
                                 // Rutas de consulta de valoraciones
                                 "/api/ratings/user/{userId}",
                                 "/api/ratings/entity/{entityType}/{entityId}",
                                 "/api/ratings/entity/{entityType}/{entityId}/with-comments",
+                                "/api/ratings/entity/{entityType}/{entityId}/page",
+                                "/api/ratings/entity/{entityType}/{entityId}/with-comments/page",
                                 "/api/ratings/entity/{entityType}/{entityId}/stats",
+                                "/api/ratings/entity/{entityType}/stats/batch",
                                 "/api/ratings/user/{userId}/entity/{entityType}/{entityId}",
+                                "/api/ratings/changes",
                                 // Rutas de FAQs y contacto (acceso público)
                                 "/api/faqs/**", 
                                 "/api/contact/**", 
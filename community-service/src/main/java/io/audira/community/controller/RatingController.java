@@ -7,6 +7,7 @@ import io.audira.community.service.RatingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -156,6 +157,34 @@ public class RatingController {
         }
     }
 
+    /**
+     * Obtiene las valoraciones de un tipo de entidad cambiadas después de un cursor, incluidas las inactivas.
+     * <p>
+     * Mapeo: {@code GET /api/ratings/changes?entityType={tipo}&since={fecha}&afterId={id}&limit={n}}
+     * Destinado a uso interno por otros microservicios (ej. {@code music-catalog-service}). El cliente debe repetir
+     * la consulta con el cursor devuelto mientras {@code hasMore} sea cierto.
+     * </p>
+     *
+     * @param entityType Tipo de entidad (ej. SONG).
+     * @param since Instante del cursor (ISO-8601, opcional).
+     * @param afterId ID de la última valoración ya consumida con ese instante (por defecto 0).
+     * @param limit Tamaño máximo del lote.
+     * @return {@link ResponseEntity} con el {@link RatingChangesPageDTO} solicitado.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<RatingChangesPageDTO> getRatingChanges(
+            @RequestParam("entityType") String entityType,
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime since,
+            @RequestParam(value = "afterId", defaultValue = "0") Long afterId,
+            @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        try {
+            return ResponseEntity.ok(ratingService.getRatingChanges(entityType, since, afterId, limit));
+        } catch (Exception e) {
+            log.error("Error fetching rating changes", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Obtiene todas las valoraciones hechas por el usuario actualmente autenticado.
      * <p>
@@ -223,6 +252,66 @@ public class RatingController {
         }
     }
 
+    /**
+     * Obtiene una página de las valoraciones de una entidad, de la más reciente a la más antigua.
+     * <p>
+     * Mapeo: {@code GET /api/ratings/entity/{entityType}/{entityId}/page}
+     * Alternativa paginada a {@code GET /api/ratings/entity/{entityType}/{entityId}} para entidades con muchas
+     * valoraciones: la respuesta incluye {@code nextCursor}, que se envía tal cual para pedir la página siguiente.
+     * </p>
+     *
+     * @param entityType Tipo de la entidad.
+     * @param entityId ID de la entidad.
+     * @param cursor Cursor de la página anterior (opcional; sin él se devuelve la primera página).
+     * @param limit Tamaño de página (por defecto 20, máximo 100).
+     * @return {@link ResponseEntity} con el {@link RatingPageDTO}, o 400 BAD REQUEST si el cursor no es válido.
+     */
+    @GetMapping("/entity/{entityType}/{entityId}/page")
+    public ResponseEntity<?> getEntityRatingsPage(
+            @PathVariable String entityType,
+            @PathVariable Long entityId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(ratingService.getEntityRatingsPage(entityType, entityId, cursor, limit));
+        } catch (RatingException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error getting entity ratings page", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Internal server error"));
+        }
+    }
+
+    /**
+     * Obtiene una página de las valoraciones con comentario de una entidad, de la más reciente a la más antigua.
+     * <p>
+     * Mapeo: {@code GET /api/ratings/entity/{entityType}/{entityId}/with-comments/page}
+     * </p>
+     *
+     * @param entityType Tipo de la entidad.
+     * @param entityId ID de la entidad.
+     * @param cursor Cursor de la página anterior (opcional; sin él se devuelve la primera página).
+     * @param limit Tamaño de página (por defecto 20, máximo 100).
+     * @return {@link ResponseEntity} con el {@link RatingPageDTO}, o 400 BAD REQUEST si el cursor no es válido.
+     */
+    @GetMapping("/entity/{entityType}/{entityId}/with-comments/page")
+    public ResponseEntity<?> getEntityRatingsWithCommentsPage(
+            @PathVariable String entityType,
+            @PathVariable Long entityId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(ratingService.getEntityRatingsWithCommentsPage(entityType, entityId, cursor, limit));
+        } catch (RatingException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error getting entity ratings with comments page", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Internal server error"));
+        }
+    }
+
     /**
      * Obtiene las estadísticas resumidas de las valoraciones para una entidad (puntuación media, conteo por estrella).
      * <p>
@@ -246,6 +335,35 @@ public class RatingController {
         }
     }
 
+    /**
+     * Obtiene en lote las estadísticas de valoración de varias entidades del mismo tipo.
+     * <p>
+     * Mapeo: {@code POST /api/ratings/entity/{entityType}/stats/batch}
+     * Destinado a uso interno por otros microservicios (ej. métricas de artista en {@code music-catalog-service}):
+     * resuelve cientos de entidades en una sola petición y una sola consulta. Los IDs se envían en el cuerpo
+     * porque pueden ser miles.
+     * </p>
+     *
+     * @param entityType Tipo de las entidades.
+     * @param entityIds Lista de IDs (como máximo {@link RatingService#MAX_STATS_BATCH_SIZE}).
+     * @return {@link ResponseEntity} con una {@link List} de {@link RatingStatsDTO}, una por ID distinto, o 400 BAD REQUEST si se exceden los límites.
+     */
+    @PostMapping("/entity/{entityType}/stats/batch")
+    public ResponseEntity<?> getEntityRatingStatsBatch(
+            @PathVariable String entityType,
+            @RequestBody List<Long> entityIds) {
+        try {
+            return ResponseEntity.ok(ratingService.getEntityRatingStatsBatch(entityType, entityIds));
+        } catch (RatingException e) {
+            log.warn("Rejected rating stats batch: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error getting rating stats batch", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Internal server error"));
+        }
+    }
+
     /**
      * Obtiene la valoración específica de un usuario para una entidad determinada.
      * <p>
@@ -1,17 +1,23 @@
 package io.audira.community.controller;
 
+import io.audira.community.dto.ArtistDirectoryPageDTO;
 import io.audira.community.dto.ChangePasswordRequest;
+import io.audira.community.dto.FollowPageDTO;
 import io.audira.community.dto.UpdateProfileRequest;
+import io.audira.community.dto.UserCardDTO;
 import io.audira.community.dto.UserDTO;
 import io.audira.community.security.UserPrincipal;
+import io.audira.community.service.FollowGraphService;
 import io.audira.community.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -34,6 +40,7 @@ import org.springframework.web.multipart.MultipartFile;
 public class UserController {
 
     private final UserService userService;
+    private final FollowGraphService followGraphService;
 
     // --- Métodos de Perfil y Actualización ---
 
@@ -255,10 +262,42 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Obtiene en lote los usuarios indicados, con una sola consulta.
+     * <p>
+     * Mapeo: {@code POST /api/users/batch?view={card|full}}
+     * Destinado a uso interno por otros microservicios (ej. nombres de artista en {@code music-catalog-service}).
+     * Con {@code view=card} (por defecto) devuelve la tarjeta pública {@link UserCardDTO}, sin los conjuntos de
+     * seguidores; con {@code view=full}, el {@link UserDTO} completo. Los IDs se envían en el cuerpo.
+     * </p>
+     *
+     * @param userIds Lista de IDs (como máximo {@link UserService#MAX_BATCH_SIZE}).
+     * @param view Proyección solicitada ({@code card} o {@code full}).
+     * @return {@link ResponseEntity} con la {@link List} de usuarios encontrados, en el orden recibido,
+     * o 400 BAD REQUEST si la vista no existe o se excede el tamaño del lote.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> getUsersBatch(
+            @RequestBody List<Long> userIds,
+            @RequestParam(value = "view", defaultValue = "card") String view) {
+        try {
+            if ("card".equalsIgnoreCase(view)) {
+                return ResponseEntity.ok(userService.getUserCardsByIds(userIds));
+            }
+            if ("full".equalsIgnoreCase(view)) {
+                return ResponseEntity.ok(userService.getUsersByIds(userIds));
+            }
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown view: " + view));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Obtiene la lista de seguidores de un usuario específico.
      * <p>
      * Mapeo: {@code GET /api/users/{userId}/followers}
+     * Devuelve la lista completa; para usuarios con muchas relaciones conviene {@code /followers/page}.
      * </p>
      *
      * @param userId ID del usuario (tipo {@link Long}) del que se quieren obtener los seguidores.
@@ -274,6 +313,7 @@ public class UserController {
      * Obtiene la lista de usuarios que un usuario específico está siguiendo.
      * <p>
      * Mapeo: {@code GET /api/users/{userId}/following}
+     * Devuelve la lista completa; para usuarios con muchas relaciones conviene {@code /following/page}.
      * </p>
      *
      * @param userId ID del usuario (tipo {@link Long}) del que se quieren obtener los seguidos.
@@ -285,6 +325,74 @@ public class UserController {
         return ResponseEntity.ok(following);
     }
 
+    /**
+     * Obtiene una página de seguidores de un usuario, del más reciente al más antiguo.
+     * <p>
+     * Mapeo: {@code GET /api/users/{userId}/followers/page?cursor={cursor}&limit={n}}
+     * Alternativa paginada a {@code /followers}: devuelve tarjetas de usuario ({@link UserCardDTO}) y el total.
+     * </p>
+     *
+     * @param userId ID del usuario seguido.
+     * @param cursor Cursor de la página anterior (omitir para la primera página).
+     * @param limit Tamaño de página.
+     * @return {@link ResponseEntity} con el {@link FollowPageDTO}, o 400 BAD REQUEST si el cursor no es válido.
+     */
+    @GetMapping("/{userId}/followers/page")
+    public ResponseEntity<?> getUserFollowersPage(
+            @PathVariable("userId") Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(followGraphService.getFollowersPage(userId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Obtiene una página de usuarios seguidos por un usuario, del más reciente al más antiguo.
+     * <p>
+     * Mapeo: {@code GET /api/users/{userId}/following/page?cursor={cursor}&limit={n}}
+     * </p>
+     *
+     * @param userId ID del usuario que sigue.
+     * @param cursor Cursor de la página anterior (omitir para la primera página).
+     * @param limit Tamaño de página.
+     * @return {@link ResponseEntity} con el {@link FollowPageDTO}, o 400 BAD REQUEST si el cursor no es válido.
+     */
+    @GetMapping("/{userId}/following/page")
+    public ResponseEntity<?> getUserFollowingPage(
+            @PathVariable("userId") Long userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(followGraphService.getFollowingPage(userId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Obtiene un bloque de IDs de seguidores de un usuario, en orden ascendente.
+     * <p>
+     * Mapeo: {@code GET /api/users/{userId}/followers/ids?afterId={id}&limit={n}}
+     * Destinado a uso interno por otros microservicios (ej. notificaciones de nuevos lanzamientos): se recorre
+     * reenviando como {@code afterId} el último ID recibido hasta obtener un bloque vacío o incompleto.
+     * </p>
+     *
+     * @param userId ID del usuario seguido.
+     * @param afterId Último ID recibido (0 para empezar).
+     * @param limit Tamaño máximo del bloque (como máximo {@link FollowGraphService#MAX_ID_CHUNK_SIZE}).
+     * @return {@link ResponseEntity} con el array de IDs.
+     */
+    @GetMapping("/{userId}/followers/ids")
+    public ResponseEntity<long[]> getUserFollowerIds(
+            @PathVariable("userId") Long userId,
+            @RequestParam(value = "afterId", defaultValue = "0") long afterId,
+            @RequestParam(value = "limit", defaultValue = "10000") int limit) {
+        return ResponseEntity.ok(followGraphService.getFollowerIds(userId, afterId, limit));
+    }
+
     /**
      * Obtiene la lista de artistas que un usuario específico está siguiendo.
      * <p>
@@ -318,6 +426,24 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    /**
+     * Indica si un usuario sigue a otro (búsqueda por clave primaria en {@code follow_edges}).
+     * <p>
+     * Mapeo: {@code GET /api/users/{userId}/follow/{targetUserId}}
+     * Sustituye a comprobar la pertenencia en el antiguo conjunto {@code followingIds} del perfil.
+     * </p>
+     *
+     * @param userId ID del usuario seguidor.
+     * @param targetUserId ID del usuario seguido.
+     * @return {@link ResponseEntity} con {@code {"following": true|false}}.
+     */
+    @GetMapping("/{userId}/follow/{targetUserId}")
+    public ResponseEntity<Map<String, Boolean>> isFollowing(
+            @PathVariable("userId") Long userId,
+            @PathVariable("targetUserId") Long targetUserId) {
+        return ResponseEntity.ok(Map.of("following", followGraphService.isFollowing(userId, targetUserId)));
+    }
+
     /**
      * Inicia la acción de dejar de seguir a otro usuario.
      * <p>
@@ -366,4 +492,42 @@ public class UserController {
         List<Long> artistIds = userService.searchArtistIds(query);
         return ResponseEntity.ok(artistIds);
     }
-}
\ No newline at end of file
+
+    /**
+     * Exporta una página del directorio de artistas activos, paginada por ID.
+     * <p>
+     * Mapeo: {@code GET /api/users/artists/directory?afterId={id}&limit={n}}
+     * Destinado a uso interno por otros microservicios para construir una réplica local del directorio.
+     * </p>
+     *
+     * @param afterId Último ID recibido (0 para empezar).
+     * @param limit Tamaño máximo de la página.
+     * @return {@link ResponseEntity} con el {@link ArtistDirectoryPageDTO} solicitado.
+     */
+    @GetMapping("/artists/directory")
+    public ResponseEntity<ArtistDirectoryPageDTO> exportArtistDirectory(
+            @RequestParam(value = "afterId", defaultValue = "0") Long afterId,
+            @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(userService.exportArtistDirectory(afterId, limit));
+    }
+
+    /**
+     * Obtiene los cambios del directorio de artistas posteriores a un cursor.
+     * <p>
+     * Mapeo: {@code GET /api/users/artists/directory/changes?since={fecha}&afterId={id}&limit={n}}
+     * Destinado a uso interno por otros microservicios para mantener actualizada su réplica.
+     * </p>
+     *
+     * @param since Componente temporal del cursor (ISO-8601).
+     * @param afterId Componente de desempate del cursor.
+     * @param limit Tamaño máximo de la página.
+     * @return {@link ResponseEntity} con el {@link ArtistDirectoryPageDTO} de cambios.
+     */
+    @GetMapping("/artists/directory/changes")
+    public ResponseEntity<ArtistDirectoryPageDTO> getArtistDirectoryChanges(
+            @RequestParam("since") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(value = "afterId", defaultValue = "0") Long afterId,
+            @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(userService.getArtistDirectoryChanges(since, afterId, limit));
+    }
+}
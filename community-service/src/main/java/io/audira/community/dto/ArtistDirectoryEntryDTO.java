@@ -0,0 +1,84 @@
+package io.audira.community.dto;
+
+import io.audira.community.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) compacto que representa una entrada del directorio de artistas.
+ * <p>
+ * Se utiliza para replicar el directorio {@code id → nombre} en otros microservicios (ej. {@code music-catalog-service}),
+ * evitando que estos consulten este servicio en cada búsqueda. Solo contiene los campos necesarios para resolver
+ * búsquedas por nombre de artista.
+ * </p>
+ *
+ * @author Grupo GA01
+ * 
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtistDirectoryEntryDTO {
+
+    /**
+     * ID único del usuario.
+     */
+    private Long id;
+
+    /**
+     * Nombre artístico (o el nombre de usuario si el artista no ha definido uno).
+     */
+    private String artistName;
+
+    /**
+     * Nombre de pila del usuario.
+     */
+    private String firstName;
+
+    /**
+     * Apellido del usuario.
+     */
+    private String lastName;
+
+    /**
+     * Indica si la entrada debe figurar en el directorio: el usuario es un artista con la cuenta activa.
+     * <p>
+     * En el feed de cambios, un valor {@code false} indica al consumidor que debe eliminar la entrada
+     * (cambio de rol o suspensión de la cuenta).
+     * </p>
+     */
+    private boolean listed;
+
+    /**
+     * Marca de tiempo de la última modificación del usuario. Forma parte del cursor del feed de cambios.
+     */
+    private LocalDateTime updatedAt;
+
+    /**
+     * Constructor utilizado por la proyección JPQL del repositorio.
+     *
+     * @param id ID del usuario.
+     * @param artistName Nombre artístico (nulo si el usuario no es un {@code Artist}).
+     * @param username Nombre de usuario, usado como respaldo del nombre artístico.
+     * @param firstName Nombre de pila.
+     * @param lastName Apellido.
+     * @param role Rol actual del usuario.
+     * @param isActive Estado de actividad de la cuenta.
+     * @param updatedAt Fecha de la última modificación.
+     */
+    public ArtistDirectoryEntryDTO(Long id, String artistName, String username, String firstName, String lastName,
+                                   UserRole role, Boolean isActive, LocalDateTime updatedAt) {
+        this.id = id;
+        this.artistName = artistName != null && !artistName.trim().isEmpty() ? artistName : username;
+        this.listed = role == UserRole.ARTIST && Boolean.TRUE.equals(isActive);
+        // Las entradas que se retiran del directorio no necesitan (ni deben exponer) los datos personales
+        this.firstName = listed ? firstName : null;
+        this.lastName = listed ? lastName : null;
+        this.updatedAt = updatedAt;
+    }
+}
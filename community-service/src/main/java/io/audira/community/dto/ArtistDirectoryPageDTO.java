@@ -0,0 +1,50 @@
+package io.audira.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) que representa una página del directorio de artistas (exportación o feed de cambios).
+ * <p>
+ * Incluye el cursor que el consumidor debe enviar en la siguiente petición para continuar donde lo dejó.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see ArtistDirectoryEntryDTO
+ * 
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtistDirectoryPageDTO {
+
+    /**
+     * Entradas de esta página.
+     */
+    private List<ArtistDirectoryEntryDTO> entries;
+
+    /**
+     * Componente temporal del cursor.
+     * <p>
+     * En la exportación es la hora del servidor al iniciar la petición (punto de partida del feed de cambios);
+     * en el feed es el {@code updatedAt} de la última entrada devuelta.
+     * </p>
+     */
+    private LocalDateTime cursorTime;
+
+    /**
+     * ID de la última entrada devuelta (desempate del cursor).
+     */
+    private Long cursorId;
+
+    /**
+     * Indica si quedan más entradas por recuperar con el cursor devuelto.
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,47 @@
+package io.audira.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) que representa una página de seguidores o seguidos de un usuario,
+ * de la relación más reciente a la más antigua.
+ * <p>
+ * La paginación es por conjunto de claves (fecha de la relación, ID del usuario): el cliente reenvía
+ * {@code nextCursor} para obtener la página siguiente.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see UserCardDTO
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FollowPageDTO {
+
+    /**
+     * Tarjetas de los usuarios de la página.
+     */
+    private List<UserCardDTO> users;
+
+    /**
+     * Número total de seguidores (o seguidos) del usuario.
+     */
+    private long total;
+
+    /**
+     * Cursor opaco de la página siguiente, o {@code null} si no hay más.
+     */
+    private String nextCursor;
+
+    /**
+     * Indica si quedan más usuarios por recuperar.
+     */
+    private boolean hasMore;
+}
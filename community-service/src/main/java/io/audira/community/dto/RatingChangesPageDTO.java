@@ -0,0 +1,47 @@
+package io.audira.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) que representa una página del feed de cambios de valoraciones.
+ * <p>
+ * Contiene el estado actual de las valoraciones cambiadas después de un cursor {@code (cursorTime, cursorId)},
+ * incluidas las inactivas. El consumidor debe enviar el cursor devuelto en la siguiente consulta.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see RatingDTO
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingChangesPageDTO {
+
+    /**
+     * Valoraciones de la página, en su estado actual.
+     */
+    private List<RatingDTO> ratings;
+
+    /**
+     * Componente temporal del cursor: {@code changedAt} de la última valoración devuelta.
+     */
+    private ZonedDateTime cursorTime;
+
+    /**
+     * Componente de desempate del cursor: ID de la última valoración devuelta.
+     */
+    private Long cursorId;
+
+    /**
+     * Indica si puede haber más cambios después del cursor.
+     */
+    private boolean hasMore;
+}
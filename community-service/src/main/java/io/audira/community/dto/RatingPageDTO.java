@@ -0,0 +1,41 @@
+package io.audira.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) que representa una página de valoraciones de una entidad, de la más reciente a la más antigua.
+ * <p>
+ * La paginación es por conjunto de claves ({@code createdAt}, {@code id}): el cliente reenvía {@code nextCursor}
+ * para obtener la página siguiente, con un coste independiente de cuántas valoraciones se hayan recorrido.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see RatingDTO
+ * 
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingPageDTO {
+
+    /**
+     * Valoraciones de la página, con el nombre y la foto de perfil de su autor.
+     */
+    private List<RatingDTO> ratings;
+
+    /**
+     * Cursor opaco de la página siguiente, o {@code null} si no hay más.
+     */
+    private String nextCursor;
+
+    /**
+     * Indica si quedan más valoraciones por recuperar.
+     */
+    private boolean hasMore;
+}
@@ -0,0 +1,115 @@
+package io.audira.community.dto;
+
+import io.audira.community.model.UserRole;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) "tarjeta de usuario": los datos públicos que se muestran junto al contenido
+ * de un usuario (listas de seguidores, autor de una canción, etc.).
+ * <p>
+ * A diferencia de {@link UserDTO}, no incluye el perfil completo ni los datos privados (correo electrónico),
+ * sino solo los contadores de seguimiento. Se obtiene con una proyección JPQL,
+ * sin cargar la entidad {@code User}.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see io.audira.community.controller.UserController
+ *
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserCardDTO {
+
+    /**
+     * ID único del usuario.
+     */
+    private Long id;
+
+    /**
+     * Nombre de usuario.
+     */
+    private String username;
+
+    /**
+     * Nombre de pila del usuario.
+     */
+    private String firstName;
+
+    /**
+     * Apellido del usuario.
+     */
+    private String lastName;
+
+    /**
+     * URL de la imagen de perfil (avatar).
+     */
+    private String profileImageUrl;
+
+    /**
+     * Rol del usuario.
+     */
+    private UserRole role;
+
+    /**
+     * Indica si la cuenta del usuario está activa.
+     */
+    private Boolean isActive;
+
+    /**
+     * Nombre artístico (o el nombre de usuario si el artista no ha definido uno); nulo si no es artista.
+     */
+    private String artistName;
+
+    /**
+     * Indica si el perfil del artista ha sido verificado por la administración (nulo si no es artista).
+     */
+    private Boolean verifiedArtist;
+
+    /**
+     * Número de seguidores del usuario.
+     */
+    private long followerCount;
+
+    /**
+     * Número de usuarios a los que sigue el usuario.
+     */
+    private long followingCount;
+
+    /**
+     * Constructor utilizado por la proyección JPQL del repositorio.
+     *
+     * @param id ID del usuario.
+     * @param username Nombre de usuario, usado como respaldo del nombre artístico.
+     * @param firstName Nombre de pila.
+     * @param lastName Apellido.
+     * @param profileImageUrl URL del avatar.
+     * @param role Rol actual del usuario.
+     * @param artistName Nombre artístico (nulo si el usuario no es un {@code Artist}).
+     * @param verifiedArtist Verificación del artista (nulo si el usuario no es un {@code Artist}).
+     * @param isActive Estado de actividad de la cuenta.
+     * @param followerCount Número de seguidores (nulo si el usuario no tiene contadores).
+     * @param followingCount Número de seguidos (nulo si el usuario no tiene contadores).
+     */
+    public UserCardDTO(Long id, String username, String firstName, String lastName, String profileImageUrl,
+                       UserRole role, String artistName, Boolean verifiedArtist, Boolean isActive,
+                       Long followerCount, Long followingCount) {
+        this.id = id;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.profileImageUrl = profileImageUrl;
+        this.role = role;
+        if (role == UserRole.ARTIST) {
+            this.artistName = artistName != null && !artistName.trim().isEmpty() ? artistName : username;
+            this.verifiedArtist = verifiedArtist != null ? verifiedArtist : false;
+        }
+        this.isActive = isActive;
+        this.followerCount = followerCount != null ? followerCount : 0L;
+        this.followingCount = followingCount != null ? followingCount : 0L;
+    }
+}
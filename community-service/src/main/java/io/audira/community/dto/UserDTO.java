@@ -6,7 +6,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
-import java.util.Set;
 
 /**
  * Data Transfer Object (DTO) que representa la información completa del perfil de un usuario en el sistema.
@@ -91,14 +90,15 @@ public class UserDTO {
     private Boolean isVerified;
 
     /**
-     * Conjunto de IDs de los usuarios que siguen a este perfil (seguidores).
+     * Número de seguidores del usuario (leído de {@code follow_counters}). La lista de seguidores se sirve por
+     * páginas ({@code GET /api/users/{userId}/followers/page}).
      */
-    private Set<Long> followerIds;
+    private Long followerCount;
 
     /**
-     * Conjunto de IDs de los usuarios que este perfil está siguiendo.
+     * Número de usuarios a los que sigue el usuario (leído de {@code follow_counters}).
      */
-    private Set<Long> followingIds;
+    private Long followingCount;
 
     /**
      * Marca de tiempo de la creación de la cuenta.
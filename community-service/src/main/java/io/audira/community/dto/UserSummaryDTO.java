@@ -0,0 +1,38 @@
+package io.audira.community.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) mínimo con los datos públicos de un usuario que acompañan a su contenido
+ * (ej. el autor de una valoración).
+ * <p>
+ * Se obtiene mediante una proyección JPQL, sin cargar la entidad {@code User} con su herencia {@code JOINED}.
+ * </p>
+ *
+ * @author Grupo GA01
+ * 
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDTO {
+
+    /**
+     * ID único del usuario.
+     */
+    private Long id;
+
+    /**
+     * Nombre de usuario.
+     */
+    private String username;
+
+    /**
+     * URL de la imagen de perfil (avatar).
+     */
+    private String profileImageUrl;
+}
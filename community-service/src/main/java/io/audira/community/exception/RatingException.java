@@ -112,4 +112,30 @@ public class RatingException extends RuntimeException {
             super("You must purchase this " + entityType.toLowerCase() + " before rating it (ID: " + entityId + ")");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Se lanza cuando una consulta de estadísticas en lote solicita más entidades de las permitidas.
+     */
+    public static class StatsBatchTooLargeException extends RatingException {
+        /**
+         * Inicializa la excepción con un mensaje que indica el máximo permitido.
+         *
+         * @param maxEntities Número máximo de entidades por consulta.
+         */
+        public StatsBatchTooLargeException(int maxEntities) {
+            super("Cannot request rating stats for more than " + maxEntities + " entities at once");
+        }
+    }
+
+    /**
+     * Se lanza cuando el cursor de paginación recibido no es válido (manipulado o de otra versión).
+     */
+    public static class InvalidCursorException extends RatingException {
+        /**
+         * Inicializa la excepción con un mensaje de cursor inválido.
+         */
+        public InvalidCursorException() {
+            super("Invalid pagination cursor");
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.audira.community.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad de base de datos con los contadores de seguidores y seguidos de un usuario.
+ * <p>
+ * Mapeada a la tabla {@code follow_counters}, con una fila por usuario con alguna relación de seguimiento.
+ * Se actualiza en la misma transacción que cada alta o baja en {@link FollowEdge} y se reconstruye
+ * periódicamente desde {@code follow_edges}.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see FollowEdge
+ *
+ */
+@Entity
+@Table(name = "follow_counters")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FollowCounter {
+
+    /**
+     * ID del usuario.
+     */
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Número de usuarios que siguen a este usuario.
+     */
+    @Column(name = "follower_count", nullable = false)
+    private long followerCount;
+
+    /**
+     * Número de usuarios a los que sigue este usuario.
+     */
+    @Column(name = "following_count", nullable = false)
+    private long followingCount;
+}
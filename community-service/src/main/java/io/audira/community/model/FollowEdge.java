@@ -0,0 +1,60 @@
+package io.audira.community.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad de base de datos que representa una relación de seguimiento: {@code followerId} sigue a {@code followedId}.
+ * <p>
+ * Mapeada a la tabla {@code follow_edges}, con una fila por relación. Sustituye a las colecciones
+ * {@code user_followers}/{@code user_following} de {@link User}: seguir o dejar de seguir es un único
+ * {@code INSERT}/{@code DELETE} y cargar un usuario ya no arrastra sus seguidores.
+ * </p>
+ * <p>
+ * La clave primaria {@code (follower_id, followed_id)} resuelve los seguidos de un usuario; los índices sobre
+ * {@code followed_id} resuelven sus seguidores, por ID o por fecha (paginación por conjunto de claves).
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see FollowEdgeId
+ * @see FollowCounter
+ *
+ */
+@Entity
+@Table(name = "follow_edges", indexes = {
+        @Index(name = "idx_follow_edges_followed_follower", columnList = "followed_id, follower_id"),
+        @Index(name = "idx_follow_edges_followed_created", columnList = "followed_id, created_at, follower_id"),
+        @Index(name = "idx_follow_edges_follower_created", columnList = "follower_id, created_at, followed_id")
+})
+@IdClass(FollowEdgeId.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FollowEdge {
+
+    /**
+     * ID del usuario que sigue. Parte de la clave primaria.
+     */
+    @Id
+    @Column(name = "follower_id", nullable = false)
+    private Long followerId;
+
+    /**
+     * ID del usuario seguido. Parte de la clave primaria.
+     */
+    @Id
+    @Column(name = "followed_id", nullable = false)
+    private Long followedId;
+
+    /**
+     * Marca de tiempo en la que se creó la relación.
+     */
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,30 @@
+package io.audira.community.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Clave primaria compuesta de {@link FollowEdge}: el usuario que sigue y el usuario seguido.
+ *
+ * @author Grupo GA01
+ * @see FollowEdge
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FollowEdgeId implements Serializable {
+
+    /**
+     * ID del usuario que sigue.
+     */
+    private Long followerId;
+
+    /**
+     * ID del usuario seguido.
+     */
+    private Long followedId;
+}
@@ -25,7 +25,11 @@ import java.time.ZonedDateTime;
  */
 @Entity
 @Table(name = "ratings",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "entity_type", "entity_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "entity_type", "entity_id"}),
+       indexes = {
+               @Index(name = "idx_ratings_entity_created", columnList = "entity_type, entity_id, created_at, id"),
+               @Index(name = "idx_ratings_type_changed", columnList = "entity_type, changed_at, id")
+       })
 @Data
 @Builder
 @NoArgsConstructor
@@ -117,4 +121,14 @@ public class Rating {
      */
     @Column(name = "updated_at")
     private ZonedDateTime updatedAt;
+
+    /**
+     * Fecha y hora del último cambio de cualquier tipo: alta, edición, eliminación lógica o reactivación.
+     * <p>
+     * A diferencia de {@link #updatedAt}, siempre tiene valor. Es el cursor del feed de cambios de valoraciones
+     * que consumen otros microservicios.
+     * </p>
+     */
+    @Column(name = "changed_at")
+    private ZonedDateTime changedAt;
 }
\ No newline at end of file
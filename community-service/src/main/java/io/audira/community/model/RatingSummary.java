@@ -0,0 +1,90 @@
+package io.audira.community.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad de base de datos con el resumen agregado de las valoraciones activas de una entidad.
+ * <p>
+ * Mapeada a la tabla {@code rating_summaries}, con una fila por entidad valorada. Guarda el número de valoraciones,
+ * la suma de sus puntuaciones y el histograma de estrellas, de modo que las estadísticas se leen con una única
+ * búsqueda por clave primaria en lugar de agregar la tabla {@code ratings}.
+ * </p>
+ * <p>
+ * Se actualiza en la misma transacción que cada alta, modificación o eliminación de una valoración y se
+ * reconstruye periódicamente desde {@code ratings}.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see Rating
+ * @see RatingSummaryId
+ *
+ */
+@Entity
+@Table(name = "rating_summaries")
+@IdClass(RatingSummaryId.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummary {
+
+    /**
+     * Tipo de entidad valorada (ej. SONG, ALBUM, ARTIST). Parte de la clave primaria.
+     */
+    @Id
+    @Column(name = "entity_type", nullable = false, length = 50)
+    private String entityType;
+
+    /**
+     * ID de la entidad valorada. Parte de la clave primaria.
+     */
+    @Id
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    /**
+     * Número de valoraciones activas.
+     */
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    /**
+     * Suma de las puntuaciones de las valoraciones activas (el promedio es {@code ratingSum / ratingCount}).
+     */
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+
+    /**
+     * Número de valoraciones activas con una estrella.
+     */
+    @Column(name = "one_star", nullable = false)
+    private long oneStar;
+
+    /**
+     * Número de valoraciones activas con dos estrellas.
+     */
+    @Column(name = "two_stars", nullable = false)
+    private long twoStars;
+
+    /**
+     * Número de valoraciones activas con tres estrellas.
+     */
+    @Column(name = "three_stars", nullable = false)
+    private long threeStars;
+
+    /**
+     * Número de valoraciones activas con cuatro estrellas.
+     */
+    @Column(name = "four_stars", nullable = false)
+    private long fourStars;
+
+    /**
+     * Número de valoraciones activas con cinco estrellas.
+     */
+    @Column(name = "five_stars", nullable = false)
+    private long fiveStars;
+}
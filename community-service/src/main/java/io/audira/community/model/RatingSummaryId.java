@@ -0,0 +1,30 @@
+package io.audira.community.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Clave primaria compuesta de {@link RatingSummary}: el tipo y el ID de la entidad valorada.
+ *
+ * @author Grupo GA01
+ * @see RatingSummary
+ *
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummaryId implements Serializable {
+
+    /**
+     * Tipo de entidad valorada (ej. SONG, ALBUM, ARTIST).
+     */
+    private String entityType;
+
+    /**
+     * ID de la entidad valorada.
+     */
+    private Long entityId;
+}
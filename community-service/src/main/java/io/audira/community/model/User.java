@@ -7,8 +7,6 @@ import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  * Entidad de base de datos abstracta que representa el modelo base de usuario en el sistema.
@@ -20,13 +18,18 @@ import java.util.Set;
  * <p>
  * {@code @DiscriminatorColumn} define la columna que diferencia los tipos de usuario (ej. 'USER', 'ADMIN', 'ARTIST').
  * </p>
+ * <p>
+ * Las relaciones de seguimiento no forman parte de la entidad: se guardan en {@link FollowEdge}.
+ * </p>
  *
  * @author Grupo GA01
  * @see Entity
  * 
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_updated_at_id", columnList = "updatedAt, id")
+})
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "user_type", discriminatorType = DiscriminatorType.STRING)
 @Data
@@ -167,30 +170,6 @@ public abstract class User {
     @Column(nullable = false)
     private Boolean isVerified;
 
-    /**
-     * Conjunto de IDs de usuarios que siguen a este perfil (seguidores).
-     * <p>
-     * Mapeado a una tabla de colección separada ({@code user_followers}).
-     * La relación se carga de forma eager ({@code FetchType.EAGER}).
-     * </p>
-     */
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "user_followers", joinColumns = @JoinColumn(name = "user_id"))
-    @Column(name = "follower_id")
-    private Set<Long> followerIds = new HashSet<>();
-
-    /**
-     * Conjunto de IDs de usuarios a los que este perfil está siguiendo.
-     * <p>
-     * Mapeado a una tabla de colección separada ({@code user_following}).
-     * La relación se carga de forma eager ({@code FetchType.EAGER}).
-     * </p>
-     */
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "user_following", joinColumns = @JoinColumn(name = "user_id"))
-    @Column(name = "following_id")
-    private Set<Long> followingIds = new HashSet<>();
-
     /**
      * Marca de tiempo de la creación de la cuenta.
      */
@@ -202,6 +181,12 @@ public abstract class User {
      */
     private LocalDateTime updatedAt;
 
+    /**
+     * Marca de tiempo del último cambio de rol ({@code null} si nunca ha cambiado). El feed de cambios del directorio
+     * de artistas incluye a estos usuarios para que los consumidores retiren a quien deja de ser artista.
+     */
+    private LocalDateTime roleChangedAt;
+
     /**
      * Método de callback de JPA que se ejecuta antes de la persistencia (guardar por primera vez).
      * <p>
@@ -0,0 +1,112 @@
+package io.audira.community.repository;
+
+import io.audira.community.model.FollowCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para la gestión y acceso a datos de la entidad **FollowCounter** (contadores de seguimiento).
+ * <p>
+ * Como en {@link RatingSummaryRepository}, las modificaciones se hacen con sentencias nativas atómicas
+ * ({@code INSERT ... ON CONFLICT DO UPDATE}) para que los seguimientos concurrentes no pierdan incrementos.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see FollowCounter
+ *
+ */
+@Repository
+public interface FollowCounterRepository extends JpaRepository<FollowCounter, Long> {
+
+    /**
+     * Obtiene los contadores de un conjunto de usuarios.
+     *
+     * @param userIds Los IDs de los usuarios.
+     * @return Los contadores existentes (los usuarios sin relaciones no tienen fila).
+     */
+    List<FollowCounter> findByUserIdIn(Collection<Long> userIds);
+
+    /**
+     * Suma (o resta, con valores negativos) un cambio a los contadores de un usuario, creando la fila si no existe.
+     *
+     * @param userId El ID del usuario.
+     * @param followers Variación del número de seguidores.
+     * @param following Variación del número de seguidos.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO follow_counters (user_id, follower_count, following_count) " +
+            "VALUES (:userId, :followers, :following) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "follower_count = follow_counters.follower_count + EXCLUDED.follower_count, " +
+            "following_count = follow_counters.following_count + EXCLUDED.following_count",
+            nativeQuery = true)
+    void applyDelta(@Param("userId") Long userId,
+                    @Param("followers") long followers,
+                    @Param("following") long following);
+
+    /**
+     * Bloquea ({@code FOR UPDATE}) todas las filas de contadores hasta el final de la transacción.
+     * <p>
+     * Como {@link RatingSummaryRepository#lockAll()}: espera a que terminen los seguimientos que ya han aplicado su
+     * cambio y retiene los siguientes, de modo que las sentencias posteriores de la misma transacción ven
+     * {@code follow_edges} al día y ningún cambio se pierde.
+     * </p>
+     *
+     * @return Número de filas bloqueadas.
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT 1 FROM follow_counters ORDER BY user_id FOR UPDATE) locked",
+            nativeQuery = true)
+    long lockAll();
+
+    /**
+     * Recalcula desde {@code follow_edges} los contadores existentes, en una sola sentencia sobre la consulta agregada.
+     * Debe ejecutarse tras {@link #lockAll()} en la misma transacción.
+     *
+     * @return Número de filas corregidas.
+     */
+    @Modifying
+    @Query(value = "UPDATE follow_counters c SET follower_count = a.followers, following_count = a.following " +
+            "FROM (SELECT t.user_id, SUM(t.followers) AS followers, SUM(t.following) AS following FROM (" +
+            "SELECT followed_id AS user_id, 1 AS followers, 0 AS following FROM follow_edges " +
+            "UNION ALL SELECT follower_id, 0, 1 FROM follow_edges) t GROUP BY t.user_id) a " +
+            "WHERE c.user_id = a.user_id " +
+            "AND (c.follower_count, c.following_count) IS DISTINCT FROM (a.followers, a.following)",
+            nativeQuery = true)
+    int updateFromEdges();
+
+    /**
+     * Crea desde {@code follow_edges} los contadores de los usuarios con relaciones que aún no tienen fila.
+     * <p>
+     * Si un seguimiento concurrente crea la fila antes, se conserva la suya ({@code DO NOTHING}): nunca se pisa un
+     * cambio ya aplicado, y la posible desviación se corrige en la siguiente reconciliación.
+     * </p>
+     *
+     * @return Número de filas insertadas.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO follow_counters (user_id, follower_count, following_count) " +
+            "SELECT t.user_id, SUM(t.followers), SUM(t.following) FROM (" +
+            "SELECT followed_id AS user_id, 1 AS followers, 0 AS following FROM follow_edges " +
+            "UNION ALL SELECT follower_id, 0, 1 FROM follow_edges) t GROUP BY t.user_id " +
+            "ON CONFLICT (user_id) DO NOTHING",
+            nativeQuery = true)
+    int insertMissingFromEdges();
+
+    /**
+     * Elimina los contadores de usuarios que ya no tienen ninguna relación de seguimiento.
+     *
+     * @return Número de filas eliminadas.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM follow_counters c " +
+            "WHERE NOT EXISTS (SELECT 1 FROM follow_edges e WHERE e.followed_id = c.user_id) " +
+            "AND NOT EXISTS (SELECT 1 FROM follow_edges e WHERE e.follower_id = c.user_id)",
+            nativeQuery = true)
+    int deleteOrphans();
+}
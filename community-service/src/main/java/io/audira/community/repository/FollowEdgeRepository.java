@@ -0,0 +1,92 @@
+package io.audira.community.repository;
+
+import io.audira.community.model.FollowEdge;
+import io.audira.community.model.FollowEdgeId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio para la gestión y acceso a datos de la entidad **FollowEdge** (relaciones de seguimiento).
+ * <p>
+ * Las altas y bajas son sentencias únicas que devuelven el número de filas afectadas, de modo que el llamante
+ * solo actualiza los contadores cuando la relación realmente cambia (seguir dos veces no cuenta doble).
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see FollowEdge
+ *
+ */
+@Repository
+public interface FollowEdgeRepository extends JpaRepository<FollowEdge, FollowEdgeId> {
+
+    /**
+     * Crea la relación si no existe.
+     *
+     * @param followerId ID del usuario que sigue.
+     * @param followedId ID del usuario seguido.
+     * @param createdAt Fecha de la relación.
+     * @return 1 si se creó la relación, 0 si ya existía.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO follow_edges (follower_id, followed_id, created_at) " +
+            "VALUES (:followerId, :followedId, :createdAt) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("followerId") Long followerId,
+                       @Param("followedId") Long followedId,
+                       @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Elimina la relación si existe.
+     *
+     * @param followerId ID del usuario que sigue.
+     * @param followedId ID del usuario seguido.
+     * @return 1 si se eliminó la relación, 0 si no existía.
+     */
+    @Modifying
+    @Query("DELETE FROM FollowEdge e WHERE e.followerId = :followerId AND e.followedId = :followedId")
+    int deleteEdge(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
+
+    /**
+     * Página de seguidores de un usuario anteriores al cursor {@code (beforeTime, beforeId)},
+     * de la relación más reciente a la más antigua.
+     *
+     * @param followedId ID del usuario seguido.
+     * @param beforeTime Componente temporal del cursor.
+     * @param beforeId Componente de desempate del cursor (ID del seguidor).
+     * @param pageable Tamaño de la página.
+     * @return Las relaciones de la página.
+     */
+    @Query("SELECT e FROM FollowEdge e WHERE e.followedId = :followedId AND " +
+            "(e.createdAt < :beforeTime OR (e.createdAt = :beforeTime AND e.followerId < :beforeId)) " +
+            "ORDER BY e.createdAt DESC, e.followerId DESC")
+    List<FollowEdge> findFollowersPageBefore(@Param("followedId") Long followedId,
+                                             @Param("beforeTime") LocalDateTime beforeTime,
+                                             @Param("beforeId") Long beforeId,
+                                             Pageable pageable);
+
+    /**
+     * Página de usuarios seguidos por un usuario anteriores al cursor {@code (beforeTime, beforeId)},
+     * de la relación más reciente a la más antigua.
+     *
+     * @param followerId ID del usuario que sigue.
+     * @param beforeTime Componente temporal del cursor.
+     * @param beforeId Componente de desempate del cursor (ID del seguido).
+     * @param pageable Tamaño de la página.
+     * @return Las relaciones de la página.
+     */
+    @Query("SELECT e FROM FollowEdge e WHERE e.followerId = :followerId AND " +
+            "(e.createdAt < :beforeTime OR (e.createdAt = :beforeTime AND e.followedId < :beforeId)) " +
+            "ORDER BY e.createdAt DESC, e.followedId DESC")
+    List<FollowEdge> findFollowingPageBefore(@Param("followerId") Long followerId,
+                                             @Param("beforeTime") LocalDateTime beforeTime,
+                                             @Param("beforeId") Long beforeId,
+                                             Pageable pageable);
+
+}
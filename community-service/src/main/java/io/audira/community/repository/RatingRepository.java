@@ -1,10 +1,15 @@
 package io.audira.community.repository;
 
 import io.audira.community.model.Rating;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -143,4 +148,102 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
      * @return Un {@link Optional} que contiene la valoración si se encuentra y el {@code userId} coincide.
      */
     Optional<Rating> findByIdAndUserId(Long id, Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Obtiene en lotes las valoraciones de un tipo de entidad cambiadas después del cursor {@code (since, afterId)}.
+     * <p>
+     * Incluye las valoraciones inactivas, para que el consumidor pueda retirar las eliminadas. Paginación por
+     * conjunto de claves sobre {@code (changedAt, id)}, apoyada en el índice {@code idx_ratings_type_changed}.
+     * </p>
+     *
+     * @param entityType Tipo de entidad (ej. "SONG").
+     * @param since Componente temporal del cursor.
+     * @param afterId Componente de desempate del cursor.
+     * @param pageable Tamaño del lote.
+     * @return Una {@link List} de {@link Rating} ordenada por {@code (changedAt, id)}.
+     */
+    @Query("SELECT r FROM Rating r WHERE r.entityType = :entityType " +
+           "AND (r.changedAt, r.id) > (:since, :afterId) " +
+           "ORDER BY r.changedAt ASC, r.id ASC")
+    List<Rating> findChangesAfter(@Param("entityType") String entityType,
+                                  @Param("since") ZonedDateTime since,
+                                  @Param("afterId") Long afterId,
+                                  Pageable pageable);
+
+    /**
+     * Asigna {@code changed_at} a las valoraciones anteriores a la columna, a partir de su última edición o su alta.
+     *
+     * @return Número de valoraciones actualizadas.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE ratings SET changed_at = COALESCE(updated_at, created_at, now()) " +
+                   "WHERE changed_at IS NULL", nativeQuery = true)
+    int backfillChangedAt();
+
+    /**
+     * Calcula en una sola consulta agrupada las estadísticas de valoración activas de un conjunto de entidades.
+     * <p>
+     * Las entidades sin valoraciones activas no aparecen en el resultado.
+     * </p>
+     *
+     * @param entityType El tipo de entidad.
+     * @param entityIds Los IDs de las entidades.
+     * @return Lista de arrays donde [0]=EntityId, [1]=Promedio(Double), [2]=Total(Long) y [3..7]=Conteo de
+     *         valoraciones de 5, 4, 3, 2 y 1 estrellas (Long).
+     */
+    @Query("SELECT r.entityId, AVG(r.rating), COUNT(r), " +
+           "SUM(CASE WHEN r.rating = 5 THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN r.rating = 4 THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN r.rating = 3 THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN r.rating = 2 THEN 1L ELSE 0L END), " +
+           "SUM(CASE WHEN r.rating = 1 THEN 1L ELSE 0L END) " +
+           "FROM Rating r WHERE r.entityType = :entityType AND r.entityId IN :entityIds AND r.isActive = true " +
+           "GROUP BY r.entityId")
+    List<Object[]> calculateRatingStatsByEntityIds(@Param("entityType") String entityType,
+                                                   @Param("entityIds") Collection<Long> entityIds);
+
+    /**
+     * Obtiene una página de valoraciones activas de una entidad anteriores al cursor {@code (beforeTime, beforeId)},
+     * de la más reciente a la más antigua.
+     * <p>
+     * Paginación por conjunto de claves sobre {@code (createdAt, id)}, con una comparación de filas que recorre por
+     * rango el índice {@code idx_ratings_entity_created}: el coste no depende de la posición de la página.
+     * </p>
+     *
+     * @param entityType El tipo de entidad.
+     * @param entityId El ID de la entidad.
+     * @param beforeTime Fecha de creación del cursor.
+     * @param beforeId ID de desempate del cursor.
+     * @param pageable Tamaño de la página.
+     * @return Una {@link List} de {@link Rating} ordenada por fecha de creación e ID descendentes.
+     */
+    @Query("SELECT r FROM Rating r WHERE r.entityType = :entityType AND r.entityId = :entityId AND r.isActive = true " +
+           "AND (r.createdAt, r.id) < (:beforeTime, :beforeId) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Rating> findActivePageBefore(@Param("entityType") String entityType,
+                                      @Param("entityId") Long entityId,
+                                      @Param("beforeTime") ZonedDateTime beforeTime,
+                                      @Param("beforeId") Long beforeId,
+                                      Pageable pageable);
+
+    /**
+     * Igual que {@link #findActivePageBefore}, pero solo con las valoraciones que incluyen un comentario no vacío.
+     *
+     * @param entityType El tipo de entidad.
+     * @param entityId El ID de la entidad.
+     * @param beforeTime Fecha de creación del cursor.
+     * @param beforeId ID de desempate del cursor.
+     * @param pageable Tamaño de la página.
+     * @return Una {@link List} de {@link Rating} con comentario, ordenada por fecha de creación e ID descendentes.
+     */
+    @Query("SELECT r FROM Rating r WHERE r.entityType = :entityType AND r.entityId = :entityId AND r.isActive = true " +
+           "AND r.comment IS NOT NULL AND r.comment != '' " +
+           "AND (r.createdAt, r.id) < (:beforeTime, :beforeId) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Rating> findWithCommentsPageBefore(@Param("entityType") String entityType,
+                                            @Param("entityId") Long entityId,
+                                            @Param("beforeTime") ZonedDateTime beforeTime,
+                                            @Param("beforeId") Long beforeId,
+                                            Pageable pageable);
+}
@@ -0,0 +1,146 @@
+package io.audira.community.repository;
+
+import io.audira.community.model.RatingSummary;
+import io.audira.community.model.RatingSummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para la gestión y acceso a datos de la entidad **RatingSummary** (resumen de valoraciones).
+ * <p>
+ * Las modificaciones se hacen con sentencias nativas atómicas ({@code INSERT ... ON CONFLICT DO UPDATE}) en lugar
+ * del ciclo leer-modificar-guardar, para que las valoraciones concurrentes sobre la misma entidad no pierdan
+ * incrementos.
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see RatingSummary
+ *
+ */
+@Repository
+public interface RatingSummaryRepository extends JpaRepository<RatingSummary, RatingSummaryId> {
+
+    /**
+     * Obtiene los resúmenes de un conjunto de entidades del mismo tipo.
+     *
+     * @param entityType El tipo de entidad.
+     * @param entityIds Los IDs de las entidades.
+     * @return Los resúmenes existentes (las entidades nunca valoradas no tienen fila).
+     */
+    List<RatingSummary> findByEntityTypeAndEntityIdIn(String entityType, Collection<Long> entityIds);
+
+    /**
+     * Suma (o resta, con valores negativos) un cambio al resumen de una entidad, creando la fila si no existe.
+     *
+     * @param entityType El tipo de entidad.
+     * @param entityId El ID de la entidad.
+     * @param count Variación del número de valoraciones.
+     * @param sum Variación de la suma de puntuaciones.
+     * @param oneStar Variación de las valoraciones de una estrella.
+     * @param twoStars Variación de las valoraciones de dos estrellas.
+     * @param threeStars Variación de las valoraciones de tres estrellas.
+     * @param fourStars Variación de las valoraciones de cuatro estrellas.
+     * @param fiveStars Variación de las valoraciones de cinco estrellas.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO rating_summaries (entity_type, entity_id, rating_count, rating_sum, " +
+            "one_star, two_stars, three_stars, four_stars, five_stars) " +
+            "VALUES (:entityType, :entityId, :count, :sum, :oneStar, :twoStars, :threeStars, :fourStars, :fiveStars) " +
+            "ON CONFLICT (entity_type, entity_id) DO UPDATE SET " +
+            "rating_count = rating_summaries.rating_count + EXCLUDED.rating_count, " +
+            "rating_sum = rating_summaries.rating_sum + EXCLUDED.rating_sum, " +
+            "one_star = rating_summaries.one_star + EXCLUDED.one_star, " +
+            "two_stars = rating_summaries.two_stars + EXCLUDED.two_stars, " +
+            "three_stars = rating_summaries.three_stars + EXCLUDED.three_stars, " +
+            "four_stars = rating_summaries.four_stars + EXCLUDED.four_stars, " +
+            "five_stars = rating_summaries.five_stars + EXCLUDED.five_stars",
+            nativeQuery = true)
+    void applyDelta(@Param("entityType") String entityType,
+                    @Param("entityId") Long entityId,
+                    @Param("count") long count,
+                    @Param("sum") long sum,
+                    @Param("oneStar") long oneStar,
+                    @Param("twoStars") long twoStars,
+                    @Param("threeStars") long threeStars,
+                    @Param("fourStars") long fourStars,
+                    @Param("fiveStars") long fiveStars);
+
+    /**
+     * Bloquea ({@code FOR UPDATE}) todas las filas de resúmenes hasta el final de la transacción.
+     * <p>
+     * Espera a que terminen las escrituras que ya han aplicado su cambio y retiene las siguientes, de modo que las
+     * sentencias posteriores de la misma transacción ven {@code ratings} al día y ningún cambio se pierde.
+     * </p>
+     *
+     * @return Número de filas bloqueadas.
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT 1 FROM rating_summaries " +
+            "ORDER BY entity_type, entity_id FOR UPDATE) locked",
+            nativeQuery = true)
+    long lockAll();
+
+    /**
+     * Recalcula desde {@code ratings} los resúmenes existentes, en una sola sentencia sobre la consulta agregada.
+     * Debe ejecutarse tras {@link #lockAll()} en la misma transacción.
+     *
+     * @return Número de filas corregidas.
+     */
+    @Modifying
+    @Query(value = "UPDATE rating_summaries s SET rating_count = a.rating_count, rating_sum = a.rating_sum, " +
+            "one_star = a.one_star, two_stars = a.two_stars, three_stars = a.three_stars, " +
+            "four_stars = a.four_stars, five_stars = a.five_stars " +
+            "FROM (" +
+            "SELECT r.entity_type, r.entity_id, COUNT(*) AS rating_count, SUM(r.rating) AS rating_sum, " +
+            "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END) AS one_star, " +
+            "SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END) AS two_stars, " +
+            "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END) AS three_stars, " +
+            "SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END) AS four_stars, " +
+            "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END) AS five_stars " +
+            "FROM ratings r WHERE r.is_active = true GROUP BY r.entity_type, r.entity_id) a " +
+            "WHERE s.entity_type = a.entity_type AND s.entity_id = a.entity_id " +
+            "AND (s.rating_count, s.rating_sum, s.one_star, s.two_stars, s.three_stars, s.four_stars, s.five_stars) " +
+            "IS DISTINCT FROM (a.rating_count, a.rating_sum, a.one_star, a.two_stars, a.three_stars, " +
+            "a.four_stars, a.five_stars)",
+            nativeQuery = true)
+    int updateFromRatings();
+
+    /**
+     * Crea desde {@code ratings} los resúmenes de las entidades valoradas que aún no tienen fila.
+     * <p>
+     * Si una escritura concurrente crea la fila antes, se conserva la suya ({@code DO NOTHING}): nunca se pisa un
+     * cambio ya aplicado, y la posible desviación se corrige en la siguiente reconciliación.
+     * </p>
+     *
+     * @return Número de filas insertadas.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO rating_summaries (entity_type, entity_id, rating_count, rating_sum, " +
+            "one_star, two_stars, three_stars, four_stars, five_stars) " +
+            "SELECT r.entity_type, r.entity_id, COUNT(*) AS rating_count, SUM(r.rating) AS rating_sum, " +
+            "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END) AS one_star, " +
+            "SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END) AS two_stars, " +
+            "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END) AS three_stars, " +
+            "SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END) AS four_stars, " +
+            "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END) AS five_stars " +
+            "FROM ratings r WHERE r.is_active = true GROUP BY r.entity_type, r.entity_id " +
+            "ON CONFLICT (entity_type, entity_id) DO NOTHING",
+            nativeQuery = true)
+    int insertMissingFromRatings();
+
+    /**
+     * Elimina los resúmenes de entidades que ya no tienen valoraciones activas.
+     *
+     * @return Número de filas eliminadas.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM rating_summaries s WHERE NOT EXISTS (SELECT 1 FROM ratings r " +
+            "WHERE r.is_active = true AND r.entity_type = s.entity_type AND r.entity_id = s.entity_id)",
+            nativeQuery = true)
+    int deleteOrphans();
+}
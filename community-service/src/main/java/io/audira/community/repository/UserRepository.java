@@ -3,10 +3,16 @@ package io.audira.community.repository;
 import io.audira.community.model.Artist;
 import io.audira.community.model.User;
 import io.audira.community.model.UserRole;
+import io.audira.community.dto.ArtistDirectoryEntryDTO;
+import io.audira.community.dto.UserCardDTO;
+import io.audira.community.dto.UserSummaryDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -119,4 +125,74 @@ public interface UserRepository extends JpaRepository<User, Long> {
             "LOWER(COALESCE(a.lastName, '')) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(CONCAT(COALESCE(a.firstName, ''), ' ', COALESCE(a.lastName, ''))) LIKE LOWER(CONCAT('%', :query, '%')))")
     List<Long> searchArtistIdsByName(@Param("query") String query);
-}
\ No newline at end of file
+
+    /**
+     * Exporta en lotes el directorio de artistas activos, ordenado por ID (paginación por clave).
+     * <p>
+     * Proyecta directamente sobre {@link ArtistDirectoryEntryDTO} para no cargar la entidad completa
+     * de cada usuario.
+     * </p>
+     *
+     * @param afterId Último ID recibido por el consumidor (0 para empezar).
+     * @param pageable Tamaño del lote.
+     * @return Una {@link List} de entradas del directorio.
+     */
+    @Query("SELECT new io.audira.community.dto.ArtistDirectoryEntryDTO(" +
+            "a.id, a.artistName, a.username, a.firstName, a.lastName, a.role, a.isActive, a.updatedAt) " +
+            "FROM Artist a WHERE a.isActive = true AND a.id > :afterId ORDER BY a.id ASC")
+    List<ArtistDirectoryEntryDTO> exportArtistDirectory(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Feed de cambios del directorio de artistas: artistas, y usuarios que han cambiado de rol, modificados después
+     * del cursor {@code (since, afterId)}.
+     * <p>
+     * Incluye también artistas suspendidos y usuarios que han dejado de ser artistas, para que el consumidor pueda
+     * eliminarlos de su réplica (campo {@code listed = false}). El resto de usuarios no aparece. La condición
+     * redundante {@code updatedAt >= :since} permite recorrer el índice {@code idx_users_updated_at_id} por rango.
+     * </p>
+     *
+     * @param since Componente temporal del cursor.
+     * @param afterId Componente de desempate del cursor.
+     * @param pageable Tamaño del lote.
+     * @return Una {@link List} de entradas ordenadas por {@code (updatedAt, id)}.
+     */
+    @Query("SELECT new io.audira.community.dto.ArtistDirectoryEntryDTO(" +
+            "u.id, a.artistName, u.username, u.firstName, u.lastName, u.role, u.isActive, u.updatedAt) " +
+            "FROM User u LEFT JOIN Artist a ON a.id = u.id " +
+            "WHERE u.updatedAt >= :since AND (u.updatedAt > :since OR u.id > :afterId) " +
+            "AND (u.role = io.audira.community.model.UserRole.ARTIST OR u.roleChangedAt IS NOT NULL) " +
+            "ORDER BY u.updatedAt ASC, u.id ASC")
+    List<ArtistDirectoryEntryDTO> findArtistDirectoryChanges(@Param("since") LocalDateTime since,
+                                                             @Param("afterId") Long afterId,
+                                                             Pageable pageable);
+
+    /**
+     * Obtiene en una sola consulta el nombre de usuario y la foto de perfil de un conjunto de usuarios.
+     * <p>
+     * Proyecta directamente sobre {@link UserSummaryDTO} para no cargar las subclases de cada usuario.
+     * </p>
+     *
+     * @param ids Los IDs de los usuarios.
+     * @return Una {@link List} de {@link UserSummaryDTO} (los IDs inexistentes no aparecen).
+     */
+    @Query("SELECT new io.audira.community.dto.UserSummaryDTO(u.id, u.username, u.profileImageUrl) " +
+            "FROM User u WHERE u.id IN :ids")
+    List<UserSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Obtiene en una sola consulta la tarjeta pública de un conjunto de usuarios.
+     * <p>
+     * Proyecta directamente sobre {@link UserCardDTO}, uniendo {@link Artist} para el nombre artístico y
+     * {@code FollowCounter} para los contadores de seguimiento.
+     * </p>
+     *
+     * @param ids Los IDs de los usuarios.
+     * @return Una {@link List} de {@link UserCardDTO} (los IDs inexistentes no aparecen).
+     */
+    @Query("SELECT new io.audira.community.dto.UserCardDTO(" +
+            "u.id, u.username, u.firstName, u.lastName, u.profileImageUrl, u.role, a.artistName, a.verifiedArtist, " +
+            "u.isActive, c.followerCount, c.followingCount) " +
+            "FROM User u LEFT JOIN Artist a ON a.id = u.id LEFT JOIN FollowCounter c ON c.userId = u.id " +
+            "WHERE u.id IN :ids")
+    List<UserCardDTO> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+}
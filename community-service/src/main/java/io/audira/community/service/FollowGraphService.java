@@ -0,0 +1,364 @@
+package io.audira.community.service;
+
+import io.audira.community.dto.FollowPageDTO;
+import io.audira.community.dto.UserCardDTO;
+import io.audira.community.model.FollowCounter;
+import io.audira.community.model.FollowEdge;
+import io.audira.community.model.FollowEdgeId;
+import io.audira.community.repository.FollowCounterRepository;
+import io.audira.community.repository.FollowEdgeRepository;
+import io.audira.community.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Servicio del grafo de seguimiento entre usuarios, almacenado en {@code follow_edges} ({@link FollowEdge})
+ * con contadores por usuario en {@code follow_counters} ({@link FollowCounter}).
+ * <p>
+ * Sustituye a los conjuntos {@code followerIds}/{@code followingIds} que {@code User} cargaba de forma
+ * {@code EAGER} en cada lectura (incluida la autenticación de cada petición):
+ * <ul>
+ * <li><b>Escritura:</b> seguir y dejar de seguir son un {@code INSERT}/{@code DELETE} de una fila y una
+ * actualización atómica de dos contadores, sin reescribir ningún usuario.</li>
+ * <li><b>Lectura paginada:</b> seguidores y seguidos se sirven por páginas de tarjetas de usuario
+ * ({@link UserCardDTO}), con el total leído del contador.</li>
+ * <li><b>IDs en bloque:</b> para consumidores internos (ej. notificaciones a seguidores) se devuelven los IDs
+ * como un {@code long[]} ordenado, sin objetos intermedios por relación.</li>
+ * <li><b>Reconciliación:</b> al crear el servicio, antes de que el servidor web acepte peticiones, se migran las
+ * antiguas tablas {@code user_followers}/{@code user_following} (si existen); al arrancar y periódicamente se
+ * reconstruyen los contadores desde {@code follow_edges}.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Grupo GA01
+ * @see FollowEdgeRepository
+ * @see FollowCounterRepository
+ *
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FollowGraphService {
+
+    private static final int DEFAULT_FOLLOW_PAGE_SIZE = 20;
+    private static final int MAX_FOLLOW_PAGE_SIZE = 100;
+
+    /** Tamaño máximo de un bloque de IDs ({@link #getFollowerIds(Long, long, int)}). */
+    public static final int MAX_ID_CHUNK_SIZE = 10000;
+
+    /** Cursor inicial: posterior a cualquier relación existente. */
+    private static final LocalDateTime FIRST_PAGE_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final FollowEdgeRepository followEdgeRepository;
+    private final FollowCounterRepository followCounterRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Registra que {@code followerId} sigue a {@code followedId}. Es idempotente.
+     *
+     * @param followerId ID del usuario que sigue.
+     * @param followedId ID del usuario seguido.
+     * @return {@code true} si la relación es nueva.
+     */
+    @Transactional
+    public boolean follow(Long followerId, Long followedId) {
+        if (followEdgeRepository.insertIfAbsent(followerId, followedId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        followCounterRepository.applyDelta(followedId, 1L, 0L);
+        followCounterRepository.applyDelta(followerId, 0L, 1L);
+        return true;
+    }
+
+    /**
+     * Elimina la relación {@code followerId} sigue a {@code followedId}. Es idempotente.
+     *
+     * @param followerId ID del usuario que sigue.
+     * @param followedId ID del usuario seguido.
+     * @return {@code true} si la relación existía.
+     */
+    @Transactional
+    public boolean unfollow(Long followerId, Long followedId) {
+        if (followEdgeRepository.deleteEdge(followerId, followedId) == 0) {
+            return false;
+        }
+        followCounterRepository.applyDelta(followedId, -1L, 0L);
+        followCounterRepository.applyDelta(followerId, 0L, -1L);
+        return true;
+    }
+
+    /**
+     * Indica si {@code followerId} sigue a {@code followedId} (búsqueda por clave primaria).
+     */
+    @Transactional(readOnly = true)
+    public boolean isFollowing(Long followerId, Long followedId) {
+        return followEdgeRepository.existsById(new FollowEdgeId(followerId, followedId));
+    }
+
+    /**
+     * Obtiene los IDs de todos los seguidores de un usuario.
+     *
+     * @param userId El ID del usuario seguido.
+     * @return Los IDs de los seguidores, en orden ascendente.
+     */
+    public long[] getFollowerIds(Long userId) {
+        return queryIds("SELECT follower_id FROM follow_edges WHERE followed_id = ? ORDER BY follower_id", userId);
+    }
+
+    /**
+     * Obtiene un bloque de IDs de seguidores de un usuario, para recorrerlos por partes.
+     *
+     * @param userId El ID del usuario seguido.
+     * @param afterId Último ID recibido (0 para empezar).
+     * @param limit Tamaño máximo del bloque (se acota a {@value #MAX_ID_CHUNK_SIZE}).
+     * @return Los IDs de seguidores mayores que {@code afterId}, en orden ascendente.
+     */
+    public long[] getFollowerIds(Long userId, long afterId, int limit) {
+        int size = limit <= 0 ? MAX_ID_CHUNK_SIZE : Math.min(limit, MAX_ID_CHUNK_SIZE);
+        return queryIds("SELECT follower_id FROM follow_edges WHERE followed_id = ? AND follower_id > ? " +
+                "ORDER BY follower_id LIMIT ?", userId, afterId, size);
+    }
+
+    /**
+     * Obtiene los IDs de todos los usuarios seguidos por un usuario.
+     *
+     * @param userId El ID del usuario que sigue.
+     * @return Los IDs de los seguidos, en orden ascendente.
+     */
+    public long[] getFollowingIds(Long userId) {
+        return queryIds("SELECT followed_id FROM follow_edges WHERE follower_id = ? ORDER BY followed_id", userId);
+    }
+
+    /**
+     * Obtiene los contadores de seguimiento de varios usuarios con una sola consulta sobre {@code follow_counters}.
+     *
+     * @param userIds Los IDs de los usuarios.
+     * @return Mapa {@code userId -> contadores}; los usuarios sin relaciones no aparecen.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, FollowCounter> getCounters(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return followCounterRepository.findByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(FollowCounter::getUserId, Function.identity()));
+    }
+
+    /**
+     * Obtiene una página de seguidores de un usuario, del más reciente al más antiguo.
+     *
+     * @param userId El ID del usuario seguido.
+     * @param cursor Cursor devuelto por la página anterior, o {@code null} para la primera página.
+     * @param limit Tamaño de página (se acota a {@value #MAX_FOLLOW_PAGE_SIZE}).
+     * @return Un {@link FollowPageDTO} con las tarjetas de los seguidores y el cursor de la página siguiente.
+     * @throws IllegalArgumentException Si el cursor no es válido.
+     */
+    @Transactional(readOnly = true)
+    public FollowPageDTO getFollowersPage(Long userId, String cursor, int limit) {
+        return getPage(userId, cursor, limit, true);
+    }
+
+    /**
+     * Obtiene una página de usuarios seguidos por un usuario, del más reciente al más antiguo.
+     *
+     * @param userId El ID del usuario que sigue.
+     * @param cursor Cursor devuelto por la página anterior, o {@code null} para la primera página.
+     * @param limit Tamaño de página (se acota a {@value #MAX_FOLLOW_PAGE_SIZE}).
+     * @return Un {@link FollowPageDTO} con las tarjetas de los seguidos y el cursor de la página siguiente.
+     * @throws IllegalArgumentException Si el cursor no es válido.
+     */
+    @Transactional(readOnly = true)
+    public FollowPageDTO getFollowingPage(Long userId, String cursor, int limit) {
+        return getPage(userId, cursor, limit, false);
+    }
+
+    /**
+     * Migra las relaciones antiguas al crear el servicio. Se ejecuta antes de que arranque el servidor web, para que
+     * ninguna lectura de seguidores vea {@code follow_edges} a medio migrar.
+     */
+    @PostConstruct
+    public void migrate() {
+        try {
+            migrateLegacyCollections();
+        } catch (Exception e) {
+            log.error("Failed to migrate legacy follower collections", e);
+        }
+    }
+
+    /**
+     * Reconstruye los contadores al arrancar la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    /**
+     * Reconstruye los contadores desde {@code follow_edges}, corrigiendo cualquier desviación.
+     * <p>
+     * Se ejecuta en una transacción que primero bloquea todas las filas de contadores
+     * ({@link FollowCounterRepository#lockAll()}); los seguimientos concurrentes esperan a que termine y aplican su
+     * cambio sobre el valor recalculado, así que ninguno se pierde. Después solo reescribe las filas cuyos valores
+     * difieren, crea las que faltan y elimina las de usuarios sin relaciones.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${audira.follows.reconcile-interval-ms:3600000}",
+            initialDelayString = "${audira.follows.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        try {
+            int[] changed = transactionTemplate.execute(status -> {
+                followCounterRepository.lockAll();
+                return new int[] {
+                        followCounterRepository.updateFromEdges() + followCounterRepository.insertMissingFromEdges(),
+                        followCounterRepository.deleteOrphans()
+                };
+            });
+            log.info("Follow counters reconciled: {} rows corrected, {} removed in {} ms",
+                    changed[0], changed[1], System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Failed to reconcile follow counters: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Copia a {@code follow_edges} las relaciones de las antiguas colecciones de {@code User}
+     * ({@code user_followers} y {@code user_following}) y renombra esas tablas con el sufijo {@code _legacy}
+     * para que no se vuelvan a migrar. Las relaciones antiguas no tenían fecha; se les asigna la de la migración.
+     */
+    private void migrateLegacyCollections() {
+        transactionTemplate.executeWithoutResult(status -> {
+            int migrated = 0;
+            if (tableExists("user_followers")) {
+                migrated += jdbcTemplate.update("INSERT INTO follow_edges (follower_id, followed_id, created_at) " +
+                        "SELECT follower_id, user_id, NOW() FROM user_followers " +
+                        "WHERE follower_id IS NOT NULL AND follower_id <> user_id ON CONFLICT DO NOTHING");
+                jdbcTemplate.execute("ALTER TABLE user_followers RENAME TO user_followers_legacy");
+            }
+            if (tableExists("user_following")) {
+                migrated += jdbcTemplate.update("INSERT INTO follow_edges (follower_id, followed_id, created_at) " +
+                        "SELECT user_id, following_id, NOW() FROM user_following " +
+                        "WHERE following_id IS NOT NULL AND following_id <> user_id ON CONFLICT DO NOTHING");
+                jdbcTemplate.execute("ALTER TABLE user_following RENAME TO user_following_legacy");
+            }
+            if (migrated > 0) {
+                log.info("Migrated {} legacy follow relations to follow_edges", migrated);
+            }
+        });
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    /**
+     * Obtiene una página de seguidores o seguidos a partir de un cursor.
+     * Se pide un elemento más del tamaño de página para saber si hay página siguiente.
+     */
+    private FollowPageDTO getPage(Long userId, String cursor, int limit, boolean followers) {
+        int size = limit <= 0 ? DEFAULT_FOLLOW_PAGE_SIZE : Math.min(limit, MAX_FOLLOW_PAGE_SIZE);
+        LocalDateTime beforeTime = FIRST_PAGE_TIME;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            beforeTime = LocalDateTime.parse(parts[0]);
+            beforeId = Long.parseLong(parts[1]);
+        }
+
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<FollowEdge> edges = followers
+                ? followEdgeRepository.findFollowersPageBefore(userId, beforeTime, beforeId, page)
+                : followEdgeRepository.findFollowingPageBefore(userId, beforeTime, beforeId, page);
+        Function<FollowEdge, Long> otherUser = followers ? FollowEdge::getFollowerId : FollowEdge::getFollowedId;
+
+        boolean hasMore = edges.size() > size;
+        if (hasMore) {
+            edges = edges.subList(0, size);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            FollowEdge last = edges.get(edges.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), otherUser.apply(last));
+        }
+
+        List<Long> ids = edges.stream().map(otherUser).collect(Collectors.toList());
+        Map<Long, UserCardDTO> cards = ids.isEmpty() ? Map.of() : userRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(UserCardDTO::getId, card -> card));
+        FollowCounter counter = followCounterRepository.findById(userId).orElse(null);
+        long total = counter == null ? 0L : followers ? counter.getFollowerCount() : counter.getFollowingCount();
+
+        return FollowPageDTO.builder()
+                .users(ids.stream().map(cards::get).filter(Objects::nonNull).collect(Collectors.toList()))
+                .total(total)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private long[] queryIds(String sql, Object... args) {
+        IdCollector collector = new IdCollector();
+        jdbcTemplate.query(sql, collector, args);
+        return collector.toArray();
+    }
+
+    private static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid pagination cursor");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor");
+        }
+    }
+
+    /**
+     * Acumula la primera columna de cada fila en un {@code long[]} que crece por duplicación.
+     */
+    private static final class IdCollector implements RowCallbackHandler {
+        private long[] ids = new long[64];
+        private int size;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = rs.getLong(1);
+        }
+
+        private long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
@@ -6,13 +6,25 @@ import io.audira.community.exception.RatingException;
 import io.audira.community.model.Rating;
 import io.audira.community.repository.RatingRepository;
 import io.audira.community.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -40,9 +52,34 @@ import java.util.stream.Collectors;
 public class RatingService {
 
     private final RatingRepository ratingRepository;
+    private final RatingSummaryService ratingSummaryService;
     private final UserRepository userRepository;
     private final CommerceClient commerceClient;
 
+    private static final int MAX_EXPORT_PAGE_SIZE = 5000;
+
+    /** Tamaño de página por defecto y máximo de los listados paginados de valoraciones. */
+    private static final int DEFAULT_RATINGS_PAGE_SIZE = 20;
+    private static final int MAX_RATINGS_PAGE_SIZE = 100;
+
+    /** Cursor inicial: posterior a cualquier valoración existente. */
+    private static final ZonedDateTime FIRST_PAGE_TIME = ZonedDateTime.of(9999, 12, 31, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    /** Número máximo de entidades por consulta de estadísticas en lote. */
+    public static final int MAX_STATS_BATCH_SIZE = 5000;
+
+    /**
+     * Asigna {@code changedAt} a las valoraciones creadas antes de existir la columna, antes de atender peticiones,
+     * para que el feed de cambios ({@link #getRatingChanges}) las incluya.
+     */
+    @PostConstruct
+    public void backfillChangedAt() {
+        int updated = ratingRepository.backfillChangedAt();
+        if (updated > 0) {
+            log.info("Backfilled change time of {} ratings", updated);
+        }
+    }
+
     // --- Métodos de CRUD y Lógica de Negocio ---
 
     /**
@@ -101,6 +138,7 @@ public class RatingService {
         }
 
         ZonedDateTime now = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Integer previousStars = countedStars(rating);
 
         if (rating != null) {
             // Actualizar valoración existente
@@ -115,6 +153,7 @@ public class RatingService {
             rating.setComment(request.getComment());
             rating.setIsActive(true);
             rating.setUpdatedAt(now);
+            rating.setChangedAt(ZonedDateTime.now());
 
         } else {
             // Crear nueva valoración
@@ -127,9 +166,12 @@ public class RatingService {
             rating.setIsActive(true);
             rating.setCreatedAt(now);
             rating.setUpdatedAt(null); // Se establece a null o la misma fecha en la entidad, dependiendo de la configuración
+            rating.setChangedAt(ZonedDateTime.now());
         }
 
         Rating savedRating = ratingRepository.save(rating);
+        ratingSummaryService.applyChange(savedRating.getEntityType(), savedRating.getEntityId(),
+                previousStars, countedStars(savedRating));
         log.info("Rating saved successfully: {}", savedRating.getId());
 
         return convertToDTO(savedRating);
@@ -160,6 +202,8 @@ public class RatingService {
             throw new RatingException.UnauthorizedRatingAccessException();
         }
 
+        Integer previousStars = countedStars(rating);
+
         // Actualizar campos si están presentes
         if (request.getRating() != null) {
             validateRatingValue(request.getRating());
@@ -175,9 +219,12 @@ public class RatingService {
         if (request.getRating() != null || request.getComment() != null) {
             ZonedDateTime now = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
             rating.setUpdatedAt(now);
+            rating.setChangedAt(ZonedDateTime.now());
         }
 
         Rating updatedRating = ratingRepository.save(rating);
+        ratingSummaryService.applyChange(updatedRating.getEntityType(), updatedRating.getEntityId(),
+                previousStars, countedStars(updatedRating));
         log.info("Rating {} updated successfully", ratingId);
 
         return convertToDTO(updatedRating);
@@ -207,14 +254,56 @@ public class RatingService {
         }
 
         // Soft delete: marcar como inactiva
+        Integer previousStars = countedStars(rating);
         rating.setIsActive(false);
+        rating.setChangedAt(ZonedDateTime.now());
         ratingRepository.save(rating);
+        ratingSummaryService.applyChange(rating.getEntityType(), rating.getEntityId(), previousStars, null);
 
         log.info("Rating {} deleted successfully", ratingId);
     }
 
     // --- Métodos de Consulta y Estadísticas ---
 
+    /**
+     * Obtiene las valoraciones de un tipo de entidad cambiadas después del cursor {@code (since, afterId)}.
+     * <p>
+     * Uso interno por otros microservicios (ej. el modelo de co-valoración del motor de recomendaciones del catálogo).
+     * Cada entrada es el estado actual de la valoración, incluidas las inactivas, así que el consumidor puede
+     * aplicarla más de una vez. {@code changedAt} se asigna antes de confirmar: el consumidor debe releer una ventana
+     * de solapamiento para no perder las que confirman fuera de orden.
+     * </p>
+     *
+     * @param entityType Tipo de entidad (ej. "SONG").
+     * @param since Instante del cursor, o {@code null} para empezar desde el principio.
+     * @param afterId ID de la última valoración ya consumida con ese instante.
+     * @param limit Tamaño máximo del lote (se acota a {@value #MAX_EXPORT_PAGE_SIZE}).
+     * @return Un {@link RatingChangesPageDTO} con las valoraciones y el cursor para la siguiente consulta.
+     */
+    @Transactional(readOnly = true)
+    public RatingChangesPageDTO getRatingChanges(String entityType, ZonedDateTime since, Long afterId, int limit) {
+        int size = limit <= 0 ? MAX_EXPORT_PAGE_SIZE : Math.min(limit, MAX_EXPORT_PAGE_SIZE);
+        ZonedDateTime from = since != null ? since : Instant.EPOCH.atZone(ZoneOffset.UTC);
+        long fromId = afterId != null ? afterId : 0L;
+
+        List<Rating> ratings = ratingRepository.findChangesAfter(
+                entityType.toUpperCase(), from, fromId, PageRequest.of(0, size));
+
+        ZonedDateTime cursorTime = from;
+        long cursorId = fromId;
+        if (!ratings.isEmpty()) {
+            Rating last = ratings.get(ratings.size() - 1);
+            cursorTime = last.getChangedAt();
+            cursorId = last.getId();
+        }
+        return RatingChangesPageDTO.builder()
+                .ratings(ratings.stream().map(this::convertToDTO).collect(Collectors.toList()))
+                .cursorTime(cursorTime)
+                .cursorId(cursorId)
+                .hasMore(ratings.size() == size)
+                .build();
+    }
+
     /**
      * Obtiene todas las valoraciones activas de un usuario.
      *
@@ -244,9 +333,7 @@ public class RatingService {
                 .findByEntityTypeAndEntityIdAndIsActiveTrueOrderByCreatedAtDesc(
                         entityType.toUpperCase(), entityId);
 
-        return ratings.stream()
-                .map(this::convertToDTOWithUserInfo)
-                .collect(Collectors.toList());
+        return convertToDTOsWithUserInfo(ratings);
     }
 
     /**
@@ -262,16 +349,50 @@ public class RatingService {
         List<Rating> ratings = ratingRepository.findRatingsWithComments(
                 entityType.toUpperCase(), entityId);
 
-        return ratings.stream()
-                .map(this::convertToDTOWithUserInfo)
-                .collect(Collectors.toList());
+        return convertToDTOsWithUserInfo(ratings);
+    }
+
+    /**
+     * Obtiene una página de las valoraciones activas de una entidad, de la más reciente a la más antigua.
+     * <p>
+     * Paginación por conjunto de claves: cada página cuesta lo mismo aunque la entidad tenga decenas de miles
+     * de valoraciones, y los autores de la página se resuelven con una sola consulta.
+     * </p>
+     *
+     * @param entityType El tipo de entidad.
+     * @param entityId El ID de la entidad.
+     * @param cursor Cursor devuelto por la página anterior, o {@code null} para la primera página.
+     * @param limit Tamaño de página (se acota a {@value #MAX_RATINGS_PAGE_SIZE}).
+     * @return Un {@link RatingPageDTO} con las valoraciones y el cursor de la página siguiente.
+     * @throws RatingException.InvalidCursorException Si el cursor no es válido.
+     */
+    @Transactional(readOnly = true)
+    public RatingPageDTO getEntityRatingsPage(String entityType, Long entityId, String cursor, int limit) {
+        return getRatingsPage(entityType, entityId, cursor, limit, false);
+    }
+
+    /**
+     * Obtiene una página de las valoraciones activas con comentario de una entidad, de la más reciente a la más antigua.
+     *
+     * @param entityType El tipo de entidad.
+     * @param entityId El ID de la entidad.
+     * @param cursor Cursor devuelto por la página anterior, o {@code null} para la primera página.
+     * @param limit Tamaño de página (se acota a {@value #MAX_RATINGS_PAGE_SIZE}).
+     * @return Un {@link RatingPageDTO} con las valoraciones y el cursor de la página siguiente.
+     * @throws RatingException.InvalidCursorException Si el cursor no es válido.
+     * @see #getEntityRatingsPage(String, Long, String, int)
+     */
+    @Transactional(readOnly = true)
+    public RatingPageDTO getEntityRatingsWithCommentsPage(String entityType, Long entityId, String cursor, int limit) {
+        return getRatingsPage(entityType, entityId, cursor, limit, true);
     }
 
     /**
      * Calcula y retorna las estadísticas resumidas de valoración para una entidad.
      * <p>
      * Esto incluye el promedio de la puntuación total, el número total de valoraciones
-     * y la distribución de estrellas (1 a 5).
+     * y la distribución de estrellas (1 a 5). Se leen del resumen mantenido por {@link RatingSummaryService}
+     * (una búsqueda por clave primaria o un acierto en caché), no agregando la tabla de valoraciones.
      * </p>
      *
      * @param entityType El tipo de entidad.
@@ -281,21 +402,35 @@ public class RatingService {
     @Transactional(readOnly = true)
     public RatingStatsDTO getEntityRatingStats(String entityType, Long entityId) {
         log.info("Getting rating stats for {} {}", entityType, entityId);
+        return ratingSummaryService.getStats(entityType.toUpperCase(), entityId);
+    }
 
+    /**
+     * Calcula las estadísticas de valoración de varias entidades del mismo tipo con una única consulta agrupada.
+     * <p>
+     * Equivale a llamar a {@link #getEntityRatingStats(String, Long)} por cada entidad, pero resolviendo todos
+     * los resúmenes que no están en caché con una sola consulta. Se devuelve una entrada por cada ID distinto solicitado, en el orden recibido; las entidades sin
+     * valoraciones tienen promedio y conteos a cero.
+     * </p>
+     *
+     * @param entityType El tipo de entidad.
+     * @param entityIds Los IDs de las entidades (como máximo {@value #MAX_STATS_BATCH_SIZE}).
+     * @return Una lista de {@link RatingStatsDTO}, una por entidad.
+     * @throws RatingException.StatsBatchTooLargeException Si se solicitan demasiadas entidades.
+     */
+    @Transactional(readOnly = true)
+    public List<RatingStatsDTO> getEntityRatingStatsBatch(String entityType, List<Long> entityIds) {
         String entityTypeUpper = entityType.toUpperCase();
-        Double average = ratingRepository.calculateAverageRating(entityTypeUpper, entityId);
-        Long total = ratingRepository.countByEntityTypeAndEntityIdAndIsActiveTrue(entityTypeUpper, entityId);
-
-        RatingStatsDTO stats = new RatingStatsDTO(entityTypeUpper, entityId, average, total);
-
-        // Obtener distribución de estrellas
-        stats.setFiveStars(ratingRepository.countByRatingStars(entityTypeUpper, entityId, 5));
-        stats.setFourStars(ratingRepository.countByRatingStars(entityTypeUpper, entityId, 4));
-        stats.setThreeStars(ratingRepository.countByRatingStars(entityTypeUpper, entityId, 3));
-        stats.setTwoStars(ratingRepository.countByRatingStars(entityTypeUpper, entityId, 2));
-        stats.setOneStar(ratingRepository.countByRatingStars(entityTypeUpper, entityId, 1));
-
-        return stats;
+        Set<Long> ids = new LinkedHashSet<>(entityIds);
+        ids.remove(null);
+        if (ids.size() > MAX_STATS_BATCH_SIZE) {
+            throw new RatingException.StatsBatchTooLargeException(MAX_STATS_BATCH_SIZE);
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        log.info("Getting rating stats for {} {} entities", ids.size(), entityTypeUpper);
+        return new ArrayList<>(ratingSummaryService.getStats(entityTypeUpper, ids).values());
     }
 
     /**
@@ -333,6 +468,16 @@ public class RatingService {
 
     // --- Métodos privados de validación y conversión ---
 
+    /**
+     * Puntuación con la que una valoración cuenta en el resumen de su entidad.
+     *
+     * @param rating La valoración (puede ser {@code null}).
+     * @return Las estrellas de la valoración, o {@code null} si no existe o está inactiva.
+     */
+    private Integer countedStars(Rating rating) {
+        return rating != null && Boolean.TRUE.equals(rating.getIsActive()) ? rating.getRating() : null;
+    }
+
     /**
      * Valida que la puntuación de la valoración esté en el rango permitido (1 a 5).
      *
@@ -368,23 +513,91 @@ public class RatingService {
     }
 
     /**
-     * Convierte la entidad {@link Rating} a su DTO e inyecta la información básica del usuario.
+     * Convierte una lista de valoraciones a sus DTO e inyecta la información básica de sus autores.
      * <p>
-     * Esto se utiliza para mostrar valoraciones en listas públicas.
+     * Esto se utiliza para mostrar valoraciones en listas públicas. Los autores se resuelven con una sola consulta
+     * de proyección ({@link UserSummaryDTO}) para toda la lista; si un autor ya no existe, su valoración se devuelve
+     * sin información de usuario.
      * </p>
      *
-     * @param rating La entidad de valoración.
-     * @return El {@link RatingDTO} con información del usuario (nombre de usuario e imagen de perfil).
+     * @param ratings Las entidades de valoración.
+     * @return Los {@link RatingDTO} con información del usuario (nombre de usuario e imagen de perfil), en el mismo
+     *         orden.
      */
-    private RatingDTO convertToDTOWithUserInfo(Rating rating) {
-        RatingDTO dto = new RatingDTO(rating);
+    private List<RatingDTO> convertToDTOsWithUserInfo(List<Rating> ratings) {
+        Set<Long> userIds = ratings.stream().map(Rating::getUserId).collect(Collectors.toSet());
+        Map<Long, UserSummaryDTO> users = userIds.isEmpty() ? Map.of()
+                : userRepository.findSummariesByIdIn(userIds).stream()
+                        .collect(Collectors.toMap(UserSummaryDTO::getId, Function.identity()));
+
+        return ratings.stream()
+                .map(rating -> {
+                    RatingDTO dto = new RatingDTO(rating);
+                    UserSummaryDTO user = users.get(rating.getUserId());
+                    if (user != null) {
+                        dto.setUserName(user.getUsername());
+                        dto.setUserProfileImageUrl(user.getProfileImageUrl());
+                    }
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
 
-        // Obtener información del usuario
-        userRepository.findById(rating.getUserId()).ifPresent(user -> {
-            dto.setUserName(user.getUsername());
-            dto.setUserProfileImageUrl(user.getProfileImageUrl());
-        });
+    /**
+     * Obtiene una página de valoraciones (todas o solo las que tienen comentario) a partir de un cursor.
+     * Se pide un elemento más del tamaño de página para saber si hay página siguiente.
+     */
+    private RatingPageDTO getRatingsPage(String entityType, Long entityId, String cursor, int limit,
+                                         boolean withComments) {
+        int size = limit <= 0 ? DEFAULT_RATINGS_PAGE_SIZE : Math.min(limit, MAX_RATINGS_PAGE_SIZE);
+        ZonedDateTime beforeTime = FIRST_PAGE_TIME;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            beforeTime = ZonedDateTime.ofInstant(Instant.parse(parts[0]), ZoneOffset.UTC);
+            beforeId = Long.parseLong(parts[1]);
+        }
 
-        return dto;
+        String entityTypeUpper = entityType.toUpperCase();
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<Rating> ratings = withComments
+                ? ratingRepository.findWithCommentsPageBefore(entityTypeUpper, entityId, beforeTime, beforeId, page)
+                : ratingRepository.findActivePageBefore(entityTypeUpper, entityId, beforeTime, beforeId, page);
+
+        boolean hasMore = ratings.size() > size;
+        if (hasMore) {
+            ratings = ratings.subList(0, size);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Rating last = ratings.get(ratings.size() - 1);
+            nextCursor = encodeCursor(last.getCreatedAt(), last.getId());
+        }
+
+        return RatingPageDTO.builder()
+                .ratings(convertToDTOsWithUserInfo(ratings))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private static String encodeCursor(ZonedDateTime createdAt, Long id) {
+        String raw = createdAt.toInstant() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new RatingException.InvalidCursorException();
+            }
+            Instant.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RatingException.InvalidCursorException();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,252 @@
+package io.audira.community.service;
+
+import io.audira.community.dto.RatingStatsDTO;
+import io.audira.community.model.RatingSummary;
+import io.audira.community.model.RatingSummaryId;
+import io.audira.community.repository.RatingRepository;
+import io.audira.community.repository.RatingSummaryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servicio que mantiene y sirve el resumen de valoraciones por entidad ({@link RatingSummary}).
+ * <p>
+ * Las estadísticas de una entidad se leen de una fila de {@code rating_summaries} (búsqueda por clave primaria)
+ * en lugar de las siete consultas de agregación sobre {@code ratings}. Delante de la tabla hay una caché en memoria
+ * con caducidad ({@code audira.ratings.summary-cache-ttl-ms}) que se invalida al confirmar cada escritura.
+ * </p>
+ * <ul>
+ * <li><b>Escritura:</b> {@link RatingService} llama a {@link #applyChange} dentro de su transacción con la
+ * puntuación anterior y la nueva; el cambio se aplica con una sentencia atómica.</li>
+ * <li><b>Reconciliación:</b> al arrancar y periódicamente se reconstruye la tabla desde {@code ratings}. Hasta
+ * que termina la primera reconstrucción, las lecturas se calculan con una consulta agrupada sobre {@code ratings},
+ * para no servir una tabla recién creada y vacía.</li>
+ * </ul>
+ *
+ * @author Grupo GA01
+ * @see RatingSummaryRepository
+ *
+ */
+@Service
+@Slf4j
+public class RatingSummaryService {
+
+    private final RatingSummaryRepository ratingSummaryRepository;
+    private final RatingRepository ratingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final long cacheTtlMs;
+    private final int cacheMaxEntries;
+
+    /** Caché de estadísticas por entidad; las entradas son inmutables una vez publicadas. */
+    private final Map<RatingSummaryId, CachedStats> cache = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    public RatingSummaryService(RatingSummaryRepository ratingSummaryRepository,
+                                RatingRepository ratingRepository,
+                                TransactionTemplate transactionTemplate,
+                                @Value("${audira.ratings.summary-cache-ttl-ms:60000}") long cacheTtlMs,
+                                @Value("${audira.ratings.summary-cache-max-entries:10000}") int cacheMaxEntries) {
+        this.ratingSummaryRepository = ratingSummaryRepository;
+        this.ratingRepository = ratingRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheTtlMs = cacheTtlMs;
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    /**
+     * Registra en el resumen el cambio de una valoración. Debe llamarse dentro de la transacción de la escritura.
+     *
+     * @param entityType El tipo de entidad (en mayúsculas).
+     * @param entityId El ID de la entidad.
+     * @param oldStars Puntuación que contaba antes del cambio, o {@code null} si la valoración no existía o estaba inactiva.
+     * @param newStars Puntuación que cuenta tras el cambio, o {@code null} si la valoración queda inactiva.
+     */
+    @Transactional
+    public void applyChange(String entityType, Long entityId, Integer oldStars, Integer newStars) {
+        if (Objects.equals(oldStars, newStars)) {
+            return;
+        }
+        long[] stars = new long[6];
+        long count = 0L;
+        long sum = 0L;
+        if (oldStars != null) {
+            stars[oldStars]--;
+            count--;
+            sum -= oldStars;
+        }
+        if (newStars != null) {
+            stars[newStars]++;
+            count++;
+            sum += newStars;
+        }
+        ratingSummaryRepository.applyDelta(entityType, entityId, count, sum,
+                stars[1], stars[2], stars[3], stars[4], stars[5]);
+
+        RatingSummaryId key = new RatingSummaryId(entityType, entityId);
+        cache.remove(key);
+        afterCommit(() -> cache.remove(key));
+    }
+
+    /**
+     * Obtiene las estadísticas de valoración de una entidad.
+     *
+     * @param entityType El tipo de entidad (en mayúsculas).
+     * @param entityId El ID de la entidad.
+     * @return El objeto {@link RatingStatsDTO}, con ceros si la entidad no tiene valoraciones.
+     */
+    @Transactional(readOnly = true)
+    public RatingStatsDTO getStats(String entityType, Long entityId) {
+        return getStats(entityType, List.of(entityId)).get(entityId);
+    }
+
+    /**
+     * Obtiene las estadísticas de valoración de varias entidades del mismo tipo.
+     * <p>
+     * Las entidades en caché se sirven directamente; el resto se resuelve con una sola consulta.
+     * </p>
+     *
+     * @param entityType El tipo de entidad (en mayúsculas).
+     * @param entityIds Los IDs de las entidades.
+     * @return Mapa {@code entityId -> estadísticas} con una entrada por cada ID, en el orden recibido.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, RatingStatsDTO> getStats(String entityType, Collection<Long> entityIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, RatingStatsDTO> result = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long entityId : entityIds) {
+            CachedStats cached = cache.get(new RatingSummaryId(entityType, entityId));
+            if (cached != null && cached.expiresAt() > now) {
+                result.put(entityId, cached.toDTO(entityType, entityId));
+            } else {
+                result.put(entityId, null);
+                missing.add(entityId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, CachedStats> loaded = ready ? loadFromSummaries(entityType, missing) : loadFromRatings(entityType, missing);
+        if (cache.size() + missing.size() > cacheMaxEntries) {
+            cache.clear();
+        }
+        for (Long entityId : missing) {
+            CachedStats stats = loaded.getOrDefault(entityId, CachedStats.EMPTY).withExpiry(now + cacheTtlMs);
+            cache.put(new RatingSummaryId(entityType, entityId), stats);
+            result.put(entityId, stats.toDTO(entityType, entityId));
+        }
+        return result;
+    }
+
+    /**
+     * Reconstruye la tabla de resúmenes al arrancar la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        reconcile();
+    }
+
+    /**
+     * Reconstruye la tabla de resúmenes desde {@code ratings}, corrigiendo cualquier desviación.
+     * <p>
+     * Se ejecuta en una transacción que primero bloquea todas las filas de resúmenes
+     * ({@link RatingSummaryRepository#lockAll()}); las escrituras concurrentes esperan a que termine y aplican su
+     * cambio sobre el valor recalculado, así que ninguna se pierde. Después solo reescribe las filas cuyos valores
+     * difieren, crea las que faltan y elimina las de entidades sin valoraciones activas.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${audira.ratings.summary-reconcile-interval-ms:3600000}",
+            initialDelayString = "${audira.ratings.summary-reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        try {
+            int[] changed = transactionTemplate.execute(status -> {
+                ratingSummaryRepository.lockAll();
+                return new int[] {
+                        ratingSummaryRepository.updateFromRatings() + ratingSummaryRepository.insertMissingFromRatings(),
+                        ratingSummaryRepository.deleteOrphans()
+                };
+            });
+            cache.clear();
+            ready = true;
+            log.info("Rating summaries reconciled: {} rows corrected, {} removed in {} ms",
+                    changed[0], changed[1], System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Failed to reconcile rating summaries: {}", e.getMessage());
+        }
+    }
+
+    private Map<Long, CachedStats> loadFromSummaries(String entityType, List<Long> entityIds) {
+        Map<Long, CachedStats> loaded = new HashMap<>();
+        for (RatingSummary summary : ratingSummaryRepository.findByEntityTypeAndEntityIdIn(entityType, entityIds)) {
+            loaded.put(summary.getEntityId(), new CachedStats(summary.getRatingCount(), summary.getRatingSum(),
+                    summary.getOneStar(), summary.getTwoStars(), summary.getThreeStars(),
+                    summary.getFourStars(), summary.getFiveStars(), 0L));
+        }
+        return loaded;
+    }
+
+    /**
+     * Calcula las estadísticas directamente sobre {@code ratings} con una consulta agrupada
+     * (solo hasta la primera reconstrucción de la tabla de resúmenes).
+     */
+    private Map<Long, CachedStats> loadFromRatings(String entityType, List<Long> entityIds) {
+        Map<Long, CachedStats> loaded = new HashMap<>();
+        for (Object[] row : ratingRepository.calculateRatingStatsByEntityIds(entityType, entityIds)) {
+            long count = (Long) row[2];
+            long sum = Math.round((Double) row[1] * count);
+            loaded.put((Long) row[0], new CachedStats(count, sum,
+                    (Long) row[7], (Long) row[6], (Long) row[5], (Long) row[4], (Long) row[3], 0L));
+        }
+        return loaded;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Copia inmutable de un resumen, con su instante de caducidad en la caché.
+     */
+    private record CachedStats(long count, long sum, long oneStar, long twoStars, long threeStars,
+                               long fourStars, long fiveStars, long expiresAt) {
+
+        static final CachedStats EMPTY = new CachedStats(0L, 0L, 0L, 0L, 0L, 0L, 0L, 0L);
+
+        CachedStats withExpiry(long expiresAt) {
+            return new CachedStats(count, sum, oneStar, twoStars, threeStars, fourStars, fiveStars, expiresAt);
+        }
+
+        RatingStatsDTO toDTO(String entityType, Long entityId) {
+            RatingStatsDTO stats = new RatingStatsDTO(entityType, entityId,
+                    count > 0 ? (double) sum / count : null, count);
+            stats.setFiveStars(fiveStars);
+            stats.setFourStars(fourStars);
+            stats.setThreeStars(threeStars);
+            stats.setTwoStars(twoStars);
+            stats.setOneStar(oneStar);
+            return stats;
+        }
+    }
+}
@@ -17,9 +17,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,10 +52,17 @@ public class UserService {
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
     private final FileServiceClient fileServiceClient;
+    private final FollowGraphService followGraphService;
 
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    private static final int DEFAULT_DIRECTORY_PAGE_SIZE = 1000;
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 5000;
+
+    /** Número máximo de IDs aceptados por las consultas en lote ({@code POST /api/users/batch}). */
+    public static final int MAX_BATCH_SIZE = 500;
+
     // --- Métodos de Autenticación y Perfil ---
 
     /**
@@ -261,6 +275,39 @@ public class UserService {
         return mapToDTO(user);
     }
 
+    /**
+     * Obtiene la tarjeta pública (sin conjuntos de seguidores) de varios usuarios con una sola consulta.
+     *
+     * @param ids Los IDs de los usuarios (como máximo {@value #MAX_BATCH_SIZE}; se ignoran nulos y repetidos).
+     * @return Una {@link List} de {@link UserCardDTO} en el orden recibido; los IDs inexistentes no aparecen.
+     * @throws IllegalArgumentException si se excede el tamaño máximo del lote.
+     */
+    @Transactional(readOnly = true)
+    public List<UserCardDTO> getUserCardsByIds(Collection<Long> ids) {
+        List<Long> distinctIds = validateBatch(ids);
+        if (distinctIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, UserCardDTO> cards = userRepository.findCardsByIdIn(distinctIds).stream()
+                .collect(Collectors.toMap(UserCardDTO::getId, card -> card));
+        return distinctIds.stream()
+                .map(cards::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Obtiene el perfil completo de varios usuarios, cargando todas las entidades en una sola consulta.
+     *
+     * @param ids Los IDs de los usuarios (como máximo {@value #MAX_BATCH_SIZE}; se ignoran nulos y repetidos).
+     * @return Una {@link List} de {@link UserDTO} en el orden recibido; los IDs inexistentes no aparecen.
+     * @throws IllegalArgumentException si se excede el tamaño máximo del lote.
+     */
+    @Transactional(readOnly = true)
+    public List<UserDTO> getUsersByIds(Collection<Long> ids) {
+        return mapToDTOsInOrder(validateBatch(ids));
+    }
+
     /**
      * Obtiene el perfil de un usuario por su nombre de usuario.
      *
@@ -280,9 +327,7 @@ public class UserService {
      * @return Una {@link List} de {@link UserDTO}.
      */
     public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(userRepository.findAll());
     }
 
     /**
@@ -293,9 +338,7 @@ public class UserService {
      */
     public List<UserDTO> getUsersByRole(String role) {
         UserRole userRole = UserRole.valueOf(role.toUpperCase());
-        return userRepository.findByRole(userRole).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(userRepository.findByRole(userRole));
     }
 
     /**
@@ -376,14 +419,11 @@ public class UserService {
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        User targetUser = userRepository.findById(targetUserId)
-                .orElseThrow(() -> new RuntimeException("Target user not found"));
-
-        user.getFollowingIds().add(targetUserId);
-        targetUser.getFollowerIds().add(userId);
+        if (!userRepository.existsById(targetUserId)) {
+            throw new RuntimeException("Target user not found");
+        }
 
-        userRepository.save(user);
-        userRepository.save(targetUser);
+        followGraphService.follow(userId, targetUserId);
 
         return mapToDTO(user);
     }
@@ -400,48 +440,51 @@ public class UserService {
     public UserDTO unfollowUser(Long userId, Long targetUserId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        User targetUser = userRepository.findById(targetUserId)
-                .orElseThrow(() -> new RuntimeException("Target user not found"));
-
-        user.getFollowingIds().remove(targetUserId);
-        targetUser.getFollowerIds().remove(userId);
+        if (!userRepository.existsById(targetUserId)) {
+            throw new RuntimeException("Target user not found");
+        }
 
-        userRepository.save(user);
-        userRepository.save(targetUser);
+        followGraphService.unfollow(userId, targetUserId);
 
         return mapToDTO(user);
     }
 
     /**
      * Obtiene la lista de seguidores de un usuario.
+     * <p>
+     * Devuelve todos los seguidores (se cargan en bloques de {@value #MAX_BATCH_SIZE}); para listas grandes conviene
+     * la versión paginada ({@code /followers/page}).
+     * </p>
      *
      * @param userId El ID del usuario.
      * @return Una {@link List} de {@link UserDTO} que son seguidores.
      * @throws RuntimeException si el usuario no se encuentra.
      */
     public List<UserDTO> getFollowers(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
 
-        return user.getFollowerIds().stream()
-                .map(this::getUserById)
-                .collect(Collectors.toList());
+        return mapToDTOsInOrder(toList(followGraphService.getFollowerIds(userId)));
     }
 
     /**
      * Obtiene la lista de usuarios que un usuario está siguiendo.
+     * <p>
+     * Devuelve todos los seguidos (se cargan en bloques de {@value #MAX_BATCH_SIZE}); para listas grandes conviene
+     * la versión paginada ({@code /following/page}).
+     * </p>
      *
      * @param userId El ID del usuario.
      * @return Una {@link List} de {@link UserDTO} que el usuario está siguiendo.
      * @throws RuntimeException si el usuario no se encuentra.
      */
     public List<UserDTO> getFollowing(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
 
-        return user.getFollowingIds().stream()
-                .map(this::getUserById)
-                .collect(Collectors.toList());
+        return mapToDTOsInOrder(toList(followGraphService.getFollowingIds(userId)));
     }
 
     /**
@@ -452,14 +495,17 @@ public class UserService {
      * @throws RuntimeException si el usuario no se encuentra.
      */
     public List<UserDTO> getFollowedArtists(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found");
+        }
 
-        return user.getFollowingIds().stream()
-                .map(followingId -> userRepository.findById(followingId).orElse(null))
-                .filter(followedUser -> followedUser != null && followedUser.getRole() == UserRole.ARTIST)
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        List<UserDTO> artists = new ArrayList<>();
+        for (List<Long> chunk : chunks(toList(followGraphService.getFollowingIds(userId)))) {
+            artists.addAll(mapToDTOs(userRepository.findAllById(chunk).stream()
+                    .filter(followedUser -> followedUser.getRole() == UserRole.ARTIST)
+                    .collect(Collectors.toList())));
+        }
+        return artists;
     }
 
     /**
@@ -508,9 +554,7 @@ public class UserService {
      */
     public List<UserDTO> searchArtists(String query) {
         List<Artist> artists = userRepository.searchArtistsByName(query);
-        return artists.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(artists);
     }
 
     /**
@@ -525,6 +569,79 @@ public class UserService {
     public List<Long> searchArtistIds(String query) {
         return userRepository.searchArtistIdsByName(query);
     }
+
+    /**
+     * Exporta una página del directorio de artistas activos (paginación por ID).
+     * <p>
+     * Pensado para que otros microservicios construyan una réplica local del directorio. El {@code cursorTime}
+     * devuelto es la hora del servidor al iniciar la exportación, y sirve como punto de partida del feed de
+     * cambios ({@link #getArtistDirectoryChanges(LocalDateTime, Long, int)}).
+     * </p>
+     *
+     * @param afterId Último ID recibido (0 o nulo para empezar desde el principio).
+     * @param limit Tamaño máximo de la página (se acota a {@value #MAX_DIRECTORY_PAGE_SIZE}).
+     * @return Un {@link ArtistDirectoryPageDTO} con las entradas y el cursor para la siguiente página.
+     */
+    @Transactional(readOnly = true)
+    public ArtistDirectoryPageDTO exportArtistDirectory(Long afterId, int limit) {
+        LocalDateTime exportStartedAt = LocalDateTime.now();
+        int size = clampDirectoryPageSize(limit);
+        long cursorId = afterId != null ? afterId : 0L;
+
+        List<ArtistDirectoryEntryDTO> entries =
+                userRepository.exportArtistDirectory(cursorId, PageRequest.of(0, size));
+        if (!entries.isEmpty()) {
+            cursorId = entries.get(entries.size() - 1).getId();
+        }
+
+        return ArtistDirectoryPageDTO.builder()
+                .entries(entries)
+                .cursorTime(exportStartedAt)
+                .cursorId(cursorId)
+                .hasMore(entries.size() == size)
+                .build();
+    }
+
+    /**
+     * Obtiene los cambios del directorio de artistas posteriores al cursor {@code (since, afterId)}.
+     * <p>
+     * Las entradas con {@code listed = false} indican que el usuario debe retirarse de la réplica
+     * (ya no es artista o su cuenta está suspendida).
+     * </p>
+     *
+     * @param since Componente temporal del cursor.
+     * @param afterId Componente de desempate del cursor (0 o nulo si no aplica).
+     * @param limit Tamaño máximo de la página (se acota a {@value #MAX_DIRECTORY_PAGE_SIZE}).
+     * @return Un {@link ArtistDirectoryPageDTO} con las entradas y el cursor para la siguiente consulta.
+     */
+    @Transactional(readOnly = true)
+    public ArtistDirectoryPageDTO getArtistDirectoryChanges(LocalDateTime since, Long afterId, int limit) {
+        int size = clampDirectoryPageSize(limit);
+        LocalDateTime cursorTime = since;
+        long cursorId = afterId != null ? afterId : 0L;
+
+        List<ArtistDirectoryEntryDTO> entries =
+                userRepository.findArtistDirectoryChanges(since, cursorId, PageRequest.of(0, size));
+        if (!entries.isEmpty()) {
+            ArtistDirectoryEntryDTO last = entries.get(entries.size() - 1);
+            cursorTime = last.getUpdatedAt();
+            cursorId = last.getId();
+        }
+
+        return ArtistDirectoryPageDTO.builder()
+                .entries(entries)
+                .cursorTime(cursorTime)
+                .cursorId(cursorId)
+                .hasMore(entries.size() == size)
+                .build();
+    }
+
+    private int clampDirectoryPageSize(int limit) {
+        if (limit <= 0) {
+            return DEFAULT_DIRECTORY_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_DIRECTORY_PAGE_SIZE);
+    }
     
     // --- Métodos de Administración (AdminController) ---
 
@@ -570,6 +687,7 @@ public class UserService {
                     .firstName(user.getFirstName())
                     .lastName(user.getLastName())
                     .role(newRole) // <-- NEW ROLE
+                    .roleChangedAt(LocalDateTime.now())
                     .uid(user.getUid())
                     .bio(user.getBio())
                     .profileImageUrl(user.getProfileImageUrl())
@@ -584,8 +702,6 @@ public class UserService {
                     .tiktokUrl(user.getTiktokUrl())
                     .isActive(user.getIsActive())
                     .isVerified(user.getIsVerified())
-                    .followerIds(user.getFollowerIds())
-                    .followingIds(user.getFollowingIds())
                     .createdAt(user.getCreatedAt())
                     .build();
         } else {
@@ -598,6 +714,7 @@ public class UserService {
                     .firstName(user.getFirstName())
                     .lastName(user.getLastName())
                     .role(newRole) // <-- NEW ROLE
+                    .roleChangedAt(LocalDateTime.now())
                     .uid(user.getUid())
                     .bio(user.getBio())
                     .profileImageUrl(user.getProfileImageUrl())
@@ -612,8 +729,6 @@ public class UserService {
                     .tiktokUrl(user.getTiktokUrl())
                     .isActive(user.getIsActive())
                     .isVerified(user.getIsVerified())
-                    .followerIds(user.getFollowerIds())
-                    .followingIds(user.getFollowingIds())
                     .createdAt(user.getCreatedAt())
                     .build();
         }
@@ -697,14 +812,13 @@ public class UserService {
         String lowerQuery = query.toLowerCase();
         List<User> allUsers = userRepository.findAll();
 
-        return allUsers.stream()
+        return mapToDTOs(allUsers.stream()
                 .filter(user ->
                     user.getUsername().toLowerCase().contains(lowerQuery) ||
                     user.getEmail().toLowerCase().contains(lowerQuery) ||
                     user.getFirstName().toLowerCase().contains(lowerQuery) ||
                     user.getLastName().toLowerCase().contains(lowerQuery))
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -758,6 +872,85 @@ public class UserService {
     }
 
 
+    /**
+     * Comprueba el tamaño de un lote de IDs y elimina nulos y repetidos, conservando el orden.
+     */
+    private List<Long> validateBatch(Collection<Long> ids) {
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (distinctIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Too many user IDs (maximum " + MAX_BATCH_SIZE + ")");
+        }
+        return distinctIds;
+    }
+
+    /**
+     * Carga los usuarios indicados y los mapea a {@link UserDTO} en el orden recibido, omitiendo los IDs inexistentes.
+     * Se consulta en bloques de {@value #MAX_BATCH_SIZE} IDs, para no superar el límite de parámetros de la base de
+     * datos con listas largas.
+     */
+    private List<UserDTO> mapToDTOsInOrder(List<Long> ids) {
+        List<UserDTO> result = new ArrayList<>(ids.size());
+        for (List<Long> chunk : chunks(ids)) {
+            Map<Long, User> users = userRepository.findAllById(chunk).stream()
+                    .collect(Collectors.toMap(User::getId, user -> user));
+            result.addAll(mapToDTOs(chunk.stream()
+                    .map(users::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList())));
+        }
+        return result;
+    }
+
+    private static List<Long> toList(long[] ids) {
+        return Arrays.stream(ids).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * Divide una lista de IDs en bloques de como mucho {@value #MAX_BATCH_SIZE}.
+     */
+    private static <T> List<List<T>> chunks(List<T> ids) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Mapea una entidad {@link User} a su DTO {@link UserDTO}.
+     *
+     * @see #mapToDTOs(List)
+     */
+    private UserDTO mapToDTO(User user) {
+        return mapToDTOs(List.of(user)).get(0);
+    }
+
+    /**
+     * Mapea una lista de entidades a DTOs, leyendo los contadores de seguimiento con una consulta a
+     * {@link FollowGraphService} por cada bloque de {@value #MAX_BATCH_SIZE} usuarios.
+     * <p>
+     * Los IDs de seguidores y seguidos no se incluyen: se sirven por páginas ({@code /followers/page},
+     * {@code /following/page}).
+     * </p>
+     */
+    private List<UserDTO> mapToDTOs(List<? extends User> users) {
+        if (users.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<UserDTO> dtos = new ArrayList<>(users.size());
+        for (List<? extends User> chunk : chunks(users)) {
+            Map<Long, FollowCounter> counters = followGraphService.getCounters(
+                    chunk.stream().map(User::getId).collect(Collectors.toList()));
+            for (User user : chunk) {
+                dtos.add(mapToDTO(user, counters.get(user.getId())));
+            }
+        }
+        return dtos;
+    }
+
     /**
      * Mapea una entidad {@link User} (o subclase {@link Artist}) a su respectivo DTO {@link UserDTO}.
      * <p>
@@ -765,9 +958,10 @@ public class UserService {
      * </p>
      *
      * @param user La entidad {@link User} o {@link Artist} de origen.
+     * @param counter Contadores de seguimiento del usuario, o {@code null} si no tiene relaciones.
      * @return El {@link UserDTO} resultante.
      */
-    private UserDTO mapToDTO(User user) {
+    private UserDTO mapToDTO(User user, FollowCounter counter) {
         logger.info("🔍 mapToDTO called for user: {} (id: {})", user.getUsername(), user.getId());
         logger.info("📱 User Twitter URL from entity: '{}'", user.getTwitterUrl());
         logger.info("📱 User Instagram URL from entity: '{}'", user.getInstagramUrl());
@@ -786,8 +980,8 @@ public class UserService {
                 .role(user.getRole())
                 .isActive(user.getIsActive())
                 .isVerified(user.getIsVerified())
-                .followerIds(user.getFollowerIds())
-                .followingIds(user.getFollowingIds())
+                .followerCount(counter != null ? counter.getFollowerCount() : 0L)
+                .followingCount(counter != null ? counter.getFollowingCount() : 0L)
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt());
 
@@ -3,6 +3,7 @@ package io.audira.catalog;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Punto de entrada principal para el microservicio de Catálogo Musical (Music Catalog Service).
@@ -22,6 +23,7 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
  * <li>{@link SpringBootApplication}: Configura el contexto de Spring, la conexión a base de datos (JPA) y los controladores REST.</li>
  * <li>{@link EnableDiscoveryClient}: Habilita el registro automático en el servidor Eureka (Discovery Server),
  * permitiendo que el API Gateway y otros servicios (como File Service o Commerce) localicen este catálogo.</li>
+ * <li>{@link EnableScheduling}: Habilita las tareas periódicas (ej. sincronización del directorio de artistas replicado).</li>
  * </ul>
  * </p>
  *
@@ -29,6 +31,7 @@ import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
  */
 @SpringBootApplication
 @EnableDiscoveryClient
+@EnableScheduling
 public class MusicCatalogServiceApplication {
 
     /**
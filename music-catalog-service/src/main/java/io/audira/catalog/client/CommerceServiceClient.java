@@ -1,8 +1,13 @@
 package io.audira.catalog.client;
 
+import io.audira.catalog.config.RestTemplateConfig;
+import io.audira.catalog.dto.ArtistSalesReportDTO;
 import io.audira.catalog.dto.OrderDTO;
-import lombok.RequiredArgsConstructor;
+import io.audira.catalog.dto.PurchaseFeedPageDTO;
+import io.audira.catalog.dto.PurchasedItemDTO;
+import io.audira.catalog.dto.SalesEventsPageDTO;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
@@ -11,7 +16,9 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,15 +31,27 @@ import java.util.List;
  * </p>
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class CommerceServiceClient {
 
     private final RestTemplate restTemplate;
+    private final RestTemplate recommendationRestTemplate;
+    private final RestTemplate bulkRestTemplate;
+    private final RemoteCallCoalescer coalescer;
 
     @Value("${services.commerce.url:http://172.16.0.4:9004}")
     private String commerceServiceUrl;
 
+    public CommerceServiceClient(RestTemplate restTemplate,
+                                 @Qualifier(RestTemplateConfig.RECOMMENDATION_REST_TEMPLATE) RestTemplate recommendationRestTemplate,
+                                 @Qualifier(RestTemplateConfig.BULK_REST_TEMPLATE) RestTemplate bulkRestTemplate,
+                                 RemoteCallCoalescer coalescer) {
+        this.restTemplate = restTemplate;
+        this.recommendationRestTemplate = recommendationRestTemplate;
+        this.bulkRestTemplate = bulkRestTemplate;
+        this.coalescer = coalescer;
+    }
+
     /**
      * Obtiene el historial de pedidos de un usuario específico.
      *
@@ -40,12 +59,16 @@ public class CommerceServiceClient {
      * @return Una lista de {@link OrderDTO} con los pedidos encontrados, o una lista vacía si ocurre un error.
      */
     public List<OrderDTO> getUserOrders(Long userId) {
+        return coalescer.execute("commerce.getUserOrders:" + userId, () -> fetchUserOrders(userId));
+    }
+
+    private List<OrderDTO> fetchUserOrders(Long userId) {
         String url = String.format("%s/api/orders/user/%d", commerceServiceUrl, userId);
 
         try {
             log.debug("Fetching orders for user {} from URL: {}", userId, url);
 
-            ResponseEntity<List<OrderDTO>> response = restTemplate.exchange(
+            ResponseEntity<List<OrderDTO>> response = recommendationRestTemplate.exchange(
                 url,
                 HttpMethod.GET,
                 null,
@@ -76,46 +99,89 @@ public class CommerceServiceClient {
     }
 
     /**
-     * Recupera la totalidad de pedidos registrados en el sistema.
+     * Obtiene el informe de ventas de un artista (totales, por producto y por día), agregado por Commerce Service.
      * <p>
-     * Utilizado principalmente para tareas administrativas o reportes globales.
+     * Sustituye a la descarga de todas las órdenes para calcular las ventas del artista: la respuesta solo
+     * contiene sus sumas. Solo cuenta órdenes entregadas, desde el principio hasta hoy.
      * </p>
      *
-     * @return Lista completa de todos los pedidos, o lista vacía ante fallos de conexión.
+     * @param artistId Identificador del artista.
+     * @return El {@link ArtistSalesReportDTO}, o {@code null} si el servicio no responde.
      */
-    public List<OrderDTO> getAllOrders() {
-        String url = String.format("%s/api/orders", commerceServiceUrl);
-
-        try {
-            log.debug("Fetching all orders from URL: {}", url);
-
-            ResponseEntity<List<OrderDTO>> response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<List<OrderDTO>>() {}
-            );
+    public ArtistSalesReportDTO getArtistSalesReport(Long artistId) {
+        return coalescer.execute("commerce.getArtistSalesReport:" + artistId, () -> fetchArtistSalesReport(artistId));
+    }
 
-            List<OrderDTO> orders = response.getBody();
-            if (orders == null) {
-                log.warn("Received null response from commerce service for all orders");
-                return new ArrayList<>();
-            }
+    private ArtistSalesReportDTO fetchArtistSalesReport(Long artistId) {
+        String url = String.format("%s/api/orders/sales/artists/%d", commerceServiceUrl, artistId);
 
-            log.debug("All orders retrieved successfully: {} orders", orders.size());
-            return orders;
+        try {
+            log.debug("Fetching sales report for artist {} from URL: {}", artistId, url);
+            return restTemplate.getForObject(url, ArtistSalesReportDTO.class);
 
         } catch (HttpClientErrorException e) {
-            log.warn("HTTP error fetching all orders. Status: {}", e.getStatusCode());
-            return new ArrayList<>();
+            log.warn("HTTP error fetching sales report for artist {}. Status: {}", artistId, e.getStatusCode());
+            return null;
 
         } catch (ResourceAccessException e) {
             log.warn("Connection error accessing commerce service at {}", url);
-            return new ArrayList<>();
+            return null;
 
         } catch (Exception e) {
-            log.error("Unexpected error fetching all orders", e);
-            return new ArrayList<>();
+            log.error("Unexpected error fetching sales report for artist {}", artistId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Obtiene una página del feed global de compras entregadas, ordenada por fecha de compra e ID.
+     * <p>
+     * A diferencia del resto de métodos, <b>propaga</b> los errores: lo consumen tareas de sincronización
+     * que deben conservar su cursor si el servicio no responde.
+     * </p>
+     *
+     * @param since Instante del cursor, o {@code null} para recorrer el feed desde el principio.
+     * @param afterId ID del último registro consumido con ese instante.
+     * @param limit Tamaño del lote.
+     * @return Página de {@link PurchasedItemDTO} con el cursor para la siguiente consulta.
+     * @throws org.springframework.web.client.RestClientException si el servicio no está disponible.
+     */
+    public PurchaseFeedPageDTO getPurchaseFeed(LocalDateTime since, long afterId, int limit) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(commerceServiceUrl + "/api/library/purchases/feed")
+                .queryParam("afterId", afterId)
+                .queryParam("limit", limit);
+        if (since != null) {
+            builder.queryParam("since", since);
         }
+        String url = builder.toUriString();
+
+        log.debug("Fetching purchase feed from URL: {}", url);
+        return bulkRestTemplate.getForObject(url, PurchaseFeedPageDTO.class);
+    }
+
+    /**
+     * Obtiene una página del feed de eventos de ventas (entregas y reembolsos de órdenes entregadas).
+     * <p>
+     * Al igual que {@link #getPurchaseFeed(LocalDateTime, long, int)}, <b>propaga</b> los errores para que la sincronización
+     * conserve su cursor si el servicio no responde.
+     * </p>
+     *
+     * @param since Instante del cursor, o {@code null} para recorrer el feed desde el principio.
+     * @param afterId ID del último evento procesado con ese instante.
+     * @param limit Tamaño de página.
+     * @return Página de eventos con el cursor para la siguiente consulta.
+     * @throws org.springframework.web.client.RestClientException si el servicio no está disponible.
+     */
+    public SalesEventsPageDTO getSalesEvents(LocalDateTime since, long afterId, int limit) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(commerceServiceUrl + "/api/orders/sales/events")
+                .queryParam("afterId", afterId)
+                .queryParam("limit", limit);
+        if (since != null) {
+            builder.queryParam("since", since);
+        }
+        String url = builder.toUriString();
+
+        log.debug("Fetching sales events from URL: {}", url);
+        return bulkRestTemplate.getForObject(url, SalesEventsPageDTO.class);
     }
 }
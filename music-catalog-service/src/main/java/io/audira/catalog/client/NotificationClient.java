@@ -1,14 +1,17 @@
 package io.audira.catalog.client;
 
-import lombok.RequiredArgsConstructor;
+import io.audira.catalog.config.RestTemplateConfig;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,15 +22,26 @@ import java.util.Map;
  * </p>
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationClient {
 
+    /** Máximo de destinatarios admitido por {@code POST /api/notifications/batch}. */
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private static final String NEW_PRODUCT_TITLE = "Nuevo contenido disponible";
+
     private final RestTemplate restTemplate;
+    private final RestTemplate bulkRestTemplate;
 
     @Value("${services.commerce.url:http://172.16.0.4:8080/api/notifications}")
     private String notificationServiceUrl;
 
+    public NotificationClient(RestTemplate restTemplate,
+                              @Qualifier(RestTemplateConfig.BULK_REST_TEMPLATE) RestTemplate bulkRestTemplate) {
+        this.restTemplate = restTemplate;
+        this.bulkRestTemplate = bulkRestTemplate;
+    }
+
     /**
      * Método genérico para enviar una notificación personalizada.
      *
@@ -88,15 +102,57 @@ public class NotificationClient {
      * @return {@code true} si el envío fue exitoso, {@code false} en caso de error.
      */
     public boolean notifyNewProduct(Long userId, String productType, String productTitle, String artistName) {
-        String title = "Nuevo contenido disponible";
-        String message = String.format(
+        return sendNotification(userId, NEW_PRODUCT_TITLE,
+            newProductMessage(productType, productTitle, artistName), "NEW_PRODUCT");
+    }
+
+    /**
+     * Notifica un nuevo lanzamiento a un lote de seguidores con una sola llamada
+     * ({@code POST /api/notifications/batch}).
+     * <p>
+     * A diferencia de los demás métodos, propaga los errores para que el llamante (el reparto a seguidores)
+     * pueda reintentar el lote. Commerce Service no vuelve a enviar un lote cuya {@code batchKey} ya aceptó, así que
+     * reintentar con la misma clave no duplica la notificación.
+     * </p>
+     *
+     * @param batchKey Clave estable del lote (la misma en todos los reintentos).
+     * @param userIds IDs de los seguidores (como mucho {@link #MAX_BATCH_SIZE}).
+     * @param productId ID del producto publicado (se envía como referencia de la notificación).
+     * @param productType Tipo de lanzamiento ("SONG" o "ALBUM").
+     * @param productTitle Título del nuevo lanzamiento.
+     * @param artistName Nombre del artista que lanza el producto.
+     * @throws RestClientException Si el servicio de notificaciones no responde o devuelve un error.
+     */
+    public void notifyNewProductBatch(String batchKey, List<Long> userIds, Long productId, String productType,
+                                      String productTitle, String artistName) {
+        Map<String, Object> notificationRequest = new HashMap<>();
+        notificationRequest.put("batchKey", batchKey);
+        notificationRequest.put("userIds", userIds);
+        notificationRequest.put("title", NEW_PRODUCT_TITLE);
+        notificationRequest.put("message", newProductMessage(productType, productTitle, artistName));
+        notificationRequest.put("type", "NEW_PRODUCT");
+        notificationRequest.put("referenceId", productId);
+        notificationRequest.put("referenceType", productType);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        bulkRestTemplate.exchange(
+            notificationServiceUrl + "/batch",
+            HttpMethod.POST,
+            new HttpEntity<>(notificationRequest, headers),
+            new ParameterizedTypeReference<Map<String, Object>>() {}
+        );
+        log.debug("New product notification sent to {} followers", userIds.size());
+    }
+
+    private static String newProductMessage(String productType, String productTitle, String artistName) {
+        return String.format(
             "%s ha publicado: %s \"%s\"",
             artistName,
             productType.equalsIgnoreCase("SONG") ? "la canción" : "el álbum",
             productTitle
         );
-
-        return sendNotification(userId, title, message, "NEW_PRODUCT");
     }
 
     /**
@@ -1,14 +1,30 @@
 
 package io.audira.catalog.client;
 
+import io.audira.catalog.config.RestTemplateConfig;
+import io.audira.catalog.dto.RatingChangesPageDTO;
+import io.audira.catalog.dto.RatingDTO;
 import io.audira.catalog.dto.RatingStatsDTO;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Cliente REST para la comunicación con el Servicio de Comunidad (Community Service).
@@ -18,15 +34,30 @@ import org.springframework.web.client.RestTemplate;
  * </p>
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class RatingServiceClient {
 
     private final RestTemplate restTemplate;
+    private final RestTemplate recommendationRestTemplate;
+    private final RestTemplate bulkRestTemplate;
+    private final RemoteCallCoalescer coalescer;
+
+    /** Máximo de entidades por petición de estadísticas en lote (límite de Community Service). */
+    private static final int MAX_STATS_BATCH_SIZE = 5000;
 
     @Value("${services.community.url:http://172.16.0.4:9001}")
     private String communityServiceUrl;
 
+    public RatingServiceClient(RestTemplate restTemplate,
+                               @Qualifier(RestTemplateConfig.RECOMMENDATION_REST_TEMPLATE) RestTemplate recommendationRestTemplate,
+                               @Qualifier(RestTemplateConfig.BULK_REST_TEMPLATE) RestTemplate bulkRestTemplate,
+                               RemoteCallCoalescer coalescer) {
+        this.restTemplate = restTemplate;
+        this.recommendationRestTemplate = recommendationRestTemplate;
+        this.bulkRestTemplate = bulkRestTemplate;
+        this.coalescer = coalescer;
+    }
+
     /**
      * Obtiene las estadísticas de valoración para una entidad cualquiera.
      * <p>
@@ -40,6 +71,11 @@ public class RatingServiceClient {
      * @return DTO con las estadísticas reales o un objeto fallback con valores en cero.
      */
     public RatingStatsDTO getEntityRatingStats(String entityType, Long entityId) {
+        String key = "ratings.getEntityRatingStats:" + entityType.toUpperCase() + ":" + entityId;
+        return coalescer.execute(key, () -> fetchEntityRatingStats(entityType, entityId));
+    }
+
+    private RatingStatsDTO fetchEntityRatingStats(String entityType, Long entityId) {
         String url = String.format(
             "%s/api/ratings/entity/%s/%d/stats",
             communityServiceUrl,
@@ -76,6 +112,65 @@ public class RatingServiceClient {
         }
     }
 
+    /**
+     * Obtiene en lote las estadísticas de valoración de varias entidades del mismo tipo.
+     * <p>
+     * Sustituye a una llamada a {@link #getEntityRatingStats(String, Long)} por entidad: Community Service
+     * las resuelve con una sola consulta agrupada. Las listas mayores que el límite del servicio se parten en
+     * varias peticiones. Mantiene el mismo <b>fallo silencioso</b>: si un lote falla, sus entidades reciben
+     * estadísticas a cero.
+     * </p>
+     *
+     * @param entityType Tipo de entidad ("SONG", "ALBUM", "ARTIST").
+     * @param entityIds IDs de las entidades.
+     * @return Mapa {@code entityId -> estadísticas} con una entrada por cada ID solicitado.
+     */
+    public Map<Long, RatingStatsDTO> getEntityRatingStatsBatch(String entityType, Collection<Long> entityIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(entityIds));
+        Map<Long, RatingStatsDTO> result = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += MAX_STATS_BATCH_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_STATS_BATCH_SIZE, ids.size()));
+            for (RatingStatsDTO stats : fetchEntityRatingStatsBatch(entityType, chunk)) {
+                if (stats.getEntityId() != null) {
+                    result.put(stats.getEntityId(), stats);
+                }
+            }
+        }
+        for (Long id : ids) {
+            result.computeIfAbsent(id, missing -> createFallbackStats(entityType, missing));
+        }
+        return result;
+    }
+
+    private List<RatingStatsDTO> fetchEntityRatingStatsBatch(String entityType, List<Long> entityIds) {
+        String url = String.format("%s/api/ratings/entity/%s/stats/batch", communityServiceUrl, entityType.toUpperCase());
+
+        try {
+            log.debug("Fetching rating stats for {} {} entities from URL: {}", entityIds.size(), entityType, url);
+            ResponseEntity<List<RatingStatsDTO>> response = bulkRestTemplate.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<>(entityIds),
+                    new ParameterizedTypeReference<List<RatingStatsDTO>>() {}
+            );
+            return response.getBody() != null ? response.getBody() : new ArrayList<>();
+
+        } catch (HttpClientErrorException e) {
+            log.warn("HTTP error fetching rating stats batch for {} {} entities. Status: {}",
+                    entityIds.size(), entityType, e.getStatusCode());
+            return new ArrayList<>();
+
+        } catch (ResourceAccessException e) {
+            log.warn("Connection error accessing rating service at {} for {} {} entities",
+                    url, entityIds.size(), entityType);
+            return new ArrayList<>();
+
+        } catch (Exception e) {
+            log.error("Unexpected error fetching rating stats batch for {} {} entities", entityIds.size(), entityType, e);
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Método de conveniencia para obtener estadísticas de un artista.
      *
@@ -86,6 +181,71 @@ public class RatingServiceClient {
         return getEntityRatingStats("ARTIST", artistId);
     }
 
+    /**
+     * Obtiene las valoraciones activas de un usuario.
+     *
+     * @param userId ID del usuario.
+     * @return Lista de valoraciones, o lista vacía si el servicio no responde.
+     */
+    public List<RatingDTO> getUserRatings(Long userId) {
+        return coalescer.execute("ratings.getUserRatings:" + userId, () -> fetchUserRatings(userId));
+    }
+
+    private List<RatingDTO> fetchUserRatings(Long userId) {
+        String url = String.format("%s/api/ratings/user/%d", communityServiceUrl, userId);
+
+        try {
+            ResponseEntity<List<RatingDTO>> response = recommendationRestTemplate.exchange(
+                    url,
+                    HttpMethod.GET,
+                    null,
+                    new ParameterizedTypeReference<List<RatingDTO>>() {}
+            );
+            return response.getBody() != null ? response.getBody() : new ArrayList<>();
+
+        } catch (HttpClientErrorException e) {
+            log.warn("HTTP error fetching ratings for user {}. Status: {}", userId, e.getStatusCode());
+            return new ArrayList<>();
+
+        } catch (ResourceAccessException e) {
+            log.warn("Connection error accessing rating service at {} for user {}", url, userId);
+            return new ArrayList<>();
+
+        } catch (Exception e) {
+            log.error("Unexpected error fetching ratings for user {}", userId, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Obtiene las valoraciones de un tipo de entidad cambiadas después de un cursor, incluidas las eliminadas.
+     * <p>
+     * A diferencia del resto de métodos, <b>propaga</b> los errores: lo usan tareas de sincronización
+     * que deben distinguir "no hay más datos" de "el servicio no responde".
+     * </p>
+     *
+     * @param entityType Tipo de entidad ({@code "SONG"}, {@code "ALBUM"}...).
+     * @param since Instante del cursor, o {@code null} para recorrer el feed desde el principio.
+     * @param afterId ID de la última valoración recibida con ese instante.
+     * @param limit Tamaño del lote.
+     * @return Página de valoraciones con el cursor para la siguiente consulta.
+     * @throws org.springframework.web.client.RestClientException si el servicio no está disponible.
+     */
+    public RatingChangesPageDTO getRatingChanges(String entityType, ZonedDateTime since, long afterId, int limit) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(communityServiceUrl + "/api/ratings/changes")
+                .queryParam("entityType", entityType.toUpperCase())
+                .queryParam("afterId", afterId)
+                .queryParam("limit", limit);
+        if (since != null) {
+            // En UTC ("Z"): un desfase "+hh:mm" llegaría como espacio en la query
+            builder.queryParam("since", since.toInstant());
+        }
+        String url = builder.toUriString();
+
+        log.debug("Fetching rating changes from URL: {}", url);
+        return bulkRestTemplate.getForObject(url, RatingChangesPageDTO.class);
+    }
+
     /**
      * Crea un objeto de estadísticas por defecto (Fallback) con todos los contadores a cero.
      * <p>
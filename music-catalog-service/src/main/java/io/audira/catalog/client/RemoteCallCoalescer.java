@@ -0,0 +1,186 @@
+package io.audira.catalog.client;
+
+import io.audira.catalog.config.RequestContextSnapshot;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Capa de deduplicación de llamadas de lectura a otros microservicios.
+ * <p>
+ * Los clientes REST ({@link CommerceServiceClient}, {@link UserServiceClient}, {@link RatingServiceClient})
+ * delegan aquí sus consultas idempotentes, identificadas por una clave (método + argumentos):
+ * <ul>
+ * <li><b>Memoización por petición:</b> dentro de una misma petición HTTP entrante, una llamada repetida devuelve
+ * el resultado ya obtenido (ej. el mismo artista consultado varias veces al montar una lista).</li>
+ * <li><b>Single-flight:</b> llamadas idénticas concurrentes (de la misma petición o de peticiones distintas)
+ * comparten un único intercambio HTTP en curso.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Quien se une a una llamada en curso espera como mucho {@code audira.client.join-timeout-ms}; si vence, hace su propia
+ * llamada. Cada llamante recibe su propia copia de las listas, conjuntos y mapas devueltos, de modo que puede
+ * modificarlos sin afectar al resultado compartido (los DTO que contienen se comparten y deben tratarse como de solo
+ * lectura).
+ * </p>
+ * <p>
+ * Las llamadas solo se comparten entre peticiones con la misma credencial ({@code Authorization}), para no
+ * servir a un usuario una respuesta obtenida con el token de otro. Los contadores se publican en Micrometer
+ * como {@code audira.client.calls} y {@code audira.client.deduplicated} (etiqueta {@code via}).
+ * </p>
+ */
+@Component
+@Slf4j
+public class RemoteCallCoalescer {
+
+    /** Marca para poder memoizar resultados {@code null} en mapas concurrentes. */
+    private static final Object NULL = new Object();
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final long joinTimeoutMs;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder memoHits = new LongAdder();
+    private final LongAdder inFlightJoins = new LongAdder();
+
+    public RemoteCallCoalescer(MeterRegistry meterRegistry,
+                               @Value("${audira.client.join-timeout-ms:${audira.http.read-timeout-ms:1500}}") long joinTimeoutMs) {
+        this.joinTimeoutMs = joinTimeoutMs;
+        FunctionCounter.builder("audira.client.calls", executed, LongAdder::doubleValue)
+                .description("Remote calls actually executed by the catalog REST clients")
+                .register(meterRegistry);
+        FunctionCounter.builder("audira.client.deduplicated", memoHits, LongAdder::doubleValue)
+                .description("Remote calls served without a new HTTP exchange")
+                .tag("via", "request-memo")
+                .register(meterRegistry);
+        FunctionCounter.builder("audira.client.deduplicated", inFlightJoins, LongAdder::doubleValue)
+                .description("Remote calls served without a new HTTP exchange")
+                .tag("via", "single-flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ejecuta una llamada remota de lectura, reutilizando un resultado de la petición actual o una llamada en curso.
+     *
+     * @param key  Clave que identifica la llamada (método y argumentos).
+     * @param call Llamada real al servicio remoto.
+     * @return Resultado de la llamada (propio o compartido).
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> call) {
+        // Fuera de una petición (tareas programadas) no hay memoización
+        RequestContextSnapshot context = RequestContextSnapshot.current();
+        String flightKey = credentialOf(context) + "|" + key;
+
+        Map<String, Object> memo = context != null ? context.memo() : null;
+        if (memo != null) {
+            Object cached = memo.get(key);
+            if (cached != null) {
+                memoHits.increment();
+                return cached == NULL ? null : (T) copyOf(cached);
+            }
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, mine);
+        Object result;
+        if (existing != null) {
+            inFlightJoins.increment();
+            log.trace("Joining in-flight call {}", key);
+            result = join(existing, key, call);
+        } else {
+            try {
+                executed.increment();
+                T value = call.get();
+                result = value == null ? NULL : value;
+                mine.complete(result);
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(flightKey, mine);
+            }
+        }
+
+        if (memo != null) {
+            memo.put(key, result);
+        }
+        return result == NULL ? null : (T) copyOf(result);
+    }
+
+    /**
+     * Espera el resultado de una llamada en curso durante {@code audira.client.join-timeout-ms} como máximo; si no
+     * llega a tiempo, ejecuta la llamada por su cuenta.
+     */
+    private Object join(CompletableFuture<Object> existing, String key, Supplier<?> call) {
+        try {
+            return existing.get(joinTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            log.debug("In-flight call {} did not finish within {} ms, calling directly", key, joinTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executed.increment();
+        Object value = call.get();
+        return value == null ? NULL : value;
+    }
+
+    /**
+     * Copia superficial de los resultados que son colecciones, para que un llamante no modifique el resultado
+     * compartido.
+     */
+    private static Object copyOf(Object result) {
+        if (result instanceof List<?> list) {
+            return new ArrayList<>(list);
+        }
+        if (result instanceof Set<?> set) {
+            return new LinkedHashSet<>(set);
+        }
+        if (result instanceof Map<?, ?> map) {
+            return new LinkedHashMap<>(map);
+        }
+        if (result instanceof long[] array) {
+            return array.clone();
+        }
+        return result;
+    }
+
+    /**
+     * Número de llamadas remotas realmente ejecutadas.
+     *
+     * @return Contador acumulado desde el arranque.
+     */
+    public long getExecutedCalls() {
+        return executed.sum();
+    }
+
+    /**
+     * Número de llamadas deduplicadas (memoización por petición + single-flight).
+     *
+     * @return Contador acumulado desde el arranque.
+     */
+    public long getDeduplicatedCalls() {
+        return memoHits.sum() + inFlightJoins.sum();
+    }
+
+    private static String credentialOf(RequestContextSnapshot context) {
+        return context != null && context.authorization() != null ? context.authorization() : "anonymous";
+    }
+}
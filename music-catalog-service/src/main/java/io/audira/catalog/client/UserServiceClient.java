@@ -1,33 +1,55 @@
 package io.audira.catalog.client;
 
+import io.audira.catalog.dto.ArtistDirectoryPageDTO;
+import io.audira.catalog.config.RestTemplateConfig;
 import io.audira.catalog.dto.UserDTO;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * REST client for communication with Community Service (User management)
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class UserServiceClient {
 
     private final RestTemplate restTemplate;
+    private final RestTemplate recommendationRestTemplate;
+    private final RestTemplate bulkRestTemplate;
+    private final RemoteCallCoalescer coalescer;
+
+    /** Maximum number of IDs sent in a single {@code POST /batch} request. */
+    private static final int MAX_BATCH_SIZE = 500;
 
     @Value("${services.user.url:http://172.16.0.4:8080/api/users}")
     private String userServiceUrl;
 
+    public UserServiceClient(RestTemplate restTemplate,
+                             @Qualifier(RestTemplateConfig.RECOMMENDATION_REST_TEMPLATE) RestTemplate recommendationRestTemplate,
+                             @Qualifier(RestTemplateConfig.BULK_REST_TEMPLATE) RestTemplate bulkRestTemplate,
+                             RemoteCallCoalescer coalescer) {
+        this.restTemplate = restTemplate;
+        this.recommendationRestTemplate = recommendationRestTemplate;
+        this.bulkRestTemplate = bulkRestTemplate;
+        this.coalescer = coalescer;
+    }
+
     /**
      * Get user/artist information by ID
      *
@@ -35,6 +57,10 @@ public class UserServiceClient {
      * @return UserDTO with user information
      */
     public UserDTO getUserById(Long userId) {
+        return coalescer.execute("users.getUserById:" + userId, () -> fetchUserById(userId));
+    }
+
+    private UserDTO fetchUserById(Long userId) {
         String url = userServiceUrl + "/" + userId;
 
         try {
@@ -66,6 +92,34 @@ public class UserServiceClient {
         }
     }
 
+    /**
+     * Get several users in one request, splitting the IDs into batches of {@link #MAX_BATCH_SIZE}
+     * Used by {@code ArtistProfileCache} to fill the misses of a whole page at once. Requests the slim
+     * "card" view (no email, no follower sets), which carries every field the catalog renders
+     *
+     * @param userIds User IDs (duplicates and nulls are ignored)
+     * @return Users found; unknown IDs are simply absent
+     * @throws org.springframework.web.client.RestClientException if the user service is unreachable
+     */
+    public List<UserDTO> getUsersByIds(Collection<Long> userIds) {
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        List<UserDTO> users = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+            log.debug("Fetching {} user cards in batch from URL: {}/batch", batch.size(), userServiceUrl);
+            ResponseEntity<List<UserDTO>> response = bulkRestTemplate.exchange(
+                    userServiceUrl + "/batch?view=card",
+                    HttpMethod.POST,
+                    new HttpEntity<>(batch),
+                    new ParameterizedTypeReference<List<UserDTO>>() {}
+            );
+            if (response.getBody() != null) {
+                users.addAll(response.getBody());
+            }
+        }
+        return users;
+    }
+
     /**
      * Get list of artist IDs that a user follows
      * GA01-117: For recommendations based on followed artists
@@ -74,12 +128,16 @@ public class UserServiceClient {
      * @return List of artist IDs
      */
     public List<Long> getFollowedArtistIds(Long userId) {
+        return coalescer.execute("users.getFollowedArtistIds:" + userId, () -> fetchFollowedArtistIds(userId));
+    }
+
+    private List<Long> fetchFollowedArtistIds(Long userId) {
         String url = userServiceUrl + "/" + userId + "/following/artists";
 
         try {
             log.debug("Fetching followed artists for userId: {} from URL: {}", userId, url);
 
-            ResponseEntity<List<UserDTO>> response = restTemplate.exchange(
+            ResponseEntity<List<UserDTO>> response = recommendationRestTemplate.exchange(
                     url,
                     HttpMethod.GET,
                     null,
@@ -118,54 +176,93 @@ public class UserServiceClient {
     }
 
     /**
-     * Get list of user IDs that follow a specific artist
-     * Used for notifying followers about new content
+     * Fetch one chunk of the IDs of the users that follow an artist, in ascending order.
+     * Used to page through the followers when notifying them about new content
      *
      * @param artistId Artist ID
-     * @return List of follower user IDs
+     * @param afterId Last follower ID already received (0 to start)
+     * @param limit Chunk size
+     * @return Follower IDs greater than {@code afterId} (a chunk shorter than {@code limit} is the last one)
+     * @throws org.springframework.web.client.RestClientException if the user service is unreachable
      */
-    public List<Long> getFollowerIds(Long artistId) {
-        String url = userServiceUrl + "/" + artistId + "/followers";
+    public long[] getFollowerIdChunk(Long artistId, long afterId, int limit) {
+        String url = UriComponentsBuilder.fromHttpUrl(userServiceUrl + "/" + artistId + "/followers/ids")
+                .queryParam("afterId", afterId)
+                .queryParam("limit", limit)
+                .toUriString();
 
-        try {
-            log.debug("Fetching followers for artistId: {} from URL: {}", artistId, url);
+        log.debug("Fetching follower IDs for artistId: {} from URL: {}", artistId, url);
+        long[] followerIds = bulkRestTemplate.getForObject(url, long[].class);
+        return followerIds != null ? followerIds : new long[0];
+    }
+
+    /**
+     * Search active artist IDs whose name matches the query (remote LIKE search).
+     * Used as fallback while the local {@code ArtistDirectory} replica is not ready.
+     *
+     * @param query Text to search for
+     * @return List of matching artist IDs (empty on error)
+     */
+    public List<Long> searchArtistIdsByName(String query) {
+        return coalescer.execute("users.searchArtistIdsByName:" + query, () -> fetchArtistIdsByName(query));
+    }
+
+    private List<Long> fetchArtistIdsByName(String query) {
+        String url = UriComponentsBuilder.fromHttpUrl(userServiceUrl + "/search/artist-ids")
+                .queryParam("query", query)
+                .toUriString();
 
-            ResponseEntity<List<UserDTO>> response = restTemplate.exchange(
+        try {
+            ResponseEntity<List<Long>> response = restTemplate.exchange(
                     url,
                     HttpMethod.GET,
                     null,
-                    new ParameterizedTypeReference<List<UserDTO>>() {}
+                    new ParameterizedTypeReference<List<Long>>() {}
             );
+            return response.getBody() != null ? response.getBody() : new ArrayList<>();
 
-            List<UserDTO> followers = response.getBody();
-            if (followers == null) {
-                log.warn("Received null response for followers of artistId: {}", artistId);
-                return new ArrayList<>();
-            }
-
-            // Ahora se extraen los IDs de los objetos UserDTO
-            List<Long> followerIds = followers.stream()
-                    .map(UserDTO::getId)
-                    .toList();
+        } catch (Exception e) {
+            log.warn("Failed to get artist IDs from user service: {}", e.getMessage());
+            return new ArrayList<>();
+        }
+    }
 
-            log.debug("Followers retrieved successfully for artistId: {}, count: {}",
-                    artistId, followerIds.size());
-            return followerIds;
+    /**
+     * Export one page of the active artist directory, ordered by ID
+     *
+     * @param afterId Last ID already received (0 to start)
+     * @param limit Page size
+     * @return Directory page
+     * @throws org.springframework.web.client.RestClientException if the user service is unreachable
+     */
+    public ArtistDirectoryPageDTO exportArtistDirectory(long afterId, int limit) {
+        String url = UriComponentsBuilder.fromHttpUrl(userServiceUrl + "/artists/directory")
+                .queryParam("afterId", afterId)
+                .queryParam("limit", limit)
+                .toUriString();
 
-        } catch (HttpClientErrorException e) {
-            log.warn("HTTP error fetching followers for artistId: {}. Status: {}",
-                    artistId, e.getStatusCode());
-            return new ArrayList<>();
+        log.debug("Exporting artist directory from URL: {}", url);
+        return bulkRestTemplate.getForObject(url, ArtistDirectoryPageDTO.class);
+    }
 
-        } catch (ResourceAccessException e) {
-            log.warn("Connection error accessing user service at {} for artistId: {}",
-                    url, artistId);
-            return new ArrayList<>();
+    /**
+     * Fetch artist directory changes after the cursor {@code (since, afterId)}
+     *
+     * @param since Cursor timestamp
+     * @param afterId Cursor tie-breaker ID
+     * @param limit Page size
+     * @return Page of changed entries
+     * @throws org.springframework.web.client.RestClientException if the user service is unreachable
+     */
+    public ArtistDirectoryPageDTO getArtistDirectoryChanges(LocalDateTime since, long afterId, int limit) {
+        String url = UriComponentsBuilder.fromHttpUrl(userServiceUrl + "/artists/directory/changes")
+                .queryParam("since", since)
+                .queryParam("afterId", afterId)
+                .queryParam("limit", limit)
+                .toUriString();
 
-        } catch (Exception e) {
-            log.error("Unexpected error fetching followers for artistId: {}", artistId, e);
-            return new ArrayList<>();
-        }
+        log.debug("Fetching artist directory changes from URL: {}", url);
+        return bulkRestTemplate.getForObject(url, ArtistDirectoryPageDTO.class);
     }
 
     /**
@@ -1,14 +1,11 @@
 package io.audira.catalog.config;
 
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpRequest;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 import java.io.IOException;
 
 /**
@@ -57,40 +54,34 @@ public class JwtForwardingInterceptor implements ClientHttpRequestInterceptor {
     }
 
     /**
-     * Extrae el token JWT crudo del contexto de la petición HTTP actual (Servlet Request).
+     * Extrae el token JWT crudo de la petición HTTP entrante.
      * <p>
-     * Utiliza {@link RequestContextHolder} para acceder al hilo actual de la petición web,
-     * lo que permite recuperar los headers originales aunque estemos en una capa de servicio.
+     * Utiliza {@link RequestContextSnapshot}: en el hilo de la petición lee la cabecera de la petición en curso, y en
+     * las tareas lanzadas desde ella, la copia tomada al enviarlas. Así se recuperan los headers originales aunque
+     * estemos en una capa de servicio o en otro hilo.
      * </p>
      *
-     * @return El token JWT como {@link String} (sin el prefijo "Bearer "), o {@code null} si no existe o hay error.
+     * @return El token JWT como {@link String} (sin el prefijo "Bearer "), o {@code null} si no existe.
      */
     private String extractJwtToken() {
-        try {
-            ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        RequestContextSnapshot context = RequestContextSnapshot.current();
 
-            if (attributes == null) {
-                log.trace("No request attributes found in context");
-                return null;
-            }
-
-            HttpServletRequest request = attributes.getRequest();
-            String authHeader = request.getHeader(AUTHORIZATION_HEADER);
-
-            if (authHeader == null || authHeader.isEmpty()) {
-                log.trace("No Authorization header found in request");
-                return null;
-            }
+        if (context == null) {
+            log.trace("No request context found");
+            return null;
+        }
 
-            if (authHeader.startsWith(BEARER_PREFIX)) {
-                return authHeader.substring(BEARER_PREFIX.length());
-            }
- 
-            return authHeader;
+        String authHeader = context.authorization();
 
-        } catch (Exception e) {
-            log.warn("Error extracting JWT token from request context", e);
+        if (authHeader == null || authHeader.isEmpty()) {
+            log.trace("No Authorization header found in request");
             return null;
         }
+
+        if (authHeader.startsWith(BEARER_PREFIX)) {
+            return authHeader.substring(BEARER_PREFIX.length());
+        }
+
+        return authHeader;
     }
 }
\ No newline at end of file
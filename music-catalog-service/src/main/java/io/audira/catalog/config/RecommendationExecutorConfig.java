@@ -0,0 +1,44 @@
+package io.audira.catalog.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Clase de configuración del ejecutor usado para calcular en paralelo las categorías de recomendaciones.
+ * <p>
+ * Es un pool <b>acotado</b> (hilos y cola): si se satura, las tareas se rechazan en lugar de acumularse,
+ * y el llamante las trata como secciones no servidas a tiempo.
+ * </p>
+ */
+@Configuration
+public class RecommendationExecutorConfig {
+
+    /**
+     * Crea el ejecutor de las tareas de recomendación.
+     * <p>
+     * Las tareas reciben la cabecera {@code Authorization} y la memoización de la petición HTTP que las lanza
+     * ({@link RequestContextSnapshot}), tomadas al enviarlas: el {@link JwtForwardingInterceptor} sigue propagando el
+     * token del usuario desde los hilos del pool, también en las secciones que terminan después que su petición.
+     * </p>
+     *
+     * @param poolSize      Número de hilos del pool.
+     * @param queueCapacity Capacidad de la cola de tareas pendientes.
+     * @return El ejecutor configurado.
+     */
+    @Bean(name = "recommendationExecutor")
+    public AsyncTaskExecutor recommendationExecutor(
+            @Value("${audira.recommendations.executor.pool-size:16}") int poolSize,
+            @Value("${audira.recommendations.executor.queue-capacity:256}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("recommendations-");
+        executor.setTaskDecorator(RequestContextSnapshot.propagating());
+        executor.initialize();
+        return executor;
+    }
+}
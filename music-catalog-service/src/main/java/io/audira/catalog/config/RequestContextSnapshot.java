@@ -0,0 +1,84 @@
+package io.audira.catalog.config;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Datos de la petición HTTP entrante que necesitan las llamadas salientes: la cabecera {@code Authorization}
+ * (para {@link JwtForwardingInterceptor}) y el mapa de resultados memoizados de la petición
+ * (para {@link io.audira.catalog.client.RemoteCallCoalescer}).
+ * <p>
+ * En el hilo de la petición se leen de la petición en curso. Las tareas lanzadas en otros hilos reciben una copia
+ * tomada al enviarlas ({@link #propagating()}), no la petición viva: una tarea que sigue en marcha cuando su petición
+ * ya ha terminado no toca un objeto que el contenedor puede haber reciclado para otra petición.
+ * </p>
+ *
+ * @param authorization Valor de la cabecera {@code Authorization}, o {@code null} si no venía.
+ * @param memo          Resultados memoizados de la petición, compartidos por todos sus hilos.
+ */
+public record RequestContextSnapshot(String authorization, Map<String, Object> memo) {
+
+    private static final String MEMO_ATTRIBUTE = RequestContextSnapshot.class.getName() + ".MEMO";
+
+    private static final ThreadLocal<RequestContextSnapshot> PROPAGATED = new ThreadLocal<>();
+
+    /**
+     * Datos de la petición del hilo actual: los propagados a una tarea o, en el hilo de la petición, los de la
+     * petición en curso.
+     *
+     * @return Los datos de la petición, o {@code null} fuera de una petición (ej. tareas programadas).
+     */
+    public static RequestContextSnapshot current() {
+        RequestContextSnapshot propagated = PROPAGATED.get();
+        return propagated != null ? propagated : capture();
+    }
+
+    /**
+     * Decorador de tareas que toma los datos de la petición al enviar la tarea y los expone en el hilo que la
+     * ejecuta mientras dura.
+     *
+     * @return El decorador para un {@link org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor}.
+     */
+    public static TaskDecorator propagating() {
+        return task -> {
+            RequestContextSnapshot snapshot = current();
+            return () -> {
+                RequestContextSnapshot previous = PROPAGATED.get();
+                PROPAGATED.set(snapshot);
+                try {
+                    task.run();
+                } finally {
+                    if (previous != null) {
+                        PROPAGATED.set(previous);
+                    } else {
+                        PROPAGATED.remove();
+                    }
+                }
+            };
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RequestContextSnapshot capture() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        try {
+            Object memo = attributes.getAttribute(MEMO_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (memo == null) {
+                memo = new ConcurrentHashMap<String, Object>();
+                attributes.setAttribute(MEMO_ATTRIBUTE, memo, RequestAttributes.SCOPE_REQUEST);
+            }
+            return new RequestContextSnapshot(attributes.getRequest().getHeader("Authorization"),
+                    (Map<String, Object>) memo);
+        } catch (IllegalStateException e) {
+            // La petición ya terminó
+            return null;
+        }
+    }
+}
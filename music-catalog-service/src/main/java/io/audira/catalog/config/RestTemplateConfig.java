@@ -1,9 +1,12 @@
 package io.audira.catalog.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.ArrayList;
@@ -14,26 +17,94 @@ import java.util.List;
  * Define y configura los beans necesarios para realizar peticiones HTTP sincrónicas
  * a otros servicios, asegurando que la seguridad (JWT) se propague correctamente.
  * </p>
+ * <p>
+ * Hay un {@link RestTemplate} por perfil de llamada, cada uno con sus propios tiempos máximos:
+ * <ul>
+ * <li>{@code restTemplate} (por defecto): consultas puntuales durante una petición.</li>
+ * <li>{@value #RECOMMENDATION_REST_TEMPLATE}: llamadas de las secciones de recomendaciones, acotadas al
+ * presupuesto de una sección.</li>
+ * <li>{@value #BULK_REST_TEMPLATE}: exportaciones, feeds de cambios, lotes grandes y envíos masivos de
+ * notificaciones, que pueden tardar bastante más.</li>
+ * </ul>
+ * </p>
  */
 @Configuration
 @RequiredArgsConstructor
 
 public class RestTemplateConfig {
+
+    /** Nombre del bean para las llamadas del camino de recomendaciones. */
+    public static final String RECOMMENDATION_REST_TEMPLATE = "recommendationRestTemplate";
+
+    /** Nombre del bean para las llamadas masivas y en segundo plano. */
+    public static final String BULK_REST_TEMPLATE = "bulkRestTemplate";
+
     private final JwtForwardingInterceptor jwtForwardingInterceptor;
 
     /**
-     * Crea y configura un bean de {@link RestTemplate}.
+     * Crea y configura el bean de {@link RestTemplate} por defecto.
      * <p>
      * Este {@code RestTemplate} está preconfigurado con el {@link JwtForwardingInterceptor},
      * lo que significa que cualquier clase que inyecte este bean y haga una petición
      * enviará automáticamente el token de autenticación del usuario actual.
      * </p>
      *
+     * @param connectTimeoutMs Tiempo máximo para abrir la conexión ({@code audira.http.connect-timeout-ms}).
+     * @param readTimeoutMs    Tiempo máximo de espera de la respuesta ({@code audira.http.read-timeout-ms}).
      * @return Una instancia de {@code RestTemplate} lista para ser inyectada y usada.
      */
     @Bean
-    public RestTemplate restTemplate() {
-        RestTemplate restTemplate = new RestTemplate();
+    @Primary
+    public RestTemplate restTemplate(
+            @Value("${audira.http.connect-timeout-ms:2000}") int connectTimeoutMs,
+            @Value("${audira.http.read-timeout-ms:5000}") int readTimeoutMs) {
+        return build(connectTimeoutMs, readTimeoutMs);
+    }
+
+    /**
+     * Crea el {@link RestTemplate} de las secciones de recomendaciones.
+     * <p>
+     * Sus tiempos máximos no superan el presupuesto de una sección, de modo que una llamada remota lenta no deja
+     * ocupado un hilo del pool de recomendaciones después de que su sección haya vencido.
+     * </p>
+     *
+     * @param connectTimeoutMs Tiempo máximo para abrir la conexión
+     *                         ({@code audira.http.recommendations.connect-timeout-ms}).
+     * @param readTimeoutMs    Tiempo máximo de espera de la respuesta
+     *                         ({@code audira.http.recommendations.read-timeout-ms}).
+     * @return El {@code RestTemplate} de recomendaciones.
+     */
+    @Bean(name = RECOMMENDATION_REST_TEMPLATE)
+    public RestTemplate recommendationRestTemplate(
+            @Value("${audira.http.recommendations.connect-timeout-ms:1000}") int connectTimeoutMs,
+            @Value("${audira.http.recommendations.read-timeout-ms:${audira.recommendations.section-timeout-ms:1500}}") int readTimeoutMs) {
+        return build(connectTimeoutMs, readTimeoutMs);
+    }
+
+    /**
+     * Crea el {@link RestTemplate} de las llamadas masivas: exportaciones y feeds de cambios, lotes de miles de IDs
+     * y envíos de notificaciones a cientos de destinatarios.
+     * <p>
+     * Estas llamadas se hacen en segundo plano o devuelven mucho volumen, así que su tiempo de lectura es mucho
+     * mayor; cortarlas antes de tiempo solo provoca reintentos (y, en envíos no idempotentes, duplicados).
+     * </p>
+     *
+     * @param connectTimeoutMs Tiempo máximo para abrir la conexión ({@code audira.http.bulk.connect-timeout-ms}).
+     * @param readTimeoutMs    Tiempo máximo de espera de la respuesta ({@code audira.http.bulk.read-timeout-ms}).
+     * @return El {@code RestTemplate} de llamadas masivas.
+     */
+    @Bean(name = BULK_REST_TEMPLATE)
+    public RestTemplate bulkRestTemplate(
+            @Value("${audira.http.bulk.connect-timeout-ms:5000}") int connectTimeoutMs,
+            @Value("${audira.http.bulk.read-timeout-ms:120000}") int readTimeoutMs) {
+        return build(connectTimeoutMs, readTimeoutMs);
+    }
+
+    private RestTemplate build(int connectTimeoutMs, int readTimeoutMs) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
 
         List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
         interceptors.add(jwtForwardingInterceptor);
@@ -41,4 +112,4 @@ public class RestTemplateConfig {
 
         return restTemplate;
     }
-}
\ No newline at end of file
+}
@@ -12,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -45,13 +46,27 @@ public class AlbumController {
 
     /**
      * Obtiene el listado completo de álbumes registrados en el sistema.
+     * <p>
+     * Si se indica {@code cursor} o {@code limit}, responde en modo paginado con un {@code CursorPageDTO}
+     * (el listado completo se mantiene para los clientes existentes).
+     * </p>
      *
-     * @return Lista de todos los álbumes.
+     * @param cursor Cursor de la página anterior (modo paginado).
+     * @param limit Tamaño de página (modo paginado).
+     * @return Lista de todos los álbumes, o la página solicitada; 400 si el cursor no es válido.
      */
     @GetMapping
-    public ResponseEntity<List<Album>> getAllAlbums() {
-        List<Album> albums = albumService.getAllAlbums();
-        return ResponseEntity.ok(albums);
+    public ResponseEntity<?> getAllAlbums(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            List<Album> albums = albumService.getAllAlbums();
+            return ResponseEntity.ok(albums);
+        }
+        try {
+            return ResponseEntity.ok(albumService.getAlbumsPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     /**
@@ -35,8 +35,44 @@ public class DiscoveryController {
      */
     @GetMapping("/trending/songs")
     public ResponseEntity<List<Song>> getTrendingSongs(@RequestParam(defaultValue = "20") int limit) {
-        List<Song> songs = discoveryService.getTrendingSongs();
-        return ResponseEntity.ok(songs.stream().limit(limit).toList());
+        return ResponseEntity.ok(discoveryService.getTrendingSongs(limit));
+    }
+
+    /**
+     * Obtiene una lista de álbumes en tendencia.
+     *
+     * @param limit Límite de resultados a mostrar.
+     * @return Lista de álbumes populares actualmente.
+     */
+    @GetMapping("/trending/albums")
+    public ResponseEntity<List<Album>> getTrendingAlbums(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(discoveryService.getTrendingAlbums(limit));
+    }
+
+    /**
+     * Obtiene las canciones en tendencia de un género.
+     *
+     * @param genreId ID del género.
+     * @param limit Límite de resultados a mostrar.
+     * @return Lista de canciones populares actualmente en el género.
+     */
+    @GetMapping("/trending/genres/{genreId}/songs")
+    public ResponseEntity<List<Song>> getTrendingSongsByGenre(@PathVariable Long genreId,
+                                                              @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(discoveryService.getTrendingSongsByGenre(genreId, limit));
+    }
+
+    /**
+     * Obtiene los álbumes en tendencia de un género.
+     *
+     * @param genreId ID del género.
+     * @param limit Límite de resultados a mostrar.
+     * @return Lista de álbumes populares actualmente en el género.
+     */
+    @GetMapping("/trending/genres/{genreId}/albums")
+    public ResponseEntity<List<Album>> getTrendingAlbumsByGenre(@PathVariable Long genreId,
+                                                                @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(discoveryService.getTrendingAlbumsByGenre(genreId, limit));
     }
 
     /**
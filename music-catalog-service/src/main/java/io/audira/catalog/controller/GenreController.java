@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controlador para la gestión de géneros musicales (Taxonomía).
@@ -42,11 +43,22 @@ public class GenreController {
 
     /**
      * Lista todos los géneros disponibles.
-     * @return Lista de géneros.
+     * Con {@code cursor} o {@code limit} responde en modo paginado ({@code CursorPageDTO}), por orden alfabético.
+     * @param cursor Cursor de la página anterior (modo paginado).
+     * @param limit Tamaño de página (modo paginado).
+     * @return Lista de géneros, o la página solicitada; 400 si el cursor no es válido.
      */
     @GetMapping
-    public ResponseEntity<List<Genre>> getAllGenres() {
-        return ResponseEntity.ok(genreService.getAllGenres());
+    public ResponseEntity<?> getAllGenres(@RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(genreService.getAllGenres());
+        }
+        try {
+            return ResponseEntity.ok(genreService.getGenresPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     /**
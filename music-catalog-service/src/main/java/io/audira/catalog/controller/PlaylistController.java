@@ -26,12 +26,25 @@ public class PlaylistController {
     private final PlaylistService playlistService;
 
     /**
-     * Obtiene todas las listas de reproducción públicas.
-     * @return Lista de playlists.
+     * Obtiene todas las listas de reproducción.
+     * Con {@code cursor} o {@code limit} responde en modo paginado ({@code CursorPageDTO}).
+     * @param cursor Cursor de la página anterior (modo paginado).
+     * @param limit Tamaño de página (modo paginado).
+     * @return Lista de playlists, o la página solicitada; 400 si el cursor no es válido.
      */
     @GetMapping
-    public ResponseEntity<List<Playlist>> getAllPlaylists() {
-        return ResponseEntity.ok(playlistService.getAllPlaylists());
+    public ResponseEntity<?> getAllPlaylists(@RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(playlistService.getAllPlaylists());
+        }
+        try {
+            return ResponseEntity.ok(playlistService.getPlaylistsPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
     }
 
     /**
@@ -63,11 +76,24 @@ public class PlaylistController {
 
     /**
      * Obtiene todas las listas de reproducción públicas.
-     * @return Lista de playlists públicas.
+     * Con {@code cursor} o {@code limit} responde en modo paginado ({@code CursorPageDTO}).
+     * @param cursor Cursor de la página anterior (modo paginado).
+     * @param limit Tamaño de página (modo paginado).
+     * @return Lista de playlists públicas, o la página solicitada; 400 si el cursor no es válido.
      */
     @GetMapping("/public")
-    public ResponseEntity<List<Playlist>> getPublicPlaylists() {
-        return ResponseEntity.ok(playlistService.getPublicPlaylists());
+    public ResponseEntity<?> getPublicPlaylists(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(playlistService.getPublicPlaylists());
+        }
+        try {
+            return ResponseEntity.ok(playlistService.getPublicPlaylistsPage(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
     }
 
     /**
@@ -0,0 +1,44 @@
+package io.audira.catalog.controller;
+
+import io.audira.catalog.dto.ProductBatchRequest;
+import io.audira.catalog.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controlador REST de consultas comunes a todos los productos (canciones y álbumes).
+ * <p>
+ * Uso interno del servicio de comercio.
+ * </p>
+ */
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+public class ProductController {
+
+    private final ProductService productService;
+
+    /**
+     * Resuelve varias canciones y álbumes a su artista, precio, estado de publicación y título en una sola consulta.
+     * <p>
+     * Los IDs que no existen se omiten de la respuesta.
+     * </p>
+     *
+     * @param request IDs de canciones y álbumes (como máximo {@link ProductService#MAX_BATCH_SIZE} en total).
+     * @return Lista de {@link io.audira.catalog.dto.ProductSummaryDTO} o 400 si el lote es demasiado grande.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> getProductsBatch(@RequestBody ProductBatchRequest request) {
+        try {
+            return ResponseEntity.ok(productService.getProductSummaries(request));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
+}
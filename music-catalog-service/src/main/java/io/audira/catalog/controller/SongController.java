@@ -48,12 +48,28 @@ public class SongController {
 
     /**
      * Obtiene todas las canciones registradas, incluyendo el nombre del artista enriquecido.
+     * <p>
+     * Si se indica {@code cursor} o {@code limit}, responde en modo paginado con un {@code CursorPageDTO}
+     * (el listado completo se mantiene para los clientes existentes).
+     * </p>
      *
-     * @return Lista de DTOs de canciones.
+     * @param cursor Cursor de la página anterior (modo paginado).
+     * @param limit Tamaño de página (modo paginado).
+     * @return Lista de DTOs de canciones, o la página solicitada; 400 si el cursor no es válido.
      */
     @GetMapping
-    public ResponseEntity<List<SongDTO>> getAllSongs() {
-        return ResponseEntity.ok(songService.getAllSongsWithArtistName());
+    public ResponseEntity<?> getAllSongs(@RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(songService.getAllSongsWithArtistName());
+        }
+        try {
+            return ResponseEntity.ok(songService.getSongsPageWithArtistName(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
     }
  
     /**
@@ -94,16 +110,53 @@ public class SongController {
     public ResponseEntity<List<SongDTO>> getSongsByAlbum(@PathVariable Long albumId) {
         return ResponseEntity.ok(songService.getSongsByAlbumWithArtistName(albumId));
     }
+
+    /**
+     * Obtiene los IDs de las canciones de varios álbumes en una sola consulta.
+     * <p>
+     * Uso interno del servicio de comercio al añadir una orden a la biblioteca del usuario.
+     * </p>
+     *
+     * @param albumIds IDs de los álbumes (como máximo {@link SongService#MAX_ALBUM_BATCH_SIZE}).
+     * @return Mapa {@code albumId -> IDs de sus canciones} o un error 400 si el lote es demasiado grande.
+     */
+    @PostMapping("/album/batch")
+    public ResponseEntity<?> getSongIdsByAlbums(@RequestBody List<Long> albumIds) {
+        try {
+            return ResponseEntity.ok(songService.getSongIdsByAlbumIds(albumIds));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+    }
  
     /**
      * Obtiene las canciones de un género musical específico.
+     * <p>
+     * Si se indica {@code cursor} o {@code limit}, responde en modo paginado con un {@code CursorPageDTO}
+     * (el listado completo se mantiene para los clientes existentes).
+     * </p>
      *
      * @param genreId ID del género.
-     * @return Lista de canciones del género.
+     * @param cursor Cursor de la página anterior (modo paginado).
+     * @param limit Tamaño de página (modo paginado).
+     * @return Lista de canciones del género, o la página solicitada; 400 si el cursor no es válido.
      */
     @GetMapping("/genre/{genreId}")
-    public ResponseEntity<List<SongDTO>> getSongsByGenre(@PathVariable Long genreId) {
-        return ResponseEntity.ok(songService.getSongsByGenreWithArtistName(genreId));
+    public ResponseEntity<?> getSongsByGenre(@PathVariable Long genreId,
+                                             @RequestParam(required = false) String cursor,
+                                             @RequestParam(required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(songService.getSongsByGenreWithArtistName(genreId));
+        }
+        try {
+            return ResponseEntity.ok(songService.getSongsByGenrePageWithArtistName(genreId, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
     }
  
     /**
@@ -177,20 +230,20 @@ public class SongController {
      * Incrementa el contador de reproducciones de una canción.
      * <p>
      * Debe ser invocado por el cliente o el servicio de streaming cada vez que
-     * un usuario escucha la canción.
+     * un usuario escucha la canción. La reproducción se registra en memoria y se persiste
+     * de forma diferida, por lo que la respuesta no incluye el contador actualizado.
      * </p>
      *
      * @param id ID de la canción.
-     * @return La canción con el contador actualizado.
+     * @param userId (Opcional) ID del usuario que reproduce; se omite en reproducciones anónimas.
+     * @return 202 Accepted si la reproducción se ha registrado, 404 si la canción no existe.
      */
     @PostMapping("/{id}/play")
-    public ResponseEntity<Song> incrementPlays(@PathVariable Long id) {
+    public ResponseEntity<Void> incrementPlays(@PathVariable Long id, @RequestParam(required = false) Long userId) {
         try {
-            log.info("📊 Incrementing play count for song ID: {}", id);
-            Song updatedSong = songService.incrementPlays(id);
-            log.info("✅ Play count incremented successfully - Song: '{}', New count: {}",
-                    updatedSong.getTitle(), updatedSong.getPlays());
-            return ResponseEntity.ok(updatedSong);
+            songService.incrementPlays(id, userId);
+            log.debug("📊 Play recorded for song ID: {}", id);
+            return ResponseEntity.accepted().build();
         } catch (IllegalArgumentException e) {
             log.warn("❌ Failed to increment play count for song ID {}: {}", id, e.getMessage());
             return ResponseEntity.notFound().build();
@@ -0,0 +1,39 @@
+package io.audira.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO que representa una entrada del directorio de artistas replicado desde <b>Community Service</b>.
+ * <p>
+ * Contiene únicamente los campos necesarios para resolver búsquedas por nombre de artista en memoria
+ * (ver {@link io.audira.catalog.service.ArtistDirectory}).
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtistDirectoryEntryDTO {
+    /** Identificador único del usuario. */
+    private Long id;
+
+    /** Nombre artístico (o el nombre de usuario si no tiene uno definido). */
+    private String artistName;
+
+    /** Nombre real (Pila). */
+    private String firstName;
+
+    /** Apellidos. */
+    private String lastName;
+
+    /** {@code false} si la entrada debe retirarse del directorio (ya no es artista o está suspendido). */
+    private boolean listed;
+
+    /** Fecha de la última modificación del usuario en origen. */
+    private LocalDateTime updatedAt;
+}
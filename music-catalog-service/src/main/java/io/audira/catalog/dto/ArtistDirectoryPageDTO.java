@@ -0,0 +1,33 @@
+package io.audira.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO que representa una página de la exportación o del feed de cambios del directorio de artistas.
+ * <p>
+ * El par {@code (cursorTime, cursorId)} se reenvía en la siguiente petición para continuar donde se quedó.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtistDirectoryPageDTO {
+    /** Entradas de la página. */
+    private List<ArtistDirectoryEntryDTO> entries;
+
+    /** Componente temporal del cursor. */
+    private LocalDateTime cursorTime;
+
+    /** ID de la última entrada devuelta (desempate del cursor). */
+    private Long cursorId;
+
+    /** Indica si quedan más entradas por recuperar. */
+    private boolean hasMore;
+}
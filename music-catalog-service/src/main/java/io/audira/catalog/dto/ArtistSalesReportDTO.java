@@ -0,0 +1,70 @@
+package io.audira.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO que representa el informe de ventas de un artista calculado por el servicio de Comercio
+ * ({@code GET /api/orders/sales/artists/{artistId}}).
+ * <p>
+ * Solo cuenta órdenes entregadas. Incluye los totales del periodo, el desglose por producto y la serie diaria.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArtistSalesReportDTO {
+    /** ID del artista. */
+    private Long artistId;
+
+    /** Primer día del periodo (incluido). */
+    private LocalDate from;
+
+    /** Último día del periodo (incluido). */
+    private LocalDate to;
+
+    /** Unidades vendidas en el periodo. */
+    private Long totalUnits;
+
+    /** Ingresos del periodo. */
+    private BigDecimal totalRevenue;
+
+    /** Ventas por producto. */
+    private List<ItemSales> items;
+
+    /** Ventas por día, en orden cronológico (solo días con ventas). */
+    private List<DailySales> daily;
+
+    /**
+     * Ventas acumuladas de un producto.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemSales {
+        /** Tipo de producto ({@code SONG}, {@code ALBUM}). */
+        private String itemType;
+        private Long itemId;
+        private Long units;
+        private BigDecimal revenue;
+    }
+
+    /**
+     * Ventas de un día.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailySales {
+        private LocalDate date;
+        private Long units;
+        private BigDecimal revenue;
+    }
+}
@@ -0,0 +1,32 @@
+package io.audira.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO genérico que representa una página de un listado del catálogo paginado por cursor.
+ * <p>
+ * El cliente reenvía {@code nextCursor} (opaco) en la siguiente petición para continuar donde se quedó;
+ * el coste de cada página es el mismo sea cual sea su posición en el listado.
+ * </p>
+ *
+ * @param <T> Tipo de los elementos de la página.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    /** Elementos de la página. */
+    private List<T> items;
+
+    /** Cursor opaco de la página siguiente, o {@code null} si no hay más. */
+    private String nextCursor;
+
+    /** Indica si quedan más elementos por recuperar. */
+    private boolean hasMore;
+}
@@ -50,4 +50,10 @@ public class OrderItemDTO {
      * </p>
      */
     private BigDecimal price;
+
+    /**
+     * ID del artista propietario del producto, registrado por Commerce Service al crear el pedido.
+     * <p>Puede ser {@code null} en pedidos antiguos; en ese caso se resuelve desde el catálogo.</p>
+     */
+    private Long artistId;
 }
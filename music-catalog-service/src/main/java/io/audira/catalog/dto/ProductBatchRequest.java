@@ -0,0 +1,29 @@
+package io.audira.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Solicitud de consulta en lote de productos del catálogo ({@code POST /api/products/batch}).
+ * <p>
+ * Usada por el servicio de comercio para resolver todos los artículos de una orden en una sola llamada.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchRequest {
+    /** IDs de las canciones a consultar. */
+    @Builder.Default
+    private List<Long> songIds = new ArrayList<>();
+
+    /** IDs de los álbumes a consultar. */
+    @Builder.Default
+    private List<Long> albumIds = new ArrayList<>();
+}
@@ -0,0 +1,35 @@
+package io.audira.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * DTO con la información transaccional mínima de un producto (canción o álbum) para el servicio de comercio.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryDTO {
+    /** ID del producto. */
+    private Long id;
+
+    /** Tipo de producto: {@code SONG} o {@code ALBUM}. */
+    private String productType;
+
+    /** ID del artista propietario. */
+    private Long artistId;
+
+    /** Precio actual. */
+    private BigDecimal price;
+
+    /** Indica si el producto está publicado. */
+    private boolean published;
+
+    /** Título del producto. */
+    private String title;
+}
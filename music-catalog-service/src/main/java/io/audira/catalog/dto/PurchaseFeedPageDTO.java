@@ -0,0 +1,33 @@
+package io.audira.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO que representa una página del feed global de compras del servicio de Comercio.
+ * <p>
+ * El par {@code (cursorTime, cursorId)} se reenvía en la siguiente petición para continuar donde se quedó.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseFeedPageDTO {
+    /** Artículos comprados de la página, ordenados por fecha de compra e ID. */
+    private List<PurchasedItemDTO> items;
+
+    /** Componente temporal del cursor (fecha de compra del último artículo). */
+    private LocalDateTime cursorTime;
+
+    /** ID del último artículo devuelto (desempate del cursor). */
+    private Long cursorId;
+
+    /** Indica si quedan más artículos por recuperar. */
+    private boolean hasMore;
+}
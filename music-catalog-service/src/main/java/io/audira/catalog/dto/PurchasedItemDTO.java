@@ -0,0 +1,47 @@
+package io.audira.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO que representa un artículo de la biblioteca de un usuario, tal como lo expone el feed de compras
+ * de <b>Commerce Service</b>.
+ * <p>
+ * Cada registro corresponde a un producto entregado tras un pago correcto. El catálogo solo necesita
+ * los campos que identifican quién compró qué.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchasedItemDTO {
+    /** ID del registro en la biblioteca (cursor del feed). */
+    private Long id;
+
+    /** ID del usuario propietario. */
+    private Long userId;
+
+    /**
+     * Tipo de producto adquirido.
+     * <p>Ej: {@code "SONG"}, {@code "ALBUM"}.</p>
+     */
+    private String itemType;
+
+    /** ID del producto en el catálogo. */
+    private Long itemId;
+
+    /** ID de la orden de compra (agrupa el álbum y las canciones concedidas con él). */
+    private Long orderId;
+
+    /** Precio pagado; las canciones concedidas por la compra de un álbum tienen precio cero. */
+    private BigDecimal price;
+
+    /** Fecha de la compra (usada para el decaimiento de las tendencias). */
+    private LocalDateTime purchasedAt;
+}
@@ -0,0 +1,34 @@
+package io.audira.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * DTO que representa una página del feed de cambios de valoraciones de Community Service.
+ * <p>
+ * Cada valoración llega en su estado actual, incluidas las inactivas (eliminadas). El par
+ * {@code (cursorTime, cursorId)} se reenvía en la siguiente petición para continuar donde se quedó.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingChangesPageDTO {
+    /** Valoraciones de la página, ordenadas por instante de cambio e ID. */
+    private List<RatingDTO> ratings;
+
+    /** Componente temporal del cursor (instante de cambio de la última valoración). */
+    private ZonedDateTime cursorTime;
+
+    /** ID de la última valoración devuelta (desempate del cursor). */
+    private Long cursorId;
+
+    /** Indica si quedan más cambios por recuperar. */
+    private boolean hasMore;
+}
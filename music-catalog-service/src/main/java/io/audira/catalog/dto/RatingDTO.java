@@ -0,0 +1,37 @@
+package io.audira.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO que representa la valoración individual de un usuario sobre una entidad.
+ * <p>
+ * Proviene de <b>Community Service</b>. El catálogo lo usa para conocer qué canciones le gustan
+ * a cada usuario (puntuación alta) al generar recomendaciones.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingDTO {
+    /** ID de la valoración. */
+    private Long id;
+
+    /** ID del usuario que valora. */
+    private Long userId;
+
+    /** Tipo de entidad valorada ({@code "SONG"}, {@code "ALBUM"}, {@code "ARTIST"}). */
+    private String entityType;
+
+    /** ID de la entidad valorada. */
+    private Long entityId;
+
+    /** Puntuación de 1 a 5 estrellas. */
+    private Integer rating;
+
+    /** {@code false} si la valoración se ha eliminado (borrado lógico). */
+    private Boolean isActive;
+}
@@ -68,6 +68,12 @@ public class RecommendationsResponse {
     /** Conteo total de recomendaciones únicas incluidas en este objeto. */
     private Integer totalRecommendations;
 
+    /**
+     * Categorías que no se completaron dentro de su presupuesto de tiempo y se devuelven vacías.
+     * <p>La respuesta es parcial si la lista no está vacía.</p>
+     */
+    private List<String> timedOutSections;
+
     /**
      * Método de utilidad para obtener una lista unificada de todas las recomendaciones.
      * <p>
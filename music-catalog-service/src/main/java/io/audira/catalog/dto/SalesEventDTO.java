@@ -0,0 +1,32 @@
+package io.audira.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO que representa un evento del feed de ventas del servicio de Comercio.
+ * <p>
+ * {@code DELIVERED} suma la orden a las ventas y {@code CANCELLED} (reembolso de una orden entregada) la resta.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesEventDTO {
+    /** ID del evento; permite descartar los eventos releídos en la ventana de solapamiento. */
+    private Long id;
+
+    /** Tipo de transición: {@code DELIVERED} o {@code CANCELLED}. */
+    private String type;
+
+    /** Instante de la transición. */
+    private LocalDateTime occurredAt;
+
+    /** Orden afectada, con sus líneas de detalle. */
+    private OrderDTO order;
+}
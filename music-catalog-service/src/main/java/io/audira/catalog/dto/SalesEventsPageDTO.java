@@ -0,0 +1,33 @@
+package io.audira.catalog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO que representa una página del feed de eventos de ventas del servicio de Comercio.
+ * <p>
+ * El par {@code (cursorTime, cursorId)} se reenvía en la siguiente petición para continuar donde se quedó.
+ * </p>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesEventsPageDTO {
+    /** Eventos de la página, ordenados por instante e ID. */
+    private List<SalesEventDTO> events;
+
+    /** Componente temporal del cursor (instante del último evento). */
+    private LocalDateTime cursorTime;
+
+    /** ID del último evento devuelto (desempate del cursor). */
+    private Long cursorId;
+
+    /** Indica si quedan más eventos por recuperar. */
+    private boolean hasMore;
+}
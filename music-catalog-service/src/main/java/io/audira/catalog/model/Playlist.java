@@ -22,7 +22,10 @@ import java.util.List;
  * </p>
  */
 @Entity
-@Table(name = "playlists")
+@Table(name = "playlists", indexes = {
+        @Index(name = "idx_playlists_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_playlists_public_created_at_id", columnList = "is_public, created_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -50,7 +50,8 @@ public class Song extends Product {
      * <p>Almacenado en la tabla secundaria {@code song_genres}.</p>
      */
     @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "song_genres", joinColumns = @JoinColumn(name = "song_id"))
+    @CollectionTable(name = "song_genres", joinColumns = @JoinColumn(name = "song_id"),
+            indexes = @Index(name = "idx_song_genres_genre", columnList = "genre_id, song_id"))
     @Column(name = "genre_id")
     @Builder.Default
     private Set<Long> genreIds = new HashSet<>();
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -84,6 +85,23 @@ public interface AlbumRepository extends JpaRepository<Album, Long>{
     @Query("SELECT a FROM Album a WHERE a.published = true ORDER BY a.releaseDate DESC")
     List<Album> findRecentPublishedAlbums();
 
+    /**
+     * Recupera los álbumes publicados más recientes por fecha de creación, limitados por la paginación.
+     * @param pageable Límite de resultados.
+     * @return Lista ordenada por fecha de creación (descendente).
+     */
+    @Query("SELECT a FROM Album a WHERE a.published = true ORDER BY a.createdAt DESC, a.id DESC")
+    List<Album> findRecentPublished(Pageable pageable);
+
+    /**
+     * Recupera los álbumes publicados más recientes de un género.
+     * @param genreId ID del género.
+     * @param pageable Límite de resultados.
+     * @return Lista ordenada por fecha de creación (descendente).
+     */
+    @Query("SELECT a FROM Album a JOIN a.genreIds g WHERE a.published = true AND g = :genreId ORDER BY a.createdAt DESC, a.id DESC")
+    List<Album> findRecentPublishedByGenreId(@Param("genreId") Long genreId, Pageable pageable);
+
     /**
      * Busca álbumes publicados que contengan el texto en el título.
      * @param query Texto a buscar.
@@ -250,4 +268,19 @@ public interface AlbumRepository extends JpaRepository<Album, Long>{
      */
     @Query("SELECT a FROM Album a WHERE a.moderationStatus = 'PENDING' ORDER BY a.createdAt ASC")
     List<Album> findPendingModerationAlbums();
+
+    /**
+     * Recupera un lote de álbumes con ID mayor que el indicado, ordenado por ID.
+     * <p>Paginación por clave utilizada para recorrer el catálogo completo sin coste de {@code OFFSET}.</p>
+     * @param lastId Último ID procesado (0 para empezar).
+     * @param pageable Tamaño del lote.
+     * @return Lote de álbumes.
+     */
+    List<Album> findByIdGreaterThanOrderByIdAsc(Long lastId, Pageable pageable);
+
+    // Paginación por cursor (createdAt, id) descendente
+    @Query("SELECT a FROM Album a WHERE a.createdAt < :beforeTime OR (a.createdAt = :beforeTime AND a.id < :beforeId) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<Album> findPageBefore(@Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") Long beforeId,
+                               Pageable pageable);
 }
@@ -1,8 +1,12 @@
 package io.audira.catalog.repository;
 
 import io.audira.catalog.model.Genre;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -32,4 +36,9 @@ public interface GenreRepository extends JpaRepository<Genre, Long> {
      * @return {@code true} si el nombre ya está registrado, {@code false} en caso contrario.
      */
     boolean existsByName(String name);
+
+    // Paginación por cursor (name, id) ascendente
+    @Query("SELECT g FROM Genre g WHERE g.name > :afterName OR (g.name = :afterName AND g.id > :afterId) " +
+           "ORDER BY g.name ASC, g.id ASC")
+    List<Genre> findPageAfter(@Param("afterName") String afterName, @Param("afterId") Long afterId, Pageable pageable);
 }
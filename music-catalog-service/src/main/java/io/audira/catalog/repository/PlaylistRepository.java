@@ -1,9 +1,13 @@
 package io.audira.catalog.repository;
 
 import io.audira.catalog.model.Playlist;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -54,4 +58,16 @@ public interface PlaylistRepository extends JpaRepository<Playlist, Long> {
      * @param userId ID del usuario.
      */
     void deleteByUserId(Long userId);
+
+    // Paginación por cursor (createdAt, id) descendente
+    @Query("SELECT p FROM Playlist p WHERE p.createdAt < :beforeTime OR (p.createdAt = :beforeTime AND p.id < :beforeId) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Playlist> findPageBefore(@Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") Long beforeId,
+                                  Pageable pageable);
+
+    @Query("SELECT p FROM Playlist p WHERE p.isPublic = true " +
+           "AND (p.createdAt < :beforeTime OR (p.createdAt = :beforeTime AND p.id < :beforeId)) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Playlist> findPublicPageBefore(@Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") Long beforeId,
+                                        Pageable pageable);
 }
@@ -0,0 +1,34 @@
+package io.audira.catalog.repository;
+
+import io.audira.catalog.model.Product;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio JPA para consultas comunes a todos los productos ({@link Product}: canciones y álbumes).
+ */
+@Repository
+public interface ProductRepository extends JpaRepository<Product, Long> {
+
+    /**
+     * Obtiene la información transaccional de varios productos, de cualquier tipo, en una sola consulta.
+     * <p>
+     * Lee solo las columnas necesarias de {@code products} y el indicador {@code published} de la tabla del subtipo,
+     * sin cargar las entidades ni sus colecciones.
+     * </p>
+     *
+     * @param ids IDs de los productos.
+     * @return Lista de arrays donde [0]=ID, [1]=Tipo ("SONG"/"ALBUM"), [2]=ArtistId, [3]=Precio, [4]=Título,
+     *         [5]=Publicado. Los IDs inexistentes se omiten.
+     */
+    @Query(value = "SELECT p.id, CASE WHEN s.id IS NOT NULL THEN 'SONG' ELSE 'ALBUM' END, p.artist_id, p.price, " +
+            "p.title, COALESCE(s.published, a.published, false) " +
+            "FROM products p LEFT JOIN songs s ON s.id = p.id LEFT JOIN albums a ON a.id = p.id " +
+            "WHERE p.id IN (:ids)", nativeQuery = true)
+    List<Object[]> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -3,11 +3,15 @@ package io.audira.catalog.repository;
 import io.audira.catalog.model.ModerationStatus;
 import io.audira.catalog.model.Song;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -57,6 +61,14 @@ public interface SongRepository extends JpaRepository<Song, Long> {
      */
     List<Song> findByAlbumIdOrderByTrackNumberAsc(Long albumId);
 
+    /**
+     * Obtiene los IDs de las canciones de varios álbumes en una sola consulta, sin cargar las entidades.
+     * @param albumIds IDs de los álbumes.
+     * @return Lista de arrays donde [0]=AlbumId, [1]=SongId, ordenada por álbum y número de pista.
+     */
+    @Query("SELECT s.albumId, s.id FROM Song s WHERE s.albumId IN :albumIds ORDER BY s.albumId, s.trackNumber, s.id")
+    List<Object[]> findIdsByAlbumIdIn(@Param("albumIds") Collection<Long> albumIds);
+
     /**
      * Búsqueda general por título (alias para búsqueda interna).
      * @param query Texto a buscar.
@@ -142,6 +154,18 @@ public interface SongRepository extends JpaRepository<Song, Long> {
     @Query("SELECT s FROM Song s JOIN s.genreIds g WHERE s.published = true AND g = :genreId")
     List<Song> findPublishedByGenreId(Long genreId);
 
+    /**
+     * Obtiene las canciones publicadas más reproducidas de un género, limitadas por la paginación.
+     * <p>
+     * Evita materializar el género completo cuando solo se necesitan unas pocas canciones (ej. recomendaciones).
+     * </p>
+     * @param genreId ID del género.
+     * @param pageable Límite de resultados.
+     * @return Lista ordenada por reproducciones (descendente).
+     */
+    @Query("SELECT s FROM Song s JOIN s.genreIds g WHERE s.published = true AND g = :genreId ORDER BY s.plays DESC, s.id DESC")
+    List<Song> findTopPublishedByGenreId(@Param("genreId") Long genreId, Pageable pageable);
+
     /**
      * Obtiene las canciones publicadas más populares basadas en el número de reproducciones.
      * @return Lista ordenada por número de reproducciones (descendente).
@@ -149,6 +173,29 @@ public interface SongRepository extends JpaRepository<Song, Long> {
     @Query("SELECT s FROM Song s WHERE s.published = true ORDER BY s.plays DESC")
     List<Song> findTopPublishedByPlays();
 
+    /**
+     * Obtiene las canciones publicadas más populares, limitadas por la paginación.
+     * @param pageable Límite de resultados.
+     * @return Lista ordenada por reproducciones (descendente).
+     */
+    @Query("SELECT s FROM Song s WHERE s.published = true ORDER BY s.plays DESC, s.id DESC")
+    List<Song> findTopPublishedByPlays(Pageable pageable);
+
+    /**
+     * Suma el mismo número de reproducciones a varias canciones con una única sentencia atómica.
+     * <p>
+     * SQL nativo sobre la tabla {@code songs}: no carga las entidades ni pasa por la herencia {@code JOINED},
+     * y el incremento lo resuelve la base de datos, sin lecturas previas.
+     * </p>
+     * @param delta Reproducciones a sumar.
+     * @param ids IDs de las canciones.
+     * @return Número de filas actualizadas.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE songs SET plays = plays + :delta WHERE id IN (:ids)", nativeQuery = true)
+    int addPlays(@Param("delta") long delta, @Param("ids") Collection<Long> ids);
+
     /**
      * Búsqueda pública paginada por título.
      * @param query Texto a buscar.
@@ -298,4 +345,25 @@ public interface SongRepository extends JpaRepository<Song, Long> {
 
     // Contadores
     Long countByModerationStatus(ModerationStatus status);
+
+    /**
+     * Recupera un lote de canciones con ID mayor que el indicado, ordenado por ID.
+     * <p>Paginación por clave utilizada para recorrer el catálogo completo sin coste de {@code OFFSET}.</p>
+     * @param lastId Último ID procesado (0 para empezar).
+     * @param pageable Tamaño del lote.
+     * @return Lote de canciones.
+     */
+    List<Song> findByIdGreaterThanOrderByIdAsc(Long lastId, Pageable pageable);
+
+    // Paginación por cursor (createdAt, id) descendente
+    @Query("SELECT s FROM Song s WHERE s.createdAt < :beforeTime OR (s.createdAt = :beforeTime AND s.id < :beforeId) " +
+           "ORDER BY s.createdAt DESC, s.id DESC")
+    List<Song> findPageBefore(@Param("beforeTime") LocalDateTime beforeTime, @Param("beforeId") Long beforeId,
+                              Pageable pageable);
+
+    @Query("SELECT s FROM Song s JOIN s.genreIds g WHERE g = :genreId " +
+           "AND (s.createdAt < :beforeTime OR (s.createdAt = :beforeTime AND s.id < :beforeId)) " +
+           "ORDER BY s.createdAt DESC, s.id DESC")
+    List<Song> findByGenreIdPageBefore(@Param("genreId") Long genreId, @Param("beforeTime") LocalDateTime beforeTime,
+                                       @Param("beforeId") Long beforeId, Pageable pageable);
 }
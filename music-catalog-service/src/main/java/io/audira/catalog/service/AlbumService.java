@@ -1,20 +1,18 @@
 package io.audira.catalog.service;
 
-import io.audira.catalog.client.NotificationClient;
-import io.audira.catalog.client.UserServiceClient;
 import io.audira.catalog.dto.AlbumCreateRequest;
 import io.audira.catalog.dto.AlbumDTO;
 import io.audira.catalog.dto.AlbumResponse;
 import io.audira.catalog.dto.AlbumUpdateRequest;
-import io.audira.catalog.dto.UserDTO;
+import io.audira.catalog.dto.CursorPageDTO;
 import io.audira.catalog.model.Album;
 import io.audira.catalog.model.ModerationStatus;
-import io.audira.catalog.model.Product;
 import io.audira.catalog.model.Song;
 import io.audira.catalog.repository.AlbumRepository;
 import io.audira.catalog.repository.SongRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -37,8 +35,9 @@ public class AlbumService {
 
     private final AlbumRepository albumRepository;
     private final SongRepository songRepository;
-    private final UserServiceClient userServiceClient;
-    private final NotificationClient notificationClient;
+    private final ArtistProfileCache artistProfileCache;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final FollowerFanOutService followerFanOutService;
 
     /**
      * Recupera los álbumes más recientes (sin filtrar por estado).
@@ -68,6 +67,26 @@ public class AlbumService {
         return albumRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de todos los álbumes del sistema, del más reciente al más antiguo.
+     * <p>
+     * Paginación por cursor sobre {@code (createdAt, id)}, sin {@code OFFSET}.
+     * </p>
+     *
+     * @param cursor Cursor devuelto por la página anterior, o {@code null} para la primera página.
+     * @param limit  Tamaño de página (opcional, acotado).
+     * @return Página de álbumes.
+     * @throws IllegalArgumentException Si el cursor no es válido.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Album> getAlbumsPage(String cursor, Integer limit) {
+        PageCursor from = PageCursor.decode(cursor, PageCursor.NEWEST);
+        int size = PageCursor.pageSize(limit);
+        List<Album> rows = albumRepository.findPageBefore(from.time(), from.id(), PageRequest.of(0, size + 1));
+        return PageCursor.page(rows, size,
+                album -> new PageCursor(album.getCreatedAt().toString(), album.getId()), albums -> albums);
+    }
+
     /**
      * Obtiene los álbumes de un artista específico.
      *
@@ -90,15 +109,8 @@ public class AlbumService {
     public List<AlbumDTO> getAlbumsByArtistWithArtistName(Long artistId) {
         List<Album> albums = albumRepository.findByArtistId(artistId);
 
-        String artistName;
-        try {
-            artistName = userServiceClient.getUserById(artistId).getArtistName();
-        } catch (Exception e) {
-            log.warn("Failed to fetch artist name for artistId: {}, using fallback", artistId);
-            artistName = "Artist #" + artistId;
-        }
-
-        final String finalArtistName = artistName;
+        final String finalArtistName = artistProfileCache.getArtistNames(List.of(artistId))
+                .getOrDefault(artistId, "Artist #" + artistId);
         return albums.stream()
                 .map(album -> AlbumDTO.fromAlbum(album, finalArtistName))
                 .collect(Collectors.toList());
@@ -178,6 +190,8 @@ public class AlbumService {
             }
         }
 
+        catalogSearchIndex.indexAlbum(album);
+
         int songCount = songRepository.findByAlbumId(album.getId()).size();
         return AlbumResponse.fromAlbum(album, songCount);
     }
@@ -216,57 +230,11 @@ public class AlbumService {
         album.setPublished(false); // Ocultar hasta nueva aprobación
 
         album = albumRepository.save(album);
+        catalogSearchIndex.indexAlbum(album);
         int songCount = songRepository.findByAlbumId(album.getId()).size();
         return Optional.of(AlbumResponse.fromAlbum(album, songCount));
     }
 
-    /**
-     * Método auxiliar privado para notificar a los seguidores sobre un nuevo lanzamiento.
-     * <p>
-     * Se ejecuta tras la aprobación exitosa de un contenido. Obtiene la lista de seguidores
-     * del artista y envía una notificación individual a cada uno.
-     * </p>
-     *
-     * @param product El producto (Canción o Álbum) que acaba de ser publicado.
-     */
-    private void notifyFollowersNewProduct(Product product) {
-        try {
-            // Obtener seguidores del artista
-            List<Long> followerIds = userServiceClient.getFollowerIds(product.getArtistId());
-
-            if (followerIds.isEmpty()) {
-                log.debug("Artista {} no tiene seguidores para notificar", product.getArtistId());
-                return;
-            }
-
-            // Obtener información del artista
-            UserDTO artist = userServiceClient.getUserById(product.getArtistId());
-            String artistName = artist != null && artist.getArtistName() != null
-                ? artist.getArtistName()
-                : (artist != null ? artist.getUsername() : "Artista");
-
-            // Enviar notificación a cada seguidor
-            for (Long followerId : followerIds) {
-                try {
-                    notificationClient.notifyNewProduct(
-                        followerId,
-                        product.getProductType(),
-                        product.getTitle(),
-                        artistName
-                    );
-                } catch (Exception e) {
-                    log.warn("Failed to notify follower {} about new product {}", followerId, product.getId(), e);
-                }
-            }
-
-            log.info("Notificados {} seguidores sobre nuevo producto: {} ({})",
-                followerIds.size(), product.getTitle(), product.getProductType());
-
-        } catch (Exception e) {
-            log.error("Error notifying followers about new product {}", product.getId(), e);
-        }
-    }
-
     /**
      * Publica o despublica un álbum.
      * <p>
@@ -295,12 +263,11 @@ public class AlbumService {
 
         album.setPublished(published);
         album = albumRepository.save(album);
+        catalogSearchIndex.indexAlbum(album);
 
-        // Notificar a los seguidores sobre el nuevo contenido publicado
-        try {
-            notifyFollowersNewProduct(album);
-        } catch (Exception e) {
-            log.error("Failed to notify followers about new album {}", album.getId(), e);
+        // Notificar a los seguidores sobre el nuevo contenido publicado (tras el commit, en segundo plano)
+        if (published) {
+            followerFanOutService.enqueueNewRelease(album);
         }
 
         int songCount = songRepository.findByAlbumId(album.getId()).size();
@@ -339,6 +306,7 @@ public class AlbumService {
         }
 
         albumRepository.deleteById(id);
+        catalogSearchIndex.removeAlbum(id);
         return true;
     }
 
@@ -0,0 +1,204 @@
+package io.audira.catalog.service;
+
+import io.audira.catalog.client.UserServiceClient;
+import io.audira.catalog.dto.ArtistDirectoryEntryDTO;
+import io.audira.catalog.dto.ArtistDirectoryPageDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Réplica local del directorio de artistas de <b>Community Service</b> para resolver búsquedas por nombre en memoria.
+ * <p>
+ * Evita la llamada HTTP a {@code /api/users/search/artist-ids} (y el {@code LIKE} sobre la tabla de usuarios)
+ * que se hacía en cada búsqueda del catálogo. El ciclo de vida es:
+ * <ul>
+ * <li><b>Carga inicial:</b> al arrancar ({@link ApplicationReadyEvent}) se recorre la exportación paginada
+ * del directorio y se construye un {@link TextGramIndex} sobre nombre artístico, nombre y apellidos.</li>
+ * <li><b>Feed de cambios:</b> periódicamente se piden los usuarios modificados desde el último cursor,
+ * releyendo una pequeña ventana de solapamiento para no perder transacciones confirmadas tarde.
+ * Las altas/modificaciones son idempotentes y las entradas con {@code listed = false} se eliminan.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Mientras la carga inicial no ha terminado ({@link #isReady()}), los llamantes deben recurrir a la búsqueda remota.
+ * Los cambios recibidos también invalidan las entradas correspondientes de {@link ArtistProfileCache}.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ArtistDirectory {
+
+    private final UserServiceClient userServiceClient;
+    private final ArtistProfileCache artistProfileCache;
+
+    /** Tamaño de página usado tanto en la exportación como en el feed de cambios. */
+    private static final int PAGE_SIZE = 1000;
+
+    /** Separador entre campos del texto indexado: impide coincidencias que crucen dos campos. */
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    @Value("${audira.artist-directory.overlap-ms:5000}")
+    private long overlapMs;
+
+    /** Índice de n-gramas sobre los nombres; protegido por {@link #lock}. */
+    private TextGramIndex names = new TextGramIndex();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Marca de agua del feed de cambios (hora de origen); solo la modifica el hilo de sincronización. */
+    private LocalDateTime cursorTime;
+
+    private volatile boolean ready = false;
+
+    /**
+     * Carga el directorio completo al arrancar la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void bootstrap() {
+        long start = System.currentTimeMillis();
+        try {
+            TextGramIndex loaded = new TextGramIndex();
+            LocalDateTime exportStartedAt = null;
+            long afterId = 0L;
+            ArtistDirectoryPageDTO page;
+            do {
+                page = userServiceClient.exportArtistDirectory(afterId, PAGE_SIZE);
+                if (page == null || page.getEntries() == null) {
+                    throw new IllegalStateException("Empty response exporting artist directory");
+                }
+                if (exportStartedAt == null) {
+                    exportStartedAt = page.getCursorTime();
+                }
+                for (ArtistDirectoryEntryDTO entry : page.getEntries()) {
+                    if (entry.isListed()) {
+                        loaded.put(entry.getId(), searchableText(entry));
+                    }
+                }
+                afterId = page.getCursorId() != null ? page.getCursorId() : afterId;
+            } while (page.isHasMore());
+
+            // El índice nuevo se construye fuera del cerrojo; las búsquedas solo esperan al intercambio
+            lock.writeLock().lock();
+            try {
+                names = loaded;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            cursorTime = exportStartedAt;
+            ready = true;
+            log.info("Artist directory replicated: {} artists in {} ms", loaded.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Failed to replicate artist directory, falling back to remote search: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica los cambios del directorio desde el último cursor.
+     * <p>
+     * Si la carga inicial falló (p. ej. Community Service no estaba disponible al arrancar), se reintenta aquí.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${audira.artist-directory.poll-interval-ms:30000}",
+            initialDelayString = "${audira.artist-directory.poll-interval-ms:30000}")
+    public synchronized void pollChanges() {
+        if (!ready || cursorTime == null) {
+            bootstrap();
+            return;
+        }
+        try {
+            LocalDateTime since = cursorTime.minusNanos(overlapMs * 1_000_000L);
+            long afterId = 0L;
+            int applied = 0;
+            ArtistDirectoryPageDTO page;
+            do {
+                page = userServiceClient.getArtistDirectoryChanges(since, afterId, PAGE_SIZE);
+                if (page == null || page.getEntries() == null) {
+                    return;
+                }
+                apply(page.getEntries());
+                applied += page.getEntries().size();
+                if (page.getCursorTime() != null) {
+                    since = page.getCursorTime();
+                    afterId = page.getCursorId() != null ? page.getCursorId() : 0L;
+                }
+            } while (page.isHasMore());
+
+            if (since.isAfter(cursorTime)) {
+                cursorTime = since;
+            }
+            log.debug("Artist directory sync applied {} changes, cursor at {}", applied, cursorTime);
+        } catch (Exception e) {
+            log.warn("Failed to sync artist directory changes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Indica si la réplica está cargada y puede atender búsquedas.
+     *
+     * @return {@code true} si la carga inicial terminó correctamente.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Busca los IDs de artistas activos cuyo nombre artístico, nombre, apellidos o nombre completo contienen la consulta.
+     * <p>
+     * Ignora mayúsculas y diacríticos, con la misma semántica de subcadena que {@code LIKE '%query%'}.
+     * </p>
+     *
+     * @param query Texto de búsqueda.
+     * @return Lista de IDs de artistas coincidentes (vacía si la consulta está vacía).
+     */
+    public List<Long> findArtistIdsByName(String query) {
+        String normalizedQuery = CatalogSearchIndex.normalize(query).trim();
+        if (normalizedQuery.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            return new ArrayList<>(names.matches(normalizedQuery));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(List<ArtistDirectoryEntryDTO> entries) {
+        lock.writeLock().lock();
+        try {
+            for (ArtistDirectoryEntryDTO entry : entries) {
+                if (entry.isListed()) {
+                    names.put(entry.getId(), searchableText(entry));
+                } else {
+                    names.remove(entry.getId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        artistProfileCache.invalidate(entries.stream().map(ArtistDirectoryEntryDTO::getId).toList());
+    }
+
+    /**
+     * Construye el texto indexado: nombre artístico, nombre, apellidos y "nombre apellidos",
+     * separados por un carácter que nunca aparece en una consulta.
+     */
+    private static String searchableText(ArtistDirectoryEntryDTO entry) {
+        String firstName = entry.getFirstName() != null ? entry.getFirstName() : "";
+        String lastName = entry.getLastName() != null ? entry.getLastName() : "";
+        return CatalogSearchIndex.normalize(entry.getArtistName()) + FIELD_SEPARATOR
+                + CatalogSearchIndex.normalize(firstName) + FIELD_SEPARATOR
+                + CatalogSearchIndex.normalize(lastName) + FIELD_SEPARATOR
+                + CatalogSearchIndex.normalize(firstName + " " + lastName);
+    }
+}
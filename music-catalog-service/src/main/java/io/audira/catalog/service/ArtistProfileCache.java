@@ -0,0 +1,243 @@
+package io.audira.catalog.service;
+
+import io.audira.catalog.client.UserServiceClient;
+import io.audira.catalog.dto.UserDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché compartida y acotada de perfiles de artista (Community Service) para montar los DTOs del catálogo.
+ * <p>
+ * Sustituye a la llamada {@code GET /api/users/{id}} por cada fila al convertir listas de canciones, álbumes o
+ * recomendaciones: los llamantes piden los artistas de toda la página con {@link #getProfiles} y los que faltan
+ * se resuelven con una sola llamada {@link UserServiceClient#getUsersByIds}.
+ * </p>
+ * <ul>
+ * <li><b>Caducidad:</b> una entrada es fresca durante {@code audira.artist-cache.ttl-ms}. Tras caducar se sigue
+ * sirviendo durante {@code audira.artist-cache.stale-ms} mientras se refresca en segundo plano
+ * (<i>stale-while-revalidate</i>); pasado ese margen cuenta como fallo y se recarga en la propia petición.</li>
+ * <li><b>Invalidación:</b> {@link ArtistDirectory} descarta las entradas de los artistas que aparecen en su
+ * feed de cambios, de modo que un cambio de nombre artístico se ve sin esperar al TTL.</li>
+ * <li><b>Tamaño:</b> como mucho {@code audira.artist-cache.max-entries} entradas; al llenarse se eliminan
+ * primero las inservibles y, si no basta, se vacía.</li>
+ * <li><b>Errores:</b> si Community Service no responde no se cachea nada y los llamantes usan su nombre de
+ * respaldo. Los IDs que no existen sí se cachean (como ausentes) para no repetir la consulta.</li>
+ * </ul>
+ * <p>
+ * Los resultados se publican en Micrometer como {@code audira.artist-cache.requests}
+ * (etiqueta {@code result}: {@code hit}, {@code stale} o {@code miss}) y el tamaño como {@code audira.artist-cache.size}.
+ * </p>
+ */
+@Service
+@Slf4j
+public class ArtistProfileCache {
+
+    private final UserServiceClient userServiceClient;
+    private final long ttlMs;
+    private final long staleMs;
+    private final int maxEntries;
+
+    /** Entradas por ID de artista; un perfil {@code null} indica un usuario inexistente. */
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+
+    /** IDs con un refresco en segundo plano en curso (evita refrescos duplicados). */
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolTaskExecutor refreshExecutor;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ArtistProfileCache(UserServiceClient userServiceClient,
+                              MeterRegistry meterRegistry,
+                              @Value("${audira.artist-cache.ttl-ms:300000}") long ttlMs,
+                              @Value("${audira.artist-cache.stale-ms:3600000}") long staleMs,
+                              @Value("${audira.artist-cache.max-entries:10000}") int maxEntries) {
+        this.userServiceClient = userServiceClient;
+        this.ttlMs = ttlMs;
+        this.staleMs = staleMs;
+        this.maxEntries = maxEntries;
+
+        this.refreshExecutor = new ThreadPoolTaskExecutor();
+        this.refreshExecutor.setCorePoolSize(1);
+        this.refreshExecutor.setMaxPoolSize(1);
+        this.refreshExecutor.setQueueCapacity(64);
+        this.refreshExecutor.setThreadNamePrefix("artist-cache-");
+        this.refreshExecutor.initialize();
+
+        registerCounter(meterRegistry, hits, "hit");
+        registerCounter(meterRegistry, staleHits, "stale");
+        registerCounter(meterRegistry, misses, "miss");
+        Gauge.builder("audira.artist-cache.size", cache, Map::size)
+                .description("Artist profiles currently cached")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Obtiene el perfil de un artista.
+     *
+     * @param artistId ID del artista.
+     * @return El perfil, o {@code null} si no existe o Community Service no está disponible.
+     */
+    public UserDTO getProfile(Long artistId) {
+        return artistId != null ? getProfiles(List.of(artistId)).get(artistId) : null;
+    }
+
+    /**
+     * Obtiene los perfiles de varios artistas, resolviendo todos los fallos con una sola llamada remota.
+     *
+     * @param artistIds IDs de los artistas (se ignoran nulos y repetidos).
+     * @return Mapa {@code artistId -> perfil} con solo los artistas encontrados.
+     */
+    public Map<Long, UserDTO> getProfiles(Collection<Long> artistIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, UserDTO> result = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        List<Long> stale = new ArrayList<>();
+        for (Long artistId : artistIds) {
+            if (artistId == null || result.containsKey(artistId) || missing.contains(artistId)) {
+                continue;
+            }
+            Entry entry = cache.get(artistId);
+            if (entry == null || now - entry.loadedAt() >= ttlMs + staleMs) {
+                misses.increment();
+                missing.add(artistId);
+                continue;
+            }
+            if (now - entry.loadedAt() >= ttlMs) {
+                staleHits.increment();
+                stale.add(artistId);
+            } else {
+                hits.increment();
+            }
+            if (entry.profile() != null) {
+                result.put(artistId, entry.profile());
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            result.putAll(load(missing));
+        }
+        if (!stale.isEmpty()) {
+            refreshInBackground(stale);
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene el nombre artístico de varios artistas.
+     *
+     * @param artistIds IDs de los artistas.
+     * @return Mapa {@code artistId -> nombre artístico}, solo con los artistas que tienen uno no vacío.
+     */
+    public Map<Long, String> getArtistNames(Collection<Long> artistIds) {
+        Map<Long, String> names = new HashMap<>();
+        getProfiles(artistIds).forEach((artistId, profile) -> {
+            if (profile.getArtistName() != null && !profile.getArtistName().isBlank()) {
+                names.put(artistId, profile.getArtistName());
+            }
+        });
+        return names;
+    }
+
+    /**
+     * Descarta las entradas de los artistas indicados (p. ej. tras un cambio de perfil).
+     *
+     * @param artistIds IDs de los artistas modificados.
+     */
+    public void invalidate(Collection<Long> artistIds) {
+        artistIds.forEach(cache::remove);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdown();
+    }
+
+    /**
+     * Carga los perfiles indicados y los guarda en la caché.
+     *
+     * @return Perfiles encontrados (vacío si la llamada remota falla).
+     */
+    private Map<Long, UserDTO> load(Collection<Long> artistIds) {
+        List<UserDTO> users;
+        try {
+            users = userServiceClient.getUsersByIds(artistIds);
+        } catch (Exception e) {
+            log.warn("Failed to load {} artist profiles: {}", artistIds.size(), e.getMessage());
+            return Map.of();
+        }
+
+        Map<Long, UserDTO> loaded = new HashMap<>();
+        for (UserDTO user : users) {
+            if (user != null && user.getId() != null) {
+                loaded.put(user.getId(), user);
+            }
+        }
+        long now = System.currentTimeMillis();
+        makeRoom(artistIds.size(), now);
+        for (Long artistId : artistIds) {
+            cache.put(artistId, new Entry(loaded.get(artistId), now));
+        }
+        return loaded;
+    }
+
+    private void refreshInBackground(List<Long> artistIds) {
+        List<Long> claimed = artistIds.stream().filter(refreshing::add).toList();
+        if (claimed.isEmpty()) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(claimed);
+                } finally {
+                    claimed.forEach(refreshing::remove);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Cola llena: se siguen sirviendo las entradas caducadas y se reintentará en la próxima lectura
+            claimed.forEach(refreshing::remove);
+        }
+    }
+
+    /**
+     * Libera espacio antes de insertar {@code incoming} entradas: elimina las que ya no se pueden servir y,
+     * si la caché sigue llena, la vacía.
+     */
+    private void makeRoom(int incoming, long now) {
+        if (cache.size() + incoming <= maxEntries) {
+            return;
+        }
+        cache.values().removeIf(entry -> now - entry.loadedAt() >= ttlMs + staleMs);
+        if (cache.size() + incoming > maxEntries) {
+            log.debug("Artist profile cache full ({} entries), clearing", cache.size());
+            cache.clear();
+        }
+    }
+
+    private static void registerCounter(MeterRegistry meterRegistry, LongAdder counter, String result) {
+        FunctionCounter.builder("audira.artist-cache.requests", counter, LongAdder::doubleValue)
+                .description("Artist profile lookups served by the catalog artist cache")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Perfil cacheado e instante de carga.
+     */
+    private record Entry(UserDTO profile, long loadedAt) {
+    }
+}
@@ -0,0 +1,532 @@
+package io.audira.catalog.service;
+
+import io.audira.catalog.model.Album;
+import io.audira.catalog.model.Product;
+import io.audira.catalog.model.Song;
+import io.audira.catalog.repository.AlbumRepository;
+import io.audira.catalog.repository.SongRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de texto completo en memoria para la búsqueda de canciones y álbumes.
+ * <p>
+ * Sustituye los {@code LIKE '%query%'} de {@link SongRepository} y {@link AlbumRepository}, que obligan a
+ * PostgreSQL a recorrer secuencialmente la tabla {@code products} en cada pulsación de tecla.
+ * Mantiene, por cada tipo de producto, un índice invertido con:
+ * <ul>
+ * <li><b>N-gramas (1 a 3 caracteres) del título:</b> permiten resolver búsquedas por subcadena como el
+ * {@code LIKE} original, intersecando las listas de trigramas y verificando el candidato.</li>
+ * <li><b>Tokens de la descripción:</b> coincidencia exacta por palabra completa.</li>
+ * <li><b>ID de artista:</b> para resolver coincidencias por nombre del artista.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * A diferencia del {@code LIKE}, que solo ignora mayúsculas, el índice ignora también los diacríticos
+ * ({@link #normalize}): "cancion" encuentra "Canción". Sus resultados son por tanto un superconjunto de los del
+ * {@code LIKE}, que se siguen usando, con su semántica, mientras el índice no está listo.
+ * </p>
+ * <p>
+ * El índice se construye al arrancar la aplicación ({@link ApplicationReadyEvent}) y se actualiza de forma
+ * incremental tras el commit de cada alta, modificación, publicación o borrado. Mientras no está listo
+ * ({@link #isReady()}), los llamantes deben recurrir a las consultas del repositorio.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSearchIndex {
+
+    private final SongRepository songRepository;
+    private final AlbumRepository albumRepository;
+
+    /** Tamaño de lote usado al recorrer el catálogo durante la carga inicial. */
+    private static final int BOOTSTRAP_BATCH_SIZE = 1000;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ProductIndex songIndex = new ProductIndex();
+    private final ProductIndex albumIndex = new ProductIndex();
+
+    private volatile boolean ready = false;
+
+    /**
+     * Construye el índice completo a partir de la base de datos una vez arrancada la aplicación.
+     * <p>
+     * Recorre canciones y álbumes en lotes ordenados por ID para no materializar el catálogo entero en memoria.
+     * Las actualizaciones incrementales recibidas durante la carga se aplican igualmente, y prevalecen: una fila de
+     * la carga puede haberse leído antes del commit que las originó, así que no sobrescribe ni resucita un producto
+     * ya actualizado o borrado de forma incremental.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        songIndex.beginLoad();
+        albumIndex.beginLoad();
+        try {
+            int songs = loadAll(songRepository::findByIdGreaterThanOrderByIdAsc, songIndex);
+            int albums = loadAll(albumRepository::findByIdGreaterThanOrderByIdAsc, albumIndex);
+            ready = true;
+            log.info("Catalog search index built: {} songs, {} albums in {} ms",
+                    songs, albums, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to build catalog search index, falling back to database search", e);
+        } finally {
+            songIndex.endLoad();
+            albumIndex.endLoad();
+        }
+    }
+
+    /**
+     * Indica si la carga inicial ha terminado y el índice puede atender búsquedas.
+     *
+     * @return {@code true} si el índice está completo.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Registra (o reemplaza) una canción en el índice tras el commit de la transacción en curso.
+     *
+     * @param song Canción persistida.
+     */
+    public void indexSong(Song song) {
+        IndexedProduct document = toDocument(song, song.getGenreIds(), song.isPublished(), null);
+        afterCommit(() -> songIndex.put(document));
+    }
+
+    /**
+     * Registra (o reemplaza) un álbum en el índice tras el commit de la transacción en curso.
+     *
+     * @param album Álbum persistido.
+     */
+    public void indexAlbum(Album album) {
+        IndexedProduct document = toDocument(album, album.getGenreIds(), album.isPublished(), album.getReleaseDate());
+        afterCommit(() -> albumIndex.put(document));
+    }
+
+    /**
+     * Elimina una canción del índice tras el commit de la transacción en curso.
+     *
+     * @param songId ID de la canción borrada.
+     */
+    public void removeSong(Long songId) {
+        afterCommit(() -> songIndex.remove(songId));
+    }
+
+    /**
+     * Indica si una canción está registrada en el índice.
+     * <p>Solo es fiable si {@link #isReady()} devuelve {@code true}.</p>
+     *
+     * @param songId ID de la canción.
+     * @return {@code true} si la canción existe en el índice.
+     */
+    public boolean containsSong(Long songId) {
+        return songIndex.contains(songId);
+    }
+
+    /**
+     * Elimina un álbum del índice tras el commit de la transacción en curso.
+     *
+     * @param albumId ID del álbum borrado.
+     */
+    public void removeAlbum(Long albumId) {
+        afterCommit(() -> albumIndex.remove(albumId));
+    }
+
+    /**
+     * Busca canciones por texto en el índice y devuelve la página solicitada ya hidratada desde el repositorio.
+     * <p>
+     * Una canción coincide si su título contiene la consulta, si su descripción contiene todas las palabras
+     * de la consulta, o si pertenece a alguno de los artistas indicados.
+     * </p>
+     *
+     * @param query         Texto de búsqueda.
+     * @param artistIds     IDs de artistas cuyo nombre coincide con la consulta (puede estar vacío).
+     * @param publishedOnly Si es {@code true}, solo se consideran canciones publicadas.
+     * @param genreId       (Opcional) Filtro por género.
+     * @param minPrice      (Opcional) Precio mínimo.
+     * @param maxPrice      (Opcional) Precio máximo.
+     * @param pageable      Paginación y ordenación ({@code createdAt}, {@code price}).
+     * @return Página de canciones en el orden solicitado.
+     */
+    public Page<Song> searchSongs(String query, Collection<Long> artistIds, boolean publishedOnly,
+                                  Long genreId, Double minPrice, Double maxPrice, Pageable pageable) {
+        SearchHits hits = songIndex.search(query, artistIds, publishedOnly, genreId, minPrice, maxPrice, pageable);
+        return hydrate(hits, songRepository::findAllById, Song::getId, pageable);
+    }
+
+    /**
+     * Busca álbumes por texto en el índice y devuelve la página solicitada ya hidratada desde el repositorio.
+     *
+     * @param query         Texto de búsqueda.
+     * @param artistIds     IDs de artistas cuyo nombre coincide con la consulta (puede estar vacío).
+     * @param publishedOnly Si es {@code true}, solo se consideran álbumes publicados.
+     * @param genreId       (Opcional) Filtro por género.
+     * @param minPrice      (Opcional) Precio mínimo.
+     * @param maxPrice      (Opcional) Precio máximo.
+     * @param pageable      Paginación y ordenación ({@code releaseDate}, {@code createdAt}, {@code price}).
+     * @return Página de álbumes en el orden solicitado.
+     * @see #searchSongs(String, Collection, boolean, Long, Double, Double, Pageable)
+     */
+    public Page<Album> searchAlbums(String query, Collection<Long> artistIds, boolean publishedOnly,
+                                    Long genreId, Double minPrice, Double maxPrice, Pageable pageable) {
+        SearchHits hits = albumIndex.search(query, artistIds, publishedOnly, genreId, minPrice, maxPrice, pageable);
+        return hydrate(hits, albumRepository::findAllById, Album::getId, pageable);
+    }
+
+    /**
+     * Normaliza un texto para indexación y consulta: minúsculas y sin diacríticos.
+     *
+     * @param text Texto original (puede ser {@code null}).
+     * @return Texto normalizado, o cadena vacía.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Divide un texto normalizado en palabras.
+     *
+     * @param normalized Texto ya normalizado.
+     * @return Conjunto de tokens no vacíos.
+     */
+    static Set<String> tokenize(String normalized) {
+        Set<String> tokens = new HashSet<>();
+        for (String token : TOKEN_SEPARATOR.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private <T extends Product> int loadAll(BiFunction<Long, Pageable, List<T>> batchLoader, ProductIndex index) {
+        int loaded = 0;
+        long lastId = 0L;
+        Pageable batch = PageRequest.of(0, BOOTSTRAP_BATCH_SIZE);
+        List<T> products;
+        do {
+            // Paginación por clave (id > último visto) para no pagar OFFSET en catálogos grandes
+            products = batchLoader.apply(lastId, batch);
+            for (T product : products) {
+                if (product instanceof Song song) {
+                    index.load(toDocument(song, song.getGenreIds(), song.isPublished(), null));
+                } else if (product instanceof Album album) {
+                    index.load(toDocument(album, album.getGenreIds(), album.isPublished(), album.getReleaseDate()));
+                }
+                lastId = product.getId();
+            }
+            loaded += products.size();
+        } while (products.size() == BOOTSTRAP_BATCH_SIZE);
+        return loaded;
+    }
+
+    private IndexedProduct toDocument(Product product, Set<Long> genreIds, boolean published, LocalDate releaseDate) {
+        String title = normalize(product.getTitle());
+        Set<String> terms = tokenize(normalize(product.getDescription()));
+        long[] genres = genreIds == null ? new long[0]
+                : genreIds.stream().filter(Objects::nonNull).mapToLong(Long::longValue).toArray();
+        return new IndexedProduct(
+                product.getId(),
+                product.getArtistId(),
+                title,
+                terms,
+                genres,
+                product.getPrice() != null ? product.getPrice().doubleValue() : null,
+                product.getCreatedAt() != null ? product.getCreatedAt().toEpochSecond(ZoneOffset.UTC) : Long.MIN_VALUE,
+                releaseDate != null ? releaseDate.toEpochDay() : null,
+                published
+        );
+    }
+
+    private <T> Page<T> hydrate(SearchHits hits, Function<List<Long>, List<T>> loader,
+                                Function<T, Long> idGetter, Pageable pageable) {
+        if (hits.ids().isEmpty()) {
+            return new PageImpl<>(new ArrayList<>(), pageable, hits.total());
+        }
+        Map<Long, T> byId = new HashMap<>();
+        for (T entity : loader.apply(hits.ids())) {
+            byId.put(idGetter.apply(entity), entity);
+        }
+        List<T> ordered = new ArrayList<>(hits.ids().size());
+        for (Long id : hits.ids()) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return new PageImpl<>(ordered, pageable, hits.total());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Representación compacta de un producto dentro del índice.
+     */
+    private record IndexedProduct(Long id, Long artistId, String title, Set<String> terms, long[] genreIds,
+                                  Double price, long createdAt, Long releaseDate, boolean published) {
+
+        boolean hasGenre(long genreId) {
+            for (long genre : genreIds) {
+                if (genre == genreId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Resultado de una búsqueda: IDs de la página solicitada y número total de coincidencias.
+     */
+    private record SearchHits(List<Long> ids, long total) {
+    }
+
+    /**
+     * Índice invertido de un tipo de producto, protegido por un cerrojo de lectura/escritura.
+     */
+    private static final class ProductIndex {
+
+        private final Map<Long, IndexedProduct> documents = new HashMap<>();
+        private final TextGramIndex titles = new TextGramIndex();
+        private final Map<String, Set<Long>> terms = new HashMap<>();
+        private final Map<Long, Set<Long>> byArtist = new HashMap<>();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        /** IDs actualizados o borrados de forma incremental durante la carga inicial; {@code null} fuera de ella. */
+        private Set<Long> updatedDuringLoad;
+
+        void beginLoad() {
+            lock.writeLock().lock();
+            try {
+                updatedDuringLoad = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void endLoad() {
+            lock.writeLock().lock();
+            try {
+                updatedDuringLoad = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Registra un documento leído por la carga inicial, salvo que ya se haya actualizado o borrado de forma
+         * incremental (ese estado es más reciente que la fila leída).
+         */
+        void load(IndexedProduct document) {
+            lock.writeLock().lock();
+            try {
+                if (updatedDuringLoad == null || !updatedDuringLoad.contains(document.id())) {
+                    link(document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void put(IndexedProduct document) {
+            lock.writeLock().lock();
+            try {
+                if (updatedDuringLoad != null) {
+                    updatedDuringLoad.add(document.id());
+                }
+                link(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        boolean contains(Long id) {
+            lock.readLock().lock();
+            try {
+                return documents.containsKey(id);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void remove(Long id) {
+            lock.writeLock().lock();
+            try {
+                if (updatedDuringLoad != null) {
+                    updatedDuringLoad.add(id);
+                }
+                IndexedProduct previous = documents.remove(id);
+                if (previous != null) {
+                    unlink(previous);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        SearchHits search(String query, Collection<Long> artistIds, boolean publishedOnly,
+                          Long genreId, Double minPrice, Double maxPrice, Pageable pageable) {
+            String normalizedQuery = normalize(query).trim();
+            if (normalizedQuery.isEmpty()) {
+                return new SearchHits(new ArrayList<>(), 0);
+            }
+            Set<String> queryTerms = tokenize(normalizedQuery);
+            Comparator<IndexedProduct> order = comparator(pageable.getSort());
+            int limit = (int) Math.min(Integer.MAX_VALUE - 1L, pageable.getOffset() + pageable.getPageSize());
+
+            lock.readLock().lock();
+            try {
+                Set<Long> candidates = new HashSet<>(titles.matches(normalizedQuery));
+                candidates.addAll(termMatches(queryTerms));
+                if (artistIds != null) {
+                    for (Long artistId : artistIds) {
+                        candidates.addAll(byArtist.getOrDefault(artistId, Collections.emptySet()));
+                    }
+                }
+
+                // Cola acotada a offset + size: evita ordenar todas las coincidencias
+                PriorityQueue<IndexedProduct> top = new PriorityQueue<>(order.reversed());
+                long total = 0;
+                for (Long id : candidates) {
+                    IndexedProduct document = documents.get(id);
+                    if (document == null
+                            || (publishedOnly && !document.published())
+                            || (genreId != null && !document.hasGenre(genreId))
+                            || (minPrice != null && (document.price() == null || document.price() < minPrice))
+                            || (maxPrice != null && (document.price() == null || document.price() > maxPrice))) {
+                        continue;
+                    }
+                    total++;
+                    top.offer(document);
+                    if (top.size() > limit) {
+                        top.poll();
+                    }
+                }
+
+                List<IndexedProduct> sorted = new ArrayList<>(top);
+                sorted.sort(order);
+                List<Long> pageIds = new ArrayList<>();
+                for (int i = (int) pageable.getOffset(); i < sorted.size(); i++) {
+                    pageIds.add(sorted.get(i).id());
+                }
+                return new SearchHits(pageIds, total);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private Set<Long> termMatches(Set<String> queryTerms) {
+            if (queryTerms.isEmpty()) {
+                return Collections.emptySet();
+            }
+            List<Set<Long>> postings = new ArrayList<>();
+            for (String term : queryTerms) {
+                Set<Long> posting = terms.get(term);
+                if (posting == null) {
+                    return Collections.emptySet();
+                }
+                postings.add(posting);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+
+            Set<Long> result = new HashSet<>(postings.get(0));
+            for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+                result.retainAll(postings.get(i));
+            }
+            return result;
+        }
+
+        private void link(IndexedProduct document) {
+            IndexedProduct previous = documents.put(document.id(), document);
+            if (previous != null) {
+                unlink(previous);
+            }
+            titles.put(document.id(), document.title());
+            for (String term : document.terms()) {
+                terms.computeIfAbsent(term, k -> new HashSet<>()).add(document.id());
+            }
+            byArtist.computeIfAbsent(document.artistId(), k -> new HashSet<>()).add(document.id());
+        }
+
+        private void unlink(IndexedProduct document) {
+            titles.remove(document.id());
+            for (String term : document.terms()) {
+                detach(terms, term, document.id());
+            }
+            detach(byArtist, document.artistId(), document.id());
+        }
+
+        private static <K> void detach(Map<K, Set<Long>> postings, K key, Long id) {
+            Set<Long> posting = postings.get(key);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+
+        /**
+         * Traduce la ordenación de Spring Data a un comparador sobre los documentos indexados.
+         * Los valores nulos van siempre al final y el ID descendente desempata.
+         */
+        private static Comparator<IndexedProduct> comparator(Sort sort) {
+            Comparator<IndexedProduct> comparator = null;
+            for (Sort.Order order : sort) {
+                Comparator<IndexedProduct> next = switch (order.getProperty()) {
+                    case "price" -> nullsLast(IndexedProduct::price, order.isAscending());
+                    case "releaseDate" -> nullsLast(IndexedProduct::releaseDate, order.isAscending());
+                    default -> nullsLast(d -> d.createdAt(), order.isAscending());
+                };
+                comparator = comparator == null ? next : comparator.thenComparing(next);
+            }
+            Comparator<IndexedProduct> byId = Comparator.comparing(IndexedProduct::id, Comparator.reverseOrder());
+            return comparator == null ? byId : comparator.thenComparing(byId);
+        }
+
+        private static <U extends Comparable<U>> Comparator<IndexedProduct> nullsLast(
+                Function<IndexedProduct, U> extractor, boolean ascending) {
+            Comparator<U> natural = ascending ? Comparator.naturalOrder() : Comparator.reverseOrder();
+            return Comparator.comparing(extractor, Comparator.nullsLast(natural));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.audira.catalog.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reproducciones por canción y día del {@link PlayJournal}, mantenidas en memoria al añadir eventos.
+ * <p>
+ * Las consultas por ventana suman los contadores de los días que la forman, en lugar de recorrer todos los eventos
+ * de la plataforma: el coste es {@code O(días × canciones consultadas)} y la memoria, una entrada por canción
+ * reproducida y día retenido. Los días son de calendario en la zona horaria de la aplicación, como las ventanas de
+ * ventas de {@link MetricsService}.
+ * </p>
+ * <p>
+ * Un único escritor (sincronizado por el journal) y lectores concurrentes.
+ * </p>
+ */
+final class DailyPlayCounts {
+
+    private final ZoneId zone;
+
+    /** {@code epochDay → (songId → reproducciones)}. */
+    private final NavigableMap<Long, Map<Long, LongAdder>> days = new ConcurrentSkipListMap<>();
+
+    DailyPlayCounts(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Suma una reproducción al día de su instante.
+     */
+    void add(long songId, long timestamp) {
+        days.computeIfAbsent(epochDay(timestamp), day -> new ConcurrentHashMap<>())
+                .computeIfAbsent(songId, song -> new LongAdder())
+                .increment();
+    }
+
+    /**
+     * Cuenta las reproducciones de un conjunto de canciones entre dos días, ambos incluidos.
+     */
+    long count(Collection<Long> songIds, LocalDate from, LocalDate to) {
+        long total = 0L;
+        for (Map<Long, LongAdder> day : days.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values()) {
+            for (Long songId : songIds) {
+                LongAdder plays = day.get(songId);
+                if (plays != null) {
+                    total += plays.sum();
+                }
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Descarta los días anteriores al del instante indicado.
+     */
+    void discardBefore(long timestamp) {
+        days.headMap(epochDay(timestamp)).clear();
+    }
+
+    /**
+     * Primer instante del día indicado, en milisegundos.
+     */
+    long startOf(LocalDate day) {
+        return day.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private long epochDay(long timestamp) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(timestamp), zone).toEpochDay();
+    }
+}
@@ -0,0 +1,152 @@
+package io.audira.catalog.service;
+
+import java.util.Arrays;
+
+/**
+ * Ranking top-K de puntuaciones con decaimiento exponencial en el tiempo.
+ * <p>
+ * Cada evento suma {@code peso · e^(-λ·edad)} a la puntuación de su clave, con {@code λ = ln 2 / semivida}.
+ * Para no tener que reescalar todas las puntuaciones en cada instante se usa <b>decaimiento hacia delante</b>:
+ * se almacena {@code peso · e^(λ·(t - hito))}, relativo a un instante de referencia ({@link #landmark}).
+ * Como el factor de decaimiento es común a todas las claves, el orden relativo no cambia con el paso del tiempo
+ * y el top-K solo se modifica cuando llega un evento.
+ * </p>
+ * <p>
+ * El top-K se mantiene de forma exacta en un array ordenado: las puntuaciones almacenadas solo crecen, así que
+ * una clave fuera del ranking no puede superar al último sin recibir un evento. {@link #rebase(long)} mueve el
+ * hito al instante actual (evitando el desbordamiento de los exponentes) y descarta las claves cuya puntuación
+ * ha decaído por debajo de {@link #MIN_SCORE}, lo que acota la memoria a la actividad de la ventana reciente.
+ * </p>
+ * <p>
+ * Es seguro para hilos: cada ranking se sincroniza sobre sí mismo, de modo que listas distintas
+ * (canciones, álbumes, cada género) se actualizan en paralelo.
+ * </p>
+ */
+final class DecayingTopK {
+
+    /** Puntuación (ya decaída) por debajo de la cual una clave deja de seguirse. */
+    static final float MIN_SCORE = 0.05f;
+
+    private final double decayPerMs;
+    private final int capacity;
+
+    private long landmark;
+    private LongFloatHashMap scores = new LongFloatHashMap(256);
+
+    private final long[] topIds;
+    private final float[] topScores;
+    private int topSize;
+
+    /**
+     * Crea un ranking vacío.
+     *
+     * @param halfLifeMs Semivida de las puntuaciones, en milisegundos.
+     * @param capacity   Número de posiciones del ranking.
+     * @param now        Instante inicial (hito de referencia).
+     */
+    DecayingTopK(long halfLifeMs, int capacity, long now) {
+        this.decayPerMs = Math.log(2) / halfLifeMs;
+        this.capacity = capacity;
+        this.landmark = now;
+        this.topIds = new long[capacity];
+        this.topScores = new float[capacity];
+    }
+
+    /**
+     * Registra un evento.
+     *
+     * @param key       Clave (ID de canción o álbum).
+     * @param weight    Peso del evento (ej. 1 por reproducción).
+     * @param eventTime Instante del evento; no puede ser posterior a {@code now}.
+     * @param now       Instante actual.
+     */
+    synchronized void add(long key, float weight, long eventTime, long now) {
+        if (weight * Math.exp(-decayPerMs * (now - eventTime)) < MIN_SCORE) {
+            return;
+        }
+        float score = scores.addTo(key, (float) (weight * Math.exp(decayPerMs * (eventTime - landmark))));
+        promote(key, score);
+    }
+
+    /**
+     * Devuelve las claves mejor puntuadas.
+     *
+     * @param limit Número máximo de claves.
+     * @return IDs de mayor a menor puntuación.
+     */
+    synchronized long[] top(int limit) {
+        return Arrays.copyOf(topIds, Math.min(Math.max(limit, 0), topSize));
+    }
+
+    /**
+     * Número de claves seguidas actualmente (dentro o fuera del ranking).
+     *
+     * @return Claves con puntuación por encima de {@link #MIN_SCORE}.
+     */
+    synchronized int tracked() {
+        return scores.size();
+    }
+
+    /**
+     * Lleva el hito de referencia a {@code now} y descarta las claves que ya no son relevantes.
+     *
+     * @param now Instante actual.
+     */
+    synchronized void rebase(long now) {
+        float scale = (float) Math.exp(-decayPerMs * (now - landmark));
+        LongFloatHashMap rebased = new LongFloatHashMap(scores.size());
+        scores.forEach((key, score) -> {
+            float decayed = score * scale;
+            if (decayed >= MIN_SCORE) {
+                rebased.addTo(key, decayed);
+            }
+        });
+
+        int kept = 0;
+        for (int i = 0; i < topSize; i++) {
+            float decayed = topScores[i] * scale;
+            if (decayed >= MIN_SCORE) {
+                topIds[kept] = topIds[i];
+                topScores[kept] = decayed;
+                kept++;
+            }
+        }
+        topSize = kept;
+        scores = rebased;
+        landmark = now;
+    }
+
+    /**
+     * Actualiza la posición de una clave en el ranking tras incrementar su puntuación.
+     * <p>
+     * La capacidad es pequeña (decenas o cientos), así que basta con una búsqueda lineal y una inserción
+     * por desplazamiento, como en {@link ItemCooccurrenceModel#topSimilar}.
+     * </p>
+     */
+    private void promote(long key, float score) {
+        int i = 0;
+        while (i < topSize && topIds[i] != key) {
+            i++;
+        }
+        if (i == topSize) {
+            if (topSize < capacity) {
+                topSize++;
+            } else if (ranksAbove(score, key, topScores[capacity - 1], topIds[capacity - 1])) {
+                i = capacity - 1;
+            } else {
+                return;
+            }
+        }
+        while (i > 0 && ranksAbove(score, key, topScores[i - 1], topIds[i - 1])) {
+            topIds[i] = topIds[i - 1];
+            topScores[i] = topScores[i - 1];
+            i--;
+        }
+        topIds[i] = key;
+        topScores[i] = score;
+    }
+
+    private static boolean ranksAbove(float score, long id, float otherScore, long otherId) {
+        return score > otherScore || (score == otherScore && id < otherId);
+    }
+}
@@ -1,9 +1,11 @@
 package io.audira.catalog.service;
 
 import io.audira.catalog.client.CommerceServiceClient;
+import io.audira.catalog.client.RatingServiceClient;
 import io.audira.catalog.client.UserServiceClient;
 import io.audira.catalog.dto.OrderDTO;
 import io.audira.catalog.dto.OrderItemDTO;
+import io.audira.catalog.dto.RatingDTO;
 import io.audira.catalog.dto.RecommendationsResponse;
 import io.audira.catalog.dto.RecommendedSong;
 import io.audira.catalog.model.Album;
@@ -13,18 +15,19 @@ import io.audira.catalog.repository.SongRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -43,36 +46,79 @@ public class DiscoveryService {
     private final AlbumRepository albumRepository;
     private final CommerceServiceClient commerceServiceClient;
     private final UserServiceClient userServiceClient;
-    private final RestTemplate restTemplate = new RestTemplate();
-
-    @Value("${community.service.url:http://172.16.0.4:9001}")
-    private String communityServiceUrl;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final ArtistDirectory artistDirectory;
+    private final ArtistProfileCache artistProfileCache;
+    private final RecommendationEngine recommendationEngine;
+    private final TrendingEngine trendingEngine;
+    private final RatingServiceClient ratingServiceClient;
+    private final AsyncTaskExecutor recommendationExecutor;
+    private final Environment environment;
+
+    @Value("${audira.recommendations.section-timeout-ms:1500}")
+    private long defaultSectionTimeoutMs;
 
     private static final int RECOMMENDATIONS_PER_CATEGORY = 10;
 
+    /** Máximo de canciones leídas por género al buscar recomendaciones por afinidad de género. */
+    private static final int GENRE_SCAN_LIMIT = 200;
+
     /**
      * Obtiene una lista de canciones que son tendencia actualmente.
      * <p>
-     * Se basa en el número de reproducciones o popularidad reciente.
+     * El ranking sale de {@link TrendingEngine} (reproducciones y compras recientes con decaimiento exponencial).
+     * Si aún no hay actividad suficiente, se completa con las canciones publicadas más reproducidas.
      * </p>
      *
      * @param limit El número máximo de canciones a recuperar (por defecto 20).
      * @return Una lista de objetos {@link Song} que representan las canciones en tendencia.
      */
-    public List<Song> getTrendingSongs() {
-        return songRepository.findTopByPlays();
+    public List<Song> getTrendingSongs(int limit) {
+        int size = trendingLimit(limit);
+        return topUp(loadPublishedInOrder(trendingEngine.topSongs(size * 2), size),
+                () -> songRepository.findTopPublishedByPlays(PageRequest.of(0, size * 2)), Song::getId, size);
     }
 
     /**
      * Obtiene una lista de álbumes que son tendencia actualmente.
      * <p>
-     * Se basa en la fecha de creación o popularidad reciente.
+     * El ranking sale de {@link TrendingEngine}; si aún no hay actividad suficiente, se completa
+     * con los álbumes publicados más recientes.
      * </p>
      *
+     * @param limit El número máximo de álbumes a recuperar.
      * @return Una lista de objetos {@link Album} que representan los álbumes en tendencia.
      */
-    public List<Album> getTrendingAlbums() {
-        return albumRepository.findTop20ByOrderByCreatedAtDesc();
+    public List<Album> getTrendingAlbums(int limit) {
+        int size = trendingLimit(limit);
+        return topUp(loadPublishedAlbumsInOrder(trendingEngine.topAlbums(size * 2), size),
+                () -> albumRepository.findRecentPublished(PageRequest.of(0, size * 2)), Album::getId, size);
+    }
+
+    /**
+     * Obtiene las canciones en tendencia de un género.
+     *
+     * @param genreId ID del género.
+     * @param limit   El número máximo de canciones a recuperar.
+     * @return Canciones en tendencia del género (completadas con las más reproducidas si falta actividad).
+     */
+    public List<Song> getTrendingSongsByGenre(Long genreId, int limit) {
+        int size = trendingLimit(limit);
+        return topUp(loadPublishedInOrder(trendingEngine.topSongsByGenre(genreId, size * 2), size),
+                () -> songRepository.findTopPublishedByGenreId(genreId, PageRequest.of(0, size * 2)), Song::getId, size);
+    }
+
+    /**
+     * Obtiene los álbumes en tendencia de un género.
+     *
+     * @param genreId ID del género.
+     * @param limit   El número máximo de álbumes a recuperar.
+     * @return Álbumes en tendencia del género (completados con los más recientes si falta actividad).
+     */
+    public List<Album> getTrendingAlbumsByGenre(Long genreId, int limit) {
+        int size = trendingLimit(limit);
+        return topUp(loadPublishedAlbumsInOrder(trendingEngine.topAlbumsByGenre(genreId, size * 2), size),
+                () -> albumRepository.findRecentPublishedByGenreId(genreId, PageRequest.of(0, size * 2)), Album::getId, size);
     }
 
     /**
@@ -94,6 +140,10 @@ public class DiscoveryService {
 
         List<Long> artistIds = getArtistIdsByName(query);
 
+        if (catalogSearchIndex.isReady()) {
+            return catalogSearchIndex.searchSongs(query, artistIds, false, null, null, null, pageable);
+        }
+
         if (artistIds.isEmpty()) {
             return songRepository.searchByTitle(query, pageable);
         } else {
@@ -105,7 +155,8 @@ public class DiscoveryService {
      * Realiza una búsqueda avanzada de canciones aplicando múltiples filtros.
      * <p>
      * Permite buscar por texto libre (título o artista) y refinar por género y rango de precios.
-     * Soporta paginación y ordenamiento dinámico.
+     * Soporta paginación y ordenamiento dinámico. Cuando el {@link CatalogSearchIndex} está listo,
+     * la búsqueda por texto se resuelve en memoria; si no, se delega en las consultas del repositorio.
      * </p>
      *
      * @param query    Texto de búsqueda para coincidencia en título o nombre del artista.
@@ -145,6 +196,11 @@ public class DiscoveryService {
             String searchQuery = query.trim();
             List<Long> artistIds = getArtistIdsByName(searchQuery);
 
+            if (catalogSearchIndex.isReady()) {
+                log.debug("Searching in-memory index with filters: {}, artistIds: {}", searchQuery, artistIds);
+                return catalogSearchIndex.searchSongs(searchQuery, artistIds, true, genreId, minPrice, maxPrice, sortedPageable);
+            }
+
             if (artistIds.isEmpty()) {
                 log.debug("Searching by title with filters: {}", searchQuery);
                 return songRepository.searchPublishedByTitleAndFilters(searchQuery, genreId, minPrice, maxPrice, sortedPageable);
@@ -176,6 +232,10 @@ public class DiscoveryService {
 
         List<Long> artistIds = getArtistIdsByName(query);
 
+        if (catalogSearchIndex.isReady()) {
+            return catalogSearchIndex.searchAlbums(query, artistIds, false, null, null, null, pageable);
+        }
+
         if (artistIds.isEmpty()) {
             return albumRepository.searchByTitle(query, pageable);
         } else {
@@ -228,6 +288,10 @@ public class DiscoveryService {
         List<Long> artistIds = getArtistIdsByName(searchQuery);
         log.info("DEBUG SEARCH ALBUMS -> ArtistIds encontrados: {}", artistIds);
 
+        if (catalogSearchIndex.isReady()) {
+            return catalogSearchIndex.searchAlbums(searchQuery, artistIds, true, genreId, minPrice, maxPrice, sortedPageable);
+        }
+
         if (artistIds.isEmpty()) {
             return albumRepository.searchPublishedByTitleAndFilters(searchQuery, genreId, minPrice, maxPrice, sortedPageable);
         } else {
@@ -238,39 +302,35 @@ public class DiscoveryService {
     /**
      * Método auxiliar para resolver IDs de artistas a partir de un nombre.
      * <p>
-     * Consulta al {@code UserServiceClient} para buscar usuarios con rol 'ARTIST'
-     * cuyo nombre coincida parcialmente con la query.
+     * Usa la réplica local {@link ArtistDirectory} cuando está lista; si no, consulta al
+     * {@code UserServiceClient} para buscar usuarios con rol 'ARTIST' cuyo nombre coincida parcialmente con la query.
      * </p>
      *
      * @param name Nombre o fragmento del nombre del artista.
      * @return Lista de IDs de artistas encontrados.
      */
     private List<Long> getArtistIdsByName(String query) {
-        try {
-            String url = UriComponentsBuilder.fromHttpUrl(communityServiceUrl + "/api/users/search/artist-ids")
-                    .queryParam("query", query)
-                    .toUriString();
-
-            ResponseEntity<List<Long>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<Long>>() {}
-            );
-
-            return response.getBody() != null ? response.getBody() : new ArrayList<>();
-        } catch (Exception e) {
-            log.warn("Failed to get artist IDs from community-service: {}", e.getMessage());
-            return new ArrayList<>();
+        if (artistDirectory.isReady()) {
+            return artistDirectory.findArtistIdsByName(query);
         }
+        return userServiceClient.searchArtistIdsByName(query);
     }
 
     /**
      * Genera un conjunto de recomendaciones personalizadas para un usuario específico.
      * <p>
-     * Orquesta la obtención de datos de contexto (como el historial de pedidos) y aplica
-     * diversas estrategias de recomendación (tendencias, historial, artistas seguidos) para
-     * construir una respuesta completa y categorizada.
+     * Obtiene una sola vez el contexto del usuario (canciones compradas y canciones que le gustan) y lo reutiliza
+     * en todas las categorías. Cuando el {@link RecommendationEngine} está listo, ese contexto sale de memoria
+     * y las categorías "basado en tus compras" y "similar a tus favoritos" son búsquedas top-K sobre los modelos
+     * de co-compra y co-valoración; si no, se recurre a una única consulta a Commerce/Community y a la
+     * afinidad por género.
+     * </p>
+     * <p>
+     * El contexto y las categorías se calculan en paralelo en el {@code recommendationExecutor}. Cada sección
+     * tiene su propio presupuesto de tiempo ({@code audira.recommendations.section-timeouts.<sección>}, o
+     * {@code audira.recommendations.section-timeout-ms} por defecto): si no termina a tiempo se devuelve vacía
+     * y se informa en {@link RecommendationsResponse#getTimedOutSections()}. La latencia queda así acotada por
+     * la sección más lenta y no por la suma de todas.
      * </p>
      *
      * @param userId El ID del usuario para el cual se generan las recomendaciones.
@@ -279,28 +339,58 @@ public class DiscoveryService {
     public RecommendationsResponse getRecommendationsForUser(Long userId) {
         log.info("Generating recommendations for user {}", userId);
 
+        boolean engineReady = recommendationEngine.isReady();
+        List<String> timedOutSections = Collections.synchronizedList(new ArrayList<>());
+
         RecommendationsResponse response = RecommendationsResponse.builder()
                 .userId(userId)
                 .generatedAt(LocalDateTime.now())
-                .algorithm("basic_placeholder_v1")
+                .algorithm(engineReady ? "item_cooccurrence_v2" : "basic_placeholder_v1")
+                .timedOutSections(timedOutSections)
                 .build();
 
         try {
-            response.setByPurchasedGenres(getRecommendationsByPurchasedGenres(userId));
-
-            response.setByPurchasedArtists(getRecommendationsByPurchasedArtists(userId));
-
-            response.setByLikedSongs(getRecommendationsByLikedSongs(userId));
-
-            response.setFromFollowedArtists(getRecommendationsFromFollowedArtists(userId));
-
-            response.setBasedOnPurchases(getRecommendationsFromPurchaseHistory(userId));
-
-            response.setTrending(getTrendingRecommendations());
-
-            response.setNewReleases(getNewReleasesRecommendations());
-
-            response.setSimilarToFavorites(getRecommendationsFromPurchaseHistory(userId));
+            // Fase 1: contexto del usuario (compras y "me gusta") en paralelo
+            long contextStart = System.nanoTime();
+            Future<Set<Long>> purchasedFuture = submitSection(() -> getPurchasedSongIds(userId, engineReady));
+            Future<Set<Long>> likedFuture = submitSection(() -> getLikedSongIds(userId, engineReady));
+            Set<Long> purchasedSongIds = awaitSection("purchaseHistory", purchasedFuture, contextStart,
+                    new HashSet<>(), timedOutSections);
+            Set<Long> likedSongIds = awaitSection("likedSongs", likedFuture, contextStart,
+                    new HashSet<>(), timedOutSections);
+            List<Song> purchasedSongs = purchasedSongIds.isEmpty()
+                    ? new ArrayList<>()
+                    : songRepository.findAllById(purchasedSongIds);
+
+            // Fase 2: categorías en paralelo, cada una con su presupuesto contado desde el mismo instante
+            long sectionsStart = System.nanoTime();
+            Future<List<RecommendedSong>> byGenres = submitSection(
+                    () -> getRecommendationsByPurchasedGenres(purchasedSongIds, purchasedSongs));
+            Future<List<RecommendedSong>> byArtists = submitSection(
+                    () -> getRecommendationsByPurchasedArtists(purchasedSongIds, purchasedSongs));
+            Future<List<RecommendedSong>> byLikes = submitSection(
+                    () -> getRecommendationsByLikedSongs(userId, likedSongIds));
+            Future<List<RecommendedSong>> fromFollowed = submitSection(
+                    () -> getRecommendationsFromFollowedArtists(userId));
+            Future<List<RecommendedSong>> basedOnPurchases = submitSection(
+                    () -> getRecommendationsFromPurchaseHistory(userId, engineReady, purchasedSongIds, purchasedSongs));
+            Future<List<RecommendedSong>> trending = submitSection(this::getTrendingRecommendations);
+            Future<List<RecommendedSong>> newReleases = submitSection(this::getNewReleasesRecommendations);
+            Future<List<RecommendedSong>> similarToFavorites = submitSection(
+                    () -> getRecommendationsSimilarToFavorites(userId, engineReady));
+
+            response.setByPurchasedGenres(awaitSection("byPurchasedGenres", byGenres, sectionsStart, new ArrayList<>(), timedOutSections));
+            response.setByPurchasedArtists(awaitSection("byPurchasedArtists", byArtists, sectionsStart, new ArrayList<>(), timedOutSections));
+            response.setByLikedSongs(awaitSection("byLikedSongs", byLikes, sectionsStart, new ArrayList<>(), timedOutSections));
+            response.setFromFollowedArtists(awaitSection("fromFollowedArtists", fromFollowed, sectionsStart, new ArrayList<>(), timedOutSections));
+            response.setBasedOnPurchases(awaitSection("basedOnPurchases", basedOnPurchases, sectionsStart, new ArrayList<>(), timedOutSections));
+            response.setTrending(awaitSection("trending", trending, sectionsStart, new ArrayList<>(), timedOutSections));
+            response.setNewReleases(awaitSection("newReleases", newReleases, sectionsStart, new ArrayList<>(), timedOutSections));
+
+            // Sin modelo de co-valoración, "similar a tus favoritos" reutiliza las recomendaciones por compras
+            List<RecommendedSong> similar = awaitSection("similarToFavorites", similarToFavorites, sectionsStart,
+                    new ArrayList<>(), timedOutSections);
+            response.setSimilarToFavorites(similar != null ? similar : new ArrayList<>(response.getBasedOnPurchases()));
 
             response.setBasedOnListeningHistory(new ArrayList<>());
 
@@ -316,14 +406,15 @@ public class DiscoveryService {
 
             response.setTotalRecommendations(total);
 
-            log.info("Generated {} total recommendations for user {} - By genres: {}, By artists: {}, By likes: {}, From followed: {}, Trending: {}, New: {}",
+            log.info("Generated {} total recommendations for user {} - By genres: {}, By artists: {}, By likes: {}, From followed: {}, Trending: {}, New: {}, Timed out: {}",
                     total, userId,
                     safeListSize(response.getByPurchasedGenres()),
                     safeListSize(response.getByPurchasedArtists()),
                     safeListSize(response.getByLikedSongs()),
                     safeListSize(response.getFromFollowedArtists()),
                     safeListSize(response.getTrending()),
-                    safeListSize(response.getNewReleases()));
+                    safeListSize(response.getNewReleases()),
+                    timedOutSections);
 
         } catch (Exception e) {
             log.error("Error generating recommendations for user {}", userId, e);
@@ -343,57 +434,149 @@ public class DiscoveryService {
     }
 
     /**
-     * Genera recomendaciones basadas en el historial de compras general.
+     * Lanza una sección de recomendaciones en el ejecutor acotado.
      * <p>
-     * Analiza patrones de compra para sugerir contenido complementario.
-     * A diferencia de los métodos específicos de género/artista, este método busca
-     * correlaciones más amplias (ej: "Usuarios que compraron lo que tú compraste, también compraron...").
+     * Si el ejecutor está saturado, devuelve un futuro ya fallido: la sección se tratará como no servida a tiempo.
      * </p>
      *
-     * @param userId ID del usuario.
-     * @return Lista de canciones recomendadas.
+     * @param task Cálculo de la sección.
+     * @return Futuro con el resultado.
      */
-    private List<RecommendedSong> getRecommendationsFromPurchaseHistory(Long userId) {
+    private <T> Future<T> submitSection(Callable<T> task) {
         try {
-            List<OrderDTO> orders = commerceServiceClient.getUserOrders(userId);
-
-            Set<Long> purchasedSongIds = orders.stream()
-                    .filter(order -> order.getStatus() != null && "DELIVERED".equals(order.getStatus()))
-                    .flatMap(order -> order.getItems().stream())
-                    .filter(item -> "SONG".equals(item.getItemType()))
-                    .map(OrderItemDTO::getItemId)
-                    .collect(Collectors.toSet());
+            return recommendationExecutor.submit(task);
+        } catch (TaskRejectedException e) {
+            CompletableFuture<T> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new TimeoutException("Recommendation executor saturated"));
+            return rejected;
+        }
+    }
 
-            if (purchasedSongIds.isEmpty()) {
-                log.debug("User {} has no delivered purchase history", userId);
-                return new ArrayList<>();
+    /**
+     * Espera el resultado de una sección hasta agotar su presupuesto de tiempo, contado desde {@code startNanos}.
+     * <p>
+     * Si vence el plazo (o el ejecutor rechazó la tarea), cancela la tarea, registra la sección en
+     * {@code timedOutSections} y devuelve {@code fallback}. Si la tarea falla, devuelve {@code fallback}.
+     * </p>
+     *
+     * @param section          Nombre de la sección (coincide con el campo de {@link RecommendationsResponse}).
+     * @param future           Futuro de la sección.
+     * @param startNanos       Instante ({@link System#nanoTime()}) en que se lanzó la sección.
+     * @param fallback         Valor devuelto si la sección no termina correctamente.
+     * @param timedOutSections Lista donde se registran las secciones vencidas.
+     * @return El resultado de la sección o {@code fallback}.
+     */
+    private <T> T awaitSection(String section, Future<T> future, long startNanos, T fallback,
+                               List<String> timedOutSections) {
+        long budgetNanos = TimeUnit.MILLISECONDS.toNanos(sectionTimeoutMs(section));
+        long remaining = startNanos + budgetNanos - System.nanoTime();
+        try {
+            return future.get(Math.max(0L, remaining), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOutSections.add(section);
+            log.warn("Recommendation section '{}' exceeded its {} ms budget", section, sectionTimeoutMs(section));
+            return fallback;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                timedOutSections.add(section);
+            } else {
+                log.warn("Recommendation section '{}' failed", section, e.getCause());
             }
+            return fallback;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            timedOutSections.add(section);
+            return fallback;
+        }
+    }
 
-            List<Song> purchasedSongs = songRepository.findAllById(purchasedSongIds);
+    private long sectionTimeoutMs(String section) {
+        return environment.getProperty("audira.recommendations.section-timeouts." + section, Long.class,
+                defaultSectionTimeoutMs);
+    }
 
-            Set<Long> favoriteGenres = purchasedSongs.stream()
-                    .flatMap(song -> song.getGenreIds().stream())
-                    .collect(Collectors.toSet());
+    /**
+     * Obtiene los IDs de las canciones compradas (pedidos entregados) por el usuario.
+     * <p>
+     * Usa el modelo de co-compra si está listo; si no, realiza <b>una única</b> llamada a Commerce Service.
+     * </p>
+     *
+     * @param userId      ID del usuario.
+     * @param engineReady Si el {@link RecommendationEngine} puede responder.
+     * @return Conjunto de IDs de canciones compradas.
+     */
+    private Set<Long> getPurchasedSongIds(Long userId, boolean engineReady) {
+        if (engineReady) {
+            return toIdSet(recommendationEngine.getPurchasedSongIds(userId));
+        }
+
+        List<OrderDTO> orders = commerceServiceClient.getUserOrders(userId);
+        return orders.stream()
+                .filter(order -> order.getStatus() != null && "DELIVERED".equals(order.getStatus()))
+                .flatMap(order -> order.getItems().stream())
+                .filter(item -> "SONG".equals(item.getItemType()))
+                .map(OrderItemDTO::getItemId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Obtiene los IDs de las canciones valoradas con 4 o más estrellas por el usuario.
+     * <p>
+     * Usa el modelo de co-valoración si está listo; si no, consulta las valoraciones en Community Service.
+     * </p>
+     *
+     * @param userId      ID del usuario.
+     * @param engineReady Si el {@link RecommendationEngine} puede responder.
+     * @return Conjunto de IDs de canciones que le gustan al usuario.
+     */
+    private Set<Long> getLikedSongIds(Long userId, boolean engineReady) {
+        if (engineReady) {
+            return toIdSet(recommendationEngine.getLikedSongIds(userId));
+        }
+
+        return ratingServiceClient.getUserRatings(userId).stream()
+                .filter(rating -> "SONG".equals(rating.getEntityType())
+                        && rating.getRating() != null && rating.getRating() >= 4)
+                .map(RatingDTO::getEntityId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
 
-            if (favoriteGenres.isEmpty()) {
+    /**
+     * Genera recomendaciones basadas en el historial de compras general.
+     * <p>
+     * Con el motor listo, aplica filtrado colaborativo ítem-ítem: "Usuarios que compraron lo que tú compraste,
+     * también compraron...". Si el motor no está listo o no hay co-compras para el usuario (arranque en frío),
+     * recurre a canciones populares de sus géneros favoritos.
+     * </p>
+     *
+     * @param userId           ID del usuario.
+     * @param engineReady      Si el {@link RecommendationEngine} puede responder.
+     * @param purchasedSongIds Canciones compradas por el usuario.
+     * @param purchasedSongs   Entidades de las canciones compradas.
+     * @return Lista de canciones recomendadas.
+     */
+    private List<RecommendedSong> getRecommendationsFromPurchaseHistory(Long userId, boolean engineReady,
+                                                                         Set<Long> purchasedSongIds,
+                                                                         List<Song> purchasedSongs) {
+        try {
+            if (purchasedSongIds.isEmpty()) {
+                log.debug("User {} has no delivered purchase history", userId);
                 return new ArrayList<>();
             }
 
-            List<Song> recommendations = new ArrayList<>();
-            for (Long genreId : favoriteGenres) {
-                List<Song> genreSongs = songRepository.findPublishedByGenreId(genreId);
-                recommendations.addAll(genreSongs.stream()
-                        .filter(song -> !purchasedSongIds.contains(song.getId()))
-                        .limit(5)
-                        .collect(Collectors.toList()));
+            if (engineReady) {
+                List<Song> coPurchased = loadPublishedInOrder(
+                        recommendationEngine.recommendFromPurchases(userId, RECOMMENDATIONS_PER_CATEGORY * 2));
+                if (!coPurchased.isEmpty()) {
+                    return enrichWithArtistNames(coPurchased, "Customers who bought your music also bought", 0.85);
+                }
             }
 
-            List<Song> limitedRecommendations = recommendations.stream()
-                    .distinct()
-                    .limit(RECOMMENDATIONS_PER_CATEGORY)
-                    .collect(Collectors.toList());
-
-            return enrichWithArtistNames(limitedRecommendations, "Based on your purchase history", 0.85);
+            List<Song> recommendations = findTopSongsByGenres(genresOf(purchasedSongs), purchasedSongIds, 5);
+            return enrichWithArtistNames(recommendations, "Based on your purchase history", 0.85);
 
         } catch (Exception e) {
             log.warn("Error getting recommendations from purchase history for user {}", userId, e);
@@ -401,6 +584,35 @@ public class DiscoveryService {
         }
     }
 
+    /**
+     * Genera recomendaciones similares a las canciones favoritas (mejor valoradas) del usuario.
+     * <p>
+     * Con el motor listo, usa el modelo de co-valoración: "A quienes les gustó lo que a ti te gustó,
+     * también les gustó...". En caso contrario devuelve {@code null} para indicar al llamante que reutilice
+     * las recomendaciones por historial de compras, sin repetir el cálculo.
+     * </p>
+     *
+     * @param userId      ID del usuario.
+     * @param engineReady Si el {@link RecommendationEngine} puede responder.
+     * @return Lista de canciones recomendadas, o {@code null} si deben reutilizarse las de historial de compras.
+     */
+    private List<RecommendedSong> getRecommendationsSimilarToFavorites(Long userId, boolean engineReady) {
+        try {
+            if (engineReady) {
+                List<Song> coLiked = loadPublishedInOrder(
+                        recommendationEngine.recommendFromLikes(userId, RECOMMENDATIONS_PER_CATEGORY * 2));
+                if (!coLiked.isEmpty()) {
+                    return enrichWithArtistNames(coLiked, "Loved by listeners with similar taste", 0.87);
+                }
+            }
+            return null;
+
+        } catch (Exception e) {
+            log.warn("Error getting recommendations similar to favorites for user {}", userId, e);
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Obtiene los últimos lanzamientos de los artistas que el usuario sigue.
      * <p>
@@ -452,9 +664,7 @@ public class DiscoveryService {
      */
     private List<RecommendedSong> getTrendingRecommendations() {
         try {
-            List<Song> trendingSongs = songRepository.findTopPublishedByPlays().stream()
-                    .limit(RECOMMENDATIONS_PER_CATEGORY)
-                    .collect(Collectors.toList());
+            List<Song> trendingSongs = getTrendingSongs(RECOMMENDATIONS_PER_CATEGORY);
 
             return enrichWithArtistNames(trendingSongs, "Trending now", 0.7);
 
@@ -489,56 +699,25 @@ public class DiscoveryService {
     /**
      * Genera recomendaciones basadas en los géneros de música que el usuario ha comprado previamente.
      * <p>
-     * Analiza el historial de pedidos para identificar los géneros más frecuentes y busca
-     * canciones populares de esos mismos géneros que el usuario no haya comprado aún.
+     * Identifica los géneros de las canciones compradas y busca las canciones más populares de esos
+     * mismos géneros que el usuario no haya comprado aún.
      * </p>
      *
-     * @param userId     ID del usuario.
-     * @param userOrders Historial de pedidos del usuario (para evitar rellamadas).
+     * @param purchasedSongIds Canciones compradas por el usuario (para excluirlas).
+     * @param purchasedSongs   Entidades de las canciones compradas (para obtener sus géneros).
      * @return Lista de canciones recomendadas por afinidad de género.
      */
-    private List<RecommendedSong> getRecommendationsByPurchasedGenres(Long userId) {
+    private List<RecommendedSong> getRecommendationsByPurchasedGenres(Set<Long> purchasedSongIds, List<Song> purchasedSongs) {
         try {
-            List<OrderDTO> orders = commerceServiceClient.getUserOrders(userId);
-
-            Set<Long> purchasedSongIds = orders.stream()
-                    .filter(order -> order.getStatus() != null && "DELIVERED".equals(order.getStatus()))
-                    .flatMap(order -> order.getItems().stream())
-                    .filter(item -> "SONG".equals(item.getItemType()))
-                    .map(OrderItemDTO::getItemId)
-                    .collect(Collectors.toSet());
-
             if (purchasedSongIds.isEmpty()) {
                 return new ArrayList<>();
             }
 
-            List<Song> purchasedSongs = songRepository.findAllById(purchasedSongIds);
-            Set<Long> favoriteGenres = purchasedSongs.stream()
-                    .flatMap(song -> song.getGenreIds().stream())
-                    .collect(Collectors.toSet());
-
-            if (favoriteGenres.isEmpty()) {
-                return new ArrayList<>();
-            }
-
-            List<Song> recommendations = new ArrayList<>();
-            for (Long genreId : favoriteGenres) {
-                List<Song> genreSongs = songRepository.findPublishedByGenreId(genreId);
-                recommendations.addAll(genreSongs.stream()
-                        .filter(song -> !purchasedSongIds.contains(song.getId()))
-                        .limit(4)
-                        .collect(Collectors.toList()));
-            }
-
-            List<Song> limited = recommendations.stream()
-                    .distinct()
-                    .limit(RECOMMENDATIONS_PER_CATEGORY)
-                    .collect(Collectors.toList());
-
-            return enrichWithArtistNames(limited, "Songs from genres you love", 0.88);
+            List<Song> recommendations = findTopSongsByGenres(genresOf(purchasedSongs), purchasedSongIds, 4);
+            return enrichWithArtistNames(recommendations, "Songs from genres you love", 0.88);
 
         } catch (Exception e) {
-            log.warn("Error getting recommendations by purchased genres for user {}", userId, e);
+            log.warn("Error getting recommendations by purchased genres", e);
             return new ArrayList<>();
         }
     }
@@ -549,26 +728,16 @@ public class DiscoveryService {
      * Fomenta el descubrimiento de catálogo profundo (Deep Catalog) de artistas conocidos por el usuario.
      * </p>
      *
-     * @param userId     ID del usuario.
-     * @param userOrders Historial de pedidos del usuario.
+     * @param purchasedSongIds Canciones compradas por el usuario (para excluirlas).
+     * @param purchasedSongs   Entidades de las canciones compradas (para obtener sus artistas).
      * @return Lista de canciones recomendadas por afinidad de artista.
      */
-    private List<RecommendedSong> getRecommendationsByPurchasedArtists(Long userId) {
+    private List<RecommendedSong> getRecommendationsByPurchasedArtists(Set<Long> purchasedSongIds, List<Song> purchasedSongs) {
         try {
-            List<OrderDTO> orders = commerceServiceClient.getUserOrders(userId);
-
-            Set<Long> purchasedSongIds = orders.stream()
-                    .filter(order -> order.getStatus() != null && "DELIVERED".equals(order.getStatus()))
-                    .flatMap(order -> order.getItems().stream())
-                    .filter(item -> "SONG".equals(item.getItemType()))
-                    .map(OrderItemDTO::getItemId)
-                    .collect(Collectors.toSet());
-
             if (purchasedSongIds.isEmpty()) {
                 return new ArrayList<>();
             }
 
-            List<Song> purchasedSongs = songRepository.findAllById(purchasedSongIds);
             Set<Long> purchasedArtistIds = purchasedSongs.stream()
                     .map(Song::getArtistId)
                     .collect(Collectors.toSet());
@@ -591,7 +760,7 @@ public class DiscoveryService {
             return enrichWithArtistNames(limited, "More from artists you bought", 0.92);
 
         } catch (Exception e) {
-            log.warn("Error getting recommendations by purchased artists for user {}", userId, e);
+            log.warn("Error getting recommendations by purchased artists", e);
             return new ArrayList<>();
         }
     }
@@ -600,77 +769,144 @@ public class DiscoveryService {
      * Genera recomendaciones basadas en canciones marcadas con "Me gusta".
      * <p>
      * Utiliza las canciones con alta valoración (4-5 estrellas) del usuario como semilla
-     * para encontrar contenido similar en términos de género o características de audio.
+     * para encontrar contenido popular de sus mismos géneros.
      * </p>
      *
-     * @param userId ID del usuario.
+     * @param userId       ID del usuario.
+     * @param likedSongIds Canciones valoradas con 4 o más estrellas por el usuario.
      * @return Lista de canciones similares a los "Likes" del usuario.
      */
-    private List<RecommendedSong> getRecommendationsByLikedSongs(Long userId) {
+    private List<RecommendedSong> getRecommendationsByLikedSongs(Long userId, Set<Long> likedSongIds) {
         try {
-            String url = communityServiceUrl + "/api/ratings/user/" + userId;
-            ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
-                    url,
-                    HttpMethod.GET,
-                    null,
-                    new ParameterizedTypeReference<List<Map<String, Object>>>() {}
-            );
-
-            if (response.getBody() == null) {
-                return new ArrayList<>();
-            }
-
-            Set<Long> likedSongIds = response.getBody().stream()
-                    .filter(rating -> {
-                        String entityType = (String) rating.get("entityType");
-                        Number ratingValue = (Number) rating.get("rating");
-                        return "SONG".equals(entityType) && ratingValue != null && ratingValue.doubleValue() >= 4.0;
-                    })
-                    .map(rating -> {
-                        Number entityId = (Number) rating.get("entityId");
-                        return entityId != null ? entityId.longValue() : null;
-                    })
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toSet());
-
             if (likedSongIds.isEmpty()) {
                 return new ArrayList<>();
             }
 
             List<Song> likedSongs = songRepository.findAllById(likedSongIds);
+            List<Song> recommendations = findTopSongsByGenres(genresOf(likedSongs), likedSongIds, 4);
 
-            Set<Long> likedGenres = likedSongs.stream()
-                    .flatMap(song -> song.getGenreIds().stream())
-                    .collect(Collectors.toSet());
+            return enrichWithArtistNames(recommendations, "Based on songs you liked", 0.90);
 
-            List<Song> recommendations = new ArrayList<>();
-            for (Long genreId : likedGenres) {
-                List<Song> genreSongs = songRepository.findPublishedByGenreId(genreId);
-                recommendations.addAll(genreSongs.stream()
-                        .filter(song -> !likedSongIds.contains(song.getId()))
-                        .limit(4)
-                        .collect(Collectors.toList()));
+        } catch (Exception e) {
+            log.warn("Error getting recommendations by liked songs for user {}", userId, e);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Obtiene las canciones publicadas más populares de cada género, excluyendo las indicadas.
+     * <p>
+     * Solo carga de cada género las canciones necesarias (en lugar del género completo) y se detiene
+     * en cuanto reúne {@link #RECOMMENDATIONS_PER_CATEGORY} canciones distintas.
+     * </p>
+     *
+     * @param genreIds Géneros de partida.
+     * @param excluded Canciones a excluir (ya compradas o valoradas).
+     * @param perGenre Número máximo de canciones por género.
+     * @return Lista de canciones distintas, como máximo {@link #RECOMMENDATIONS_PER_CATEGORY}.
+     */
+    private List<Song> findTopSongsByGenres(Set<Long> genreIds, Set<Long> excluded, int perGenre) {
+        Map<Long, Song> recommendations = new LinkedHashMap<>();
+        int fetchSize = Math.min(perGenre + excluded.size(), GENRE_SCAN_LIMIT);
+
+        for (Long genreId : genreIds) {
+            if (recommendations.size() >= RECOMMENDATIONS_PER_CATEGORY) {
+                break;
             }
+            songRepository.findTopPublishedByGenreId(genreId, PageRequest.of(0, fetchSize)).stream()
+                    .filter(song -> !excluded.contains(song.getId()))
+                    .limit(perGenre)
+                    .forEach(song -> recommendations.putIfAbsent(song.getId(), song));
+        }
 
-            List<Song> limited = recommendations.stream()
-                    .distinct()
-                    .limit(RECOMMENDATIONS_PER_CATEGORY)
-                    .collect(Collectors.toList());
+        return recommendations.values().stream()
+                .limit(RECOMMENDATIONS_PER_CATEGORY)
+                .collect(Collectors.toList());
+    }
 
-            return enrichWithArtistNames(limited, "Based on songs you liked", 0.90);
+    /**
+     * Carga las canciones indicadas preservando el orden de relevancia y descartando las no publicadas.
+     *
+     * @param songIds IDs ordenados por relevancia.
+     * @return Como máximo {@link #RECOMMENDATIONS_PER_CATEGORY} canciones publicadas.
+     */
+    private List<Song> loadPublishedInOrder(long[] songIds) {
+        return loadPublishedInOrder(songIds, RECOMMENDATIONS_PER_CATEGORY);
+    }
 
-        } catch (Exception e) {
-            log.warn("Error getting recommendations by liked songs for user {}", userId, e);
+    private List<Song> loadPublishedInOrder(long[] songIds, int limit) {
+        if (songIds.length == 0) {
             return new ArrayList<>();
         }
+        List<Long> ids = Arrays.stream(songIds).boxed().collect(Collectors.toList());
+        Map<Long, Song> byId = songRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Song::getId, song -> song));
+
+        return ids.stream()
+                .map(byId::get)
+                .filter(song -> song != null && song.isPublished())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private List<Album> loadPublishedAlbumsInOrder(long[] albumIds, int limit) {
+        if (albumIds.length == 0) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = Arrays.stream(albumIds).boxed().collect(Collectors.toList());
+        Map<Long, Album> byId = albumRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Album::getId, album -> album));
+
+        return ids.stream()
+                .map(byId::get)
+                .filter(album -> album != null && album.isPublished())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Completa un ranking con elementos de una lista de respaldo (sin repetir) hasta alcanzar {@code limit}.
+     * La lista de respaldo solo se consulta si el ranking se queda corto.
+     */
+    private static <T> List<T> topUp(List<T> ranked, Supplier<List<T>> fallback, Function<T, Long> idOf, int limit) {
+        if (ranked.size() >= limit) {
+            return ranked;
+        }
+        Set<Long> seen = ranked.stream().map(idOf).collect(Collectors.toCollection(HashSet::new));
+        for (T item : fallback.get()) {
+            if (ranked.size() >= limit) {
+                break;
+            }
+            if (seen.add(idOf.apply(item))) {
+                ranked.add(item);
+            }
+        }
+        return ranked;
+    }
+
+    private int trendingLimit(int limit) {
+        return Math.max(1, Math.min(limit, trendingEngine.getCapacity()));
+    }
+
+    private static Set<Long> genresOf(List<Song> songs) {
+        return songs.stream()
+                .flatMap(song -> song.getGenreIds().stream())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Set<Long> toIdSet(long[] ids) {
+        Set<Long> set = new HashSet<>(ids.length * 2);
+        for (long id : ids) {
+            set.add(id);
+        }
+        return set;
     }
 
     /**
      * Método auxiliar privado para enriquecer una lista de canciones con nombres de artistas y metadatos de recomendación.
      * <p>
-     * Transforma entidades {@link Song} en DTOs {@link RecommendedSong}. Realiza llamadas al servicio de usuarios
-     * para resolver los nombres de los artistas, utilizando un mecanismo de caché local para optimizar el rendimiento
-     * y un fallback en caso de error.
+     * Transforma entidades {@link Song} en DTOs {@link RecommendedSong}. Los nombres de los artistas se resuelven
+     * de una vez con {@link ArtistProfileCache}, con un fallback ("Artist #ID") si no están disponibles.
      * </p>
      *
      * @param songs          Lista de entidades de canciones a enriquecer.
@@ -679,24 +915,13 @@ public class DiscoveryService {
      * @return Una lista de objetos {@link RecommendedSong} listos para ser consumidos por el cliente.
      */
     private List<RecommendedSong> enrichWithArtistNames(List<Song> songs, String reason, Double relevanceScore) {
-        Map<Long, String> artistNamesCache = new HashMap<>();
+        Map<Long, String> artistNames = artistProfileCache.getArtistNames(
+                songs.stream().map(Song::getArtistId).toList());
 
         return songs.stream()
-                .map(song -> {
-                    String artistName = artistNamesCache.computeIfAbsent(
-                            song.getArtistId(),
-                            artistId -> {
-                                try {
-                                    return userServiceClient.getUserById(artistId).getArtistName();
-                                } catch (Exception e) {
-                                    log.debug("Failed to fetch artist name for artistId: {}, using fallback", artistId);
-                                    return "Artist #" + artistId;
-                                }
-                            }
-                    );
-
-                    return RecommendedSong.fromSong(song, artistName, reason, relevanceScore);
-                })
+                .map(song -> RecommendedSong.fromSong(song,
+                        artistNames.getOrDefault(song.getArtistId(), "Artist #" + song.getArtistId()),
+                        reason, relevanceScore))
                 .collect(Collectors.toList());
     }
 
@@ -0,0 +1,316 @@
+package io.audira.catalog.service;
+
+import io.audira.catalog.client.NotificationClient;
+import io.audira.catalog.client.UserServiceClient;
+import io.audira.catalog.dto.UserDTO;
+import io.audira.catalog.model.Product;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Reparto asíncrono de las notificaciones de nuevo lanzamiento a los seguidores de un artista.
+ * <p>
+ * Publicar una canción o un álbum solo encola un trabajo ({@link #enqueueNewRelease}), que se lanza tras el
+ * commit de la transacción; así la publicación no mantiene la transacción abierta mientras se notifica.
+ * </p>
+ * <ul>
+ * <li><b>Paginación:</b> cada trabajo recorre los seguidores en bloques de {@code audira.fanout.page-size} IDs
+ * ({@link UserServiceClient#getFollowerIdChunk}), sin cargar nunca la lista completa.</li>
+ * <li><b>Envío:</b> cada bloque se reparte en lotes de {@code audira.fanout.batch-size} destinatarios, enviados con
+ * una sola llamada ({@link NotificationClient#notifyNewProductBatch}) y como mucho {@code audira.fanout.concurrency}
+ * lotes en paralelo entre todos los trabajos.</li>
+ * <li><b>Reintentos:</b> se reintentan hasta {@code audira.fanout.max-attempts} veces con espera exponencial desde
+ * {@code audira.fanout.backoff-ms} ante cualquier error de red o 5xx (los 4xx no). Un lote que agota los reintentos se
+ * da por perdido; si lo que falla es la lectura de seguidores, se aborta el trabajo.</li>
+ * <li><b>Deduplicación:</b> cada lote lleva una clave estable ({@code <jobId>:<índice de lote>}) que Commerce Service
+ * registra antes de enviar, así que reintentar un lote de resultado incierto (ej. tiempo de lectura agotado mientras
+ * el envío seguía en curso) no lo envía dos veces.</li>
+ * <li><b>Cola:</b> los trabajos solo viven en memoria. Como mucho hay {@code audira.fanout.max-queued-jobs} en
+ * espera (los que no caben se descartan), y los pendientes o en curso al parar la aplicación se pierden: esos
+ * seguidores no reciben la notificación del lanzamiento.</li>
+ * </ul>
+ * <p>
+ * El progreso se publica en Micrometer: {@code audira.fanout.jobs} (etiqueta {@code result}: {@code completed},
+ * {@code failed} o {@code rejected}), {@code audira.fanout.recipients} ({@code delivered} o {@code failed}),
+ * {@code audira.fanout.retries}, y los indicadores {@code audira.fanout.jobs.active}, {@code audira.fanout.jobs.queued}
+ * y {@code audira.fanout.recipients.in-flight}.
+ * </p>
+ */
+@Service
+@Slf4j
+public class FollowerFanOutService {
+
+    private final UserServiceClient userServiceClient;
+    private final NotificationClient notificationClient;
+    private final ArtistProfileCache artistProfileCache;
+    private final int pageSize;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    /** Trabajos de reparto (uno por lanzamiento). */
+    private final ThreadPoolTaskExecutor jobExecutor;
+
+    /**
+     * Envío de lotes, compartido por todos los trabajos. Cada trabajo espera a los lotes de un bloque antes de leer
+     * el siguiente, así que la cola nunca supera {@code JOB_WORKERS * page-size / batch-size} lotes.
+     */
+    private final ThreadPoolTaskExecutor deliveryExecutor;
+
+    private static final int JOB_WORKERS = 2;
+
+    private final LongAdder jobsCompleted = new LongAdder();
+    private final LongAdder jobsFailed = new LongAdder();
+    private final LongAdder jobsRejected = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final AtomicLong inFlight = new AtomicLong();
+
+    public FollowerFanOutService(UserServiceClient userServiceClient,
+                                 NotificationClient notificationClient,
+                                 ArtistProfileCache artistProfileCache,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${audira.fanout.page-size:5000}") int pageSize,
+                                 @Value("${audira.fanout.batch-size:500}") int batchSize,
+                                 @Value("${audira.fanout.concurrency:4}") int concurrency,
+                                 @Value("${audira.fanout.max-queued-jobs:100}") int maxQueuedJobs,
+                                 @Value("${audira.fanout.max-attempts:4}") int maxAttempts,
+                                 @Value("${audira.fanout.backoff-ms:1000}") long backoffMs) {
+        this.userServiceClient = userServiceClient;
+        this.notificationClient = notificationClient;
+        this.artistProfileCache = artistProfileCache;
+        this.pageSize = pageSize;
+        this.batchSize = Math.min(batchSize, NotificationClient.MAX_BATCH_SIZE);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = backoffMs;
+
+        this.jobExecutor = new ThreadPoolTaskExecutor();
+        this.jobExecutor.setCorePoolSize(JOB_WORKERS);
+        this.jobExecutor.setMaxPoolSize(JOB_WORKERS);
+        this.jobExecutor.setQueueCapacity(maxQueuedJobs);
+        this.jobExecutor.setThreadNamePrefix("fanout-job-");
+        this.jobExecutor.initialize();
+
+        this.deliveryExecutor = new ThreadPoolTaskExecutor();
+        this.deliveryExecutor.setCorePoolSize(concurrency);
+        this.deliveryExecutor.setMaxPoolSize(concurrency);
+        this.deliveryExecutor.setThreadNamePrefix("fanout-send-");
+        this.deliveryExecutor.initialize();
+
+        registerCounter(meterRegistry, "audira.fanout.jobs", jobsCompleted, "completed");
+        registerCounter(meterRegistry, "audira.fanout.jobs", jobsFailed, "failed");
+        registerCounter(meterRegistry, "audira.fanout.jobs", jobsRejected, "rejected");
+        registerCounter(meterRegistry, "audira.fanout.recipients", delivered, "delivered");
+        registerCounter(meterRegistry, "audira.fanout.recipients", failed, "failed");
+        FunctionCounter.builder("audira.fanout.retries", retries, LongAdder::doubleValue)
+                .description("Follower fan-out remote calls retried")
+                .register(meterRegistry);
+        Gauge.builder("audira.fanout.jobs.active", jobExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Follower fan-out jobs currently running")
+                .register(meterRegistry);
+        Gauge.builder("audira.fanout.jobs.queued", jobExecutor,
+                        executor -> executor.getThreadPoolExecutor().getQueue().size())
+                .description("Follower fan-out jobs waiting to run")
+                .register(meterRegistry);
+        Gauge.builder("audira.fanout.recipients.in-flight", inFlight, AtomicLong::get)
+                .description("Followers read but not yet notified")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Encola la notificación de un nuevo lanzamiento a los seguidores de su artista.
+     * <p>
+     * Si hay una transacción activa el trabajo se lanza tras el commit (y no se lanza si se revierte).
+     * </p>
+     *
+     * @param product La canción o el álbum que acaba de publicarse.
+     */
+    public void enqueueNewRelease(Product product) {
+        NewReleaseJob job = new NewReleaseJob(UUID.randomUUID().toString(), product.getId(), product.getArtistId(),
+                product.getProductType(), product.getTitle());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(job);
+                }
+            });
+        } else {
+            submit(job);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdown();
+        deliveryExecutor.shutdown();
+    }
+
+    private void submit(NewReleaseJob job) {
+        try {
+            jobExecutor.execute(() -> run(job));
+        } catch (TaskRejectedException e) {
+            jobsRejected.increment();
+            log.error("Fan-out queue full, followers of artist {} will not be notified about product {}",
+                    job.artistId(), job.productId());
+        }
+    }
+
+    private void run(NewReleaseJob job) {
+        String artistName = resolveArtistName(job.artistId());
+        long jobDelivered = 0;
+        long jobFailed = 0;
+        long afterId = 0;
+        int batchIndex = 0;
+        try {
+            while (true) {
+                long cursor = afterId;
+                long[] followerIds = withRetry(
+                        () -> userServiceClient.getFollowerIdChunk(job.artistId(), cursor, pageSize),
+                        FollowerFanOutService::isTransient);
+                if (followerIds.length == 0) {
+                    break;
+                }
+
+                inFlight.addAndGet(followerIds.length);
+                List<CompletableFuture<Boolean>> batches = new ArrayList<>();
+                List<Integer> batchSizes = new ArrayList<>();
+                for (int from = 0; from < followerIds.length; from += batchSize) {
+                    List<Long> batch = toList(followerIds, from, Math.min(from + batchSize, followerIds.length));
+                    String batchKey = job.jobId() + ":" + batchIndex++;
+                    batches.add(CompletableFuture.supplyAsync(
+                            () -> deliver(job, batchKey, artistName, batch), deliveryExecutor));
+                    batchSizes.add(batch.size());
+                }
+                for (int i = 0; i < batches.size(); i++) {
+                    int size = batchSizes.get(i);
+                    if (batches.get(i).join()) {
+                        jobDelivered += size;
+                        delivered.add(size);
+                    } else {
+                        jobFailed += size;
+                        failed.add(size);
+                    }
+                    inFlight.addAndGet(-size);
+                }
+
+                log.debug("Fan-out of product {}: {} followers notified, {} failed so far",
+                        job.productId(), jobDelivered, jobFailed);
+                if (followerIds.length < pageSize) {
+                    break;
+                }
+                afterId = followerIds[followerIds.length - 1];
+            }
+            jobsCompleted.increment();
+            log.info("Notificados {} seguidores sobre nuevo producto: {} ({}), {} fallidos",
+                    jobDelivered, job.title(), job.productType(), jobFailed);
+        } catch (RuntimeException e) {
+            jobsFailed.increment();
+            log.error("Fan-out of product {} aborted after notifying {} followers: {}",
+                    job.productId(), jobDelivered, e.getMessage());
+        }
+    }
+
+    /**
+     * Envía un lote, reintentando con la misma clave los fallos transitorios (Commerce Service descarta los
+     * duplicados).
+     *
+     * @return {@code true} si el lote se entregó, {@code false} si agotó los reintentos o falló con un 4xx.
+     */
+    private boolean deliver(NewReleaseJob job, String batchKey, String artistName, List<Long> followerIds) {
+        try {
+            withRetry(() -> {
+                notificationClient.notifyNewProductBatch(batchKey, followerIds, job.productId(), job.productType(),
+                        job.title(), artistName);
+                return null;
+            }, FollowerFanOutService::isTransient);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Failed to notify {} followers about new product {}: {}",
+                    followerIds.size(), job.productId(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Ejecuta una llamada remota reintentando con espera exponencial los errores que acepta {@code retryable}.
+     */
+    private <T> T withRetry(Supplier<T> call, Predicate<RestClientException> retryable) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return call.get();
+            } catch (RestClientException e) {
+                if (attempt >= maxAttempts || !retryable.test(e)) {
+                    throw e;
+                }
+                retries.increment();
+                try {
+                    Thread.sleep(backoffMs << (attempt - 1));
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Errores transitorios: red o 5xx (los 4xx no se reintentan). Solo se aplica a llamadas idempotentes o
+     * deduplicadas por clave.
+     */
+    private static boolean isTransient(RestClientException e) {
+        return !(e instanceof HttpClientErrorException);
+    }
+
+    private String resolveArtistName(Long artistId) {
+        UserDTO artist = artistProfileCache.getProfile(artistId);
+        if (artist == null) {
+            return "Artista";
+        }
+        return artist.getArtistName() != null && !artist.getArtistName().isBlank()
+                ? artist.getArtistName()
+                : artist.getUsername();
+    }
+
+    private static List<Long> toList(long[] ids, int from, int to) {
+        List<Long> list = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            list.add(ids[i]);
+        }
+        return list;
+    }
+
+    private static void registerCounter(MeterRegistry meterRegistry, String name, LongAdder counter, String result) {
+        FunctionCounter.builder(name, counter, LongAdder::doubleValue)
+                .description("Follower fan-out progress")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Datos del lanzamiento capturados al encolar (la entidad no se usa fuera de su transacción).
+     */
+    private record NewReleaseJob(String jobId, Long productId, Long artistId, String productType, String title) {
+    }
+}
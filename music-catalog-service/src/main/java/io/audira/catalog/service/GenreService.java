@@ -1,8 +1,10 @@
 package io.audira.catalog.service;
 
+import io.audira.catalog.dto.CursorPageDTO;
 import io.audira.catalog.model.Genre;
 import io.audira.catalog.repository.GenreRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
@@ -48,6 +50,25 @@ public class GenreService {
         return genreRepository.findAll();
     }
 
+    /**
+     * Obtiene una página de los géneros musicales, por orden alfabético.
+     * <p>
+     * Paginación por cursor sobre {@code (name, id)}, apoyada en el índice único del nombre.
+     * </p>
+     *
+     * @param cursor Cursor devuelto por la página anterior, o {@code null} para la primera página.
+     * @param limit  Tamaño de página (opcional, acotado).
+     * @return Página de géneros.
+     * @throws IllegalArgumentException Si el cursor no es válido.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Genre> getGenresPage(String cursor, Integer limit) {
+        PageCursor from = PageCursor.decode(cursor, PageCursor.FIRST_BY_NAME);
+        int size = PageCursor.pageSize(limit);
+        List<Genre> rows = genreRepository.findPageAfter(from.sortKey(), from.id(), PageRequest.of(0, size + 1));
+        return PageCursor.page(rows, size, genre -> new PageCursor(genre.getName(), genre.getId()), genres -> genres);
+    }
+
     /**
      * Busca un género específico por su identificador único.
      *
@@ -0,0 +1,217 @@
+package io.audira.catalog.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Modelo de similitud ítem-ítem basado en co-ocurrencias (filtrado colaborativo "quien tuvo X también tuvo Y").
+ * <p>
+ * Mantiene, de forma incremental:
+ * <ul>
+ * <li>Una matriz dispersa simétrica {@code co[i][j]}: número de usuarios que tienen a la vez los ítems
+ * {@code i} y {@code j}. Cada fila es un {@link LongFloatHashMap}.</li>
+ * <li>El número de usuarios de cada ítem {@code n[i]}, para normalizar por coseno:
+ * {@code sim(i, j) = co[i][j] / sqrt(n[i] * n[j])}.</li>
+ * <li>Los ítems de cada usuario como {@code long[]} ordenado, para actualizar la matriz al añadir o retirar una
+ * interacción y para excluir lo que el usuario ya tiene al recomendar.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Las bajas ({@link #remove}) restan exactamente lo que sumó el alta. Las celdas que quedan a cero siguen ocupando
+ * memoria hasta la siguiente reconstrucción del modelo. <b>No es seguro para hilos:</b> ver
+ * {@link RecommendationEngine}.
+ * </p>
+ */
+final class ItemCooccurrenceModel {
+
+    /**
+     * Por encima de este número de ítems, las nuevas interacciones de un usuario no generan pares:
+     * evita que unas pocas cuentas con bibliotecas enormes dominen (y hagan crecer cuadráticamente) la matriz.
+     */
+    private static final int MAX_PAIRED_ITEMS_PER_USER = 500;
+
+    private static final long[] NO_ITEMS = new long[0];
+
+    private final Map<Long, LongFloatHashMap> rows = new HashMap<>();
+    private final LongFloatHashMap itemCounts = new LongFloatHashMap(1024);
+    private final Map<Long, long[]> userItems = new HashMap<>();
+
+    /**
+     * Ítems de cada usuario (ordenados) que no generaron pares por superar {@link #MAX_PAIRED_ITEMS_PER_USER};
+     * solo existe entrada para esos usuarios. Permite que {@link #remove} no reste pares que nunca se sumaron.
+     */
+    private final Map<Long, long[]> unpairedItems = new HashMap<>();
+    private long interactions;
+
+    /**
+     * Registra que un usuario tiene (ha comprado / le gusta) un ítem y actualiza las co-ocurrencias.
+     *
+     * @param userId ID del usuario.
+     * @param itemId ID del ítem.
+     * @return {@code true} si la interacción era nueva; {@code false} si ya estaba registrada.
+     */
+    boolean add(long userId, long itemId) {
+        long[] items = userItems.getOrDefault(userId, NO_ITEMS);
+        int position = Arrays.binarySearch(items, itemId);
+        if (position >= 0) {
+            return false;
+        }
+
+        long[] unpaired = unpairedItems.getOrDefault(userId, NO_ITEMS);
+        if (items.length - unpaired.length < MAX_PAIRED_ITEMS_PER_USER) {
+            LongFloatHashMap row = row(itemId);
+            for (long other : items) {
+                if (Arrays.binarySearch(unpaired, other) < 0) {
+                    row.addTo(other, 1f);
+                    row(other).addTo(itemId, 1f);
+                }
+            }
+        } else {
+            unpairedItems.put(userId, inserted(unpaired, -Arrays.binarySearch(unpaired, itemId) - 1, itemId));
+        }
+        itemCounts.addTo(itemId, 1f);
+        userItems.put(userId, inserted(items, -position - 1, itemId));
+        interactions++;
+        return true;
+    }
+
+    /**
+     * Retira una interacción (valoración eliminada o rebajada) y resta sus co-ocurrencias.
+     *
+     * @param userId ID del usuario.
+     * @param itemId ID del ítem.
+     * @return {@code true} si la interacción estaba registrada.
+     */
+    boolean remove(long userId, long itemId) {
+        long[] items = userItems.getOrDefault(userId, NO_ITEMS);
+        int position = Arrays.binarySearch(items, itemId);
+        if (position < 0) {
+            return false;
+        }
+
+        long[] unpaired = unpairedItems.getOrDefault(userId, NO_ITEMS);
+        int unpairedPosition = Arrays.binarySearch(unpaired, itemId);
+        if (unpairedPosition >= 0) {
+            putOrRemove(unpairedItems, userId, removed(unpaired, unpairedPosition));
+        } else {
+            LongFloatHashMap row = row(itemId);
+            for (long other : items) {
+                if (other != itemId && Arrays.binarySearch(unpaired, other) < 0) {
+                    row.addTo(other, -1f);
+                    row(other).addTo(itemId, -1f);
+                }
+            }
+        }
+        itemCounts.addTo(itemId, -1f);
+        putOrRemove(userItems, userId, removed(items, position));
+        interactions--;
+        return true;
+    }
+
+    /**
+     * Ítems registrados para un usuario, en orden ascendente.
+     *
+     * @param userId ID del usuario.
+     * @return Array ordenado (vacío si el usuario no tiene interacciones). No debe modificarse.
+     */
+    long[] itemsOf(long userId) {
+        return userItems.getOrDefault(userId, NO_ITEMS);
+    }
+
+    /**
+     * Número total de interacciones registradas.
+     *
+     * @return Interacciones usuario-ítem.
+     */
+    long interactions() {
+        return interactions;
+    }
+
+    /**
+     * Calcula los {@code k} ítems más similares al conjunto semilla.
+     * <p>
+     * La puntuación de un candidato es la suma de sus similitudes coseno con cada semilla.
+     * </p>
+     *
+     * @param seeds   Ítems de partida (ordenados o no).
+     * @param exclude Ítems a excluir, <b>ordenados</b> ascendentemente (ej. lo que el usuario ya tiene).
+     * @param k       Número máximo de resultados.
+     * @return IDs de los ítems recomendados, de mayor a menor puntuación.
+     */
+    long[] topSimilar(long[] seeds, long[] exclude, int k) {
+        if (seeds.length == 0 || k <= 0) {
+            return NO_ITEMS;
+        }
+
+        LongFloatHashMap scores = new LongFloatHashMap(64);
+        for (long seed : seeds) {
+            LongFloatHashMap row = rows.get(seed);
+            if (row == null) {
+                continue;
+            }
+            float seedCount = itemCounts.get(seed);
+            row.forEach((candidate, together) -> {
+                // Las celdas a cero son pares retirados por remove()
+                if (together > 0f && Arrays.binarySearch(exclude, candidate) < 0) {
+                    double norm = Math.sqrt((double) seedCount * itemCounts.get(candidate));
+                    scores.addTo(candidate, (float) (together / norm));
+                }
+            });
+        }
+
+        // Top-K por inserción: k es pequeño (decenas), no compensa un heap
+        long[] topIds = new long[k];
+        float[] topScores = new float[k];
+        int[] found = {0};
+        scores.forEach((candidate, score) -> {
+            int n = found[0];
+            if (n == k && !ranksAbove(score, candidate, topScores[k - 1], topIds[k - 1])) {
+                return;
+            }
+            int i = n == k ? k - 1 : n;
+            while (i > 0 && ranksAbove(score, candidate, topScores[i - 1], topIds[i - 1])) {
+                topIds[i] = topIds[i - 1];
+                topScores[i] = topScores[i - 1];
+                i--;
+            }
+            topIds[i] = candidate;
+            topScores[i] = score;
+            if (n < k) {
+                found[0] = n + 1;
+            }
+        });
+        return Arrays.copyOf(topIds, found[0]);
+    }
+
+    private static boolean ranksAbove(float score, long id, float otherScore, long otherId) {
+        return score > otherScore || (score == otherScore && id < otherId);
+    }
+
+    private LongFloatHashMap row(long itemId) {
+        return rows.computeIfAbsent(itemId, id -> new LongFloatHashMap(16));
+    }
+
+    private static long[] inserted(long[] sorted, int insertAt, long value) {
+        long[] updated = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, updated, 0, insertAt);
+        updated[insertAt] = value;
+        System.arraycopy(sorted, insertAt, updated, insertAt + 1, sorted.length - insertAt);
+        return updated;
+    }
+
+    private static long[] removed(long[] sorted, int at) {
+        long[] updated = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, updated, 0, at);
+        System.arraycopy(sorted, at + 1, updated, at, sorted.length - at - 1);
+        return updated;
+    }
+
+    private static void putOrRemove(Map<Long, long[]> map, long userId, long[] items) {
+        if (items.length == 0) {
+            map.remove(userId);
+        } else {
+            map.put(userId, items);
+        }
+    }
+}
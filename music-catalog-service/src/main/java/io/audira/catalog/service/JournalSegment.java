@@ -0,0 +1,218 @@
+package io.audira.catalog.service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Segmento del {@link PlayJournal}: un fichero proyectado en memoria con registros binarios de ancho fijo.
+ * <p>
+ * Cada registro ocupa {@link #RECORD_SIZE} bytes: {@code songId}, {@code userId} ({@code 0} si es anónimo)
+ * y el instante en milisegundos, como tres {@code long}. El fichero se reserva con su tamaño final y el fin
+ * de los datos es el primer registro con {@code songId == 0}; al añadir se escribe el {@code songId} en último
+ * lugar, de modo que un registro a medias nunca se considera válido al reabrir.
+ * </p>
+ * <p>
+ * Un segmento contiene los registros de un rango de secuencias {@code [firstSequence, lastSequence]}: los segmentos
+ * nuevos tienen una sola secuencia y los fusionados por la compactación, varias.
+ * </p>
+ * <p>
+ * Un único escritor (sincronizado por el journal) y lectores concurrentes: {@link #count} es volátil y se publica
+ * después de escribir el registro. Java 17 no permite liberar explícitamente la proyección; se libera con el GC,
+ * y en Linux el fichero puede borrarse aunque siga proyectado.
+ * </p>
+ */
+final class JournalSegment {
+
+    static final int RECORD_SIZE = 3 * Long.BYTES;
+
+    private final Path path;
+    private final long firstSequence;
+    private final long lastSequence;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+
+    private volatile int count;
+    private volatile long minTimestamp = Long.MAX_VALUE;
+    private volatile long maxTimestamp = Long.MIN_VALUE;
+
+    private JournalSegment(Path path, long firstSequence, long lastSequence, MappedByteBuffer buffer, int capacity) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.lastSequence = lastSequence;
+        this.buffer = buffer;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Crea un segmento vacío con espacio para {@code capacity} registros.
+     */
+    static JournalSegment create(Path path, long sequence, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+            return new JournalSegment(path, sequence, sequence, buffer, capacity);
+        }
+    }
+
+    /**
+     * Reabre un segmento existente y localiza el final de sus datos.
+     */
+    static JournalSegment open(Path path, long firstSequence, long lastSequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int capacity = (int) (channel.size() / RECORD_SIZE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+            JournalSegment segment = new JournalSegment(path, firstSequence, lastSequence, buffer, capacity);
+            segment.recover();
+            return segment;
+        }
+    }
+
+    /**
+     * Escribe un segmento completo y exacto (sin espacio libre) con los registros indicados.
+     * <p>Se escribe en un fichero temporal y se renombra, para que nunca quede un segmento a medias.</p>
+     */
+    static JournalSegment write(Path path, long firstSequence, long lastSequence, long[] records, int recordCount)
+            throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordCount * RECORD_SIZE);
+            for (int i = 0; i < recordCount * 3; i++) {
+                buffer.putLong(i * Long.BYTES, records[i]);
+            }
+            buffer.force();
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        return open(path, firstSequence, lastSequence);
+    }
+
+    /**
+     * Añade un registro.
+     *
+     * @return {@code false} si el segmento está lleno.
+     */
+    boolean append(long songId, long userId, long timestamp) {
+        int index = count;
+        if (index >= capacity) {
+            return false;
+        }
+        int offset = index * RECORD_SIZE;
+        buffer.putLong(offset + Long.BYTES, userId);
+        buffer.putLong(offset + 2 * Long.BYTES, timestamp);
+        buffer.putLong(offset, songId);
+        track(timestamp);
+        count = index + 1;
+        return true;
+    }
+
+    /**
+     * Recorre los registros con instante en {@code [from, to)}.
+     */
+    void scan(long from, long to, PlayJournal.PlayVisitor visitor) {
+        if (maxTimestamp < from || minTimestamp >= to) {
+            return;
+        }
+        int end = count;
+        for (int i = 0; i < end; i++) {
+            int offset = i * RECORD_SIZE;
+            long timestamp = buffer.getLong(offset + 2 * Long.BYTES);
+            if (timestamp >= from && timestamp < to) {
+                visitor.accept(buffer.getLong(offset), buffer.getLong(offset + Long.BYTES), timestamp);
+            }
+        }
+    }
+
+    /**
+     * Copia los registros con instante igual o posterior a {@code from} al final de {@code target}.
+     *
+     * @return Número de registros copiados.
+     */
+    int copyTo(long[] target, int targetCount, long from) {
+        int copied = 0;
+        int end = count;
+        for (int i = 0; i < end; i++) {
+            int offset = i * RECORD_SIZE;
+            long timestamp = buffer.getLong(offset + 2 * Long.BYTES);
+            if (timestamp >= from) {
+                int at = (targetCount + copied) * 3;
+                target[at] = buffer.getLong(offset);
+                target[at + 1] = buffer.getLong(offset + Long.BYTES);
+                target[at + 2] = timestamp;
+                copied++;
+            }
+        }
+        return copied;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    boolean isFull() {
+        return count >= capacity;
+    }
+
+    long minTimestamp() {
+        return minTimestamp;
+    }
+
+    long maxTimestamp() {
+        return maxTimestamp;
+    }
+
+    private void recover() {
+        // Los datos son un prefijo de registros con songId != 0: búsqueda binaria del primer hueco
+        int low = 0;
+        int high = capacity;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getLong(mid * RECORD_SIZE) != 0L) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = 0; i < low; i++) {
+            track(buffer.getLong(i * RECORD_SIZE + 2 * Long.BYTES));
+        }
+        count = low;
+    }
+
+    private void track(long timestamp) {
+        if (timestamp < minTimestamp) {
+            minTimestamp = timestamp;
+        }
+        if (timestamp > maxTimestamp) {
+            maxTimestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package io.audira.catalog.service;
+
+import java.util.Arrays;
+
+/**
+ * Mapa {@code long → float} de direccionamiento abierto (sondeo lineal) sin boxing.
+ * <p>
+ * Es la fila de las matrices dispersas de {@link ItemCooccurrenceModel}: con miles de canciones y
+ * cientos de vecinos por canción, un {@code HashMap<Long, Float>} multiplicaría la memoria y la presión sobre el GC.
+ * Las claves deben ser distintas de {@link Long#MIN_VALUE}, que se reserva como marca de hueco libre.
+ * </p>
+ * <p>
+ * <b>No es seguro para hilos:</b> el propietario es responsable de la sincronización.
+ * </p>
+ */
+final class LongFloatHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private float[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    /**
+     * Consumidor de pares {@code (clave, valor)} usado para recorrer el mapa sin crear objetos.
+     */
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long key, float value);
+    }
+
+    /**
+     * Crea un mapa dimensionado para el número de entradas indicado.
+     *
+     * @param expectedSize Número aproximado de entradas.
+     */
+    LongFloatHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Devuelve el valor asociado a la clave, o {@code 0} si no existe.
+     *
+     * @param key Clave.
+     * @return Valor almacenado o {@code 0}.
+     */
+    float get(long key) {
+        int slot = slotOf(key);
+        return slot >= 0 ? values[slot] : 0f;
+    }
+
+    /**
+     * Suma {@code delta} al valor de la clave (creándola con valor {@code delta} si no existe).
+     *
+     * @param key   Clave.
+     * @param delta Incremento.
+     * @return Nuevo valor asociado a la clave.
+     */
+    float addTo(long key, float delta) {
+        int slot = indexFor(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] += delta;
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size >= resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return delta;
+    }
+
+    /**
+     * Número de entradas del mapa.
+     *
+     * @return Tamaño.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Recorre todas las entradas en un orden no especificado.
+     *
+     * @param consumer Consumidor de cada par.
+     */
+    void forEach(EntryConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int slotOf(long key) {
+        int slot = indexFor(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int indexFor(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new float[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        float[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = indexFor(oldKeys[i]);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -48,6 +48,8 @@ public class MetricsService {
     private final UserServiceClient userServiceClient;
     private final RatingServiceClient ratingServiceClient;
     private final CommerceServiceClient commerceServiceClient;
+    private final PlayJournal playJournal;
+    private final SalesAggregateStore salesAggregateStore;
 
     /**
      * Genera un resumen ejecutivo de las métricas de un artista.
@@ -80,28 +82,49 @@ public class MetricsService {
         Optional<Song> mostPlayedSong = artistSongs.stream()
                 .max(Comparator.comparing(Song::getPlays));
 
+        LocalDate today = LocalDate.now();
+        LocalDate last30From = today.minusDays(29);
+        LocalDate previous30From = last30From.minusDays(30);
+
+        Long playsLast30Days = totalPlays / 4;
         Double playsGrowth = calculateEstimatedGrowth(totalPlays);
+        if (playJournal.covers(last30From)) {
+            // Reproducciones reales por ventana desde el journal, solo si registra los 30 días completos
+            Set<Long> songIds = artistSongs.stream().map(Song::getId).collect(Collectors.toSet());
+            playsLast30Days = playJournal.countPlays(songIds, last30From, today);
+            if (playJournal.covers(previous30From)) {
+                long previous30Days = playJournal.countPlays(songIds, previous30From, last30From.minusDays(1));
+                playsGrowth = previous30Days > 0
+                        ? (playsLast30Days - previous30Days) * 100.0 / previous30Days
+                        : calculateEstimatedGrowth(playsLast30Days);
+            }
+        }
 
         RatingStatsDTO ratingStats = ratingServiceClient.getArtistRatingStats(artistId);
         Double averageRating = ratingStats.getAverageRating() != null ? ratingStats.getAverageRating() : 0.0;
         Long totalRatings = ratingStats.getTotalRatings() != null ? ratingStats.getTotalRatings() : 0L;
         Double ratingsGrowth = calculateEstimatedGrowth(totalRatings);
 
-        List<OrderDTO> allOrders = commerceServiceClient.getAllOrders();
-
-        Map<String, Object> salesMetrics = calculateArtistSales(artistSongs, allOrders);
-        Long totalSales = (Long) salesMetrics.get("totalSales");
-        BigDecimal totalRevenue = (BigDecimal) salesMetrics.get("totalRevenue");
-        Long salesLast30Days = (Long) salesMetrics.get("salesLast30Days");
-        BigDecimal revenueLast30Days = (BigDecimal) salesMetrics.get("revenueLast30Days");
-        Double salesGrowth = calculateEstimatedGrowth(totalSales);
-        Double revenueGrowth = salesGrowth;
-
-        Long totalComments = artistSongs.stream()
-                .mapToLong(song -> {
-                    RatingStatsDTO songStats = ratingServiceClient.getEntityRatingStats("SONG", song.getId());
-                    return (long) (songStats.getTotalRatings() * 0.3);
-                })
+        // Ventas reales por día, sin descargar órdenes: agregados locales o, si aún no están listos, Commerce
+        SalesSeries sales = artistSalesSeries(artistId);
+        Long totalSales = sales.units();
+        BigDecimal totalRevenue = sales.revenue();
+        Long salesLast30Days = sales.units(last30From, today);
+        BigDecimal revenueLast30Days = sales.revenue(last30From, today);
+        long previousSales = sales.units(previous30From, last30From.minusDays(1));
+        BigDecimal previousRevenue = sales.revenue(previous30From, last30From.minusDays(1));
+        Double salesGrowth = previousSales > 0
+                ? (salesLast30Days - previousSales) * 100.0 / previousSales
+                : calculateEstimatedGrowth(salesLast30Days);
+        Double revenueGrowth = previousRevenue.signum() > 0
+                ? revenueLast30Days.subtract(previousRevenue).multiply(BigDecimal.valueOf(100))
+                        .divide(previousRevenue, 2, RoundingMode.HALF_UP).doubleValue()
+                : salesGrowth;
+
+        Map<Long, RatingStatsDTO> songRatingStats = ratingServiceClient.getEntityRatingStatsBatch(
+                "SONG", artistSongs.stream().map(Song::getId).collect(Collectors.toList()));
+        Long totalComments = songRatingStats.values().stream()
+                .mapToLong(songStats -> (long) (songStats.getTotalRatings() * 0.3))
                 .sum();
         Long commentsLast30Days = totalComments / 6; // Estimate 1/6 in last 30 days
         Double commentsGrowth = calculateEstimatedGrowth(totalComments);
@@ -111,7 +134,7 @@ public class MetricsService {
                 .artistName(artistName)
                 .generatedAt(LocalDateTime.now())
                 .totalPlays(totalPlays)
-                .playsLast30Days(totalPlays / 4)
+                .playsLast30Days(playsLast30Days)
                 .playsGrowthPercentage(playsGrowth)
                 .averageRating(averageRating)
                 .totalRatings(totalRatings)
@@ -172,20 +195,19 @@ public class MetricsService {
         Long totalPlays = artistSongs.stream().mapToLong(Song::getPlays).sum();
         logger.info(" Total plays calculated: {}", totalPlays);
 
-        List<OrderDTO> allOrders = commerceServiceClient.getAllOrders();
-        logger.info(" Retrieved {} total orders from commerce service", allOrders.size());
+        SalesSeries sales = artistSalesSeries(artistId);
+        Long periodSales = sales.units(startDate, endDate);
+        BigDecimal periodRevenue = sales.revenue(startDate, endDate);
 
-        Map<String, Object> salesMetrics = calculateArtistSales(artistSongs, allOrders);
-        Long totalSales = (Long) salesMetrics.get("totalSales");
-        BigDecimal totalRevenue = (BigDecimal) salesMetrics.get("totalRevenue");
+        // Una sola petición para las valoraciones de todas las canciones, compartida con las métricas diarias
+        Map<Long, RatingStatsDTO> songRatingStats = ratingServiceClient.getEntityRatingStatsBatch(
+                "SONG", artistSongs.stream().map(Song::getId).collect(Collectors.toList()));
 
         List<ArtistMetricsDetailed.DailyMetric> dailyMetrics = generateDailyMetricsWithRealData(
-                artistSongs, allOrders, startDate, endDate, totalPlays
+                songRatingStats, sales, periodSales, startDate, endDate, totalPlays
         );
 
         Long periodPlays = totalPlays;  
-        Long periodSales = totalSales;  
-        BigDecimal periodRevenue = totalRevenue; 
 
         Long periodComments = dailyMetrics.stream()
                 .mapToLong(ArtistMetricsDetailed.DailyMetric::getComments)
@@ -198,7 +220,7 @@ public class MetricsService {
         Long totalRatingsCount = 0L;
 
         for (Song song : artistSongs) {
-            RatingStatsDTO songStats = ratingServiceClient.getEntityRatingStats("SONG", song.getId());
+            RatingStatsDTO songStats = songRatingStats.get(song.getId());
             if (songStats.getAverageRating() != null && songStats.getAverageRating() > 0) {
                 totalRatingSum += songStats.getAverageRating();
                 songsWithRatings++;
@@ -256,13 +278,27 @@ public class MetricsService {
     public List<SongMetrics> getArtistTopSongs(Long artistId, int limit) {
         logger.info("Getting top {} songs for artist {}", limit, artistId);
 
-        List<Song> artistSongs = songRepository.findByArtistId(artistId);
-
-        return artistSongs.stream()
+        List<Song> topSongs = songRepository.findByArtistId(artistId).stream()
                 .sorted(Comparator.comparing(Song::getPlays).reversed())
                 .limit(limit)
-                .map(song -> getSongMetrics(song.getId()))
                 .collect(Collectors.toList());
+        if (topSongs.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Artista y valoraciones se piden una vez para todo el ranking, no por canción
+        UserDTO artist = userServiceClient.getUserById(artistId);
+        String artistName = artist.getArtistName() != null ? artist.getArtistName() : artist.getUsername();
+        Map<Long, RatingStatsDTO> songRatingStats = ratingServiceClient.getEntityRatingStatsBatch(
+                "SONG", topSongs.stream().map(Song::getId).collect(Collectors.toList()));
+        Map<Long, ArtistSalesReportDTO.ItemSales> remoteSongSales = remoteSongSales(artistId);
+
+        List<SongMetrics> metrics = new ArrayList<>();
+        for (int i = 0; i < topSongs.size(); i++) {
+            Song song = topSongs.get(i);
+            metrics.add(buildSongMetrics(song, artistName, i + 1, songRatingStats.get(song.getId()), remoteSongSales));
+        }
+        return metrics;
     }
 
     /**
@@ -287,15 +323,37 @@ public class MetricsService {
         int rank = sortedByPlays.indexOf(song) + 1;
 
         RatingStatsDTO ratingStats = ratingServiceClient.getEntityRatingStats("SONG", songId);
+        return buildSongMetrics(song, artistName, rank, ratingStats, remoteSongSales(song.getArtistId()));
+    }
+
+    /**
+     * Compone las métricas de una canción a partir de datos ya obtenidos.
+     *
+     * @param song Canción.
+     * @param artistName Nombre a mostrar del artista.
+     * @param rank Posición de la canción en el catálogo del artista.
+     * @param ratingStats Estadísticas de valoración de la canción.
+     * @param remoteSongSales Ventas por canción del artista según Commerce, o {@code null} si se usan los agregados de ventas.
+     * @return DTO {@link SongMetrics} con el rendimiento del track.
+     */
+    private SongMetrics buildSongMetrics(Song song, String artistName, int rank, RatingStatsDTO ratingStats,
+                                         Map<Long, ArtistSalesReportDTO.ItemSales> remoteSongSales) {
         Double averageRating = ratingStats.getAverageRating() != null ? ratingStats.getAverageRating() : 0.0;
         Long totalRatings = ratingStats.getTotalRatings() != null ? ratingStats.getTotalRatings() : 0L;
 
         Long totalComments = (long) (totalRatings * 0.3);
 
-        List<OrderDTO> allOrders = commerceServiceClient.getAllOrders();
-        Map<String, Object> songSales = calculateSongSales(songId, allOrders);
-        Long totalSales = (Long) songSales.get("totalSales");
-        BigDecimal totalRevenue = (BigDecimal) songSales.get("totalRevenue");
+        Long totalSales;
+        BigDecimal totalRevenue;
+        if (remoteSongSales == null) {
+            SalesSeries sales = salesAggregateStore.songSales(song.getId());
+            totalSales = sales.units();
+            totalRevenue = sales.revenue();
+        } else {
+            ArtistSalesReportDTO.ItemSales songSales = remoteSongSales.get(song.getId());
+            totalSales = songSales != null && songSales.getUnits() != null ? songSales.getUnits() : 0L;
+            totalRevenue = songSales != null && songSales.getRevenue() != null ? songSales.getRevenue() : BigDecimal.ZERO;
+        }
 
         return SongMetrics.builder()
                 .songId(song.getId())
@@ -312,130 +370,43 @@ public class MetricsService {
     }
 
     /**
-     * Calcula el volumen total de ventas generadas por un artista.
+     * Serie diaria de ventas de un artista.
      * <p>
-     * Realiza una agregación de todas las transacciones comerciales asociadas al artista.
-     * Esto incluye:
-     * <ul>
-     * <li>Ventas directas de álbumes completos.</li>
-     * <li>Ventas individuales de canciones (Singles o tracks de álbumes).</li>
-     * </ul>
-     * Se comunica con el {@link CommerceServiceClient} para obtener los datos transaccionales.
+     * Sale de los agregados incrementales si están cargados; si no, del informe agregado por Commerce Service
+     * (una sola petición con las sumas por día, en lugar de todas las órdenes). Si Commerce no responde,
+     * la serie queda vacía.
      * </p>
-     *
-     * @param artistId Identificador único del artista.
-     * @return Número total de unidades vendidas (Songs + Albums).
      */
-    private Map<String, Object> calculateArtistSales(List<Song> artistSongs, List<OrderDTO> allOrders) {
-        Set<Long> artistSongIds = artistSongs.stream()
-                .map(Song::getId)
-                .collect(Collectors.toSet());
-
-        logger.info(" Calculating sales for artist songs. Artist has {} songs", artistSongs.size());
-        logger.info("   Processing {} total orders", allOrders.size());
-
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-
-        long totalSales = 0;
-        BigDecimal totalRevenue = BigDecimal.ZERO;
-        long salesLast30Days = 0;
-        BigDecimal revenueLast30Days = BigDecimal.ZERO;
-
-        int deliveredOrders = 0;
-        int skippedOrders = 0;
-        int relevantOrders = 0;
-
-        for (OrderDTO order : allOrders) {
-            logger.debug("   Order ID {} - Status: {} - Created: {}",
-                    order.getId(), order.getStatus(), order.getCreatedAt());
-
-            if (order.getStatus() == null || !"DELIVERED".equals(order.getStatus())) {
-                logger.debug("       Skipped order {} - Status: {} (not DELIVERED)",
-                        order.getId(), order.getStatus());
-                skippedOrders++;
-                continue;
-            }
-
-            deliveredOrders++;
-
-            if (order.getItems() == null) {
-                logger.debug("       Order {} has no items", order.getId());
-                continue;
-            }
-
-            for (OrderItemDTO item : order.getItems()) {
-                if ("SONG".equalsIgnoreCase(item.getItemType()) && artistSongIds.contains(item.getItemId())) {
-                    relevantOrders++;
-                    long quantity = item.getQuantity() != null ? item.getQuantity() : 1;
-                    BigDecimal price = item.getPrice() != null ? item.getPrice() : BigDecimal.ZERO;
-                    BigDecimal itemRevenue = price.multiply(BigDecimal.valueOf(quantity));
-
-                    logger.info("       Found sale: Song ID {} - Qty: {} - Price: ${} - Revenue: ${}",
-                            item.getItemId(), quantity, price, itemRevenue);
-
-                    totalSales += quantity;
-                    totalRevenue = totalRevenue.add(itemRevenue);
-
-                    if (order.getCreatedAt() != null && order.getCreatedAt().isAfter(thirtyDaysAgo)) {
-                        salesLast30Days += quantity;
-                        revenueLast30Days = revenueLast30Days.add(itemRevenue);
-                    }
-                }
+    private SalesSeries artistSalesSeries(Long artistId) {
+        if (salesAggregateStore.isReady()) {
+            return salesAggregateStore.artistSales(artistId);
+        }
+        SalesSeries series = new SalesSeries();
+        ArtistSalesReportDTO report = commerceServiceClient.getArtistSalesReport(artistId);
+        if (report != null && report.getDaily() != null) {
+            for (ArtistSalesReportDTO.DailySales day : report.getDaily()) {
+                BigDecimal revenue = day.getRevenue() != null ? day.getRevenue() : BigDecimal.ZERO;
+                series.add(day.getDate(), day.getUnits() != null ? day.getUnits() : 0L,
+                        revenue.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue());
             }
         }
-
-        logger.info(" Sales calculation summary:");
-        logger.info("   Total orders processed: {}", allOrders.size());
-        logger.info("   DELIVERED orders: {}", deliveredOrders);
-        logger.info("   Skipped orders (not DELIVERED): {}", skippedOrders);
-        logger.info("   Orders with artist's songs: {}", relevantOrders);
-        logger.info("   Total sales: {}", totalSales);
-        logger.info("   Total revenue: ${}", totalRevenue);
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("totalSales", totalSales);
-        result.put("totalRevenue", totalRevenue);
-        result.put("salesLast30Days", salesLast30Days);
-        result.put("revenueLast30Days", revenueLast30Days);
-        return result;
+        return series;
     }
 
     /**
-     * Calcula las ventas específicas de una canción individual.
-     * <p>
-     * Suma las unidades vendidas de este track específico a través del servicio de comercio.
-     * Es útil para determinar qué canciones están generando más conversión ("Best Sellers").
-     * </p>
-     *
-     * @param songId Identificador de la canción.
-     * @return Cantidad total de veces que la canción ha sido comprada.
+     * Ventas por canción de un artista según Commerce Service, o {@code null} si los agregados locales están listos.
      */
-    private Map<String, Object> calculateSongSales(Long songId, List<OrderDTO> allOrders) {
-        long totalSales = 0;
-        BigDecimal totalRevenue = BigDecimal.ZERO;
-
-        for (OrderDTO order : allOrders) {
-            if (order.getStatus() == null || !"DELIVERED".equals(order.getStatus())) {
-                continue;
-            }
-
-            if (order.getItems() == null) continue;
-
-            for (OrderItemDTO item : order.getItems()) {
-                if ("SONG".equalsIgnoreCase(item.getItemType()) && songId.equals(item.getItemId())) {
-                    long quantity = item.getQuantity() != null ? item.getQuantity() : 1;
-                    BigDecimal price = item.getPrice() != null ? item.getPrice() : BigDecimal.ZERO;
-
-                    totalSales += quantity;
-                    totalRevenue = totalRevenue.add(price.multiply(BigDecimal.valueOf(quantity)));
-                }
-            }
+    private Map<Long, ArtistSalesReportDTO.ItemSales> remoteSongSales(Long artistId) {
+        if (salesAggregateStore.isReady()) {
+            return null;
         }
-
-        Map<String, Object> result = new HashMap<>();
-        result.put("totalSales", totalSales);
-        result.put("totalRevenue", totalRevenue);
-        return result;
+        ArtistSalesReportDTO report = commerceServiceClient.getArtistSalesReport(artistId);
+        if (report == null || report.getItems() == null) {
+            return Map.of();
+        }
+        return report.getItems().stream()
+                .filter(item -> "SONG".equalsIgnoreCase(item.getItemType()) && item.getItemId() != null)
+                .collect(Collectors.toMap(ArtistSalesReportDTO.ItemSales::getItemId, item -> item, (a, b) -> a));
     }
 
     /**
@@ -447,7 +418,14 @@ public class MetricsService {
      * reconstruye una historia plausible usando aleatoriedad controlada para que los gráficos
      * del frontend no se vean vacíos.
      * </p>
+     * <p>
+     * Las ventas e ingresos diarios son reales (serie de {@link SalesAggregateStore} o del informe de Commerce);
+     * sin serie, se reparten los totales como las reproducciones.
+     * </p>
      *
+     * @param songRatingStats Estadísticas de valoración de las canciones del artista, por ID.
+     * @param sales Serie diaria de ventas del artista, o {@code null} si no hay serie.
+     * @param totalSales Total de ventas a repartir cuando no hay serie.
      * @param start Fecha inicio.
      * @param end Fecha fin.
      * @param totalPlays Total de plays actuales (semilla para la distribución).
@@ -455,8 +433,9 @@ public class MetricsService {
      * @return Lista cronológica de métricas diarias.
      */
     private List<ArtistMetricsDetailed.DailyMetric> generateDailyMetricsWithRealData(
-            List<Song> artistSongs,
-            List<OrderDTO> allOrders,
+            Map<Long, RatingStatsDTO> songRatingStats,
+            SalesSeries sales,
+            Long totalSales,
             LocalDate startDate,
             LocalDate endDate,
             Long totalPlays
@@ -468,16 +447,13 @@ public class MetricsService {
         LocalDate currentDate = startDate;
         long daysInRange = endDate.toEpochDay() - startDate.toEpochDay() + 1;
 
-        Map<String, Object> salesMetrics = calculateArtistSales(artistSongs, allOrders);
-        Long totalSales = (Long) salesMetrics.get("totalSales");
+        Map<LocalDate, long[]> realSales = sales != null ? sales.daily(startDate, endDate) : null;
         logger.info("   Total sales to distribute: {}", totalSales);
 
-        Set<Long> songIds = artistSongs.stream().map(Song::getId).collect(Collectors.toSet());
         double totalRatingSum = 0.0;
         int ratingCount = 0;
 
-        for (Long songId : songIds) {
-            RatingStatsDTO stats = ratingServiceClient.getEntityRatingStats("SONG", songId);
+        for (RatingStatsDTO stats : songRatingStats.values()) {
             if (stats.getAverageRating() != null && stats.getAverageRating() > 0) {
                 totalRatingSum += stats.getAverageRating();
                 ratingCount++;
@@ -523,6 +499,11 @@ public class MetricsService {
 
             BigDecimal dailyRevenue = BigDecimal.valueOf(dailySales * 0.99)
                     .setScale(2, RoundingMode.HALF_UP);
+            if (realSales != null) {
+                long[] day = realSales.getOrDefault(currentDate, new long[2]);
+                dailySales = day[0];
+                dailyRevenue = BigDecimal.valueOf(day[1], 2);
+            }
 
             long dailyComments = random.nextInt(3);
 
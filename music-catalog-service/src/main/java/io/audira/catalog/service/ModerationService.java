@@ -28,6 +28,8 @@ public class ModerationService {
     private final ModerationHistoryRepository moderationHistoryRepository;
     private final UserServiceClient userServiceClient;
     private final io.audira.catalog.client.NotificationClient notificationClient;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final FollowerFanOutService followerFanOutService;
 
     /**
      * GA01-162: Aprobar una canción
@@ -48,6 +50,7 @@ public class ModerationService {
         song.setPublished(true); // Publicar automáticamente al aprobar
 
         Song savedSong = songRepository.save(song);
+        catalogSearchIndex.indexSong(savedSong);
 
         // Registrar en historial
         recordModerationHistory(savedSong, previousStatus, ModerationStatus.APPROVED,
@@ -60,12 +63,8 @@ public class ModerationService {
             log.error("Failed to send approval notification to artist {}", savedSong.getArtistId(), e);
         }
 
-        // Notificar a los seguidores sobre el nuevo contenido publicado
-        try {
-            notifyFollowersNewProduct(savedSong);
-        } catch (Exception e) {
-            log.error("Failed to notify followers about new song {}", songId, e);
-        }
+        // Notificar a los seguidores sobre el nuevo contenido publicado (tras el commit, en segundo plano)
+        followerFanOutService.enqueueNewRelease(savedSong);
 
         log.info("Canción aprobada y publicada: {} por admin: {}", songId, adminId);
         return savedSong;
@@ -93,6 +92,7 @@ public class ModerationService {
         song.setPublished(false); // Asegurar que no esté publicada
 
         Song savedSong = songRepository.save(song);
+        catalogSearchIndex.indexSong(savedSong);
 
         // Registrar en historial
         recordModerationHistory(savedSong, previousStatus, ModerationStatus.REJECTED,
@@ -128,6 +128,7 @@ public class ModerationService {
         album.setPublished(true); // Publicar automáticamente al aprobar
 
         Album savedAlbum = albumRepository.save(album);
+        catalogSearchIndex.indexAlbum(savedAlbum);
 
         // Registrar en historial
         recordModerationHistory(savedAlbum, previousStatus, ModerationStatus.APPROVED,
@@ -140,12 +141,8 @@ public class ModerationService {
             log.error("Failed to send approval notification to artist {}", savedAlbum.getArtistId(), e);
         }
 
-        // Notificar a los seguidores sobre el nuevo contenido publicado
-        try {
-            notifyFollowersNewProduct(savedAlbum);
-        } catch (Exception e) {
-            log.error("Failed to notify followers about new album {}", albumId, e);
-        }
+        // Notificar a los seguidores sobre el nuevo contenido publicado (tras el commit, en segundo plano)
+        followerFanOutService.enqueueNewRelease(savedAlbum);
 
         log.info("Álbum aprobado y publicado: {} por admin: {}", albumId, adminId);
         return savedAlbum;
@@ -173,6 +170,7 @@ public class ModerationService {
         album.setPublished(false);
 
         Album savedAlbum = albumRepository.save(album);
+        catalogSearchIndex.indexAlbum(savedAlbum);
 
         // Registrar en historial
         recordModerationHistory(savedAlbum, previousStatus, ModerationStatus.REJECTED,
@@ -292,7 +290,7 @@ public class ModerationService {
             song.setModeratedAt(null);
             song.setRejectionReason(null);
             song.setPublished(false);
-            songRepository.save(song);
+            catalogSearchIndex.indexSong(songRepository.save(song));
 
             log.info("Canción {} marcada como pendiente de revisión", songId);
         }
@@ -310,55 +308,9 @@ public class ModerationService {
             album.setModeratedAt(null);
             album.setRejectionReason(null);
             album.setPublished(false);
-            albumRepository.save(album);
+            catalogSearchIndex.indexAlbum(albumRepository.save(album));
 
             log.info("Álbum {} marcado como pendiente de revisión", albumId);
         }
     }
-
-    /**
-     * Notificar a los seguidores de un artista sobre un nuevo producto publicado
-     */
-    private void notifyFollowersNewProduct(Product product) {
-        try {
-            // Obtener seguidores del artista
-            List<Long> followerIds = userServiceClient.getFollowerIds(product.getArtistId());
-
-            if (followerIds.isEmpty()) {
-                log.debug("Artista {} no tiene seguidores para notificar", product.getArtistId());
-                return;
-            }
-
-            // Obtener información del artista
-            UserDTO artist = userServiceClient.getUserById(product.getArtistId());
-            String artistName = artist != null && artist.getArtistName() != null
-                ? artist.getArtistName()
-                : (artist != null ? artist.getUsername() : null);
-
-            if (artistName == null) {
-                log.error("Cannot notify followers: artist name is null for artistId {}", product.getArtistId());
-                return; // Don't send notifications with null artist name
-            }
-
-            // Enviar notificación a cada seguidor
-            for (Long followerId : followerIds) {
-                try {
-                    notificationClient.notifyNewProduct(
-                        followerId,
-                        product.getProductType(),
-                        product.getTitle(),
-                        artistName
-                    );
-                } catch (Exception e) {
-                    log.warn("Failed to notify follower {} about new product {}", followerId, product.getId(), e);
-                }
-            }
-
-            log.info("Notificados {} seguidores sobre nuevo producto: {} ({})",
-                followerIds.size(), product.getTitle(), product.getProductType());
-
-        } catch (Exception e) {
-            log.error("Error notifying followers about new product {}", product.getId(), e);
-        }
-    }
 }
@@ -0,0 +1,102 @@
+package io.audira.catalog.service;
+
+import io.audira.catalog.dto.CursorPageDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Cursor opaco de los listados del catálogo paginados por conjunto de claves.
+ * <p>
+ * Codifica la clave de ordenación y el ID del último elemento devuelto ({@code sortKey|id} en Base64 URL);
+ * la página siguiente se pide con una condición {@code (sortKey, id) < cursor} sobre columnas indexadas,
+ * sin {@code OFFSET}. Los cursores manipulados se rechazan con {@link IllegalArgumentException}.
+ * </p>
+ *
+ * @param sortKey Clave de ordenación del último elemento (fecha ISO o nombre).
+ * @param id      ID del último elemento (desempate).
+ */
+record PageCursor(String sortKey, long id) {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    /** Cursor de la primera página en los listados por fecha descendente: posterior a cualquier elemento. */
+    static final PageCursor NEWEST = new PageCursor(LocalDateTime.of(9999, 12, 31, 0, 0).toString(), Long.MAX_VALUE);
+
+    /** Cursor de la primera página en los listados por nombre ascendente. */
+    static final PageCursor FIRST_BY_NAME = new PageCursor("", 0L);
+
+    /**
+     * Decodifica un cursor recibido del cliente.
+     *
+     * @param cursor El cursor opaco, o {@code null} para la primera página.
+     * @param first  Cursor a usar en la primera página.
+     * @return El cursor decodificado.
+     * @throws IllegalArgumentException Si el cursor no es válido.
+     */
+    static PageCursor decode(String cursor, PageCursor first) {
+        if (cursor == null || cursor.isBlank()) {
+            return first;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid pagination cursor");
+            }
+            return new PageCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor");
+        }
+    }
+
+    /**
+     * Clave de ordenación interpretada como fecha.
+     *
+     * @throws IllegalArgumentException Si el cursor no corresponde a un listado por fecha.
+     */
+    LocalDateTime time() {
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor");
+        }
+    }
+
+    String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((sortKey + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Acota el tamaño de página solicitado a {@code [1, MAX_PAGE_SIZE]}.
+     */
+    static int pageSize(Integer limit) {
+        return limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Construye la página a partir de las filas leídas, que deben ser como máximo {@code size + 1}:
+     * la fila sobrante solo indica que hay página siguiente.
+     *
+     * @param rows     Filas leídas en el orden del listado.
+     * @param size     Tamaño de página.
+     * @param cursorOf Cursor que apunta a una fila.
+     * @param mapper   Conversión de las filas de la página a los elementos de la respuesta.
+     */
+    static <E, T> CursorPageDTO<T> page(List<E> rows, int size, Function<E, PageCursor> cursorOf,
+                                        Function<List<E>, List<T>> mapper) {
+        boolean hasMore = rows.size() > size;
+        List<E> pageRows = hasMore ? rows.subList(0, size) : rows;
+        return CursorPageDTO.<T>builder()
+                .items(mapper.apply(pageRows))
+                .nextCursor(hasMore ? cursorOf.apply(pageRows.get(size - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package io.audira.catalog.service;
+
+import io.audira.catalog.repository.SongRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador de reproducciones con escritura diferida (write-behind).
+ * <p>
+ * Cada reproducción incrementa un {@link LongAdder} en memoria (contadores con bandas por hilo, sin contención
+ * entre peticiones concurrentes sobre la misma canción), sin tocar la base de datos. Un proceso programado
+ * vuelca periódicamente lo acumulado con sentencias {@code UPDATE songs SET plays = plays + ?}, agrupando
+ * en una misma sentencia las canciones con el mismo incremento.
+ * </p>
+ * <p>
+ * Sustituye al ciclo leer-modificar-guardar de la entidad, que serializaba las peticiones sobre la misma fila
+ * y perdía incrementos con peticiones concurrentes. Si un volcado falla, los incrementos se devuelven a los
+ * contadores para el siguiente intento; al cerrar la aplicación se hace un último volcado.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlayCounter {
+
+    /** Máximo de IDs por sentencia de actualización. */
+    private static final int MAX_IDS_PER_UPDATE = 1000;
+
+    private final SongRepository songRepository;
+    private final TrendingEngine trendingEngine;
+
+    /**
+     * Contadores pendientes por canción. Las entradas no se eliminan tras el volcado: retirar un contador
+     * mientras otro hilo lo incrementa perdería esa reproducción, y su número está acotado por el catálogo.
+     */
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Registra una reproducción en memoria.
+     *
+     * @param songId ID de la canción reproducida.
+     */
+    public void record(Long songId) {
+        pending.computeIfAbsent(songId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Reproducciones registradas que aún no se han volcado a la base de datos.
+     *
+     * @param songId ID de la canción.
+     * @return Reproducciones pendientes.
+     */
+    public long getPendingPlays(Long songId) {
+        LongAdder adder = pending.get(songId);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    /**
+     * Vuelca los contadores acumulados a la base de datos.
+     */
+    @Scheduled(fixedDelayString = "${audira.plays.flush-interval-ms:5000}",
+            initialDelayString = "${audira.plays.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<Long, Long> drained = new HashMap<>();
+        pending.forEach((songId, adder) -> {
+            // sumThenReset pone a cero cada banda de forma atómica: no se pierden incrementos concurrentes
+            long plays = adder.sumThenReset();
+            if (plays > 0) {
+                drained.put(songId, plays);
+            }
+        });
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<Long>> songsByDelta = new HashMap<>();
+        drained.forEach((songId, plays) -> songsByDelta.computeIfAbsent(plays, k -> new ArrayList<>()).add(songId));
+
+        long start = System.currentTimeMillis();
+        for (Map.Entry<Long, List<Long>> group : songsByDelta.entrySet()) {
+            List<Long> songIds = group.getValue();
+            for (int from = 0; from < songIds.size(); from += MAX_IDS_PER_UPDATE) {
+                List<Long> chunk = songIds.subList(from, Math.min(from + MAX_IDS_PER_UPDATE, songIds.size()));
+                try {
+                    songRepository.addPlays(group.getKey(), chunk);
+                } catch (Exception e) {
+                    log.warn("Failed to flush plays for {} songs, will retry: {}", chunk.size(), e.getMessage());
+                    for (Long songId : chunk) {
+                        pending.computeIfAbsent(songId, id -> new LongAdder()).add(group.getKey());
+                        drained.remove(songId);
+                    }
+                }
+            }
+        }
+        log.debug("Flushed plays for {} songs in {} statements ({} ms)",
+                drained.size(), songsByDelta.size(), System.currentTimeMillis() - start);
+
+        try {
+            trendingEngine.recordPlays(drained);
+        } catch (Exception e) {
+            log.warn("Failed to apply plays to trending rankings: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Último volcado durante el cierre ordenado de la aplicación, una vez detenido el servidor web.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        long lost = pending.values().stream().mapToLong(LongAdder::sum).sum();
+        if (lost > 0) {
+            log.error("{} plays could not be flushed before shutdown", lost);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package io.audira.catalog.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Registro (journal) de eventos de reproducción en disco local, de solo inserción.
+ * <p>
+ * Cada reproducción se guarda como un registro binario de ancho fijo ({@code songId}, {@code userId}, instante)
+ * en segmentos proyectados en memoria ({@link JournalSegment}), sin crear una fila por reproducción en PostgreSQL.
+ * Las reproducciones por ventana de días ({@link #countPlays}) se sirven de contadores por canción y día
+ * ({@link DailyPlayCounts}) que se reconstruyen al abrir el journal y se actualizan al añadir, sin recorrer los eventos
+ * en cada consulta.
+ * </p>
+ * <ul>
+ * <li><b>Rotación:</b> se abre un segmento nuevo cuando el actual se llena o supera
+ * {@code audira.play-journal.segment-max-age-hours}.</li>
+ * <li><b>Compactación:</b> periódicamente se eliminan los segmentos fuera de la retención y los segmentos cerrados
+ * consecutivos se fusionan en uno de tamaño exacto (sin el espacio reservado sin usar), descartando los
+ * registros caducados.</li>
+ * </ul>
+ * <p>
+ * Los ficheros se llaman {@code plays-<primero>-<último>.seg} según el rango de segmentos que contienen; si una
+ * compactación se interrumpe, al arrancar se descartan los segmentos ya incluidos en uno fusionado.
+ * Si el directorio no está disponible, el journal se desactiva y las métricas vuelven a las estimaciones.
+ * </p>
+ */
+@Service
+@Slf4j
+public class PlayJournal {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("plays-(\\d+)-(\\d+)\\.seg");
+
+    private static final long HOUR_MS = 3_600_000L;
+    private static final long DAY_MS = 24 * HOUR_MS;
+
+    /**
+     * Consumidor de registros del journal, sin crear objetos por evento.
+     */
+    @FunctionalInterface
+    public interface PlayVisitor {
+        /**
+         * @param songId    ID de la canción.
+         * @param userId    ID del usuario ({@code 0} si la reproducción fue anónima).
+         * @param timestamp Instante de la reproducción en milisegundos.
+         */
+        void accept(long songId, long userId, long timestamp);
+    }
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final long segmentMaxAgeMs;
+    private final long retentionMs;
+
+    /** Segmentos ordenados por secuencia; se sustituye entera (copy-on-write) para que los recorridos no se bloqueen. */
+    private volatile List<JournalSegment> segments = List.of();
+
+    /** Segmento en escritura; protegido por el monitor del journal. */
+    private JournalSegment active;
+    private long nextSequence = 1L;
+
+    private final DailyPlayCounts dailyCounts = new DailyPlayCounts(ZoneId.systemDefault());
+
+    private volatile boolean enabled = false;
+
+    public PlayJournal(@Value("${audira.play-journal.dir:./data/play-journal}") String directory,
+                       @Value("${audira.play-journal.segment-capacity:1048576}") int segmentCapacity,
+                       @Value("${audira.play-journal.segment-max-age-hours:24}") long segmentMaxAgeHours,
+                       @Value("${audira.play-journal.retention-days:90}") long retentionDays) {
+        this.directory = Paths.get(directory);
+        this.segmentCapacity = segmentCapacity;
+        this.segmentMaxAgeMs = segmentMaxAgeHours * HOUR_MS;
+        this.retentionMs = retentionDays * DAY_MS;
+    }
+
+    /**
+     * Abre los segmentos existentes y prepara el segmento de escritura.
+     */
+    @PostConstruct
+    public synchronized void open() {
+        try {
+            Files.createDirectories(directory);
+            List<JournalSegment> opened = new ArrayList<>();
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.sorted().toList()) {
+                    Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                    if (matcher.matches()) {
+                        opened.add(JournalSegment.open(file, Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2))));
+                    } else if (file.getFileName().toString().endsWith(".seg.tmp")) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+            List<JournalSegment> live = discardSuperseded(opened);
+            if (!live.isEmpty()) {
+                JournalSegment last = live.get(live.size() - 1);
+                nextSequence = last.lastSequence() + 1;
+                if (last.firstSequence() == last.lastSequence() && last.count() < last.capacity()) {
+                    active = last;
+                }
+            }
+            segments = List.copyOf(live);
+            for (JournalSegment segment : live) {
+                segment.scan(Long.MIN_VALUE, Long.MAX_VALUE,
+                        (songId, userId, timestamp) -> dailyCounts.add(songId, timestamp));
+            }
+            enabled = true;
+            log.info("Play journal opened at {}: {} segments, {} events",
+                    directory.toAbsolutePath(), live.size(), live.stream().mapToLong(JournalSegment::count).sum());
+        } catch (IOException e) {
+            log.error("Play journal disabled, could not open {}: {}", directory.toAbsolutePath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Añade una reproducción al journal.
+     *
+     * @param songId    ID de la canción.
+     * @param userId    ID del usuario, o {@code null} si es anónima.
+     * @param timestamp Instante de la reproducción en milisegundos.
+     */
+    public synchronized void append(long songId, Long userId, long timestamp) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (active == null || active.isFull()
+                    || (active.count() > 0 && timestamp - active.minTimestamp() >= segmentMaxAgeMs)) {
+                roll();
+            }
+            active.append(songId, userId != null ? userId : 0L, timestamp);
+            dailyCounts.add(songId, timestamp);
+        } catch (IOException e) {
+            log.warn("Failed to append play of song {} to journal: {}", songId, e.getMessage());
+        }
+    }
+
+    /**
+     * Recorre las reproducciones con instante en {@code [from, to)}.
+     * <p>Los segmentos que no solapan la ventana se saltan sin leerlos.</p>
+     *
+     * @param from    Inicio de la ventana (incluido), en milisegundos.
+     * @param to      Fin de la ventana (excluido), en milisegundos.
+     * @param visitor Consumidor de cada registro.
+     */
+    public void scan(long from, long to, PlayVisitor visitor) {
+        for (JournalSegment segment : segments) {
+            segment.scan(from, to, visitor);
+        }
+    }
+
+    /**
+     * Cuenta las reproducciones de un conjunto de canciones entre dos días, ambos incluidos.
+     * <p>Se sirve de los contadores diarios, sin recorrer los eventos.</p>
+     *
+     * @param songIds IDs de las canciones.
+     * @param from    Primer día de la ventana.
+     * @param to      Último día de la ventana.
+     * @return Número de reproducciones registradas.
+     */
+    public long countPlays(Collection<Long> songIds, LocalDate from, LocalDate to) {
+        if (songIds.isEmpty()) {
+            return 0L;
+        }
+        return dailyCounts.count(songIds, from, to);
+    }
+
+    /**
+     * Indica si el journal está activo y contiene eventos desde el instante indicado, es decir,
+     * si una ventana que empieza en {@code from} está cubierta por completo.
+     *
+     * @param from Inicio de la ventana, en milisegundos.
+     * @return {@code true} si el primer evento registrado es anterior o igual a {@code from}.
+     */
+    public boolean covers(long from) {
+        List<JournalSegment> current = segments;
+        return enabled && !current.isEmpty() && current.get(0).minTimestamp() <= from;
+    }
+
+    /**
+     * Indica si una ventana que empieza en el día indicado está cubierta por completo (ver {@link #covers(long)}).
+     *
+     * @param from Primer día de la ventana.
+     * @return {@code true} si el primer evento registrado es anterior o igual al inicio de ese día.
+     */
+    public boolean covers(LocalDate from) {
+        return covers(dailyCounts.startOf(from));
+    }
+
+    /**
+     * Indica si el journal está disponible.
+     *
+     * @return {@code true} si el directorio se abrió correctamente.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Elimina los segmentos fuera de la retención y fusiona los segmentos cerrados.
+     */
+    @Scheduled(fixedDelayString = "${audira.play-journal.compact-interval-ms:3600000}",
+            initialDelayString = "${audira.play-journal.compact-interval-ms:3600000}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        dailyCounts.discardBefore(cutoff);
+        List<JournalSegment> sealed;
+        synchronized (this) {
+            sealed = segments.stream().filter(segment -> segment != active).toList();
+        }
+
+        List<JournalSegment> removed = new ArrayList<>();
+        List<JournalSegment> merged = new ArrayList<>();
+        try {
+            List<JournalSegment> run = new ArrayList<>();
+            int runCount = 0;
+            for (JournalSegment segment : sealed) {
+                if (segment.maxTimestamp() < cutoff) {
+                    removed.add(segment);
+                    continue;
+                }
+                if (runCount + segment.count() > segmentCapacity) {
+                    mergeRun(run, cutoff, merged, removed);
+                    run.clear();
+                    runCount = 0;
+                }
+                run.add(segment);
+                runCount += segment.count();
+            }
+            mergeRun(run, cutoff, merged, removed);
+        } catch (IOException e) {
+            log.warn("Play journal compaction failed: {}", e.getMessage());
+        }
+        if (removed.isEmpty()) {
+            return;
+        }
+
+        synchronized (this) {
+            List<JournalSegment> updated = new ArrayList<>(segments);
+            updated.removeAll(removed);
+            updated.addAll(merged);
+            updated.sort(Comparator.comparingLong(JournalSegment::firstSequence));
+            segments = List.copyOf(updated);
+        }
+        // Un segmento reescrito sin fusionar conserva su nombre: el fichero ya es el nuevo
+        Set<Path> rewritten = new HashSet<>();
+        merged.forEach(segment -> rewritten.add(segment.path()));
+        for (JournalSegment segment : removed) {
+            if (!rewritten.contains(segment.path())) {
+                deleteQuietly(segment);
+            }
+        }
+        log.info("Play journal compacted: {} segments removed or merged into {}", removed.size(), merged.size());
+    }
+
+    /**
+     * Vuelca a disco el segmento activo al cerrar la aplicación.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (active != null) {
+            active.force();
+        }
+        enabled = false;
+    }
+
+    /**
+     * Fusiona una racha de segmentos cerrados consecutivos. Una racha de un único segmento solo se reescribe
+     * si aún conserva espacio reservado sin usar o registros caducados.
+     */
+    private void mergeRun(List<JournalSegment> run, long cutoff, List<JournalSegment> merged,
+                          List<JournalSegment> removed) throws IOException {
+        if (run.isEmpty()) {
+            return;
+        }
+        if (run.size() == 1) {
+            JournalSegment only = run.get(0);
+            if (only.count() == only.capacity() && only.minTimestamp() >= cutoff) {
+                return;
+            }
+        }
+
+        int total = run.stream().mapToInt(JournalSegment::count).sum();
+        long[] records = new long[total * 3];
+        int count = 0;
+        for (JournalSegment segment : run) {
+            count += segment.copyTo(records, count, cutoff);
+        }
+        if (count > 0) {
+            long first = run.get(0).firstSequence();
+            long last = run.get(run.size() - 1).lastSequence();
+            merged.add(JournalSegment.write(segmentPath(first, last), first, last, records, count));
+        }
+        removed.addAll(run);
+    }
+
+    private void roll() throws IOException {
+        if (active != null) {
+            active.force();
+        }
+        long sequence = nextSequence++;
+        JournalSegment segment = JournalSegment.create(segmentPath(sequence, sequence), sequence, segmentCapacity);
+        List<JournalSegment> updated = new ArrayList<>(segments);
+        updated.add(segment);
+        segments = List.copyOf(updated);
+        active = segment;
+    }
+
+    /**
+     * Descarta los segmentos cuyo rango está contenido en otro (restos de una compactación interrumpida).
+     */
+    private List<JournalSegment> discardSuperseded(List<JournalSegment> opened) throws IOException {
+        opened.sort(Comparator.comparingLong(JournalSegment::firstSequence)
+                .thenComparing(Comparator.comparingLong(JournalSegment::lastSequence).reversed()));
+        List<JournalSegment> live = new ArrayList<>();
+        long coveredUpTo = 0L;
+        for (JournalSegment segment : opened) {
+            if (segment.lastSequence() <= coveredUpTo) {
+                segment.delete();
+                continue;
+            }
+            live.add(segment);
+            coveredUpTo = segment.lastSequence();
+        }
+        return live;
+    }
+
+    private Path segmentPath(long first, long last) {
+        return directory.resolve(String.format("plays-%016d-%016d.seg", first, last));
+    }
+
+    private static void deleteQuietly(JournalSegment segment) {
+        try {
+            segment.delete();
+        } catch (IOException e) {
+            log.warn("Could not delete play journal segment {}: {}", segment.path(), e.getMessage());
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package io.audira.catalog.service;
 
+import io.audira.catalog.dto.CursorPageDTO;
 import io.audira.catalog.model.Playlist;
 import io.audira.catalog.repository.PlaylistRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -43,6 +45,25 @@ public class PlaylistService {
         return playlistRepository.findAll();
     }
 
+    /**
+     * Recupera una página de todas las listas de reproducción, de la más reciente a la más antigua.
+     * <p>
+     * Paginación por cursor sobre {@code (createdAt, id)}, sin {@code OFFSET}.
+     * </p>
+     *
+     * @param cursor Cursor devuelto por la página anterior, o {@code null} para la primera página.
+     * @param limit  Tamaño de página (opcional, acotado).
+     * @return Página de playlists.
+     * @throws IllegalArgumentException Si el cursor no es válido.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Playlist> getPlaylistsPage(String cursor, Integer limit) {
+        PageCursor from = PageCursor.decode(cursor, PageCursor.NEWEST);
+        int size = PageCursor.pageSize(limit);
+        List<Playlist> rows = playlistRepository.findPageBefore(from.time(), from.id(), PageRequest.of(0, size + 1));
+        return PageCursor.page(rows, size, PlaylistService::cursorOf, playlists -> playlists);
+    }
+
     /**
      * Busca una lista de reproducción por su identificador único.
      * <p>
@@ -78,6 +99,27 @@ public class PlaylistService {
         return playlistRepository.findByIsPublicTrue();
     }
 
+    /**
+     * Recupera una página de las listas de reproducción públicas, de la más reciente a la más antigua.
+     *
+     * @param cursor Cursor devuelto por la página anterior, o {@code null} para la primera página.
+     * @param limit  Tamaño de página (opcional, acotado).
+     * @return Página de playlists con {@code isPublic = true}.
+     * @throws IllegalArgumentException Si el cursor no es válido.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<Playlist> getPublicPlaylistsPage(String cursor, Integer limit) {
+        PageCursor from = PageCursor.decode(cursor, PageCursor.NEWEST);
+        int size = PageCursor.pageSize(limit);
+        List<Playlist> rows = playlistRepository.findPublicPageBefore(from.time(), from.id(),
+                PageRequest.of(0, size + 1));
+        return PageCursor.page(rows, size, PlaylistService::cursorOf, playlists -> playlists);
+    }
+
+    private static PageCursor cursorOf(Playlist playlist) {
+        return new PageCursor(playlist.getCreatedAt().toString(), playlist.getId());
+    }
+
     /**
      * Crea una nueva lista de reproducción.
      * <p>
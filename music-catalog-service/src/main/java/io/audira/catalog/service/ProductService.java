@@ -0,0 +1,72 @@
+package io.audira.catalog.service;
+
+import io.audira.catalog.dto.ProductBatchRequest;
+import io.audira.catalog.dto.ProductSummaryDTO;
+import io.audira.catalog.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Servicio de consultas comunes a canciones y álbumes, pensado para el servicio de comercio.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductService {
+
+    /** Número máximo de productos por consulta en lote. */
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    /**
+     * Resuelve en una sola consulta el artista, precio, estado de publicación y título de varias canciones y álbumes.
+     * <p>
+     * Cada ID solo se devuelve con el tipo con el que se pidió (un ID de álbum pedido como canción se omite), al
+     * igual que los IDs que no existen.
+     * </p>
+     *
+     * @param request IDs de canciones y de álbumes.
+     * @return Los productos encontrados, en cualquier orden.
+     * @throws IllegalArgumentException Si se piden más de {@link #MAX_BATCH_SIZE} productos.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSummaryDTO> getProductSummaries(ProductBatchRequest request) {
+        Set<Long> songIds = request.getSongIds() != null ? new HashSet<>(request.getSongIds()) : Set.of();
+        Set<Long> albumIds = request.getAlbumIds() != null ? new HashSet<>(request.getAlbumIds()) : Set.of();
+        if (songIds.size() + albumIds.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size exceeds maximum of " + MAX_BATCH_SIZE);
+        }
+
+        Set<Long> ids = new HashSet<>(songIds);
+        ids.addAll(albumIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<ProductSummaryDTO> summaries = new ArrayList<>(ids.size());
+        for (Object[] row : productRepository.findSummariesByIdIn(ids)) {
+            Long id = ((Number) row[0]).longValue();
+            String productType = (String) row[1];
+            Set<Long> requested = "SONG".equals(productType) ? songIds : albumIds;
+            if (!requested.contains(id)) {
+                continue;
+            }
+            summaries.add(ProductSummaryDTO.builder()
+                    .id(id)
+                    .productType(productType)
+                    .artistId(((Number) row[2]).longValue())
+                    .price((BigDecimal) row[3])
+                    .title((String) row[4])
+                    .published(Boolean.TRUE.equals(row[5]))
+                    .build());
+        }
+        return summaries;
+    }
+}
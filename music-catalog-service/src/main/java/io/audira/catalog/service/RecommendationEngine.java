@@ -0,0 +1,389 @@
+package io.audira.catalog.service;
+
+import io.audira.catalog.client.CommerceServiceClient;
+import io.audira.catalog.client.RatingServiceClient;
+import io.audira.catalog.dto.PurchaseFeedPageDTO;
+import io.audira.catalog.dto.PurchasedItemDTO;
+import io.audira.catalog.dto.RatingChangesPageDTO;
+import io.audira.catalog.dto.RatingDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Motor de recomendaciones precalculadas basado en co-compras y co-valoraciones.
+ * <p>
+ * Sustituye el cálculo por petición de {@link DiscoveryService} (varias llamadas HTTP y recorridos completos
+ * por género en cada visita) por dos modelos {@link ItemCooccurrenceModel} en memoria:
+ * <ul>
+ * <li><b>Co-compra:</b> alimentado por el feed de compras entregadas de Commerce Service.</li>
+ * <li><b>Co-valoración:</b> alimentado por el feed de cambios de valoraciones de canciones de Community Service:
+ * una canción "le gusta" al usuario mientras su valoración esté activa y tenga 4 o más estrellas; las ediciones
+ * y los borrados la añaden o la retiran.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Tras la carga inicial, ambos feeds se consultan de forma incremental con un cursor {@code (instante, id)},
+ * releyendo una ventana de solapamiento ({@code audira.recommendations.feed-overlap-ms}) para no perder los registros
+ * que confirman fuera de orden. Releer es inocuo: cada registro fija un estado (la compra existe; la canción gusta o
+ * no) en lugar de sumar. Las compras revocadas por reembolso se borran del origen y no aparecen en el feed; las
+ * corrige la reconstrucción periódica.
+ * </p>
+ * <p>
+ * Con los modelos cargados ({@link #isReady()}), las recomendaciones de un usuario son una búsqueda top-K en memoria.
+ * Cada lote del feed de compras se reenvía también a {@link TrendingEngine}, para no recorrerlo dos veces.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationEngine {
+
+    private final CommerceServiceClient commerceServiceClient;
+    private final RatingServiceClient ratingServiceClient;
+    private final TrendingEngine trendingEngine;
+
+    /** Tamaño de lote al recorrer los feeds remotos. */
+    private static final int FEED_BATCH_SIZE = 1000;
+
+    /** Puntuación mínima para considerar que una canción "le gusta" al usuario. */
+    private static final int LIKED_MIN_RATING = 4;
+
+    private static final String SONG = "SONG";
+    private static final String ALBUM = "ALBUM";
+
+    /** Cursor inicial de los feeds cuando el origen está vacío. */
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Value("${audira.recommendations.feed-overlap-ms:5000}")
+    private long overlapMs;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Modelo de co-compra; protegido por {@link #lock}. */
+    private ItemCooccurrenceModel purchases = new ItemCooccurrenceModel();
+
+    /** Modelo de co-valoración; protegido por {@link #lock}. */
+    private ItemCooccurrenceModel likes = new ItemCooccurrenceModel();
+
+    /** Cursor del feed de compras (fecha de compra); solo lo usan los métodos sincronizados. */
+    private LocalDateTime purchaseCursor;
+
+    /** Cursor del feed de cambios de valoraciones; solo lo usan los métodos sincronizados. */
+    private ZonedDateTime likeCursor;
+
+    private volatile boolean ready = false;
+
+    /**
+     * Construye ambos modelos al arrancar la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        rebuild();
+    }
+
+    /**
+     * Reconstruye ambos modelos desde cero y los sustituye de forma atómica.
+     * <p>
+     * Corrige las bajas que el feed de compras no refleja (compras revocadas, bibliotecas borradas) y libera las
+     * celdas a cero que dejan las bajas de valoraciones. Si falla alguna fuente, se conservan los modelos anteriores.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${audira.recommendations.rebuild-interval-ms:900000}",
+            initialDelayString = "${audira.recommendations.rebuild-interval-ms:900000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        try {
+            ItemCooccurrenceModel newPurchases = new ItemCooccurrenceModel();
+            LocalDateTime newPurchaseCursor = loadPurchases(newPurchases, null);
+            ItemCooccurrenceModel newLikes = new ItemCooccurrenceModel();
+            ZonedDateTime newLikeCursor = loadLikes(newLikes, null);
+
+            lock.writeLock().lock();
+            try {
+                purchases = newPurchases;
+                likes = newLikes;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            purchaseCursor = newPurchaseCursor != null ? newPurchaseCursor : EPOCH;
+            likeCursor = newLikeCursor != null ? newLikeCursor : EPOCH.atZone(ZoneOffset.UTC);
+            ready = true;
+            log.info("Recommendation models built: {} purchases, {} likes in {} ms",
+                    newPurchases.interactions(), newLikes.interactions(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Failed to build recommendation models: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica al modelo de co-compra las compras entregadas desde el último cursor, releyendo la ventana de
+     * solapamiento.
+     */
+    @Scheduled(fixedDelayString = "${audira.recommendations.purchase-poll-interval-ms:15000}",
+            initialDelayString = "${audira.recommendations.purchase-poll-interval-ms:15000}")
+    public synchronized void pollPurchases() {
+        if (!ready) {
+            return;
+        }
+        try {
+            LocalDateTime since = loadPurchases(null, purchaseCursor.minusNanos(overlapMs * 1_000_000L));
+            if (since != null && since.isAfter(purchaseCursor)) {
+                purchaseCursor = since;
+                log.debug("Recommendation model updated with purchases up to {}", purchaseCursor);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to poll purchase feed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica al modelo de co-valoración los cambios de valoraciones desde el último cursor, releyendo la ventana de
+     * solapamiento.
+     */
+    @Scheduled(fixedDelayString = "${audira.recommendations.like-poll-interval-ms:15000}",
+            initialDelayString = "${audira.recommendations.like-poll-interval-ms:15000}")
+    public synchronized void pollLikes() {
+        if (!ready) {
+            return;
+        }
+        try {
+            ZonedDateTime since = loadLikes(null, likeCursor.minusNanos(overlapMs * 1_000_000L));
+            if (since != null && since.isAfter(likeCursor)) {
+                likeCursor = since;
+                log.debug("Recommendation model updated with rating changes up to {}", likeCursor);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to poll rating changes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Indica si los modelos están cargados.
+     *
+     * @return {@code true} si la carga inicial terminó correctamente.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Canciones compradas (entregadas) por un usuario según el modelo.
+     *
+     * @param userId ID del usuario.
+     * @return IDs de canciones ordenados ascendentemente.
+     */
+    public long[] getPurchasedSongIds(Long userId) {
+        lock.readLock().lock();
+        try {
+            return purchases.itemsOf(userId).clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Canciones valoradas con 4 o más estrellas por un usuario según el modelo.
+     *
+     * @param userId ID del usuario.
+     * @return IDs de canciones ordenados ascendentemente.
+     */
+    public long[] getLikedSongIds(Long userId) {
+        lock.readLock().lock();
+        try {
+            return likes.itemsOf(userId).clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * "Quienes compraron lo que tú compraste, también compraron...".
+     *
+     * @param userId ID del usuario.
+     * @param limit  Número máximo de canciones.
+     * @return IDs de canciones no compradas por el usuario, de mayor a menor afinidad.
+     */
+    public long[] recommendFromPurchases(Long userId, int limit) {
+        lock.readLock().lock();
+        try {
+            long[] owned = purchases.itemsOf(userId);
+            return purchases.topSimilar(owned, owned, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * "A quienes les gustó lo que a ti te gustó, también les gustó...".
+     * <p>
+     * Excluye tanto las canciones valoradas como las ya compradas por el usuario.
+     * </p>
+     *
+     * @param userId ID del usuario.
+     * @param limit  Número máximo de canciones.
+     * @return IDs de canciones recomendadas, de mayor a menor afinidad.
+     */
+    public long[] recommendFromLikes(Long userId, int limit) {
+        lock.readLock().lock();
+        try {
+            long[] liked = likes.itemsOf(userId);
+            return likes.topSimilar(liked, union(liked, purchases.itemsOf(userId)), limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recorre el feed de compras desde {@code since}.
+     *
+     * @param target Modelo en construcción, o {@code null} para aplicar sobre el modelo vigente (bajo cerrojo).
+     * @param since Instante de partida, o {@code null} para recorrer el feed desde el principio.
+     * @return Instante del último registro consumido.
+     */
+    private LocalDateTime loadPurchases(ItemCooccurrenceModel target, LocalDateTime since) {
+        long afterId = 0L;
+        Set<Long> albumOrders = new HashSet<>();
+        PurchaseFeedPageDTO page;
+        do {
+            page = commerceServiceClient.getPurchaseFeed(since, afterId, FEED_BATCH_SIZE);
+            if (page == null || page.getItems() == null) {
+                throw new IllegalStateException("Empty response loading purchase feed");
+            }
+            List<PurchasedItemDTO> purchased = withoutAlbumTracks(page.getItems(), albumOrders);
+            if (target != null) {
+                applyPurchases(target, purchased);
+            } else {
+                lock.writeLock().lock();
+                try {
+                    applyPurchases(purchases, purchased);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            if (!purchased.isEmpty()) {
+                forwardToTrending(purchased);
+            }
+            if (page.getCursorTime() != null) {
+                since = page.getCursorTime();
+                afterId = page.getCursorId() != null ? page.getCursorId() : 0L;
+            }
+        } while (page.isHasMore());
+        return since;
+    }
+
+    /**
+     * Descarta las canciones concedidas por la compra de un álbum: registros {@code SONG} de precio cero en una orden
+     * con un registro {@code ALBUM}. Sin este filtro, cada pista de un álbum contaría como una compra más.
+     * <p>
+     * Commerce inserta todos los registros de una orden juntos, con la misma fecha de compra y el álbum antes que
+     * sus canciones: la ventana de solapamiento nunca separa una orden, y basta con recordar las órdenes con álbum
+     * del lote actual y del anterior ({@code albumOrders}, que se actualiza) por si la orden cae entre dos lotes.
+     * </p>
+     */
+    private static List<PurchasedItemDTO> withoutAlbumTracks(List<PurchasedItemDTO> batch, Set<Long> albumOrders) {
+        Set<Long> batchAlbumOrders = batch.stream()
+                .filter(item -> ALBUM.equals(item.getItemType()) && item.getOrderId() != null)
+                .map(PurchasedItemDTO::getOrderId)
+                .collect(Collectors.toSet());
+        List<PurchasedItemDTO> purchased = batch.stream()
+                .filter(item -> !(SONG.equals(item.getItemType())
+                        && item.getPrice() != null && item.getPrice().signum() == 0
+                        && item.getOrderId() != null
+                        && (batchAlbumOrders.contains(item.getOrderId()) || albumOrders.contains(item.getOrderId()))))
+                .collect(Collectors.toList());
+        albumOrders.clear();
+        albumOrders.addAll(batchAlbumOrders);
+        return purchased;
+    }
+
+    private void forwardToTrending(List<PurchasedItemDTO> batch) {
+        try {
+            trendingEngine.recordPurchases(batch);
+        } catch (Exception e) {
+            log.warn("Failed to apply purchases to trending rankings: {}", e.getMessage());
+        }
+    }
+
+    private static void applyPurchases(ItemCooccurrenceModel model, List<PurchasedItemDTO> batch) {
+        for (PurchasedItemDTO item : batch) {
+            if (SONG.equals(item.getItemType()) && item.getUserId() != null && item.getItemId() != null) {
+                model.add(item.getUserId(), item.getItemId());
+            }
+        }
+    }
+
+    /**
+     * Recorre el feed de cambios de valoraciones de canciones desde {@code since}.
+     *
+     * @param target Modelo en construcción, o {@code null} para aplicar sobre el modelo vigente (bajo cerrojo).
+     * @param since Instante de partida, o {@code null} para recorrer el feed desde el principio.
+     * @return Instante de cambio de la última valoración consumida.
+     */
+    private ZonedDateTime loadLikes(ItemCooccurrenceModel target, ZonedDateTime since) {
+        long afterId = 0L;
+        RatingChangesPageDTO page;
+        do {
+            page = ratingServiceClient.getRatingChanges(SONG, since, afterId, FEED_BATCH_SIZE);
+            if (page == null || page.getRatings() == null) {
+                throw new IllegalStateException("Empty response loading rating changes");
+            }
+            if (target != null) {
+                applyLikes(target, page.getRatings());
+            } else {
+                lock.writeLock().lock();
+                try {
+                    applyLikes(likes, page.getRatings());
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            if (page.getCursorTime() != null) {
+                since = page.getCursorTime();
+                afterId = page.getCursorId() != null ? page.getCursorId() : 0L;
+            }
+        } while (page.isHasMore());
+        return since;
+    }
+
+    /**
+     * Aplica el estado actual de cada valoración: activa y con {@value #LIKED_MIN_RATING} o más estrellas la añade;
+     * en otro caso (rebajada o eliminada) la retira.
+     */
+    private static void applyLikes(ItemCooccurrenceModel model, List<RatingDTO> ratings) {
+        for (RatingDTO rating : ratings) {
+            if (rating.getUserId() == null || rating.getEntityId() == null) {
+                continue;
+            }
+            boolean liked = !Boolean.FALSE.equals(rating.getIsActive())
+                    && rating.getRating() != null && rating.getRating() >= LIKED_MIN_RATING;
+            if (liked) {
+                model.add(rating.getUserId(), rating.getEntityId());
+            } else {
+                model.remove(rating.getUserId(), rating.getEntityId());
+            }
+        }
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        long[] merged = new long[a.length + b.length];
+        System.arraycopy(a, 0, merged, 0, a.length);
+        System.arraycopy(b, 0, merged, a.length, b.length);
+        Arrays.sort(merged);
+        return merged;
+    }
+}
@@ -0,0 +1,293 @@
+package io.audira.catalog.service;
+
+import io.audira.catalog.client.CommerceServiceClient;
+import io.audira.catalog.dto.OrderDTO;
+import io.audira.catalog.dto.OrderItemDTO;
+import io.audira.catalog.dto.SalesEventDTO;
+import io.audira.catalog.dto.SalesEventsPageDTO;
+import io.audira.catalog.model.Album;
+import io.audira.catalog.model.Song;
+import io.audira.catalog.repository.AlbumRepository;
+import io.audira.catalog.repository.SongRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Agregados de ventas por canción, álbum y artista, mantenidos de forma incremental.
+ * <p>
+ * Sustituye a la descarga de <b>todas</b> las órdenes de la plataforma ({@code GET /api/orders}) en cada consulta
+ * de métricas: las ventas se materializan en series diarias ({@link SalesSeries}) y los dashboards solo leen las
+ * series de los productos del artista. El ciclo de vida sigue el de {@link ArtistDirectory}:
+ * <ul>
+ * <li><b>Carga inicial:</b> al arrancar se recorre el feed de eventos de ventas de Commerce Service desde el
+ * principio.</li>
+ * <li><b>Feed de eventos:</b> periódicamente se piden los eventos desde el último cursor, releyendo una ventana
+ * de solapamiento. Cada evento se aplica una vez: {@code DELIVERED} suma la orden y {@code CANCELLED} (reembolso)
+ * la resta. Para descartar los eventos releídos solo se recuerdan los IDs de la ventana de solapamiento, de modo
+ * que la memoria no crece con el número de órdenes.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Cada venta cuenta en la serie de su canción o álbum y en la del artista, en el día de creación de la orden.
+ * Mientras la carga inicial no ha terminado ({@link #isReady()}), las métricas recurren al informe de ventas
+ * del artista que agrega Commerce Service.
+ * </p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesAggregateStore {
+
+    private static final String SONG = "SONG";
+    private static final String ALBUM = "ALBUM";
+    private static final String DELIVERED = "DELIVERED";
+    private static final String CANCELLED = "CANCELLED";
+
+    /** Tamaño de página usado tanto en la carga inicial como en el feed de cambios. */
+    private static final int PAGE_SIZE = 1000;
+
+    private final CommerceServiceClient commerceServiceClient;
+    private final SongRepository songRepository;
+    private final AlbumRepository albumRepository;
+
+    @Value("${audira.sales.overlap-ms:5000}")
+    private long overlapMs;
+
+    /** Estado agregado; la carga inicial construye uno nuevo y lo publica de una vez. */
+    private volatile Aggregates aggregates = new Aggregates();
+
+    /** Marca de agua del feed de cambios (hora de origen); solo la modifica el hilo de sincronización. */
+    private LocalDateTime cursorTime;
+
+    private volatile boolean ready = false;
+
+    /**
+     * Carga todas las ventas al arrancar la aplicación.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void bootstrap() {
+        long start = System.currentTimeMillis();
+        try {
+            Aggregates loaded = new Aggregates();
+            LocalDateTime since = null;
+            long afterId = 0L;
+            SalesEventsPageDTO page;
+            do {
+                page = commerceServiceClient.getSalesEvents(since, afterId, PAGE_SIZE);
+                if (page == null || page.getEvents() == null) {
+                    throw new IllegalStateException("Empty response loading sales events");
+                }
+                apply(loaded, page.getEvents());
+                if (page.getCursorTime() != null) {
+                    since = page.getCursorTime();
+                    afterId = page.getCursorId() != null ? page.getCursorId() : 0L;
+                    forgetBefore(loaded, since);
+                }
+            } while (page.isHasMore());
+
+            aggregates = loaded;
+            cursorTime = since != null ? since : LocalDateTime.of(1970, 1, 1, 0, 0);
+            ready = true;
+            log.info("Sales aggregates loaded: {} events, {} songs, {} albums, {} artists in {} ms",
+                    loaded.appliedEvents, loaded.songs.size(), loaded.albums.size(), loaded.artists.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.warn("Failed to load sales aggregates, falling back to artist sales reports: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica los eventos de ventas desde el último cursor.
+     * <p>
+     * Si la carga inicial falló (p. ej. Commerce Service no estaba disponible al arrancar), se reintenta aquí.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${audira.sales.poll-interval-ms:15000}",
+            initialDelayString = "${audira.sales.poll-interval-ms:15000}")
+    public synchronized void pollChanges() {
+        if (!ready || cursorTime == null) {
+            bootstrap();
+            return;
+        }
+        try {
+            LocalDateTime since = cursorTime.minusNanos(overlapMs * 1_000_000L);
+            long afterId = 0L;
+            int received = 0;
+            SalesEventsPageDTO page;
+            do {
+                page = commerceServiceClient.getSalesEvents(since, afterId, PAGE_SIZE);
+                if (page == null || page.getEvents() == null) {
+                    return;
+                }
+                apply(aggregates, page.getEvents());
+                received += page.getEvents().size();
+                if (page.getCursorTime() != null) {
+                    since = page.getCursorTime();
+                    afterId = page.getCursorId() != null ? page.getCursorId() : 0L;
+                }
+            } while (page.isHasMore());
+
+            if (since.isAfter(cursorTime)) {
+                cursorTime = since;
+            }
+            forgetBefore(aggregates, cursorTime);
+            log.debug("Sales sync received {} sales events, cursor at {}", received, cursorTime);
+        } catch (Exception e) {
+            log.warn("Failed to sync sales events: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Indica si los agregados están cargados y pueden atender consultas.
+     *
+     * @return {@code true} si la carga inicial terminó correctamente.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Ventas de una canción (serie vacía si no tiene ventas).
+     */
+    SalesSeries songSales(Long songId) {
+        return aggregates.songs.getOrDefault(songId, SalesSeries.EMPTY);
+    }
+
+    /**
+     * Ventas de un álbum completo, sin contar las compras sueltas de sus canciones.
+     */
+    SalesSeries albumSales(Long albumId) {
+        return aggregates.albums.getOrDefault(albumId, SalesSeries.EMPTY);
+    }
+
+    /**
+     * Ventas de un artista: canciones y álbumes.
+     */
+    SalesSeries artistSales(Long artistId) {
+        return aggregates.artists.getOrDefault(artistId, SalesSeries.EMPTY);
+    }
+
+    /**
+     * Aplica un lote de eventos: {@code DELIVERED} suma la orden y {@code CANCELLED} la resta. Los eventos ya
+     * aplicados (releídos en la ventana de solapamiento) se ignoran.
+     */
+    private void apply(Aggregates target, List<SalesEventDTO> events) {
+        List<SalesEventDTO> fresh = events.stream()
+                .filter(event -> event.getId() != null && event.getOrder() != null
+                        && event.getOrder().getItems() != null)
+                .filter(event -> DELIVERED.equals(event.getType()) || CANCELLED.equals(event.getType()))
+                .filter(event -> !target.recentEvents.containsKey(event.getId()))
+                .collect(Collectors.toList());
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        List<OrderDTO> orders = fresh.stream().map(SalesEventDTO::getOrder).collect(Collectors.toList());
+        Map<Long, Long> songArtists = resolveSongArtists(orders);
+        Map<Long, Long> albumArtists = resolveAlbumArtists(orders);
+
+        for (SalesEventDTO event : fresh) {
+            OrderDTO order = event.getOrder();
+            int sign = DELIVERED.equals(event.getType()) ? 1 : -1;
+            LocalDate day = order.getCreatedAt() != null ? order.getCreatedAt().toLocalDate() : LocalDate.now();
+            for (OrderItemDTO item : order.getItems()) {
+                if (item.getItemId() == null) {
+                    continue;
+                }
+                long units = sign * (long) (item.getQuantity() != null ? item.getQuantity() : 1);
+                long cents = units * toCents(item.getPrice());
+                Long artistId = item.getArtistId();
+                if (SONG.equalsIgnoreCase(item.getItemType())) {
+                    series(target.songs, item.getItemId()).add(day, units, cents);
+                    artistId = artistId != null ? artistId : songArtists.get(item.getItemId());
+                } else if (ALBUM.equalsIgnoreCase(item.getItemType())) {
+                    series(target.albums, item.getItemId()).add(day, units, cents);
+                    artistId = artistId != null ? artistId : albumArtists.get(item.getItemId());
+                } else {
+                    continue;
+                }
+                if (artistId != null) {
+                    series(target.artists, artistId).add(day, units, cents);
+                }
+            }
+            target.recentEvents.put(event.getId(),
+                    event.getOccurredAt() != null ? event.getOccurredAt() : LocalDateTime.now());
+            target.appliedEvents++;
+        }
+    }
+
+    /**
+     * Olvida los eventos que ya no pueden volver a leerse: los anteriores al inicio de la ventana de solapamiento
+     * del cursor indicado.
+     */
+    private void forgetBefore(Aggregates target, LocalDateTime cursor) {
+        LocalDateTime horizon = cursor.minusNanos(overlapMs * 1_000_000L);
+        target.recentEvents.values().removeIf(occurredAt -> occurredAt.isBefore(horizon));
+    }
+
+    /**
+     * Resuelve desde el catálogo el artista de las canciones cuyas líneas no lo traen (pedidos antiguos).
+     */
+    private Map<Long, Long> resolveSongArtists(List<OrderDTO> orders) {
+        Set<Long> ids = idsWithoutArtist(orders, SONG);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return songRepository.findAllById(ids).stream()
+                .filter(song -> song.getArtistId() != null)
+                .collect(Collectors.toMap(Song::getId, Song::getArtistId));
+    }
+
+    private Map<Long, Long> resolveAlbumArtists(List<OrderDTO> orders) {
+        Set<Long> ids = idsWithoutArtist(orders, ALBUM);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return albumRepository.findAllById(ids).stream()
+                .filter(album -> album.getArtistId() != null)
+                .collect(Collectors.toMap(Album::getId, Album::getArtistId));
+    }
+
+    private static Set<Long> idsWithoutArtist(List<OrderDTO> orders, String itemType) {
+        return orders.stream()
+                .flatMap(order -> order.getItems().stream())
+                .filter(item -> item.getArtistId() == null && item.getItemId() != null
+                        && itemType.equalsIgnoreCase(item.getItemType()))
+                .map(OrderItemDTO::getItemId)
+                .collect(Collectors.toSet());
+    }
+
+    private static SalesSeries series(Map<Long, SalesSeries> map, Long id) {
+        return map.computeIfAbsent(id, key -> new SalesSeries());
+    }
+
+    private static long toCents(BigDecimal price) {
+        return price != null ? price.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() : 0L;
+    }
+
+    /**
+     * Series agregadas y eventos de la ventana de solapamiento ya aplicados. Solo los modifica el hilo de
+     * sincronización (bajo el monitor del almacén); las series se leen concurrentemente.
+     */
+    private static final class Aggregates {
+        private final Map<Long, SalesSeries> songs = new ConcurrentHashMap<>();
+        private final Map<Long, SalesSeries> albums = new ConcurrentHashMap<>();
+        private final Map<Long, SalesSeries> artists = new ConcurrentHashMap<>();
+        /** ID → instante de los eventos aplicados que aún pueden releerse; se poda con {@link #forgetBefore}. */
+        private final Map<Long, LocalDateTime> recentEvents = new HashMap<>();
+        private long appliedEvents;
+    }
+}
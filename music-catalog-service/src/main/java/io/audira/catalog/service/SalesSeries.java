@@ -0,0 +1,93 @@
+package io.audira.catalog.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serie de ventas de un producto o artista, agregada por día.
+ * <p>
+ * Cada día guarda las unidades vendidas y los ingresos en céntimos (enteros, sin acumular redondeos de
+ * {@link BigDecimal}); los totales se mantienen aparte para leerlos en tiempo constante. Los reembolsos se aplican
+ * como cantidades negativas sobre el día de la venta original.
+ * </p>
+ * <p>
+ * Es seguro para hilos: cada serie se sincroniza sobre sí misma, como {@link DecayingTopK}.
+ * </p>
+ */
+final class SalesSeries {
+
+    /** Serie vacía compartida para los productos sin ventas; nunca se modifica. */
+    static final SalesSeries EMPTY = new SalesSeries();
+
+    private static final int UNITS = 0;
+    private static final int CENTS = 1;
+
+    /** Unidades e ingresos por día ({@code epochDay -> {unidades, céntimos}}). */
+    private final TreeMap<Long, long[]> days = new TreeMap<>();
+
+    private long totalUnits;
+    private long totalCents;
+
+    /**
+     * Suma (o resta, si son negativos) unidades e ingresos a un día.
+     *
+     * @param day   Día de la venta.
+     * @param units Unidades vendidas.
+     * @param cents Ingresos en céntimos.
+     */
+    synchronized void add(LocalDate day, long units, long cents) {
+        long[] bucket = days.computeIfAbsent(day.toEpochDay(), d -> new long[2]);
+        bucket[UNITS] += units;
+        bucket[CENTS] += cents;
+        if (bucket[UNITS] == 0 && bucket[CENTS] == 0) {
+            days.remove(day.toEpochDay());
+        }
+        totalUnits += units;
+        totalCents += cents;
+    }
+
+    synchronized long units() {
+        return totalUnits;
+    }
+
+    synchronized BigDecimal revenue() {
+        return BigDecimal.valueOf(totalCents, 2);
+    }
+
+    /**
+     * Unidades vendidas en el rango {@code [from, to]}.
+     */
+    synchronized long units(LocalDate from, LocalDate to) {
+        return sum(from, to, UNITS);
+    }
+
+    /**
+     * Ingresos en el rango {@code [from, to]}.
+     */
+    synchronized BigDecimal revenue(LocalDate from, LocalDate to) {
+        return BigDecimal.valueOf(sum(from, to, CENTS), 2);
+    }
+
+    /**
+     * Copia de los días con ventas en el rango {@code [from, to]}, en orden cronológico.
+     *
+     * @return Mapa {@code día -> {unidades, céntimos}}.
+     */
+    synchronized Map<LocalDate, long[]> daily(LocalDate from, LocalDate to) {
+        Map<LocalDate, long[]> result = new LinkedHashMap<>();
+        days.subMap(from.toEpochDay(), true, to.toEpochDay(), true)
+                .forEach((day, bucket) -> result.put(LocalDate.ofEpochDay(day), bucket.clone()));
+        return result;
+    }
+
+    private long sum(LocalDate from, LocalDate to, int field) {
+        long total = 0L;
+        for (long[] bucket : days.subMap(from.toEpochDay(), true, to.toEpochDay(), true).values()) {
+            total += bucket[field];
+        }
+        return total;
+    }
+}
@@ -1,18 +1,23 @@
 package io.audira.catalog.service;
 
 import io.audira.catalog.client.UserServiceClient;
+import io.audira.catalog.dto.CursorPageDTO;
 import io.audira.catalog.dto.SongDTO;
-import io.audira.catalog.dto.UserDTO;
 import io.audira.catalog.model.ModerationStatus;
-import io.audira.catalog.model.Product;
 import io.audira.catalog.model.Song;
 import io.audira.catalog.repository.SongRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import io.audira.catalog.client.NotificationClient;
 
@@ -33,9 +38,17 @@ import io.audira.catalog.client.NotificationClient;
 @Slf4j
 public class SongService {
 
+    /** Número máximo de álbumes por consulta en lote de sus canciones. */
+    public static final int MAX_ALBUM_BATCH_SIZE = 1000;
+
     private final SongRepository songRepository;
     private final UserServiceClient userServiceClient;
+    private final ArtistProfileCache artistProfileCache;
     private final NotificationClient notificationClient;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final FollowerFanOutService followerFanOutService;
+    private final PlayCounter playCounter;
+    private final PlayJournal playJournal;
 
     /**
      * Registra una nueva canción en el sistema.
@@ -90,7 +103,9 @@ public class SongService {
             log.error("Failed to send pending review notification for song {}", savedSong.getId(), e);
         }
 
-        return songRepository.save(song);
+        savedSong = songRepository.save(song);
+        catalogSearchIndex.indexSong(savedSong);
+        return savedSong;
     }
 
     /**
@@ -137,16 +152,8 @@ public class SongService {
         List<Song> songs = songRepository.findByArtistId(artistId);
 
         // Get artist name once
-        String artistName;
-        try {
-            artistName = userServiceClient.getUserById(artistId).getArtistName();
-        } catch (Exception e) {
-            log.warn("Failed to fetch artist name for artistId: {}, using fallback", artistId);
-            artistName = "Artist #" + artistId;
-        }
-
-        // Convert all songs to DTOs with the artist name
-        final String finalArtistName = artistName;
+        final String finalArtistName = artistProfileCache.getArtistNames(List.of(artistId))
+                .getOrDefault(artistId, "Artist #" + artistId);
         return songs.stream()
                 .map(song -> SongDTO.fromSong(song, finalArtistName))
                 .collect(Collectors.toList());
@@ -267,7 +274,9 @@ public class SongService {
         song.setRejectionReason(null);
         song.setPublished(false); // Ocultar hasta nueva aprobación
 
-        return songRepository.save(song);
+        Song savedSong = songRepository.save(song);
+        catalogSearchIndex.indexSong(savedSong);
+        return savedSong;
     }
 
     /**
@@ -285,71 +294,29 @@ public class SongService {
             throw new IllegalArgumentException("Song not found with id: " + id);
         }
         songRepository.deleteById(id);
+        catalogSearchIndex.removeSong(id);
     }
 
     /**
      * Incrementa el contador de reproducciones de una canción.
      * <p>
-     * Método atómico llamado cada vez que un usuario escucha la canción por más de 30 segundos.
-     * Fundamental para el cálculo de tendencias y regalías.
+     * Método llamado cada vez que un usuario escucha la canción por más de 30 segundos.
+     * Fundamental para el cálculo de tendencias y regalías. La reproducción se acumula en el
+     * {@link PlayCounter} y se persiste en el siguiente volcado, sin acceder a la base de datos;
+     * la existencia de la canción se comprueba contra el {@link CatalogSearchIndex} cuando está cargado.
+     * El evento (canción, usuario, instante) se añade además al {@link PlayJournal} para las métricas por ventana.
      * </p>
      *
      * @param id ID de la canción.
-     * @return La canción con el contador actualizado.
+     * @param userId ID del usuario que reproduce, o {@code null} si es anónimo.
      * @throws IllegalArgumentException Si la canción no existe.
      */
-    @Transactional
-    public Song incrementPlays(Long id) {
-        Song song = getSongById(id);
-        song.setPlays(song.getPlays() + 1);
-        return songRepository.save(song);
-    }
-
-    /**
-     * Método auxiliar privado para notificar a los seguidores sobre un nuevo lanzamiento.
-     * <p>
-     * Se ejecuta tras la aprobación exitosa de un contenido. Obtiene la lista de seguidores
-     * del artista y envía una notificación individual a cada uno.
-     * </p>
-     *
-     * @param product El producto (Canción o Álbum) que acaba de ser publicado.
-     */
-    private void notifyFollowersNewProduct(Product product) {
-        try {
-            // Obtener seguidores del artista
-            List<Long> followerIds = userServiceClient.getFollowerIds(product.getArtistId());
-
-            if (followerIds.isEmpty()) {
-                log.debug("Artista {} no tiene seguidores para notificar", product.getArtistId());
-                return;
-            }
-
-            // Obtener información del artista
-            UserDTO artist = userServiceClient.getUserById(product.getArtistId());
-            String artistName = artist != null && artist.getArtistName() != null
-                ? artist.getArtistName()
-                : (artist != null ? artist.getUsername() : "Artista");
-
-            // Enviar notificación a cada seguidor
-            for (Long followerId : followerIds) {
-                try {
-                    notificationClient.notifyNewProduct(
-                        followerId,
-                        product.getProductType(),
-                        product.getTitle(),
-                        artistName
-                    );
-                } catch (Exception e) {
-                    log.warn("Failed to notify follower {} about new product {}", followerId, product.getId(), e);
-                }
-            }
-
-            log.info("Notificados {} seguidores sobre nuevo producto: {} ({})",
-                followerIds.size(), product.getTitle(), product.getProductType());
-
-        } catch (Exception e) {
-            log.error("Error notifying followers about new product {}", product.getId(), e);
+    public void incrementPlays(Long id, Long userId) {
+        if (catalogSearchIndex.isReady() && !catalogSearchIndex.containsSong(id)) {
+            throw new IllegalArgumentException("Song not found with id: " + id);
         }
+        playCounter.record(id);
+        playJournal.append(id, userId, System.currentTimeMillis());
     }
 
     /**
@@ -377,14 +344,14 @@ public class SongService {
         }
 
         song.setPublished(published);
+        Song savedSong = songRepository.save(song);
+        catalogSearchIndex.indexSong(savedSong);
 
-        // Notificar a los seguidores sobre el nuevo contenido publicado
-        try {
-            notifyFollowersNewProduct(song);
-        } catch (Exception e) {
-            log.error("Failed to notify followers about new song {}", song.getId(), e);
+        // Notificar a los seguidores sobre el nuevo contenido publicado (tras el commit, en segundo plano)
+        if (published) {
+            followerFanOutService.enqueueNewRelease(savedSong);
         }
-        return songRepository.save(song);
+        return savedSong;
     }
 
     /**
@@ -440,46 +407,40 @@ public class SongService {
      
     /**
      * Convierte una entidad {@link Song} a un {@link SongDTO}.
-     * <p>
-     * Realiza una llamada síncrona al {@code UserServiceClient} para obtener el nombre real del artista.
-     * Si la llamada falla, utiliza un nombre de respaldo ("Artist #ID").
-     * </p>
      *
      * @param song La entidad a convertir.
      * @return El DTO enriquecido.
+     * @see #convertToDTOs(List)
      */
     private SongDTO convertToDTO(Song song) {
-        try {
-            String fetchedName = userServiceClient.getUserById(song.getArtistId()).getArtistName();
-            
-            song.setArtistName(fetchedName);
-            
-        } catch (Exception e) {
-            log.warn("Failed to fetch artist name for artistId: {}, using fallback", song.getArtistId());
-            song.setArtistName("Artista #" + song.getArtistId());
-        }
-
-        if (song.getArtistName() == null || song.getArtistName().trim().isEmpty()) {
-            song.setArtistName("Artista #" + song.getArtistId());
-        }
-
-        return SongDTO.fromSong(song, song.getArtistName());
+        return convertToDTOs(List.of(song)).get(0);
     }
- 
+
     /**
      * Convierte una lista de entidades a una lista de DTOs.
      * <p>
-     * Aplica la conversión individual {@link #convertToDTO} a cada elemento.
+     * Los nombres de los artistas de toda la lista se obtienen de {@link ArtistProfileCache} de una vez
+     * (como mucho una llamada al servicio de usuarios para los que no estén en caché). Si un nombre no está
+     * disponible, se utiliza uno de respaldo ("Artista #ID").
      * </p>
      *
      * @param songs Lista de entidades.
      * @return Lista de DTOs.
      */
     private List<SongDTO> convertToDTOs(List<Song> songs) {
+        Map<Long, String> artistNames = artistProfileCache.getArtistNames(
+                songs.stream().map(Song::getArtistId).toList());
         return songs.stream()
-                .map(this::convertToDTO)
+                .map(song -> {
+                    song.setArtistName(artistNames.getOrDefault(song.getArtistId(), "Artista #" + song.getArtistId()));
+                    return SongDTO.fromSong(song, song.getArtistName());
+                })
                 .collect(Collectors.toList());
     }
+
+    private static PageCursor cursorOf(Song song) {
+        return new PageCursor(song.getCreatedAt().toString(), song.getId());
+    }
  
     /**
      * Obtiene el listado completo de canciones registradas en el sistema.
@@ -493,6 +454,26 @@ public class SongService {
     public List<SongDTO> getAllSongsWithArtistName() {
         return convertToDTOs(songRepository.findAll());
     }
+
+    /**
+     * Obtiene una página del listado completo de canciones, de la más reciente a la más antigua.
+     * <p>
+     * Paginación por cursor sobre {@code (createdAt, id)}: el tamaño de la respuesta es constante y las páginas
+     * profundas no recorren las anteriores. Solo se resuelve el nombre del artista de las canciones de la página.
+     * </p>
+     *
+     * @param cursor Cursor devuelto por la página anterior, o {@code null} para la primera página.
+     * @param limit  Tamaño de página (opcional, acotado).
+     * @return Página de DTOs enriquecidos con el nombre del artista.
+     * @throws IllegalArgumentException Si el cursor no es válido.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SongDTO> getSongsPageWithArtistName(String cursor, Integer limit) {
+        PageCursor from = PageCursor.decode(cursor, PageCursor.NEWEST);
+        int size = PageCursor.pageSize(limit);
+        List<Song> rows = songRepository.findPageBefore(from.time(), from.id(), PageRequest.of(0, size + 1));
+        return PageCursor.page(rows, size, SongService::cursorOf, this::convertToDTOs);
+    }
  
     /**
      * Obtiene el detalle de una canción específica por su ID.
@@ -516,6 +497,34 @@ public class SongService {
     public List<SongDTO> getSongsByAlbumWithArtistName(Long albumId) {
         return convertToDTOs(songRepository.findByAlbumId(albumId));
     }
+
+    /**
+     * Obtiene los IDs de las canciones de varios álbumes con una sola consulta.
+     * <p>
+     * Usado por el servicio de comercio para añadir a la biblioteca las canciones de todos los álbumes de una orden.
+     * </p>
+     *
+     * @param albumIds IDs de los álbumes (como máximo {@link #MAX_ALBUM_BATCH_SIZE}).
+     * @return Mapa {@code albumId -> IDs de sus canciones} en orden de pista, con una entrada (vacía si no tiene
+     *         canciones) por cada álbum pedido.
+     * @throws IllegalArgumentException Si se piden más de {@link #MAX_ALBUM_BATCH_SIZE} álbumes.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<Long>> getSongIdsByAlbumIds(Collection<Long> albumIds) {
+        Set<Long> ids = new LinkedHashSet<>(albumIds);
+        if (ids.size() > MAX_ALBUM_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size exceeds maximum of " + MAX_ALBUM_BATCH_SIZE);
+        }
+        Map<Long, List<Long>> songIds = new LinkedHashMap<>();
+        ids.forEach(id -> songIds.put(id, new ArrayList<>()));
+        if (ids.isEmpty()) {
+            return songIds;
+        }
+        for (Object[] row : songRepository.findIdsByAlbumIdIn(ids)) {
+            songIds.get(((Number) row[0]).longValue()).add(((Number) row[1]).longValue());
+        }
+        return songIds;
+    }
  
     /**
      * Obtiene todas las canciones clasificadas bajo un género específico.
@@ -526,6 +535,25 @@ public class SongService {
     public List<SongDTO> getSongsByGenreWithArtistName(Long genreId) {
         return convertToDTOs(songRepository.findByGenreId(genreId));
     }
+
+    /**
+     * Obtiene una página de las canciones de un género, de la más reciente a la más antigua.
+     *
+     * @param genreId ID del género musical.
+     * @param cursor  Cursor devuelto por la página anterior, o {@code null} para la primera página.
+     * @param limit   Tamaño de página (opcional, acotado).
+     * @return Página de DTOs enriquecidos con el nombre del artista.
+     * @throws IllegalArgumentException Si el cursor no es válido.
+     * @see #getSongsPageWithArtistName(String, Integer)
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<SongDTO> getSongsByGenrePageWithArtistName(Long genreId, String cursor, Integer limit) {
+        PageCursor from = PageCursor.decode(cursor, PageCursor.NEWEST);
+        int size = PageCursor.pageSize(limit);
+        List<Song> rows = songRepository.findByGenreIdPageBefore(genreId, from.time(), from.id(),
+                PageRequest.of(0, size + 1));
+        return PageCursor.page(rows, size, SongService::cursorOf, this::convertToDTOs);
+    }
  
     /**
      * Recupera las canciones más recientes (Vista administrativa).
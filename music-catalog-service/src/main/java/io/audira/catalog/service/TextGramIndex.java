@@ -0,0 +1,128 @@
+package io.audira.catalog.service;
+
+import java.util.*;
+
+/**
+ * Índice de n-gramas (1 a 3 caracteres) para búsquedas por subcadena sobre textos ya normalizados.
+ * <p>
+ * Reproduce la semántica de {@code LIKE '%query%'}: las consultas de hasta 3 caracteres se resuelven
+ * directamente con la lista del n-grama; las más largas intersecan las listas de sus trigramas y verifican
+ * cada candidato con {@link String#contains(CharSequence)}.
+ * </p>
+ * <p>
+ * <b>No es seguro para hilos:</b> el propietario del índice es responsable de la sincronización.
+ * </p>
+ *
+ * @see CatalogSearchIndex
+ * @see ArtistDirectory
+ */
+final class TextGramIndex {
+
+    /** Longitud máxima de los n-gramas indexados. */
+    private static final int MAX_GRAM_SIZE = 3;
+
+    private final Map<Long, String> texts = new HashMap<>();
+    private final Map<String, Set<Long>> grams = new HashMap<>();
+
+    /**
+     * Indexa (o reemplaza) el texto asociado a un ID.
+     *
+     * @param id   Identificador del documento.
+     * @param text Texto ya normalizado.
+     */
+    void put(Long id, String text) {
+        remove(id);
+        texts.put(id, text);
+        for (String gram : grams(text)) {
+            grams.computeIfAbsent(gram, k -> new HashSet<>()).add(id);
+        }
+    }
+
+    /**
+     * Elimina del índice el texto asociado a un ID.
+     *
+     * @param id Identificador del documento.
+     */
+    void remove(Long id) {
+        String previous = texts.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous)) {
+            Set<Long> posting = grams.get(gram);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    grams.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Devuelve los IDs cuyo texto contiene la consulta.
+     *
+     * @param query Consulta ya normalizada y no vacía.
+     * @return Conjunto de IDs coincidentes (no debe modificarse).
+     */
+    Set<Long> matches(String query) {
+        if (query.length() <= MAX_GRAM_SIZE) {
+            // Todas las subcadenas de hasta 3 caracteres están indexadas: la lista es exacta
+            return grams.getOrDefault(query, Collections.emptySet());
+        }
+
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String gram : trigrams(query)) {
+            Set<Long> posting = grams.get(gram);
+            if (posting == null) {
+                return Collections.emptySet();
+            }
+            postings.add(posting);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> result = new HashSet<>();
+        for (Long id : postings.get(0)) {
+            String text = texts.get(id);
+            if (text != null && text.contains(query)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Número de documentos indexados.
+     *
+     * @return Tamaño del índice.
+     */
+    int size() {
+        return texts.size();
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    void clear() {
+        texts.clear();
+        grams.clear();
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> result = new HashSet<>();
+        for (int size = 1; size <= MAX_GRAM_SIZE; size++) {
+            for (int i = 0; i + size <= text.length(); i++) {
+                result.add(text.substring(i, i + size));
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + MAX_GRAM_SIZE <= text.length(); i++) {
+            result.add(text.substring(i, i + MAX_GRAM_SIZE));
+        }
+        return result;
+    }
+}
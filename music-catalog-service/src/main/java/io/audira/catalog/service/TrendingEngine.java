@@ -0,0 +1,261 @@
+package io.audira.catalog.service;
+
+import io.audira.catalog.dto.PurchasedItemDTO;
+import io.audira.catalog.model.Album;
+import io.audira.catalog.model.Song;
+import io.audira.catalog.repository.AlbumRepository;
+import io.audira.catalog.repository.SongRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Motor de tendencias en memoria para canciones y álbumes.
+ * <p>
+ * Mantiene puntuaciones con decaimiento exponencial ({@link DecayingTopK}) alimentadas por:
+ * <ul>
+ * <li><b>Reproducciones:</b> cada volcado de {@link PlayCounter} suma las reproducciones acumuladas a la canción,
+ * a su álbum y a los rankings de sus géneros.</li>
+ * <li><b>Compras:</b> las compras entregadas que consume {@link RecommendationEngine} del feed de Commerce Service
+ * suman {@code audira.trending.purchase-weight}, con el decaimiento correspondiente a su fecha de compra.</li>
+ * </ul>
+ * </p>
+ * <p>
+ * Hay un ranking global de canciones, otro de álbumes, y uno de cada tipo por género. Para los álbumes,
+ * los eventos de una canción cuentan en los géneros de la canción; las compras de álbum, en los del álbum.
+ * Los rankings solo contienen IDs: {@link DiscoveryService} los hidrata y descarta lo que ya no esté publicado.
+ * </p>
+ */
+@Service
+@Slf4j
+public class TrendingEngine {
+
+    private static final String SONG = "SONG";
+    private static final String ALBUM = "ALBUM";
+
+    private static final float PLAY_WEIGHT = 1f;
+
+    private final SongRepository songRepository;
+    private final AlbumRepository albumRepository;
+
+    private final long halfLifeMs;
+    private final int capacity;
+    private final float purchaseWeight;
+
+    private final DecayingTopK songs;
+    private final DecayingTopK albums;
+    private final Map<Long, DecayingTopK> songsByGenre = new ConcurrentHashMap<>();
+    private final Map<Long, DecayingTopK> albumsByGenre = new ConcurrentHashMap<>();
+
+    /** Ventana de solapamiento con la que el recomendador relee el feed de compras. */
+    private final long purchaseOverlapMs;
+
+    /**
+     * Fecha de compra más reciente aplicada. Lo anterior a esta marca menos la ventana de solapamiento ya se aplicó:
+     * el recomendador relee el feed completo en cada reconstrucción.
+     */
+    private LocalDateTime purchaseWatermark;
+
+    /** ID → fecha de compra de los registros aplicados que aún pueden releerse; se poda con la marca de agua. */
+    private final Map<Long, LocalDateTime> recentPurchases = new HashMap<>();
+
+    public TrendingEngine(SongRepository songRepository,
+                          AlbumRepository albumRepository,
+                          @Value("${audira.trending.half-life-hours:24}") long halfLifeHours,
+                          @Value("${audira.trending.capacity:100}") int capacity,
+                          @Value("${audira.trending.purchase-weight:5}") float purchaseWeight,
+                          @Value("${audira.recommendations.feed-overlap-ms:5000}") long purchaseOverlapMs) {
+        this.songRepository = songRepository;
+        this.albumRepository = albumRepository;
+        this.halfLifeMs = halfLifeHours * 3_600_000L;
+        this.capacity = capacity;
+        this.purchaseWeight = purchaseWeight;
+        this.purchaseOverlapMs = purchaseOverlapMs;
+        long now = System.currentTimeMillis();
+        this.songs = new DecayingTopK(halfLifeMs, capacity, now);
+        this.albums = new DecayingTopK(halfLifeMs, capacity, now);
+    }
+
+    /**
+     * Registra las reproducciones de un volcado del {@link PlayCounter}.
+     *
+     * @param playsBySong Reproducciones acumuladas por canción desde el volcado anterior.
+     */
+    public void recordPlays(Map<Long, Long> playsBySong) {
+        if (playsBySong.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Song song : songRepository.findAllById(playsBySong.keySet())) {
+            if (song.isPublished()) {
+                recordSongEvent(song.getId(), song.getAlbumId(), song.getGenreIds(),
+                        PLAY_WEIGHT * playsBySong.get(song.getId()), now, now);
+            }
+        }
+    }
+
+    /**
+     * Aplica un lote del feed de compras.
+     * <p>
+     * Ignora los registros ya aplicados, porque el recomendador recorre el feed desde el principio en cada
+     * reconstrucción y relee una ventana de solapamiento en cada consulta: los anteriores a la ventana por fecha de
+     * compra y los de la ventana por ID. El recomendador ya descarta las canciones concedidas con un álbum, y la
+     * compra de una canción suelta no puntúa a su álbum.
+     * </p>
+     *
+     * @param batch Lote ordenado por fecha de compra e ID.
+     */
+    public synchronized void recordPurchases(List<PurchasedItemDTO> batch) {
+        LocalDateTime horizon = purchaseWatermark != null
+                ? purchaseWatermark.minusNanos(purchaseOverlapMs * 1_000_000L) : null;
+        List<PurchasedItemDTO> fresh = batch.stream()
+                .filter(item -> item.getId() != null && item.getItemId() != null && item.getPurchasedAt() != null)
+                .filter(item -> horizon == null || !item.getPurchasedAt().isBefore(horizon))
+                .filter(item -> !recentPurchases.containsKey(item.getId()))
+                .collect(Collectors.toList());
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Song> songsById = songRepository.findAllById(idsOfType(fresh, SONG)).stream()
+                .collect(Collectors.toMap(Song::getId, Function.identity()));
+        Map<Long, Album> albumsById = albumRepository.findAllById(idsOfType(fresh, ALBUM)).stream()
+                .collect(Collectors.toMap(Album::getId, Function.identity()));
+
+        long now = System.currentTimeMillis();
+        for (PurchasedItemDTO item : fresh) {
+            long eventTime = toEpochMillis(item.getPurchasedAt(), now);
+            if (SONG.equals(item.getItemType())) {
+                Song song = songsById.get(item.getItemId());
+                if (song != null) {
+                    // La popularidad de un álbum solo cuenta sus propias compras (registros ALBUM)
+                    recordSongEvent(song.getId(), null, song.getGenreIds(), purchaseWeight, eventTime, now);
+                }
+            } else if (ALBUM.equals(item.getItemType())) {
+                Album album = albumsById.get(item.getItemId());
+                if (album != null) {
+                    albums.add(album.getId(), purchaseWeight, eventTime, now);
+                    for (Long genreId : album.getGenreIds()) {
+                        genreList(albumsByGenre, genreId).add(album.getId(), purchaseWeight, eventTime, now);
+                    }
+                }
+            }
+        }
+        for (PurchasedItemDTO item : fresh) {
+            recentPurchases.put(item.getId(), item.getPurchasedAt());
+            if (purchaseWatermark == null || item.getPurchasedAt().isAfter(purchaseWatermark)) {
+                purchaseWatermark = item.getPurchasedAt();
+            }
+        }
+        LocalDateTime forgetBefore = purchaseWatermark.minusNanos(purchaseOverlapMs * 1_000_000L);
+        recentPurchases.values().removeIf(purchasedAt -> purchasedAt.isBefore(forgetBefore));
+    }
+
+    /**
+     * Renormaliza periódicamente todos los rankings y libera las claves inactivas.
+     */
+    @Scheduled(fixedDelayString = "${audira.trending.rebase-interval-ms:3600000}",
+            initialDelayString = "${audira.trending.rebase-interval-ms:3600000}")
+    public void rebase() {
+        long now = System.currentTimeMillis();
+        songs.rebase(now);
+        albums.rebase(now);
+        songsByGenre.values().forEach(list -> list.rebase(now));
+        albumsByGenre.values().forEach(list -> list.rebase(now));
+        log.debug("Trending rankings rebased: {} songs and {} albums tracked", songs.tracked(), albums.tracked());
+    }
+
+    /**
+     * Número máximo de posiciones de cada ranking.
+     *
+     * @return Capacidad configurada.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Canciones en tendencia.
+     *
+     * @param limit Número máximo de resultados.
+     * @return IDs de canciones, de mayor a menor puntuación.
+     */
+    public long[] topSongs(int limit) {
+        return songs.top(limit);
+    }
+
+    /**
+     * Álbumes en tendencia.
+     *
+     * @param limit Número máximo de resultados.
+     * @return IDs de álbumes, de mayor a menor puntuación.
+     */
+    public long[] topAlbums(int limit) {
+        return albums.top(limit);
+    }
+
+    /**
+     * Canciones en tendencia de un género.
+     *
+     * @param genreId ID del género.
+     * @param limit   Número máximo de resultados.
+     * @return IDs de canciones, de mayor a menor puntuación.
+     */
+    public long[] topSongsByGenre(Long genreId, int limit) {
+        DecayingTopK list = songsByGenre.get(genreId);
+        return list != null ? list.top(limit) : new long[0];
+    }
+
+    /**
+     * Álbumes en tendencia de un género.
+     *
+     * @param genreId ID del género.
+     * @param limit   Número máximo de resultados.
+     * @return IDs de álbumes, de mayor a menor puntuación.
+     */
+    public long[] topAlbumsByGenre(Long genreId, int limit) {
+        DecayingTopK list = albumsByGenre.get(genreId);
+        return list != null ? list.top(limit) : new long[0];
+    }
+
+    private void recordSongEvent(long songId, Long albumId, Collection<Long> genreIds, float weight,
+                                 long eventTime, long now) {
+        songs.add(songId, weight, eventTime, now);
+        if (albumId != null) {
+            albums.add(albumId, weight, eventTime, now);
+        }
+        for (Long genreId : genreIds) {
+            genreList(songsByGenre, genreId).add(songId, weight, eventTime, now);
+            if (albumId != null) {
+                genreList(albumsByGenre, genreId).add(albumId, weight, eventTime, now);
+            }
+        }
+    }
+
+    private DecayingTopK genreList(Map<Long, DecayingTopK> lists, Long genreId) {
+        return lists.computeIfAbsent(genreId, id -> new DecayingTopK(halfLifeMs, capacity, System.currentTimeMillis()));
+    }
+
+    private static List<Long> idsOfType(List<PurchasedItemDTO> items, String itemType) {
+        return items.stream()
+                .filter(item -> itemType.equals(item.getItemType()))
+                .map(PurchasedItemDTO::getItemId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private static long toEpochMillis(LocalDateTime time, long now) {
+        if (time == null) {
+            return now;
+        }
+        return Math.min(now, time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+}